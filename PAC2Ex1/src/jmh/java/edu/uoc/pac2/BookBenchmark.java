@@ -0,0 +1,116 @@
+package edu.uoc.pac2;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures every {@link Book} setter with a valid value and every predicate, to catch regressions in the checks.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BookBenchmark {
+
+    /**
+     * Book under test.
+     */
+    private Book book;
+
+    /**
+     * Book compared with {@link #book}.
+     */
+    private Book other;
+
+    /**
+     * Values set, in fields so that they are not constant folded.
+     */
+    private String title = "The Name of the Wind";
+    private String author = "Patrick Rothfuss";
+    private String genre = "Fantasy";
+    private String publisher = "Penguin Random House (UK), Ltd.";
+    private LocalDate releaseDate = LocalDate.of(2007, 3, 27);
+    private String language = "Portuguese";
+    private String isbn = "978-0-7564-0407-9";
+    private double price = 19.99;
+    private double discount = 15;
+
+    @Setup
+    public void setUp() {
+        book = new Book(title, author, genre, publisher, releaseDate, language, "9780756404079", price);
+        other = new Book("Dune", "Frank Herbert", "Science Fiction", "Chilton Books", LocalDate.of(1965, 8, 1),
+                "English", "9780441013593", 9.99);
+    }
+
+    @Benchmark
+    public Book setTitle() {
+        book.setTitle(title);
+        return book;
+    }
+
+    @Benchmark
+    public Book setAuthor() {
+        book.setAuthor(author);
+        return book;
+    }
+
+    @Benchmark
+    public Book setGenre() {
+        book.setGenre(genre);
+        return book;
+    }
+
+    @Benchmark
+    public Book setPublisher() {
+        book.setPublisher(publisher);
+        return book;
+    }
+
+    @Benchmark
+    public Book setReleaseDate() {
+        book.setReleaseDate(releaseDate);
+        return book;
+    }
+
+    @Benchmark
+    public Book setLanguage() {
+        book.setLanguage(language);
+        return book;
+    }
+
+    @Benchmark
+    public Book setIsbn() {
+        book.setIsbn(isbn);
+        return book;
+    }
+
+    @Benchmark
+    public Book setPrice() {
+        book.setPrice(price);
+        return book;
+    }
+
+    @Benchmark
+    public boolean isCheaperThan() {
+        return book.isCheaperThan(other);
+    }
+
+    @Benchmark
+    public boolean isWrittenBy() {
+        return book.isWrittenBy("PATRICK ROTHFUSS");
+    }
+
+    @Benchmark
+    public boolean isClassic() {
+        return other.isClassic();
+    }
+
+    @Benchmark
+    public double applyDiscount() {
+        return book.applyDiscount(discount);
+    }
+}
@@ -1,7 +1,6 @@
 package edu.uoc.pac2;
 
 import java.time.LocalDate;
-import java.util.regex.Pattern;
 
 public class Book {
     private String title;
@@ -12,8 +11,6 @@ public class Book {
     private String language;
     private String isbn;
     private double price;
-    private final String[] validLanguages = new String[]{"English", "Spanish", "French", "German", "Chinese", "Japanese",
-            "Russian", "Arabic", "Portuguese", "Italian"};
 
     //constructors
     public Book(String title, String author, String genre, String publisher, LocalDate releaseDate,
@@ -34,8 +31,7 @@ public class Book {
     }
 
     public void setTitle(String title) {
-        //regular expression
-        if (title != null && title.matches("^[a-zA-Z\\s-]+$")) {
+        if (FieldValidator.isValidTitle(title)) {
             this.title = title;
         } else {
             System.out.println("[ERROR] Invalid title format.");
@@ -67,7 +63,7 @@ public class Book {
     }
 
     private boolean isEmpty(String str) {
-        return str == null || str.trim().isEmpty();
+        return FieldValidator.isBlank(str);
     }
 
     public String getPublisher() {
@@ -75,18 +71,7 @@ public class Book {
     }
 
     public void setPublisher(String publisher) {
-        // check if publisher is null
-        if (publisher == null) {
-            System.out.println("[ERROR] Invalid publisher format.");
-            return;
-        }
-
-        // Create a regex pattern to check if the publisher contains only allowed characters
-        Pattern pattern = Pattern.compile("^[a-zA-Z0-9 ,.()]+$");
-
-        // Check if the publisher matches the regex pattern
-        if (pattern.matcher(publisher).matches()) {
-            // If the format is correct, assign the value to the publisher property
+        if (FieldValidator.isValidPublisher(publisher)) {
             this.publisher = publisher;
         } else {
             System.out.println("[ERROR] Invalid publisher format.");
@@ -98,10 +83,7 @@ public class Book {
     }
 
     public void setReleaseDate(LocalDate releaseDate) {
-        LocalDate now = LocalDate.now();
-        LocalDate twoHundredYearsAgo = now.minusYears(200);
-
-        if (releaseDate != null && !releaseDate.isAfter(now) && !releaseDate.isBefore(twoHundredYearsAgo)) {
+        if (releaseDate != null && CatalogClock.current().isValidRelease(releaseDate.toEpochDay())) {
             this.releaseDate = releaseDate;
         } else {
             System.out.println("[ERROR] Invalid release date. It should be within the last 200 years and not in the future.");
@@ -115,19 +97,14 @@ public class Book {
 
     public void setLanguage(String language) {
         if (isValidLanguage(language)) {
-            this.language = language;
+            this.language = Language.fromName(language).getName();
         } else {
             System.out.println("[ERROR] Invalid language.");
         }
     }
 
     private boolean isValidLanguage(String language) {
-        for (String validLang : validLanguages) {
-            if (validLang.equals(language)) {
-                return true;
-            }
-        }
-        return false;
+        return FieldValidator.isValidLanguage(language);
     }
 
     public String getIsbn() {
@@ -135,14 +112,9 @@ public class Book {
     }
 
     public void setIsbn(String isbn) {
-        if (isbn != null) {
-            // delete all characters except numbers
-            String buffer = isbn.replaceAll("[^0-9]", "");
-            if (buffer.length() == 10 || buffer.length() == 13) {
-                this.isbn = buffer;
-            } else {
-                System.out.println("[ERROR] Invalid ISBN format.");
-            }
+        if (FieldValidator.isValidIsbn(isbn)) {
+            // keep only the digits
+            this.isbn = FieldValidator.normalizeIsbn(isbn);
         } else {
             System.out.println("[ERROR] Invalid ISBN format.");
         }
@@ -161,7 +133,7 @@ public class Book {
     }
 
     public String[] getValidLanguages() {
-        return validLanguages;
+        return Language.names();
     }
 
     public boolean isCheaperThan(Book otherBook) {
@@ -177,8 +149,7 @@ public class Book {
     }
 
     public boolean isClassic() {
-        LocalDate fiftyYearsAgo = LocalDate.now().minusYears(50);
-        return releaseDate.isBefore(fiftyYearsAgo);
+        return CatalogClock.current().isClassic(releaseDate.toEpochDay());
     }
 
     public double applyDiscount(double discountPercentage) {
@@ -0,0 +1,220 @@
+package edu.uoc.pac2;
+
+/**
+ * Shared registry of the languages a {@link Book} can be written in.
+ * <p>
+ * Names and ISO 639 codes are stored once in a small open addressing table hashed without case, so every lookup
+ * is O(1) and creates no objects. {@link Book#setLanguage} stores the shared name string of the constant, while
+ * the constructor keeps the language as given.
+ *
+ * @author Arnau López Pagès
+ * @version 1.0
+ */
+public enum Language {
+    ENGLISH("English", "en", "eng"),
+    SPANISH("Spanish", "es", "spa"),
+    FRENCH("French", "fr", "fra"),
+    GERMAN("German", "de", "deu"),
+    CHINESE("Chinese", "zh", "zho"),
+    JAPANESE("Japanese", "ja", "jpn"),
+    RUSSIAN("Russian", "ru", "rus"),
+    ARABIC("Arabic", "ar", "ara"),
+    PORTUGUESE("Portuguese", "pt", "por"),
+    ITALIAN("Italian", "it", "ita");
+
+    /**
+     * All the languages, indexed by id.
+     */
+    private static final Language[] VALUES = values();
+
+    /**
+     * Size of the lookup table, a power of two well above the number of keys.
+     */
+    private static final int TABLE_SIZE = 64;
+
+    /**
+     * Keys of the lookup table: names, ISO 639-1 and ISO 639-2 codes.
+     */
+    private static final String[] KEYS = new String[TABLE_SIZE];
+
+    /**
+     * Language of each key of the lookup table.
+     */
+    private static final Language[] TABLE = new Language[TABLE_SIZE];
+
+    static {
+        for (Language language : VALUES) {
+            put(language.name, language);
+            put(language.isoCode, language);
+            put(language.isoCode3, language);
+        }
+    }
+
+    /**
+     * Name used by the books, e.g. "English".
+     */
+    private final String name;
+
+    /**
+     * ISO 639-1 code, e.g. "en".
+     */
+    private final String isoCode;
+
+    /**
+     * ISO 639-2 code, e.g. "eng".
+     */
+    private final String isoCode3;
+
+    Language(String name, String isoCode, String isoCode3) {
+        this.name = name;
+        this.isoCode = isoCode;
+        this.isoCode3 = isoCode3;
+    }
+
+    /**
+     * Returns the name used by the books.
+     *
+     * @return language name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the ISO 639-1 code.
+     *
+     * @return two letter code.
+     */
+    public String getIsoCode() {
+        return isoCode;
+    }
+
+    /**
+     * Returns the ISO 639-2 code.
+     *
+     * @return three letter code.
+     */
+    public String getIsoCode3() {
+        return isoCode3;
+    }
+
+    /**
+     * Returns the compact id of the language, stable while the registry does not change.
+     *
+     * @return language id.
+     */
+    public int id() {
+        return ordinal();
+    }
+
+    /**
+     * Returns the language of an id.
+     *
+     * @param id language id.
+     * @return the language.
+     * @throws ArrayIndexOutOfBoundsException if the id is not valid.
+     */
+    public static Language fromId(int id) {
+        return VALUES[id];
+    }
+
+    /**
+     * Finds a language by its exact name, as the {@link Book} setters require.
+     *
+     * @param name language name, e.g. "English".
+     * @return the language or null if there is none with that exact name.
+     */
+    public static Language fromName(CharSequence name) {
+        Language language = lookup(name);
+        return language != null && language.name.contentEquals(name) ? language : null;
+    }
+
+    /**
+     * Finds a language by name, ISO 639-1 or ISO 639-2 code, ignoring case.
+     *
+     * @param key name or code, e.g. "english", "EN" or "eng".
+     * @return the language or null if the key is unknown.
+     */
+    public static Language lookup(CharSequence key) {
+        if (key == null) {
+            return null;
+        }
+        for (int slot = hash(key) & (TABLE_SIZE - 1); KEYS[slot] != null; slot = (slot + 1) & (TABLE_SIZE - 1)) {
+            if (equalsIgnoreCase(KEYS[slot], key)) {
+                return TABLE[slot];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the names of all the languages.
+     *
+     * @return a new array with the names, in id order.
+     */
+    public static String[] names() {
+        String[] names = new String[VALUES.length];
+        for (int i = 0; i < VALUES.length; i++) {
+            names[i] = VALUES[i].name;
+        }
+        return names;
+    }
+
+    /**
+     * Adds a key to the lookup table.
+     *
+     * @param key      name or code.
+     * @param language language of the key.
+     */
+    private static void put(String key, Language language) {
+        int slot = hash(key) & (TABLE_SIZE - 1);
+        while (KEYS[slot] != null) {
+            slot = (slot + 1) & (TABLE_SIZE - 1);
+        }
+        KEYS[slot] = key;
+        TABLE[slot] = language;
+    }
+
+    /**
+     * Hashes a key folding ASCII letters to lower case.
+     *
+     * @param key key to hash.
+     * @return case insensitive hash.
+     */
+    private static int hash(CharSequence key) {
+        int h = 0;
+        for (int i = 0; i < key.length(); i++) {
+            h = 31 * h + toLowerCase(key.charAt(i));
+        }
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Compares a key of the table with a candidate, ignoring the case of ASCII letters.
+     *
+     * @param key       key of the table.
+     * @param candidate candidate to compare.
+     * @return true if both are equal ignoring case.
+     */
+    private static boolean equalsIgnoreCase(String key, CharSequence candidate) {
+        if (key.length() != candidate.length()) {
+            return false;
+        }
+        for (int i = 0; i < key.length(); i++) {
+            if (toLowerCase(key.charAt(i)) != toLowerCase(candidate.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Folds an ASCII upper case letter to lower case.
+     *
+     * @param c character to fold.
+     * @return the folded character.
+     */
+    private static char toLowerCase(char c) {
+        return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+    }
+}
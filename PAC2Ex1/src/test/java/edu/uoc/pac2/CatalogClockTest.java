@@ -0,0 +1,87 @@
+package edu.uoc.pac2;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CatalogClockTest {
+
+    @AfterEach
+    public void restoreClock() {
+        CatalogClock.setCurrent(new CatalogClock(Clock.systemDefaultZone()));
+    }
+
+    @Test
+    public void testThresholds() {
+        CatalogClock clock = CatalogClock.fixed(LocalDate.of(2024, 2, 29));
+
+        assertEquals(LocalDate.of(2024, 2, 29).toEpochDay(), clock.today());
+        assertEquals(LocalDate.of(2024, 2, 29).minusYears(50).toEpochDay(), clock.classicThreshold());
+        assertEquals(LocalDate.of(2024, 2, 29).minusYears(200).toEpochDay(), clock.oldestRelease());
+
+        assertTrue(clock.isClassic(LocalDate.of(1974, 2, 27).toEpochDay()));
+        assertFalse(clock.isClassic(LocalDate.of(1974, 2, 28).toEpochDay()));
+
+        assertTrue(clock.isValidRelease(LocalDate.of(2024, 2, 29).toEpochDay()));
+        assertTrue(clock.isValidRelease(LocalDate.of(1824, 2, 29).toEpochDay()));
+        assertFalse(clock.isValidRelease(LocalDate.of(2024, 3, 1).toEpochDay()));
+        assertFalse(clock.isValidRelease(LocalDate.of(1824, 2, 28).toEpochDay()));
+    }
+
+    @Test
+    public void testDayChange() {
+        MutableClock source = new MutableClock(Instant.parse("2024-05-01T23:59:00Z"));
+        CatalogClock clock = new CatalogClock(source);
+        assertEquals(LocalDate.of(2024, 5, 1).toEpochDay(), clock.today());
+
+        source.instant = source.instant.plus(Duration.ofMinutes(2));
+        assertEquals(LocalDate.of(2024, 5, 2).toEpochDay(), clock.today());
+        assertEquals(LocalDate.of(1974, 5, 2).toEpochDay(), clock.classicThreshold());
+    }
+
+    @Test
+    public void testPinnedBookClock() {
+        CatalogClock.setCurrent(CatalogClock.fixed(LocalDate.of(2000, 1, 1)));
+        Book book = new Book("Sample Book", "John Doe", "Fiction", "Sample Publisher",
+                LocalDate.of(1949, 12, 31), "English", "1234567890", 29.99);
+
+        assertTrue(book.isClassic());
+        book.setReleaseDate(LocalDate.of(1950, 1, 1));
+        assertFalse(book.isClassic());
+
+        book.setReleaseDate(LocalDate.of(2000, 1, 2));
+        assertEquals(LocalDate.of(1950, 1, 1), book.getReleaseDate());
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant instant;
+
+        private MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
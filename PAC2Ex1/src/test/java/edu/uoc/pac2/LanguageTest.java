@@ -0,0 +1,61 @@
+package edu.uoc.pac2;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LanguageTest {
+
+    @Test
+    public void testFromName() {
+        assertSame(Language.ENGLISH, Language.fromName("English"));
+        assertSame(Language.PORTUGUESE, Language.fromName("Portuguese"));
+
+        assertNull(Language.fromName("english"));
+        assertNull(Language.fromName("en"));
+        assertNull(Language.fromName("Swedish"));
+        assertNull(Language.fromName(null));
+    }
+
+    @Test
+    public void testLookup() {
+        assertSame(Language.ENGLISH, Language.lookup("english"));
+        assertSame(Language.ENGLISH, Language.lookup("EN"));
+        assertSame(Language.GERMAN, Language.lookup("deu"));
+        assertSame(Language.CHINESE, Language.lookup(new StringBuilder("zh")));
+
+        assertNull(Language.lookup("sv"));
+        assertNull(Language.lookup(""));
+        assertNull(Language.lookup(null));
+    }
+
+    @Test
+    public void testIds() {
+        for (Language language : Language.values()) {
+            assertSame(language, Language.fromId(language.id()));
+            assertSame(language, Language.lookup(language.getIsoCode()));
+            assertSame(language, Language.lookup(language.getIsoCode3()));
+        }
+        assertThrows(ArrayIndexOutOfBoundsException.class, () -> Language.fromId(Language.values().length));
+    }
+
+    @Test
+    public void testNames() {
+        assertArrayEquals(new String[]{"English", "Spanish", "French", "German", "Chinese", "Japanese",
+                "Russian", "Arabic", "Portuguese", "Italian"}, Language.names());
+        Language.names()[0] = "Klingon";
+        assertEquals("English", Language.names()[0]);
+    }
+
+    @Test
+    public void testBookLanguage() {
+        Book book = new Book("Sample Book", "John Doe", "Fiction", "Sample Publisher",
+                LocalDate.now().minusDays(7), "it", "1234567890", 29.99);
+
+        assertEquals("it", book.getLanguage());
+        assertEquals(Language.ITALIAN, Language.lookup(book.getLanguage()));
+        assertArrayEquals(Language.names(), book.getValidLanguages());
+    }
+}
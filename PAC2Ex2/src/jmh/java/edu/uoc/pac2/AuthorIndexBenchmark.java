@@ -0,0 +1,86 @@
+package edu.uoc.pac2;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares finding the books of an author with {@link AuthorIndex} against scanning them with
+ * {@link Book#isWrittenBy}.
+ *
+ * @author Arnau López Pagès
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class AuthorIndexBenchmark {
+
+    /**
+     * Number of books.
+     */
+    @Param({"100000"})
+    private int books;
+
+    /**
+     * Books of the catalog.
+     */
+    private List<Book> catalog;
+
+    /**
+     * Index under test.
+     */
+    private AuthorIndex index;
+
+    /**
+     * Author looked up.
+     */
+    private String author;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        catalog = new ArrayList<>(books);
+        for (int i = 0; i < books; i++) {
+            catalog.add(new Book("Book " + i, "Author Número " + random.nextInt(10_000), "Fiction",
+                    "Sample Publisher", LocalDate.of(1983, 9, 12), "English", "1234567890", 29.99));
+        }
+        index = AuthorIndex.of(catalog);
+        author = catalog.get(books / 2).getAuthor().toUpperCase();
+    }
+
+    @Benchmark
+    public int[] scanIsWrittenBy() {
+        IntList ids = new IntList();
+        for (int id = 0; id < catalog.size(); id++) {
+            if (catalog.get(id).isWrittenBy(author)) {
+                ids.add(id);
+            }
+        }
+        return ids.toArray();
+    }
+
+    @Benchmark
+    public int[] indexBooksBy() {
+        return index.booksBy(author);
+    }
+
+    @Benchmark
+    public int indexIsWrittenBy() {
+        int key = index.keyOf(author);
+        int count = 0;
+        for (int id = 0; id < books; id++) {
+            if (index.isWrittenBy(id, key)) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,100 @@
+package edu.uoc.pac2;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link BookImporter} with reading a CSV file line by line, splitting it into strings and building the
+ * books with the validating setters.
+ *
+ * @author Arnau López Pagès
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class BookImporterBenchmark {
+
+    /**
+     * Number of rows of the file.
+     */
+    @Param({"1000000"})
+    private int rows;
+
+    /**
+     * Percentage of rows with an invalid field.
+     */
+    @Param({"0", "10"})
+    private int invalidPercent;
+
+    /**
+     * Imported file.
+     */
+    private Path file;
+
+    @Setup
+    public void setUp() throws IOException {
+        file = Files.createTempFile("books", ".csv");
+        Random random = new Random(42);
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            for (int i = 0; i < rows; i++) {
+                boolean invalid = random.nextInt(100) < invalidPercent;
+                writer.write(invalid ? "Sample Book 2" : "Sample Book");
+                writer.write(",Author " + random.nextInt(10_000) + ",Fiction,Sample Publisher,");
+                writer.write(LocalDate.of(1900 + random.nextInt(120), 1 + random.nextInt(12),
+                        1 + random.nextInt(28)).toString());
+                writer.write(",English," + (9780000000000L + i) + "," + (1 + random.nextInt(5000) / 100.0));
+                writer.newLine();
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.delete(file);
+    }
+
+    @Benchmark
+    public long importer() throws IOException {
+        long[] checksum = new long[1];
+        ImportReport report = BookImporter.csv().importFile(file, book -> checksum[0] += book.getTitle().length());
+        return report.getImported() + checksum[0];
+    }
+
+    @Benchmark
+    public long splitAndSetters() throws IOException {
+        long imported = 0;
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                String[] fields = line.split(",", -1);
+                try {
+                    Book book = new Book(null, null, null, null, null, null, null, 1);
+                    book.setTitle(fields[0]);
+                    book.setAuthor(fields[1]);
+                    book.setGenre(fields[2]);
+                    book.setPublisher(fields[3]);
+                    book.setReleaseDate(LocalDate.parse(fields[4]));
+                    book.setLanguage(fields[5]);
+                    book.setIsbn(fields[6]);
+                    book.setPrice(Double.parseDouble(fields[7]));
+                    imported += book.getTitle().length();
+                } catch (Exception e) {
+                    imported--;
+                }
+            }
+        }
+        return imported;
+    }
+}
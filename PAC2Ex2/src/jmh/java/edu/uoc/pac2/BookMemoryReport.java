@@ -0,0 +1,86 @@
+package edu.uoc.pac2;
+
+import org.openjdk.jol.info.GraphLayout;
+
+import java.time.LocalDate;
+import java.util.Random;
+
+/**
+ * Prints the retained bytes per book of a catalog of {@link Book} objects and of the same catalog as
+ * {@link ImmutableBook} objects built through a {@link StringPool}, measured with JOL.
+ * <p>
+ * Every book is given its own copy of each string, as when books are read from a file, so the report shows what
+ * interning saves. Run it with "gradle memoryReport", optionally "-Pbooks=N".
+ *
+ * @author Arnau López Pagès
+ * @version 1.0
+ */
+public final class BookMemoryReport {
+
+    /**
+     * Default number of books of the catalog.
+     */
+    private static final int BOOKS = 100_000;
+
+    private BookMemoryReport() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int books = args.length > 0 ? Integer.parseInt(args[0]) : BOOKS;
+        String[] languages = new Book("Title", "Author", "Genre", "Publisher", LocalDate.now(), "English",
+                "1234567890", 1).getValidLanguages();
+        Random random = new Random(42);
+
+        Book[] mutable = new Book[books];
+        ImmutableBook[] immutable = new ImmutableBook[books];
+        StringPool pool = new StringPool();
+        for (int i = 0; i < books; i++) {
+            String title = copy("Title " + letters(i));
+            String author = copy("Author " + letters(random.nextInt(books / 50 + 1)));
+            String genre = copy("Genre " + letters(random.nextInt(20)));
+            String publisher = copy("Publisher " + letters(random.nextInt(200)));
+            LocalDate releaseDate = LocalDate.ofEpochDay(random.nextInt(18_000));
+            String language = languages[random.nextInt(languages.length)];
+            String isbn = copy(String.valueOf(9_780_000_000_000L + i));
+            double price = 1 + random.nextInt(10_000) / 100.0;
+
+            mutable[i] = new Book(title, author, genre, publisher, releaseDate, language, isbn, price);
+            immutable[i] = ImmutableBook.builder(pool).title(title).author(author).genre(genre)
+                    .publisher(publisher).releaseDate(releaseDate).language(language).isbn(isbn).price(price)
+                    .build();
+        }
+
+        long before = GraphLayout.parseInstance((Object) mutable).totalSize();
+        long after = GraphLayout.parseInstance(immutable, pool).totalSize();
+        System.out.printf("books:                    %d%n", books);
+        System.out.printf("pooled strings:           %d%n", pool.size());
+        System.out.printf("Book bytes per book:      %.1f%n", (double) before / books);
+        System.out.printf("ImmutableBook bytes/book: %.1f (pool included)%n", (double) after / books);
+        System.out.printf("saved:                    %.1f%%%n", 100.0 * (before - after) / before);
+    }
+
+    /**
+     * Copies a string, so that each book holds its own instance.
+     *
+     * @param value string to copy.
+     * @return an equal but distinct string.
+     */
+    private static String copy(String value) {
+        return new String(value.toCharArray());
+    }
+
+    /**
+     * Spells a number with letters, because titles and publishers cannot hold digits.
+     *
+     * @param number number to spell.
+     * @return the number in base 26, written with lowercase letters.
+     */
+    private static String letters(int number) {
+        StringBuilder text = new StringBuilder();
+        do {
+            text.append((char) ('a' + number % 26));
+            number /= 26;
+        } while (number > 0);
+        return text.toString();
+    }
+}
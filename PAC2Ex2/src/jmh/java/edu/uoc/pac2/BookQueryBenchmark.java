@@ -0,0 +1,109 @@
+package edu.uoc.pac2;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how {@link BookQuery} scales with the number of threads, against filtering a list of books with their
+ * predicates.
+ *
+ * @author Arnau López Pagès
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class BookQueryBenchmark {
+
+    /**
+     * Number of books of the catalog.
+     */
+    @Param({"1000000"})
+    private int books;
+
+    /**
+     * Threads of the pool running the query.
+     */
+    @Param({"1", "2", "4", "8"})
+    private int threads;
+
+    /**
+     * Books filtered one by one.
+     */
+    private List<Book> list;
+
+    /**
+     * Catalog with the same books.
+     */
+    private BookCatalog catalog;
+
+    /**
+     * Pool of {@link #threads} threads.
+     */
+    private ForkJoinPool pool;
+
+    @Setup
+    public void setUp() {
+        String[] authors = new String[1000];
+        for (int i = 0; i < authors.length; i++) {
+            authors[i] = "Author " + i;
+        }
+        Random random = new Random(42);
+        list = new ArrayList<>(books);
+        for (int i = 0; i < books; i++) {
+            list.add(new Book("Book " + i, authors[random.nextInt(authors.length)], "Fiction", "Sample Publisher",
+                    LocalDate.of(1900 + random.nextInt(120), 1 + random.nextInt(12), 1 + random.nextInt(28)),
+                    "English", "1234567890", 1 + random.nextInt(5000) / 100.0));
+        }
+        catalog = BookCatalog.of(list);
+        pool = new ForkJoinPool(threads);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    /**
+     * Classics by an author under a price, the storefront query.
+     */
+    private BookQuery query() {
+        return BookQuery.on(catalog).classics().writtenBy("author 7").cheaperThan(25.0).parallel(pool);
+    }
+
+    @Benchmark
+    public int[] listFilter() {
+        IntList ids = new IntList();
+        for (int id = 0; id < list.size(); id++) {
+            Book book = list.get(id);
+            if (book.isClassic() && book.isWrittenBy("author 7") && book.getPrice() < 25.0) {
+                ids.add(id);
+            }
+        }
+        return ids.toArray();
+    }
+
+    @Benchmark
+    public int[] queryIds() {
+        return query().ids();
+    }
+
+    @Benchmark
+    public int[] queryFirst10() {
+        return BookQuery.on(catalog).cheaperThan(25.0).limit(10).parallel(pool).ids();
+    }
+
+    @Benchmark
+    public int[] queryCheapest10() {
+        return BookQuery.on(catalog).classics().parallel(pool).cheapest(10);
+    }
+}
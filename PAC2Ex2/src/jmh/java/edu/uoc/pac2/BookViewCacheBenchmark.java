@@ -0,0 +1,116 @@
+package edu.uoc.pac2;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the latency of {@link BookViewCache} lookups with LRU and W-TinyLFU eviction, against making the view
+ * on every request, and prints the hit rate of each policy.
+ * <p>
+ * The trace mixes requests for books of a Zipf-like popularity with scans, runs of {@link #SCAN} books asked for
+ * once, as a crawler or a listing export would do.
+ *
+ * @author Arnau López Pagès
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BookViewCacheBenchmark {
+
+    /**
+     * Length of a scan.
+     */
+    private static final int SCAN = 2_000;
+
+    /**
+     * Length of the trace, a power of two.
+     */
+    private static final int TRACE = 1 << 20;
+
+    /**
+     * Number of books.
+     */
+    @Param({"100000"})
+    private int books;
+
+    /**
+     * Maximum number of cached views.
+     */
+    @Param({"1000"})
+    private int capacity;
+
+    /**
+     * Eviction policy.
+     */
+    @Param({"LRU", "TINY_LFU"})
+    private BookViewCache.Policy policy;
+
+    /**
+     * Books asked for.
+     */
+    private Book[] catalog;
+
+    /**
+     * Positions in {@link #catalog} of the requests.
+     */
+    private int[] trace;
+
+    /**
+     * Cache under test.
+     */
+    private BookViewCache cache;
+
+    /**
+     * Next request of the trace.
+     */
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        catalog = new Book[books];
+        for (int i = 0; i < books; i++) {
+            catalog[i] = new Book("Book Title " + i, "Author " + random.nextInt(10_000), "Fiction", "Publisher",
+                    LocalDate.of(1900 + random.nextInt(120), 1, 1), "English", Isbn.toString(Isbn.toIsbn13(i)),
+                    1 + random.nextInt(5000) / 100.0);
+        }
+        trace = new int[TRACE];
+        double logBooks = Math.log(books);
+        int i = 0;
+        while (i < TRACE) {
+            if (random.nextInt(20_000) == 0) {
+                int start = random.nextInt(books);
+                for (int j = 0; j < SCAN && i < TRACE; j++) {
+                    trace[i++] = (start + j) % books;
+                }
+            } else {
+                int rank = (int) Math.exp(random.nextDouble() * logBooks) - 1;
+                trace[i++] = (int) ((rank * 0x9E3779B1L & 0xFFFFFFFFL) % books);
+            }
+        }
+        cache = policy == BookViewCache.Policy.LRU ? BookViewCache.lru(capacity) : BookViewCache.tinyLfu(capacity);
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.out.println(policy + ": " + cache.stats());
+        cache.close();
+    }
+
+    @Benchmark
+    public BookView cached() {
+        return cache.get(catalog[trace[next++ & (TRACE - 1)]]);
+    }
+
+    @Benchmark
+    public BookView uncached() throws Exception {
+        return BookView.of(catalog[trace[next++ & (TRACE - 1)]], 0);
+    }
+}
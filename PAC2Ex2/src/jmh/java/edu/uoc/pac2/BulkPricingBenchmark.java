@@ -0,0 +1,99 @@
+package edu.uoc.pac2;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares repricing a catalog book by book with {@link Book#applyDiscount} against the scalar and Vector API
+ * kernels of {@link BulkPricing}.
+ *
+ * @author Arnau López Pagès
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+@State(Scope.Benchmark)
+public class BulkPricingBenchmark {
+
+    /**
+     * Number of books of the catalog.
+     */
+    @Param({"1000", "1000000"})
+    private int books;
+
+    /**
+     * Books repriced one by one.
+     */
+    private Book[] catalog;
+
+    /**
+     * Price column.
+     */
+    private double[] prices;
+
+    /**
+     * Genre id of each price.
+     */
+    private int[] genres;
+
+    /**
+     * Discount rate of genre {@code g} at {@code g + 1}.
+     */
+    private double[] rates;
+
+    /**
+     * Discounted prices.
+     */
+    private double[] out;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        catalog = new Book[books];
+        prices = new double[books];
+        genres = new int[books];
+        out = new double[books];
+        for (int i = 0; i < books; i++) {
+            prices[i] = 0.01 + random.nextInt(10_000) / 100.0;
+            genres[i] = random.nextInt(20);
+            catalog[i] = new Book("Sample Book", "John Doe", "Fiction", "Sample Publisher",
+                    LocalDate.of(1983, 9, 12), "English", "1234567890", prices[i]);
+        }
+        rates = new double[21];
+        for (int genre = 0; genre < 20; genre++) {
+            rates[genre + 1] = genre / 100.0;
+        }
+    }
+
+    @Benchmark
+    public double[] bookApplyDiscount() {
+        for (int i = 0; i < books; i++) {
+            out[i] = catalog[i].applyDiscount(15);
+        }
+        return out;
+    }
+
+    @Benchmark
+    public double[] autoVectorized() {
+        BulkPricing.discountScalar(prices, 0.15, out, books);
+        return out;
+    }
+
+    @Benchmark
+    public double[] scalarByGenre() {
+        BulkPricing.discountScalar(prices, genres, rates, out, books);
+        return out;
+    }
+
+    @Benchmark
+    public double[] vectorByGenre() {
+        VectorPricing.discount(prices, genres, rates, out, books);
+        return out;
+    }
+}
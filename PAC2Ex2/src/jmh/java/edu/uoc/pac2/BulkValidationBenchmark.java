@@ -0,0 +1,110 @@
+package edu.uoc.pac2;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the row throughput of the throwing {@link Book} setters against the {@link BookValidator} bitmask for
+ * feeds with a growing ratio of invalid rows.
+ *
+ * @author Arnau López Pagès
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BulkValidationBenchmark {
+
+    /**
+     * Number of rows of the feed.
+     */
+    private static final int ROWS = 10_000;
+
+    /**
+     * Percentage of rows with one invalid field.
+     */
+    @Param({"0", "5", "50"})
+    private int invalidPercent;
+
+    /**
+     * Rows of the feed, one array of fields per row.
+     */
+    private Object[][] rows;
+
+    /**
+     * Book reused by the setter based validation.
+     */
+    private Book book;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        LocalDate today = LocalDate.now();
+        rows = new Object[ROWS][];
+        for (int i = 0; i < ROWS; i++) {
+            Object[] row = {"The Sample Book", "John Doe", "Fiction", "Sample Publisher", today.minusDays(i),
+                    "English", "978-1234567891", 29.99};
+            if (random.nextInt(100) < invalidPercent) {
+                // break one of the fields
+                switch (random.nextInt(4)) {
+                    case 0:
+                        row[0] = "Book #" + i;
+                        break;
+                    case 1:
+                        row[3] = "Publisher & Co";
+                        break;
+                    case 2:
+                        row[5] = "Klingon";
+                        break;
+                    default:
+                        row[7] = -1.0;
+                        break;
+                }
+            }
+            rows[i] = row;
+        }
+        book = new Book("Sample Book", "John Doe", "Fiction", "Sample Publisher", today, "English",
+                "1234567890", 29.99);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public int throwingSetters() {
+        int invalid = 0;
+        for (Object[] row : rows) {
+            try {
+                book.setTitle((String) row[0]);
+                book.setAuthor((String) row[1]);
+                book.setGenre((String) row[2]);
+                book.setPublisher((String) row[3]);
+                book.setReleaseDate((LocalDate) row[4]);
+                book.setLanguage((String) row[5]);
+                book.setIsbn((String) row[6]);
+                book.setPrice((Double) row[7]);
+            } catch (Exception e) {
+                invalid++;
+            }
+        }
+        return invalid;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public int bitmask() {
+        int invalid = 0;
+        for (Object[] row : rows) {
+            int errors = BookValidator.validate((String) row[0], (String) row[1], (String) row[2], (String) row[3],
+                    (LocalDate) row[4], (String) row[5], (String) row[6], (Double) row[7]);
+            if (errors != BookValidator.VALID) {
+                invalid++;
+            }
+        }
+        return invalid;
+    }
+}
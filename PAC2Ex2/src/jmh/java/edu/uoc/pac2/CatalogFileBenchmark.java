@@ -0,0 +1,173 @@
+package edu.uoc.pac2;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares saving and reloading a catalog with {@link CatalogFile} against a JSON round trip written and parsed
+ * with the Jackson streaming API.
+ *
+ * @author Arnau López Pagès
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class CatalogFileBenchmark {
+
+    /**
+     * Number of books of the catalog.
+     */
+    @Param({"1000000"})
+    private int books;
+
+    /**
+     * Catalog saved and reloaded.
+     */
+    private BookCatalog catalog;
+
+    /**
+     * Binary file of the catalog.
+     */
+    private Path binary;
+
+    /**
+     * JSON file of the catalog.
+     */
+    private Path json;
+
+    /**
+     * Factory of JSON parsers and generators.
+     */
+    private final JsonFactory factory = new JsonFactory();
+
+    @Setup
+    public void setUp() throws IOException {
+        Random random = new Random(42);
+        catalog = new BookCatalog(books);
+        for (int i = 0; i < books; i++) {
+            catalog.add(new Book("Book Title " + i, "Author " + random.nextInt(10_000), "Fiction",
+                    "Publisher " + random.nextInt(100),
+                    LocalDate.of(1900 + random.nextInt(120), 1 + random.nextInt(12), 1 + random.nextInt(28)),
+                    "English", Isbn.toString(Isbn.toIsbn13(i)), 1 + random.nextInt(5000) / 100.0));
+        }
+        binary = Files.createTempFile("books", ".bin");
+        json = Files.createTempFile("books", ".json");
+        CatalogFile.write(catalog, binary);
+        writeJson();
+        System.out.println("Binary: " + Files.size(binary) + " bytes, JSON: " + Files.size(json) + " bytes");
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.delete(binary);
+        Files.delete(json);
+    }
+
+    @Benchmark
+    public void binaryWrite() throws IOException {
+        CatalogFile.write(catalog, binary);
+    }
+
+    @Benchmark
+    public Book binaryOpenAndLookup() throws IOException {
+        CatalogFile file = CatalogFile.open(binary);
+        return file.get(file.findByIsbn(Isbn.toIsbn13(books / 2)));
+    }
+
+    @Benchmark
+    public BookCatalog binaryLoadAll() throws IOException {
+        return CatalogFile.open(binary).toCatalog();
+    }
+
+    @Benchmark
+    public void jsonWrite() throws IOException {
+        writeJson();
+    }
+
+    @Benchmark
+    public BookCatalog jsonLoadAll() throws IOException {
+        BookCatalog loaded = new BookCatalog(books);
+        try (InputStream in = Files.newInputStream(json); JsonParser parser = factory.createParser(in)) {
+            parser.nextToken();
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                String title = null;
+                String author = null;
+                String genre = null;
+                String publisher = null;
+                LocalDate releaseDate = null;
+                String language = null;
+                String isbn = null;
+                double price = 0;
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.currentName();
+                    parser.nextToken();
+                    switch (field) {
+                        case "title":
+                            title = parser.getText();
+                            break;
+                        case "author":
+                            author = parser.getText();
+                            break;
+                        case "genre":
+                            genre = parser.getText();
+                            break;
+                        case "publisher":
+                            publisher = parser.getText();
+                            break;
+                        case "releaseDate":
+                            releaseDate = LocalDate.parse(parser.getText());
+                            break;
+                        case "language":
+                            language = parser.getText();
+                            break;
+                        case "isbn":
+                            isbn = parser.getText();
+                            break;
+                        default:
+                            price = parser.getDoubleValue();
+                    }
+                }
+                loaded.add(new Book(title, author, genre, publisher, releaseDate, language, isbn, price));
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Writes the catalog as a JSON array of books.
+     */
+    private void writeJson() throws IOException {
+        try (OutputStream out = Files.newOutputStream(json); JsonGenerator generator = factory.createGenerator(out)) {
+            generator.writeStartArray();
+            for (int id = 0; id < catalog.size(); id++) {
+                generator.writeStartObject();
+                generator.writeStringField("title", catalog.getTitle(id));
+                generator.writeStringField("author", catalog.getAuthor(id));
+                generator.writeStringField("genre", catalog.getGenre(id));
+                generator.writeStringField("publisher", catalog.getPublisher(id));
+                generator.writeStringField("releaseDate", catalog.getReleaseDate(id).toString());
+                generator.writeStringField("language", catalog.getLanguage(id).getName());
+                generator.writeStringField("isbn", Isbn.toString(catalog.getIsbn(id)));
+                generator.writeNumberField("price", catalog.getPrice(id));
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package edu.uoc.pac2;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the price update throughput of {@link ConcurrentBookCatalog} with 1, 4 and 16 writer threads, with
+ * striped locks against a single lock, while a reader thread keeps reading books.
+ *
+ * @author Arnau López Pagès
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConcurrentBookCatalogBenchmark {
+
+    /**
+     * Updates per invocation, shared among the writers.
+     */
+    private static final int UPDATES = 100_000;
+
+    /**
+     * Number of books of the catalog.
+     */
+    @Param({"100000"})
+    private int books;
+
+    /**
+     * Writer threads.
+     */
+    @Param({"1", "4", "16"})
+    private int writers;
+
+    /**
+     * Stripes of the catalog, 1 for a single lock.
+     */
+    @Param({"1", "64"})
+    private int stripes;
+
+    /**
+     * Catalog updated.
+     */
+    private ConcurrentBookCatalog catalog;
+
+    /**
+     * ISBNs of the books.
+     */
+    private String[] isbns;
+
+    /**
+     * Threads of the writers and the reader.
+     */
+    private ExecutorService executor;
+
+    @Setup
+    public void setUp() throws Exception {
+        catalog = new ConcurrentBookCatalog(stripes);
+        isbns = new String[books];
+        for (int i = 0; i < books; i++) {
+            isbns[i] = String.valueOf(9_780_000_000_000L + i);
+            catalog.add(ImmutableBook.builder().title("Sample Book").author("John Doe").genre("Fiction")
+                    .publisher("Sample Publisher").releaseDate(LocalDate.of(2020, 1, 1)).language("English")
+                    .isbn(isbns[i]).price(10).build());
+        }
+        executor = Executors.newFixedThreadPool(writers + 1);
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Raises the price of random books, {@link #UPDATES} in total.
+     */
+    @Benchmark
+    @OperationsPerInvocation(UPDATES)
+    public long updatePrices() throws Exception {
+        List<Future<Long>> tasks = new ArrayList<>();
+        for (int w = 0; w < writers; w++) {
+            int seed = w;
+            tasks.add(executor.submit(() -> {
+                long state = seed * 0x9E3779B97F4A7C15L + 1;
+                for (int i = seed; i < UPDATES; i += writers) {
+                    state ^= state << 13;
+                    state ^= state >>> 7;
+                    state ^= state << 17;
+                    catalog.update(isbns[(int) ((state >>> 1) % books)], book -> book.withPrice(book.getPrice() + 1));
+                }
+                return state;
+            }));
+        }
+        Future<Long> reader = executor.submit(() -> {
+            long reads = 0;
+            while (!tasks.get(tasks.size() - 1).isDone()) {
+                reads += (long) catalog.get(isbns[(int) (reads % books)]).getPrice();
+            }
+            return reads;
+        });
+        long result = 0;
+        for (Future<Long> task : tasks) {
+            result += task.get();
+        }
+        return result + reader.get();
+    }
+}
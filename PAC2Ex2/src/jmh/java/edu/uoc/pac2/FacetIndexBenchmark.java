@@ -0,0 +1,110 @@
+package edu.uoc.pac2;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares aggregating a catalog by genre, language and publisher with {@link FacetIndex}, with 1 and 4 threads,
+ * against grouping a list of books by their strings in a hash map of boxed aggregates.
+ *
+ * @author Arnau López Pagès
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class FacetIndexBenchmark {
+
+    /**
+     * Number of books of the catalog.
+     */
+    @Param({"1000000"})
+    private int books;
+
+    /**
+     * Threads of the pool running the aggregation.
+     */
+    @Param({"1", "4"})
+    private int threads;
+
+    /**
+     * Books grouped one by one.
+     */
+    private List<Book> list;
+
+    /**
+     * Catalog with the same books.
+     */
+    private BookCatalog catalog;
+
+    /**
+     * Pool of {@link #threads} threads.
+     */
+    private ForkJoinPool pool;
+
+    @Setup
+    public void setUp() {
+        String[] genres = new String[20];
+        for (int i = 0; i < genres.length; i++) {
+            genres[i] = "Genre " + i;
+        }
+        String[] publishers = new String[200];
+        for (int i = 0; i < publishers.length; i++) {
+            publishers[i] = "Publisher " + i;
+        }
+        String[] languages = {"English", "Spanish", "French", "German", "Italian"};
+        Random random = new Random(42);
+        list = new ArrayList<>(books);
+        for (int i = 0; i < books; i++) {
+            list.add(new Book("Book " + i, "John Doe", genres[random.nextInt(genres.length)],
+                    publishers[random.nextInt(publishers.length)],
+                    LocalDate.of(1900 + random.nextInt(120), 1 + random.nextInt(12), 1 + random.nextInt(28)),
+                    languages[random.nextInt(languages.length)], "1234567890", 1 + random.nextInt(5000) / 100.0));
+        }
+        catalog = BookCatalog.of(list);
+        pool = new ForkJoinPool(threads);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public FacetTable facetIndex() {
+        FacetIndex index = FacetIndex.of(catalog, pool, Facet.GENRE, Facet.LANGUAGE, Facet.PUBLISHER);
+        catalog.removeListener(index);
+        return index.table();
+    }
+
+    /**
+     * Count, price sum, minimum, maximum and classics per combination, keyed by the concatenated strings.
+     */
+    @Benchmark
+    public Map<String, double[]> hashMap() {
+        Map<String, double[]> groups = new HashMap<>();
+        for (Book book : list) {
+            String key = book.getGenre() + '|' + book.getLanguage() + '|' + book.getPublisher();
+            double[] group = groups.computeIfAbsent(key, k -> new double[]{0, 0, Double.MAX_VALUE, 0, 0});
+            group[0]++;
+            group[1] += book.getPrice();
+            group[2] = Math.min(group[2], book.getPrice());
+            group[3] = Math.max(group[3], book.getPrice());
+            if (book.isClassic()) {
+                group[4]++;
+            }
+        }
+        return groups;
+    }
+}
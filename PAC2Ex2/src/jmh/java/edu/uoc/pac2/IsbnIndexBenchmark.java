@@ -0,0 +1,116 @@
+package edu.uoc.pac2;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares lookups and bulk builds of {@link IsbnIndex} with a {@code HashMap<String, Book>}.
+ *
+ * @author Arnau López Pagès
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class IsbnIndexBenchmark {
+
+    /**
+     * Number of indexed books.
+     */
+    @Param({"1000000"})
+    private int books;
+
+    /**
+     * Books of the catalog.
+     */
+    private List<Book> catalog;
+
+    /**
+     * ISBNs looked up, in random order.
+     */
+    private String[] isbns;
+
+    /**
+     * Keys of {@link #isbns}.
+     */
+    private long[] keys;
+
+    /**
+     * Index under test.
+     */
+    private IsbnIndex index;
+
+    /**
+     * Map under test.
+     */
+    private Map<String, Book> map;
+
+    /**
+     * Position of the next lookup.
+     */
+    private int next;
+
+    @Setup
+    public void setUp() {
+        catalog = new ArrayList<>(books);
+        map = new HashMap<>();
+        for (int i = 0; i < books; i++) {
+            Book book = new Book("Sample Book", "John Doe", "Fiction", "Sample Publisher",
+                    LocalDate.of(1983, 9, 12), "English", Isbn.toString(Isbn.toIsbn13(i)), 29.99);
+            catalog.add(book);
+            map.put(book.getIsbn(), book);
+        }
+        index = IsbnIndex.of(catalog);
+
+        Random random = new Random(42);
+        isbns = new String[4096];
+        keys = new long[isbns.length];
+        for (int i = 0; i < isbns.length; i++) {
+            isbns[i] = catalog.get(random.nextInt(books)).getIsbn();
+            keys[i] = Isbn.key(isbns[i]);
+        }
+    }
+
+    @Benchmark
+    public Book hashMapGet() {
+        return map.get(isbns[next++ & (isbns.length - 1)]);
+    }
+
+    @Benchmark
+    public Book indexGetString() {
+        return catalog.get(index.get(isbns[next++ & (isbns.length - 1)]));
+    }
+
+    @Benchmark
+    public Book indexGetKey() {
+        return catalog.get(index.get(keys[next++ & (keys.length - 1)]));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public Map<String, Book> hashMapBuild() {
+        Map<String, Book> built = new HashMap<>();
+        for (Book book : catalog) {
+            built.put(book.getIsbn(), book);
+        }
+        return built;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public IsbnIndex indexBuild() {
+        return IsbnIndex.of(catalog);
+    }
+}
@@ -0,0 +1,128 @@
+package edu.uoc.pac2;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares price range and cheapest-first queries answered by {@link PriceIndex} against scanning the catalog,
+ * and measures the cost of keeping the index up to date on {@link BookCatalog#setPrice}.
+ *
+ * @author Arnau López Pagès
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class PriceIndexBenchmark {
+
+    /**
+     * Number of books of the catalog.
+     */
+    @Param({"1000000"})
+    private int books;
+
+    /**
+     * Catalog queried.
+     */
+    private BookCatalog catalog;
+
+    /**
+     * Index of the catalog.
+     */
+    private PriceIndex index;
+
+    /**
+     * Catalog without index, to measure updates without it.
+     */
+    private BookCatalog plain;
+
+    /**
+     * Source of the updated books and prices.
+     */
+    private final Random random = new Random(42);
+
+    @Setup
+    public void setUp() {
+        String[] genres = new String[20];
+        for (int i = 0; i < genres.length; i++) {
+            genres[i] = "Genre " + i;
+        }
+        catalog = new BookCatalog(books);
+        plain = new BookCatalog(books);
+        for (int i = 0; i < books; i++) {
+            String genre = genres[random.nextInt(genres.length)];
+            // one book in 10 000 is in a rare genre, which the cheapest books of the catalog rarely are
+            Book book = new Book("Book " + i, "John Doe", i % 10_000 == 0 ? "Rare" : genre, "Sample Publisher",
+                    LocalDate.of(2000, 1, 1), "English", "1234567890", 1 + random.nextInt(10_000) / 100.0);
+            catalog.add(book);
+            plain.add(book);
+        }
+        index = PriceIndex.of(catalog);
+    }
+
+    /**
+     * Books between 20.00 and 20.50, about 0.5% of the catalog.
+     */
+    @Benchmark
+    public int[] rangeIndexed() {
+        return index.range(20.0, 20.5);
+    }
+
+    @Benchmark
+    public int[] rangeScan() {
+        return catalog.filterByPrice(20.0, 20.5);
+    }
+
+    /**
+     * Books between 10.00 and 40.00, most of the blocks lie between both ends.
+     */
+    @Benchmark
+    public int countIndexed() {
+        return index.count(10.0, 40.0);
+    }
+
+    /**
+     * The 10 cheapest books of a genre.
+     */
+    @Benchmark
+    public int[] cheapestInGenreIndexed() {
+        return index.cheapestInGenre(10, "Genre 7");
+    }
+
+    @Benchmark
+    public int[] cheapestInGenreQuery() {
+        return BookQuery.on(catalog).inGenre("Genre 7").sequential().cheapest(10);
+    }
+
+    /**
+     * The 10 cheapest books of a genre with 100 books.
+     */
+    @Benchmark
+    public int[] cheapestInRareGenreIndexed() {
+        return index.cheapestInGenre(10, "Rare");
+    }
+
+    @Benchmark
+    public int[] cheapestInRareGenreQuery() {
+        return BookQuery.on(catalog).inGenre("Rare").sequential().cheapest(10);
+    }
+
+    /**
+     * One price change, moving the book in the index.
+     */
+    @Benchmark
+    public void setPriceIndexed() throws Exception {
+        catalog.setPrice(random.nextInt(books), 1 + random.nextInt(10_000) / 100.0);
+    }
+
+    @Benchmark
+    public void setPricePlain() throws Exception {
+        plain.setPrice(random.nextInt(books), 1 + random.nextInt(10_000) / 100.0);
+    }
+}
@@ -0,0 +1,77 @@
+package edu.uoc.pac2;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares decade and classic queries answered by {@link ReleaseDateIndex} against scanning the release date
+ * column of the catalog.
+ *
+ * @author Arnau López Pagès
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class ReleaseDateIndexBenchmark {
+
+    /**
+     * Number of books of the catalog.
+     */
+    @Param({"1000000"})
+    private int books;
+
+    /**
+     * Catalog queried.
+     */
+    private BookCatalog catalog;
+
+    /**
+     * Index of the catalog.
+     */
+    private ReleaseDateIndex index;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        catalog = new BookCatalog(books);
+        for (int i = 0; i < books; i++) {
+            catalog.add(new Book("Book " + i, "John Doe", "Fiction", "Sample Publisher",
+                    LocalDate.of(1900 + random.nextInt(120), 1 + random.nextInt(12), 1 + random.nextInt(28)),
+                    "English", "1234567890", 10));
+        }
+        index = ReleaseDateIndex.of(catalog);
+    }
+
+    /**
+     * Books released in the nineties, about 8% of the catalog.
+     */
+    @Benchmark
+    public int[] decadeIndexed() {
+        return index.releasedBetween(LocalDate.of(1990, 1, 1), LocalDate.of(1999, 12, 31));
+    }
+
+    @Benchmark
+    public int[] decadeScan() {
+        return catalog.filterByReleaseDate(LocalDate.of(1990, 1, 1), LocalDate.of(1999, 12, 31));
+    }
+
+    /**
+     * Number of classics, about 60% of the catalog.
+     */
+    @Benchmark
+    public int countClassicsIndexed() {
+        return index.countClassics();
+    }
+
+    @Benchmark
+    public int countClassicsQuery() {
+        return BookQuery.on(catalog).classics().sequential().count();
+    }
+}
@@ -0,0 +1,144 @@
+package edu.uoc.pac2;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the latency of {@link TitleIndex} searches on a corpus of one million titles, against a substring scan
+ * of the lowercase titles, and the time to index the corpus.
+ * <p>
+ * Titles have two to six words drawn from a vocabulary of {@link #VOCABULARY} invented words with a skewed
+ * frequency, so that some words are common and most are rare, as in real titles.
+ *
+ * @author Arnau López Pagès
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx6g")
+@State(Scope.Benchmark)
+public class TitleIndexBenchmark {
+
+    /**
+     * Number of distinct words of the titles.
+     */
+    private static final int VOCABULARY = 50_000;
+
+    /**
+     * Number of titles.
+     */
+    @Param({"1000000"})
+    private int books;
+
+    /**
+     * Catalog of the titles.
+     */
+    private BookCatalog catalog;
+
+    /**
+     * Index of the titles.
+     */
+    private TitleIndex index;
+
+    /**
+     * Lowercase titles, for the substring scan.
+     */
+    private String[] lowercase;
+
+    /**
+     * Words of the vocabulary.
+     */
+    private String[] words;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        words = new String[VOCABULARY];
+        String consonants = "bcdfghjklmnprstvz";
+        String vowels = "aeiou";
+        for (int i = 0; i < words.length; i++) {
+            StringBuilder word = new StringBuilder();
+            int syllables = 2 + random.nextInt(3);
+            for (int s = 0; s < syllables; s++) {
+                word.append(consonants.charAt(random.nextInt(consonants.length())))
+                        .append(vowels.charAt(random.nextInt(vowels.length())));
+            }
+            word.setCharAt(0, Character.toUpperCase(word.charAt(0)));
+            words[i] = word.toString();
+        }
+        catalog = new BookCatalog(books);
+        lowercase = new String[books];
+        for (int i = 0; i < books; i++) {
+            StringBuilder title = new StringBuilder();
+            int count = 2 + random.nextInt(5);
+            for (int w = 0; w < count; w++) {
+                // the square skews the choice towards the first words
+                double skew = random.nextDouble();
+                title.append(w > 0 ? " " : "").append(words[(int) (skew * skew * words.length)]);
+            }
+            catalog.add(new Book(title.toString(), "John Doe", "Fiction", "Sample Publisher",
+                    LocalDate.of(2000, 1, 1), "English", "1234567890", 10));
+            lowercase[i] = title.toString().toLowerCase(Locale.ROOT);
+        }
+        index = TitleIndex.of(catalog);
+    }
+
+    /**
+     * Two exact words, a common and a rare one.
+     */
+    @Benchmark
+    public int[] searchExact() {
+        return index.search(words[10] + " " + words[30_000], 10);
+    }
+
+    /**
+     * Two words with a typo in the rare one.
+     */
+    @Benchmark
+    public int[] searchTypo() {
+        return index.search(words[10] + " " + words[30_000].substring(1), 10);
+    }
+
+    /**
+     * A word and the first three letters of another, as typed in a search box.
+     */
+    @Benchmark
+    public int[] searchAsYouType() {
+        return index.search(words[30_000] + " " + words[10].substring(0, 3), 10);
+    }
+
+    @Benchmark
+    public int[] prefix() {
+        return index.withPrefix(words[30_000].substring(0, 4));
+    }
+
+    /**
+     * The storefront search without the index: every title containing the rare word.
+     */
+    @Benchmark
+    public int substringScan() {
+        String wanted = words[30_000].toLowerCase(Locale.ROOT);
+        int found = 0;
+        for (String title : lowercase) {
+            if (title.contains(wanted)) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public TitleIndex build() {
+        TitleIndex built = TitleIndex.of(catalog);
+        catalog.removeListener(built);
+        return built;
+    }
+}
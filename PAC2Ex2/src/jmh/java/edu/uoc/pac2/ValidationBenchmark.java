@@ -0,0 +1,94 @@
+package edu.uoc.pac2;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Compares the {@link FieldValidator} scanners with the regular expressions previously used by the {@link Book}
+ * setters.
+ *
+ * @author Arnau López Pagès
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ValidationBenchmark {
+
+    /**
+     * Languages checked by the former linear scan.
+     */
+    private final String[] validLanguages = new String[]{"English", "Spanish", "French", "German", "Chinese",
+            "Japanese", "Russian", "Arabic", "Portuguese", "Italian"};
+
+    /**
+     * Title under test.
+     */
+    private String title = "The Name of the Wind";
+
+    /**
+     * Publisher under test.
+     */
+    private String publisher = "Penguin Random House (UK), Ltd.";
+
+    /**
+     * ISBN under test.
+     */
+    private String isbn = "978-0-7564-0407-9";
+
+    /**
+     * Language under test, the last one of the list for the linear scan.
+     */
+    private String language = "Italian";
+
+    @Benchmark
+    public boolean titleRegex() {
+        return title.matches("^[a-zA-Z\\s-]+$");
+    }
+
+    @Benchmark
+    public boolean titleScan() {
+        return FieldValidator.isValidTitle(title);
+    }
+
+    @Benchmark
+    public boolean publisherRegex() {
+        return Pattern.compile("^[a-zA-Z0-9 ,.()]+$").matcher(publisher).matches();
+    }
+
+    @Benchmark
+    public boolean publisherScan() {
+        return FieldValidator.isValidPublisher(publisher);
+    }
+
+    @Benchmark
+    public String isbnRegex() {
+        String buffer = isbn.replaceAll("[^0-9]", "");
+        return buffer.length() == 10 || buffer.length() == 13 ? buffer : null;
+    }
+
+    @Benchmark
+    public String isbnScan() {
+        return FieldValidator.isValidIsbn(isbn) ? FieldValidator.normalizeIsbn(isbn) : null;
+    }
+
+    @Benchmark
+    public boolean languageLinear() {
+        for (String validLang : validLanguages) {
+            if (validLang.equals(language)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Benchmark
+    public boolean languageRegistry() {
+        return FieldValidator.isValidLanguage(language);
+    }
+}
@@ -0,0 +1,264 @@
+package edu.uoc.pac2;
+
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Index from author to book ids.
+ * <p>
+ * Author names are reduced to a normalized key: accents stripped, case folded and whitespace trimmed and
+ * collapsed, so "José  García" and "jose garcia" are the same author. Each distinct key is normalized and stored
+ * once and gets a dense id, which maps to the posting list of its book ids in increasing order. Finding the books
+ * of an author is one normalization and one hash lookup, and checking the author of a book is an int comparison.
+ * <p>
+ * The index is not thread-safe.
+ *
+ * @author Arnau López Pagès
+ * @version 1.0
+ */
+public class AuthorIndex {
+
+    /**
+     * Distinct normalized author keys.
+     */
+    private final StringDictionary keys = new StringDictionary();
+
+    /**
+     * Book ids of each author, indexed by key id.
+     */
+    private IntList[] postings = new IntList[16];
+
+    /**
+     * Key id of the author of each book, {@link StringDictionary#NO_ID} if it has none.
+     */
+    private int[] bookKeys = new int[16];
+
+    /**
+     * Number of indexed book ids, the next id must be at least this.
+     */
+    private int books;
+
+    /**
+     * Creates an empty index.
+     */
+    public AuthorIndex() {
+    }
+
+    /**
+     * Indexes all the books of a catalog by their id. Each distinct author of the catalog is normalized once.
+     *
+     * @param catalog catalog to index.
+     * @return a new index.
+     */
+    public static AuthorIndex of(BookCatalog catalog) {
+        AuthorIndex index = new AuthorIndex();
+        StringDictionary authors = catalog.getAuthors();
+        int[] keyIds = new int[authors.size()];
+        for (int author = 0; author < keyIds.length; author++) {
+            keyIds[author] = index.keys.add(normalize(authors.get(author)));
+        }
+        index.bookKeys = new int[Math.max(catalog.size(), 1)];
+        for (int id = 0; id < catalog.size(); id++) {
+            int author = catalog.getAuthorId(id);
+            index.addKey(id, author != StringDictionary.NO_ID ? keyIds[author] : StringDictionary.NO_ID);
+        }
+        return index;
+    }
+
+    /**
+     * Indexes a list of books by their position.
+     *
+     * @param books books to index.
+     * @return a new index.
+     */
+    public static AuthorIndex of(List<Book> books) {
+        AuthorIndex index = new AuthorIndex();
+        index.bookKeys = new int[Math.max(books.size(), 1)];
+        for (int id = 0; id < books.size(); id++) {
+            index.add(id, books.get(id).getAuthor());
+        }
+        return index;
+    }
+
+    /**
+     * Reduces an author name to its key: without accents, case folded and with single spaces between words.
+     *
+     * @param author author name.
+     * @return the normalized key, null if the name is null.
+     */
+    public static String normalize(CharSequence author) {
+        if (author == null) {
+            return null;
+        }
+        boolean ascii = true;
+        for (int i = 0; i < author.length() && ascii; i++) {
+            ascii = author.charAt(i) < 0x80;
+        }
+        // decomposing splits accented letters into the base letter and a combining mark, which is dropped
+        CharSequence text = ascii ? author : Normalizer.normalize(author, Normalizer.Form.NFD);
+        StringBuilder key = new StringBuilder(text.length());
+        boolean space = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isWhitespace(c) || Character.isSpaceChar(c)) {
+                space = key.length() > 0;
+            } else if (ascii) {
+                appendSpace(key, space);
+                space = false;
+                key.append(c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c);
+            } else if (!isMark(c)) {
+                appendSpace(key, space);
+                space = false;
+                key.append(Character.toLowerCase(Character.toUpperCase(c)));
+            }
+        }
+        return key.toString();
+    }
+
+    /**
+     * Adds a book to the index.
+     *
+     * @param id     book id, greater than all the indexed ones.
+     * @param author author of the book, may be null.
+     * @throws IllegalArgumentException if the id is not greater than all the indexed ones.
+     */
+    public void add(int id, String author) {
+        addKey(id, author != null ? keys.add(normalize(author)) : StringDictionary.NO_ID);
+    }
+
+    /**
+     * Returns the key id of an author.
+     *
+     * @param author author name, in any case, spacing or accentuation.
+     * @return the key id, {@link StringDictionary#NO_ID} if the author has no books.
+     */
+    public int keyOf(CharSequence author) {
+        return keys.idOf(normalize(author));
+    }
+
+    /**
+     * Returns the key id of the author of a book.
+     *
+     * @param id book id.
+     * @return the key id, {@link StringDictionary#NO_ID} if the book is not indexed or has no author.
+     */
+    public int keyOfBook(int id) {
+        return id >= 0 && id < books ? bookKeys[id] : StringDictionary.NO_ID;
+    }
+
+    /**
+     * Returns the normalized name of an author key.
+     *
+     * @param key key id.
+     * @return the normalized name.
+     */
+    public String getKey(int key) {
+        return keys.get(key);
+    }
+
+    /**
+     * Finds the books of an author.
+     *
+     * @param author author name, in any case, spacing or accentuation.
+     * @return ids of the books, in increasing order.
+     */
+    public int[] booksBy(CharSequence author) {
+        int key = keyOf(author);
+        return key != StringDictionary.NO_ID ? postings[key].toArray() : new int[0];
+    }
+
+    /**
+     * Counts the books of an author.
+     *
+     * @param author author name, in any case, spacing or accentuation.
+     * @return number of books.
+     */
+    public int countBy(CharSequence author) {
+        int key = keyOf(author);
+        return key != StringDictionary.NO_ID ? postings[key].size() : 0;
+    }
+
+    /**
+     * Checks if a book is written by an author, see {@link Book#isWrittenBy}.
+     *
+     * @param id     book id.
+     * @param author author name, in any case, spacing or accentuation.
+     * @return true if the book is indexed with that author.
+     */
+    public boolean isWrittenBy(int id, CharSequence author) {
+        return isWrittenBy(id, keyOf(author));
+    }
+
+    /**
+     * Checks if a book is written by an author, given its key id. Resolving the key once with {@link #keyOf} and
+     * checking many books with this method compares ints only.
+     *
+     * @param id  book id.
+     * @param key key id of the author.
+     * @return true if the book is indexed with that author.
+     */
+    public boolean isWrittenBy(int id, int key) {
+        return key != StringDictionary.NO_ID && keyOfBook(id) == key;
+    }
+
+    /**
+     * Returns the number of distinct authors.
+     *
+     * @return number of author keys.
+     */
+    public int size() {
+        return keys.size();
+    }
+
+    /**
+     * Adds a book with a known author key.
+     *
+     * @param id  book id, greater than all the indexed ones.
+     * @param key key id, {@link StringDictionary#NO_ID} if the book has no author.
+     */
+    private void addKey(int id, int key) {
+        if (id < books) {
+            throw new IllegalArgumentException("Book ids must be added in increasing order: " + id);
+        }
+        if (id >= bookKeys.length) {
+            bookKeys = Arrays.copyOf(bookKeys, Math.max(id + 1, bookKeys.length + (bookKeys.length >> 1)));
+        }
+        Arrays.fill(bookKeys, books, id, StringDictionary.NO_ID);
+        bookKeys[id] = key;
+        books = id + 1;
+        if (key != StringDictionary.NO_ID) {
+            if (key >= postings.length) {
+                postings = Arrays.copyOf(postings, Math.max(key + 1, postings.length + (postings.length >> 1)));
+            }
+            if (postings[key] == null) {
+                postings[key] = new IntList(4);
+            }
+            postings[key].add(id);
+        }
+    }
+
+    /**
+     * Separates the next word of a key.
+     *
+     * @param key   key being built.
+     * @param space whether whitespace came before the word.
+     */
+    private static void appendSpace(StringBuilder key, boolean space) {
+        if (space) {
+            key.append(' ');
+        }
+    }
+
+    /**
+     * Checks if a character is a combining mark, such as a decomposed accent.
+     *
+     * @param c character to check.
+     * @return true if it is a mark.
+     */
+    private static boolean isMark(char c) {
+        int type = Character.getType(c);
+        return type == Character.NON_SPACING_MARK || type == Character.COMBINING_SPACING_MARK
+                || type == Character.ENCLOSING_MARK;
+    }
+}
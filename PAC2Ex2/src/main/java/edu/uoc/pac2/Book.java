@@ -1,7 +1,6 @@
 package edu.uoc.pac2;
 
 import java.time.LocalDate;
-import java.util.regex.Pattern;
 
 /**
  * Represents a book with attributes like title, author, genre, etc.
@@ -51,12 +50,6 @@ public class Book {
      */
     private double price;
 
-    /**
-     * Array containing the valid languages for books.
-     */
-    private final String[] validLanguages = new String[]{"English", "Spanish", "French", "German", "Chinese", "Japanese",
-            "Russian", "Arabic", "Portuguese", "Italian"};
-
     //constructors
 
     /**
@@ -100,12 +93,9 @@ public class Book {
      * @throws Exception [ERROR] Invalid title format.
      */
     public void setTitle(String title) throws Exception {
-        //regular expression
-        if (title != null && title.matches("^[a-zA-Z\\s-]+$")) {
-            this.title = title;
-        } else {
-            throw new Exception("[ERROR] Invalid title format.");
-        }
+        check(BookValidator.checkTitle(title));
+        this.title = title;
+        BookEvents.changed(this, isbn);
     }
 
     /**
@@ -124,11 +114,9 @@ public class Book {
      * @throws Exception If author is empty
      */
     public void setAuthor(String author) throws Exception {
-        if (!isEmpty(author)) {
-            this.author = author;
-        } else {
-            throw new Exception("[ERROR] Author cannot be empty.");
-        }
+        check(BookValidator.checkAuthor(author));
+        this.author = author;
+        BookEvents.changed(this, isbn);
     }
 
     /**
@@ -147,15 +135,9 @@ public class Book {
      * @throws Exception If genre is empty.
      */
     public void setGenre(String genre) throws Exception {
-        if (!isEmpty(genre)) {
-            this.genre = genre;
-        } else {
-            throw new Exception("[ERROR] Genre cannot be empty.");
-        }
-    }
-
-    private boolean isEmpty(String str) {
-        return str == null || str.trim().isEmpty();
+        check(BookValidator.checkGenre(genre));
+        this.genre = genre;
+        BookEvents.changed(this, isbn);
     }
 
     /**
@@ -174,21 +156,9 @@ public class Book {
      * @throws Exception If publisher format is invalid.
      */
     public void setPublisher(String publisher) throws Exception {
-        // check if publisher is null
-        if (publisher == null) {
-            throw new Exception("[ERROR] Invalid publisher format.");
-        }
-        // Create a regex pattern to check if the publisher contains only allowed characters
-        Pattern pattern = Pattern.compile("^[a-zA-Z0-9 ,.()]+$");
-
-        // Check if the publisher matches the regex pattern
-        if (pattern.matcher(publisher).matches()) {
-            // If the format is correct, assign the value to the publisher property
-            this.publisher = publisher;
-        } else {
-            // If the format is not correct, throw error
-            throw new Exception("[ERROR] Invalid publisher format.");
-        }
+        check(BookValidator.checkPublisher(publisher));
+        this.publisher = publisher;
+        BookEvents.changed(this, isbn);
     }
 
     /**
@@ -207,14 +177,9 @@ public class Book {
      * @throws Exception If release date is not within the last 200 years and not in the future.
      */
     public void setReleaseDate(LocalDate releaseDate) throws Exception {
-        LocalDate now = LocalDate.now();
-        LocalDate twoHundredYearsAgo = now.minusYears(200);
-
-        if (releaseDate != null && !releaseDate.isAfter(now) && !releaseDate.isBefore(twoHundredYearsAgo)) {
-            this.releaseDate = releaseDate;
-        } else {
-            throw new Exception("[ERROR] Invalid release date. It should be within the last 200 years and not in the future.");
-        }
+        check(BookValidator.checkReleaseDate(releaseDate));
+        this.releaseDate = releaseDate;
+        BookEvents.changed(this, isbn);
     }
 
     /**
@@ -233,20 +198,13 @@ public class Book {
      * @throws Exception If language is invalid.
      */
     public void setLanguage(String language) throws Exception {
-        if (isValidLanguage(language)) {
-            this.language = language;
-        } else {
-            throw new Exception("[ERROR] Invalid language.");
-        }
+        check(BookValidator.checkLanguage(language));
+        this.language = Language.fromName(language).getName();
+        BookEvents.changed(this, isbn);
     }
 
     private boolean isValidLanguage(String language) {
-        for (String validLang : validLanguages) {
-            if (validLang.equals(language)) {
-                return true;
-            }
-        }
-        return false;
+        return FieldValidator.isValidLanguage(language);
     }
 
     /**
@@ -265,17 +223,11 @@ public class Book {
      * @throws Exception If ISBN format is invalid.
      */
     public void setIsbn(String isbn) throws Exception {
-        if (isbn != null) {
-            // delete all characters except numbers
-            String buffer = isbn.replaceAll("[^0-9]", "");
-            if (buffer.length() == 10 || buffer.length() == 13) {
-                this.isbn = buffer;
-            } else {
-                throw new Exception("[ERROR] Invalid ISBN format.");
-            }
-        } else {
-            throw new Exception("[ERROR] Invalid ISBN format.");
-        }
+        check(BookValidator.checkIsbn(isbn));
+        String previousIsbn = this.isbn;
+        // keep only the digits
+        this.isbn = FieldValidator.normalizeIsbn(isbn);
+        BookEvents.changed(this, previousIsbn);
     }
 
     /**
@@ -294,10 +246,20 @@ public class Book {
      * @throws Exception If price is negative or zero.
      */
     public void setPrice(double price) throws Exception {
-        if (price > 0) {
-            this.price = price;
-        } else {
-            throw new Exception("[ERROR] Price cannot be neither negative nor zero.");
+        check(BookValidator.checkPrice(price));
+        this.price = price;
+        BookEvents.changed(this, isbn);
+    }
+
+    /**
+     * Throws the error of a failed field check, so the setters stay thin wrappers of {@link BookValidator}.
+     *
+     * @param result result of a {@link BookValidator} check.
+     * @throws Exception with the message of the field if the check failed.
+     */
+    private static void check(int result) throws Exception {
+        if (result != BookValidator.VALID) {
+            throw new Exception(BookValidator.message(result));
         }
     }
 
@@ -307,7 +269,7 @@ public class Book {
      * @return Array of valid languages.
      */
     public String[] getValidLanguages() {
-        return validLanguages;
+        return Language.names();
     }
 
     /**
@@ -341,8 +303,7 @@ public class Book {
      * @return true if the book is a classic, false otherwise
      */
     public boolean isClassic() {
-        LocalDate fiftyYearsAgo = LocalDate.now().minusYears(50);
-        return releaseDate.isBefore(fiftyYearsAgo);
+        return CatalogClock.current().isClassic(releaseDate.toEpochDay());
     }
 
     /**
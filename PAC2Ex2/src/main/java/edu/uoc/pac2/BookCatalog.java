@@ -0,0 +1,769 @@
+package edu.uoc.pac2;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Columnar in-memory store of books.
+ * <p>
+ * Instead of one {@link Book} object per record, every field is kept in its own primitive array: prices as
+ * doubles, release dates as epoch days, ISBNs as {@link Isbn#key} longs and authors, genres, publishers and
+ * languages as dictionary ids. Books are identified by their position (id) and only materialized on demand, while
+ * filters and aggregations scan the primitive columns directly.
+ * <p>
+ * The catalog is not thread-safe.
+ *
+ * @author Arnau López Pagès
+ * @version 1.0
+ */
+public class BookCatalog {
+
+    /**
+     * Epoch day stored for a missing release date.
+     */
+    public static final int NO_DATE = Integer.MIN_VALUE;
+
+    /**
+     * Packed value stored for a missing or malformed ISBN.
+     */
+    public static final long NO_ISBN = Isbn.INVALID;
+
+    /**
+     * Language id stored for a missing language.
+     */
+    public static final byte NO_LANGUAGE = -1;
+
+    /**
+     * Titles, the only column that is not dictionary encoded as they are mostly unique.
+     */
+    private String[] titles;
+
+    /**
+     * Author ids in {@link #authorDictionary}.
+     */
+    private int[] authors;
+
+    /**
+     * Genre ids in {@link #genreDictionary}.
+     */
+    private int[] genres;
+
+    /**
+     * Publisher ids in {@link #publisherDictionary}.
+     */
+    private int[] publishers;
+
+    /**
+     * Release dates as epoch days.
+     */
+    private int[] releaseDays;
+
+    /**
+     * Language ids, see {@link Language#id()}. Only exact language names are encoded, other values are kept in
+     * {@link #otherLanguageDictionary}.
+     */
+    private byte[] languages;
+
+    /**
+     * ISBNs packed by {@link Isbn#key}.
+     */
+    private long[] isbns;
+
+    /**
+     * Prices.
+     */
+    private double[] prices;
+
+    /**
+     * Number of books.
+     */
+    private int size;
+
+    /**
+     * Distinct authors.
+     */
+    private final StringDictionary authorDictionary = new StringDictionary();
+
+    /**
+     * Distinct genres.
+     */
+    private final StringDictionary genreDictionary = new StringDictionary();
+
+    /**
+     * Distinct publishers.
+     */
+    private final StringDictionary publisherDictionary = new StringDictionary();
+
+    /**
+     * Language values that are not the exact name of a {@link Language}, such as codes or unknown languages.
+     */
+    private final StringDictionary otherLanguageDictionary = new StringDictionary();
+
+    /**
+     * Books with another language value, in id order, and the id of that value in {@link #otherLanguageDictionary}.
+     */
+    private final IntList otherLanguageBooks = new IntList();
+    private final IntList otherLanguageIds = new IntList();
+
+    /**
+     * Listeners of the changes, see {@link CatalogListener}.
+     */
+    private CatalogListener[] listeners = new CatalogListener[0];
+
+    /**
+     * Creates an empty catalog.
+     */
+    public BookCatalog() {
+        this(16);
+    }
+
+    /**
+     * Creates an empty catalog sized for a number of books.
+     *
+     * @param capacity expected number of books.
+     */
+    public BookCatalog(int capacity) {
+        int initial = Math.max(capacity, 1);
+        titles = new String[initial];
+        authors = new int[initial];
+        genres = new int[initial];
+        publishers = new int[initial];
+        releaseDays = new int[initial];
+        languages = new byte[initial];
+        isbns = new long[initial];
+        prices = new double[initial];
+    }
+
+    /**
+     * Builds a catalog from existing books.
+     *
+     * @param books books to store.
+     * @return a new catalog with the books in iteration order.
+     */
+    public static BookCatalog of(Collection<Book> books) {
+        BookCatalog catalog = new BookCatalog(books.size());
+        for (Book book : books) {
+            catalog.add(book);
+        }
+        return catalog;
+    }
+
+    /**
+     * Adds a book to the catalog. The book is copied, later changes to it are not seen by the catalog.
+     *
+     * @param book book to add.
+     * @return id of the book in the catalog.
+     */
+    public int add(Book book) {
+        if (size == prices.length) {
+            grow();
+        }
+        int id = size++;
+        titles[id] = book.getTitle();
+        authors[id] = authorDictionary.add(book.getAuthor());
+        genres[id] = genreDictionary.add(book.getGenre());
+        publishers[id] = publisherDictionary.add(book.getPublisher());
+        releaseDays[id] = book.getReleaseDate() != null ? (int) book.getReleaseDate().toEpochDay() : NO_DATE;
+        Language language = Language.fromName(book.getLanguage());
+        languages[id] = language != null ? (byte) language.id() : NO_LANGUAGE;
+        if (language == null && book.getLanguage() != null) {
+            otherLanguageBooks.add(id);
+            otherLanguageIds.add(otherLanguageDictionary.add(book.getLanguage()));
+        }
+        isbns[id] = Isbn.key(book.getIsbn());
+        prices[id] = book.getPrice();
+        for (CatalogListener listener : listeners) {
+            listener.bookAdded(id);
+        }
+        return id;
+    }
+
+    /**
+     * Registers a listener of the changes of the catalog.
+     *
+     * @param listener listener to call after each change.
+     */
+    public void addListener(CatalogListener listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException("Listener must not be null");
+        }
+        listeners = Arrays.copyOf(listeners, listeners.length + 1);
+        listeners[listeners.length - 1] = listener;
+    }
+
+    /**
+     * Unregisters a listener.
+     *
+     * @param listener listener to remove.
+     * @return true if it was registered.
+     */
+    public boolean removeListener(CatalogListener listener) {
+        for (int i = 0; i < listeners.length; i++) {
+            if (listeners[i] == listener) {
+                CatalogListener[] remaining = new CatalogListener[listeners.length - 1];
+                System.arraycopy(listeners, 0, remaining, 0, i);
+                System.arraycopy(listeners, i + 1, remaining, i, remaining.length - i);
+                listeners = remaining;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the number of books.
+     *
+     * @return size of the catalog.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Materializes a book. Each call returns a new instance.
+     *
+     * @param id book id.
+     * @return a new book with the stored values. The ISBN comes back in its canonical form, see {@link Isbn#key}.
+     */
+    public Book get(int id) {
+        checkId(id);
+        return new Book(titles[id], authorDictionary.get(authors[id]), genreDictionary.get(genres[id]),
+                publisherDictionary.get(publishers[id]), getReleaseDate(id), getLanguageName(id),
+                Isbn.toString(isbns[id]), prices[id]);
+    }
+
+    /**
+     * Returns the title of a book.
+     *
+     * @param id book id.
+     * @return the title.
+     */
+    public String getTitle(int id) {
+        checkId(id);
+        return titles[id];
+    }
+
+    /**
+     * Returns the author of a book.
+     *
+     * @param id book id.
+     * @return the author.
+     */
+    public String getAuthor(int id) {
+        return authorDictionary.get(getAuthorId(id));
+    }
+
+    /**
+     * Returns the dictionary id of the author of a book.
+     *
+     * @param id book id.
+     * @return the author id in {@link #getAuthors()}.
+     */
+    public int getAuthorId(int id) {
+        checkId(id);
+        return authors[id];
+    }
+
+    /**
+     * Returns the genre of a book.
+     *
+     * @param id book id.
+     * @return the genre.
+     */
+    public String getGenre(int id) {
+        return genreDictionary.get(getGenreId(id));
+    }
+
+    /**
+     * Returns the dictionary id of the genre of a book.
+     *
+     * @param id book id.
+     * @return the genre id in {@link #getGenres()}.
+     */
+    public int getGenreId(int id) {
+        checkId(id);
+        return genres[id];
+    }
+
+    /**
+     * Returns the publisher of a book.
+     *
+     * @param id book id.
+     * @return the publisher.
+     */
+    public String getPublisher(int id) {
+        return publisherDictionary.get(getPublisherId(id));
+    }
+
+    /**
+     * Returns the dictionary id of the publisher of a book.
+     *
+     * @param id book id.
+     * @return the publisher id in {@link #getPublishers()}.
+     */
+    public int getPublisherId(int id) {
+        checkId(id);
+        return publishers[id];
+    }
+
+    /**
+     * Returns the release date of a book.
+     *
+     * @param id book id.
+     * @return the release date, null if it is missing.
+     */
+    public LocalDate getReleaseDate(int id) {
+        int day = getReleaseEpochDay(id);
+        return day != NO_DATE ? LocalDate.ofEpochDay(day) : null;
+    }
+
+    /**
+     * Returns the release date of a book as an epoch day.
+     *
+     * @param id book id.
+     * @return the epoch day, {@link #NO_DATE} if it is missing.
+     */
+    public int getReleaseEpochDay(int id) {
+        checkId(id);
+        return releaseDays[id];
+    }
+
+    /**
+     * Returns the language of a book.
+     *
+     * @param id book id.
+     * @return the language, null if it is missing or not the exact name of a {@link Language}.
+     */
+    public Language getLanguage(int id) {
+        checkId(id);
+        return languages[id] != NO_LANGUAGE ? Language.fromId(languages[id]) : null;
+    }
+
+    /**
+     * Returns the language of a book as it was added, including values that are not a {@link Language}.
+     *
+     * @param id book id.
+     * @return the language value, null if it is missing.
+     */
+    public String getLanguageName(int id) {
+        checkId(id);
+        if (languages[id] != NO_LANGUAGE) {
+            return Language.fromId(languages[id]).getName();
+        }
+        int low = 0;
+        int high = otherLanguageBooks.size() - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int book = otherLanguageBooks.get(middle);
+            if (book < id) {
+                low = middle + 1;
+            } else if (book > id) {
+                high = middle - 1;
+            } else {
+                return otherLanguageDictionary.get(otherLanguageIds.get(middle));
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the packed ISBN of a book.
+     *
+     * @param id book id.
+     * @return the ISBN key, {@link #NO_ISBN} if it is missing.
+     */
+    public long getIsbn(int id) {
+        checkId(id);
+        return isbns[id];
+    }
+
+    /**
+     * Returns the price of a book.
+     *
+     * @param id book id.
+     * @return the price.
+     */
+    public double getPrice(int id) {
+        checkId(id);
+        return prices[id];
+    }
+
+    /**
+     * Changes the price of a book.
+     *
+     * @param id    book id.
+     * @param price new price.
+     * @throws Exception If price is negative or zero.
+     */
+    public void setPrice(int id, double price) throws Exception {
+        checkId(id);
+        if (BookValidator.checkPrice(price) != BookValidator.VALID) {
+            throw new Exception(BookValidator.message(BookValidator.PRICE));
+        }
+        double oldPrice = prices[id];
+        prices[id] = price;
+        for (CatalogListener listener : listeners) {
+            listener.priceChanged(id, oldPrice, price);
+        }
+    }
+
+    /**
+     * Reprices the whole catalog with a discount, see {@link Book#applyDiscount}.
+     *
+     * @param discountPercentage discount between 0 and 100, excluded as prices must stay positive.
+     * @throws Exception If the discount percentage is not valid.
+     */
+    public void applyDiscount(double discountPercentage) throws Exception {
+        if (discountPercentage == 100) {
+            throw new Exception(BookValidator.message(BookValidator.PRICE));
+        }
+        BulkPricing.applyDiscount(prices, discountPercentage, prices, size);
+        for (CatalogListener listener : listeners) {
+            listener.pricesChanged();
+        }
+    }
+
+    /**
+     * Computes the prices of the catalog after a discount, without changing them.
+     *
+     * @param discountPercentage discount between 0 and 100.
+     * @return discounted prices indexed by book id.
+     * @throws Exception If the discount percentage is not between 0 and 100.
+     */
+    public double[] discountedPrices(double discountPercentage) throws Exception {
+        double[] discounted = new double[size];
+        BulkPricing.applyDiscount(prices, discountPercentage, discounted, size);
+        return discounted;
+    }
+
+    /**
+     * Computes the prices of the catalog after a discount per genre, without changing them.
+     *
+     * @param discountPercentages discount between 0 and 100 indexed by genre id, see {@link #getGenres()}.
+     * @return discounted prices indexed by book id. Books without genre keep their price.
+     * @throws Exception If a discount percentage is not between 0 and 100.
+     */
+    public double[] discountedPricesByGenre(double[] discountPercentages) throws Exception {
+        double[] discounted = new double[size];
+        BulkPricing.applyDiscount(prices, genres, discountPercentages, discounted, size);
+        return discounted;
+    }
+
+    /**
+     * Computes the prices of the catalog after a discount per publisher, without changing them.
+     *
+     * @param discountPercentages discount between 0 and 100 indexed by publisher id, see {@link #getPublishers()}.
+     * @return discounted prices indexed by book id. Books without publisher keep their price.
+     * @throws Exception If a discount percentage is not between 0 and 100.
+     */
+    public double[] discountedPricesByPublisher(double[] discountPercentages) throws Exception {
+        double[] discounted = new double[size];
+        BulkPricing.applyDiscount(prices, publishers, discountPercentages, discounted, size);
+        return discounted;
+    }
+
+    /**
+     * Returns the dictionary of authors.
+     *
+     * @return distinct authors.
+     */
+    public StringDictionary getAuthors() {
+        return authorDictionary;
+    }
+
+    /**
+     * Returns the dictionary of genres.
+     *
+     * @return distinct genres.
+     */
+    public StringDictionary getGenres() {
+        return genreDictionary;
+    }
+
+    /**
+     * Returns the dictionary of publishers.
+     *
+     * @return distinct publishers.
+     */
+    public StringDictionary getPublishers() {
+        return publisherDictionary;
+    }
+
+    /**
+     * Finds the books with a price in a range.
+     *
+     * @param min minimum price, inclusive.
+     * @param max maximum price, inclusive.
+     * @return ids of the matching books, in id order.
+     */
+    public int[] filterByPrice(double min, double max) {
+        IntList ids = new IntList();
+        for (int id = 0; id < size; id++) {
+            if (prices[id] >= min && prices[id] <= max) {
+                ids.add(id);
+            }
+        }
+        return ids.toArray();
+    }
+
+    /**
+     * Finds the books released in a range of dates.
+     *
+     * @param from first date, inclusive.
+     * @param to   last date, inclusive.
+     * @return ids of the matching books, in id order.
+     */
+    public int[] filterByReleaseDate(LocalDate from, LocalDate to) {
+        long first = from.toEpochDay();
+        long last = to.toEpochDay();
+        IntList ids = new IntList();
+        for (int id = 0; id < size; id++) {
+            if (releaseDays[id] != NO_DATE && releaseDays[id] >= first && releaseDays[id] <= last) {
+                ids.add(id);
+            }
+        }
+        return ids.toArray();
+    }
+
+    /**
+     * Finds the books of an author.
+     *
+     * @param author exact author name.
+     * @return ids of the matching books, in id order.
+     */
+    public int[] filterByAuthor(String author) {
+        return filterById(authors, authorDictionary.idOf(author));
+    }
+
+    /**
+     * Finds the books of a genre.
+     *
+     * @param genre exact genre name.
+     * @return ids of the matching books, in id order.
+     */
+    public int[] filterByGenre(String genre) {
+        return filterById(genres, genreDictionary.idOf(genre));
+    }
+
+    /**
+     * Finds the books of a publisher.
+     *
+     * @param publisher exact publisher name.
+     * @return ids of the matching books, in id order.
+     */
+    public int[] filterByPublisher(String publisher) {
+        return filterById(publishers, publisherDictionary.idOf(publisher));
+    }
+
+    /**
+     * Finds the books written in a language.
+     *
+     * @param language language of the books.
+     * @return ids of the matching books, in id order.
+     */
+    public int[] filterByLanguage(Language language) {
+        IntList ids = new IntList();
+        byte wanted = (byte) language.id();
+        for (int id = 0; id < size; id++) {
+            if (languages[id] == wanted) {
+                ids.add(id);
+            }
+        }
+        return ids.toArray();
+    }
+
+    /**
+     * Returns the lowest price of the catalog.
+     *
+     * @return the lowest price, NaN if the catalog is empty.
+     */
+    public double minPrice() {
+        if (size == 0) {
+            return Double.NaN;
+        }
+        double min = prices[0];
+        for (int id = 1; id < size; id++) {
+            min = Math.min(min, prices[id]);
+        }
+        return min;
+    }
+
+    /**
+     * Returns the highest price of the catalog.
+     *
+     * @return the highest price, NaN if the catalog is empty.
+     */
+    public double maxPrice() {
+        if (size == 0) {
+            return Double.NaN;
+        }
+        double max = prices[0];
+        for (int id = 1; id < size; id++) {
+            max = Math.max(max, prices[id]);
+        }
+        return max;
+    }
+
+    /**
+     * Returns the average price of the catalog.
+     *
+     * @return the average price, NaN if the catalog is empty.
+     */
+    public double averagePrice() {
+        double total = 0;
+        for (int id = 0; id < size; id++) {
+            total += prices[id];
+        }
+        return total / size;
+    }
+
+    /**
+     * Returns the average price of some books.
+     *
+     * @param ids ids of the books, e.g. the result of a filter.
+     * @return the average price, NaN if there are no ids.
+     */
+    public double averagePrice(int[] ids) {
+        double total = 0;
+        for (int id : ids) {
+            checkId(id);
+            total += prices[id];
+        }
+        return total / ids.length;
+    }
+
+    /**
+     * Counts the books of each genre.
+     *
+     * @return number of books indexed by genre id.
+     */
+    public int[] countByGenre() {
+        int[] counts = new int[genreDictionary.size()];
+        for (int id = 0; id < size; id++) {
+            if (genres[id] != StringDictionary.NO_ID) {
+                counts[genres[id]]++;
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Computes the average price of each genre.
+     *
+     * @return average price indexed by genre id, NaN for genres without books.
+     */
+    public double[] averagePriceByGenre() {
+        int[] counts = countByGenre();
+        double[] averages = new double[counts.length];
+        for (int id = 0; id < size; id++) {
+            if (genres[id] != StringDictionary.NO_ID) {
+                averages[genres[id]] += prices[id];
+            }
+        }
+        for (int genre = 0; genre < averages.length; genre++) {
+            averages[genre] /= counts[genre];
+        }
+        return averages;
+    }
+
+    /**
+     * Returns the price column, shared and not copied. Only the first {@link #size()} values are used.
+     *
+     * @return prices indexed by book id.
+     */
+    double[] priceColumn() {
+        return prices;
+    }
+
+    /**
+     * Returns the release date column, shared and not copied. Only the first {@link #size()} values are used.
+     *
+     * @return epoch days indexed by book id.
+     */
+    int[] releaseDayColumn() {
+        return releaseDays;
+    }
+
+    /**
+     * Returns the author column, shared and not copied. Only the first {@link #size()} values are used.
+     *
+     * @return author ids indexed by book id.
+     */
+    int[] authorColumn() {
+        return authors;
+    }
+
+    /**
+     * Returns the genre column, shared and not copied. Only the first {@link #size()} values are used.
+     *
+     * @return genre ids indexed by book id.
+     */
+    int[] genreColumn() {
+        return genres;
+    }
+
+    /**
+     * Returns the publisher column, shared and not copied. Only the first {@link #size()} values are used.
+     *
+     * @return publisher ids indexed by book id.
+     */
+    int[] publisherColumn() {
+        return publishers;
+    }
+
+    /**
+     * Returns the language column, shared and not copied. Only the first {@link #size()} values are used.
+     *
+     * @return language ids indexed by book id.
+     */
+    byte[] languageColumn() {
+        return languages;
+    }
+
+    /**
+     * Checks that an id belongs to the catalog.
+     *
+     * @param id book id.
+     * @throws IndexOutOfBoundsException if it does not.
+     */
+    private void checkId(int id) {
+        if (id < 0 || id >= size) {
+            throw new IndexOutOfBoundsException("Book id " + id + " out of bounds for size " + size);
+        }
+    }
+
+    /**
+     * Finds the books whose dictionary id in a column is the given one.
+     *
+     * @param column column to scan.
+     * @param wanted dictionary id to find.
+     * @return ids of the matching books, in id order.
+     */
+    private int[] filterById(int[] column, int wanted) {
+        IntList ids = new IntList();
+        if (wanted != StringDictionary.NO_ID) {
+            for (int id = 0; id < size; id++) {
+                if (column[id] == wanted) {
+                    ids.add(id);
+                }
+            }
+        }
+        return ids.toArray();
+    }
+
+    /**
+     * Grows all the columns by half their size.
+     */
+    private void grow() {
+        int capacity = prices.length + (prices.length >> 1) + 1;
+        titles = Arrays.copyOf(titles, capacity);
+        authors = Arrays.copyOf(authors, capacity);
+        genres = Arrays.copyOf(genres, capacity);
+        publishers = Arrays.copyOf(publishers, capacity);
+        releaseDays = Arrays.copyOf(releaseDays, capacity);
+        languages = Arrays.copyOf(languages, capacity);
+        isbns = Arrays.copyOf(isbns, capacity);
+        prices = Arrays.copyOf(prices, capacity);
+    }
+}
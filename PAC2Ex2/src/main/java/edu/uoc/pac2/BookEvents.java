@@ -0,0 +1,71 @@
+package edu.uoc.pac2;
+
+import java.util.Arrays;
+
+/**
+ * Registry of the {@link BookListener}s notified by the {@link Book} setters, e.g. to invalidate cached views of
+ * a changed book.
+ * <p>
+ * Books have no room for a listener of their own, so the listeners are global and see the changes of every book.
+ * The registry is copied on each registration, so notifying reads a plain array without locking and costs one
+ * volatile read when nobody listens.
+ *
+ * @author Arnau López Pagès
+ * @version 1.0
+ */
+public final class BookEvents {
+
+    /**
+     * Registered listeners, replaced by a new array on each change.
+     */
+    private static volatile BookListener[] listeners = new BookListener[0];
+
+    private BookEvents() {
+    }
+
+    /**
+     * Registers a listener of the changes of all the books.
+     *
+     * @param listener listener to call after each change.
+     */
+    public static synchronized void addListener(BookListener listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException("Listener must not be null");
+        }
+        BookListener[] added = Arrays.copyOf(listeners, listeners.length + 1);
+        added[added.length - 1] = listener;
+        listeners = added;
+    }
+
+    /**
+     * Unregisters a listener.
+     *
+     * @param listener listener to remove.
+     * @return true if it was registered.
+     */
+    public static synchronized boolean removeListener(BookListener listener) {
+        BookListener[] current = listeners;
+        for (int i = 0; i < current.length; i++) {
+            if (current[i] == listener) {
+                BookListener[] remaining = new BookListener[current.length - 1];
+                System.arraycopy(current, 0, remaining, 0, i);
+                System.arraycopy(current, i + 1, remaining, i, remaining.length - i);
+                listeners = remaining;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Notifies the listeners that a book changed.
+     *
+     * @param book         changed book.
+     * @param previousIsbn ISBN of the book before the change.
+     */
+    static void changed(Book book, String previousIsbn) {
+        for (BookListener listener : listeners) {
+            listener.bookChanged(book, previousIsbn);
+        }
+    }
+}
@@ -0,0 +1,577 @@
+package edu.uoc.pac2;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.Year;
+import java.util.function.Consumer;
+
+/**
+ * Streaming importer of books from CSV or TSV files.
+ * <p>
+ * Each row has the eight fields of a {@link Book} in constructor order: title, author, genre, publisher, release
+ * date ({@code yyyy-MM-dd}), language, ISBN and price. The file is memory-mapped window by window and fields are
+ * validated straight from the mapped bytes with the {@link BookValidator} rules, through a reused
+ * {@link CharSequence} view. Strings are only created for the rows that become books, and for the rejected rows
+ * that are reported. Memory use does not depend on the size of the file.
+ * <p>
+ * CSV fields may be quoted with {@code "}, doubling it inside, and quoted fields may span lines. TSV fields are
+ * never quoted. Lines end with {@code \n} or {@code \r\n}, the text is UTF-8 and blank lines are skipped.
+ *
+ * @author Arnau López Pagès
+ * @version 1.0
+ */
+public final class BookImporter {
+
+    /**
+     * Number of fields of a row.
+     */
+    private static final int FIELDS = 8;
+
+    /**
+     * Default number of bytes mapped at once.
+     */
+    private static final int DEFAULT_WINDOW = 64 << 20;
+
+    /**
+     * Powers of ten that are exact doubles.
+     */
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15
+    };
+
+    /**
+     * Number of slots of the cache of repeated strings, a power of two.
+     */
+    private static final int RECENT_STRINGS = 4096;
+
+    /**
+     * Field separator.
+     */
+    private final byte delimiter;
+
+    /**
+     * Whether fields may be quoted.
+     */
+    private final boolean quoting;
+
+    /**
+     * Whether the first row is a header to skip.
+     */
+    private boolean header;
+
+    /**
+     * Maximum number of rejections kept in the report.
+     */
+    private int maxRejections = 100;
+
+    /**
+     * Listener of every rejected row, null for none.
+     */
+    private Consumer<ImportReport.Rejection> rejectionListener;
+
+    /**
+     * Number of bytes mapped at once. A row cannot be longer.
+     */
+    private int window = DEFAULT_WINDOW;
+
+    private BookImporter(byte delimiter, boolean quoting) {
+        this.delimiter = delimiter;
+        this.quoting = quoting;
+    }
+
+    /**
+     * Creates an importer of comma separated files.
+     *
+     * @return a new importer.
+     */
+    public static BookImporter csv() {
+        return new BookImporter((byte) ',', true);
+    }
+
+    /**
+     * Creates an importer of tab separated files.
+     *
+     * @return a new importer.
+     */
+    public static BookImporter tsv() {
+        return new BookImporter((byte) '\t', false);
+    }
+
+    /**
+     * Skips the first row of the files.
+     *
+     * @return this importer.
+     */
+    public BookImporter withHeader() {
+        header = true;
+        return this;
+    }
+
+    /**
+     * Changes how many rejected rows are kept in the report, 100 by default.
+     *
+     * @param max maximum number of rejections.
+     * @return this importer.
+     * @throws IllegalArgumentException if the maximum is negative.
+     */
+    public BookImporter maxRejections(int max) {
+        if (max < 0) {
+            throw new IllegalArgumentException("The maximum cannot be negative: " + max);
+        }
+        maxRejections = max;
+        return this;
+    }
+
+    /**
+     * Calls a listener for every rejected row, e.g. to write them all to an error file.
+     *
+     * @param listener listener of the rejected rows.
+     * @return this importer.
+     */
+    public BookImporter onRejection(Consumer<ImportReport.Rejection> listener) {
+        rejectionListener = listener;
+        return this;
+    }
+
+    /**
+     * Changes how many bytes are mapped at once.
+     *
+     * @param bytes window size, the longest possible row.
+     * @return this importer.
+     */
+    BookImporter window(int bytes) {
+        window = bytes;
+        return this;
+    }
+
+    /**
+     * Imports the books of a file into a catalog.
+     *
+     * @param file    file to read.
+     * @param catalog catalog receiving the valid books.
+     * @return the report of the import.
+     * @throws IOException If the file cannot be read or has a row longer than the mapping window.
+     */
+    public ImportReport importFile(Path file, BookCatalog catalog) throws IOException {
+        return importFile(file, catalog::add);
+    }
+
+    /**
+     * Imports the books of a file, passing each valid one to a consumer as soon as it is read.
+     *
+     * @param file  file to read.
+     * @param books consumer of the valid books.
+     * @return the report of the import.
+     * @throws IOException If the file cannot be read or has a row longer than the mapping window.
+     */
+    public ImportReport importFile(Path file, Consumer<Book> books) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return new Run(books).read(channel);
+        }
+    }
+
+    /**
+     * Parses a release date in {@code yyyy-MM-dd} form.
+     *
+     * @param field field to parse.
+     * @return the date, null if it is not a valid date in that form.
+     */
+    static LocalDate parseDate(ByteField field) {
+        if (field.length() != 10 || field.byteAt(4) != '-' || field.byteAt(7) != '-') {
+            return null;
+        }
+        int year = parseDigits(field, 0, 4);
+        int month = parseDigits(field, 5, 7);
+        int day = parseDigits(field, 8, 10);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > Month.of(month).length(Year.isLeap(year))) {
+            return null;
+        }
+        return LocalDate.of(year, month, day);
+    }
+
+    /**
+     * Parses a price. Plain decimals of up to 15 digits are computed from the bytes, with the same result as
+     * {@link Double#parseDouble}, which parses any other form.
+     *
+     * @param field field to parse.
+     * @return the price, NaN if it is not a number.
+     */
+    static double parsePrice(ByteField field) {
+        long mantissa = 0;
+        int digits = 0;
+        int decimals = -1;
+        for (int i = 0; i < field.length(); i++) {
+            int b = field.byteAt(i);
+            if (b >= '0' && b <= '9') {
+                mantissa = mantissa * 10 + (b - '0');
+                digits++;
+                if (decimals >= 0) {
+                    decimals++;
+                }
+            } else if (b == '.' && decimals < 0) {
+                decimals = 0;
+            } else {
+                digits = Integer.MAX_VALUE;
+                break;
+            }
+        }
+        if (digits > 0 && digits < POWERS_OF_TEN.length) {
+            // both operands are exact doubles, so the division is correctly rounded
+            return decimals > 0 ? mantissa / POWERS_OF_TEN[decimals] : mantissa;
+        }
+        try {
+            return Double.parseDouble(field.toString());
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+    /**
+     * Parses a run of ASCII digits.
+     *
+     * @param field field to read.
+     * @param from  first position, inclusive.
+     * @param to    last position, exclusive.
+     * @return the number, -1 if there is a character that is not a digit.
+     */
+    private static int parseDigits(ByteField field, int from, int to) {
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            int b = field.byteAt(i);
+            if (b < '0' || b > '9') {
+                return -1;
+            }
+            value = value * 10 + (b - '0');
+        }
+        return value;
+    }
+
+    /**
+     * Keeps the digits of an ISBN, as {@link Book#setIsbn} does.
+     *
+     * @param field ISBN field.
+     * @return the digits.
+     */
+    private static String isbnDigits(ByteField field) {
+        char[] digits = new char[field.length()];
+        int count = 0;
+        for (int i = 0; i < field.length(); i++) {
+            int b = field.byteAt(i);
+            if (b >= '0' && b <= '9') {
+                digits[count++] = (char) b;
+            }
+        }
+        return new String(digits, 0, count);
+    }
+
+    /**
+     * State of one import.
+     */
+    private final class Run {
+
+        /**
+         * Consumer of the valid books.
+         */
+        private final Consumer<Book> books;
+
+        /**
+         * Report being filled.
+         */
+        private final ImportReport report = new ImportReport(maxRejections);
+
+        /**
+         * Bounds of the fields of the current row, relative to the window. Only the first {@link #FIELDS} are kept.
+         */
+        private final int[] starts = new int[FIELDS];
+        private final int[] ends = new int[FIELDS];
+
+        /**
+         * Whether each field of the current row has doubled quotes to remove.
+         */
+        private final boolean[] escaped = new boolean[FIELDS];
+
+        /**
+         * Views over the fields of the current row.
+         */
+        private final ByteField[] views = new ByteField[FIELDS];
+
+        /**
+         * Number of fields of the current row.
+         */
+        private int fields;
+
+        /**
+         * Line breaks inside the quoted fields of the current row.
+         */
+        private int newlines;
+
+        /**
+         * Whether the current row has text after a closing quote or an unclosed quote.
+         */
+        private boolean malformed;
+
+        /**
+         * Unquoted copies of the escaped fields of the current row.
+         */
+        private ByteBuffer scratch = ByteBuffer.allocate(256);
+
+        /**
+         * Recently decoded authors, genres and publishers, so that rows repeating them share one string.
+         */
+        private final String[] recent = new String[RECENT_STRINGS];
+
+        /**
+         * Line where the next row starts.
+         */
+        private long line = 1;
+
+        /**
+         * Whether the next row is the header.
+         */
+        private boolean skipHeader = header;
+
+        Run(Consumer<Book> books) {
+            this.books = books;
+            for (int i = 0; i < FIELDS; i++) {
+                views[i] = new ByteField();
+            }
+        }
+
+        /**
+         * Reads all the rows of a file.
+         *
+         * @param channel file to read.
+         * @return the report.
+         * @throws IOException If the file cannot be read or has a row longer than the window.
+         */
+        ImportReport read(FileChannel channel) throws IOException {
+            long size = channel.size();
+            for (long position = 0; position < size; ) {
+                boolean last = size - position <= window;
+                ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position,
+                        last ? size - position : window);
+                int limit = buffer.limit();
+                int start = 0;
+                for (int end = split(buffer, start, limit, last); end >= 0; end = split(buffer, start, limit, last)) {
+                    accept(buffer, start, end);
+                    start = end;
+                    if (start == limit) {
+                        break;
+                    }
+                }
+                if (start == 0 && !last) {
+                    throw new IOException("The row at line " + line + " is longer than " + window + " bytes");
+                }
+                // the next window starts with the row that did not fit in this one
+                position += start;
+            }
+            return report;
+        }
+
+        /**
+         * Finds the fields of the row that starts at a position.
+         *
+         * @param buffer window of the file.
+         * @param start  position of the row.
+         * @param limit  end of the window.
+         * @param last   whether the window reaches the end of the file.
+         * @return position after the row, -1 if the row does not end in this window.
+         */
+        private int split(ByteBuffer buffer, int start, int limit, boolean last) {
+            fields = 0;
+            newlines = 0;
+            malformed = false;
+            int i = start;
+            while (true) {
+                int from = i;
+                int to = i;
+                boolean quoted = quoting && i < limit && buffer.get(i) == '"';
+                boolean doubled = false;
+                if (quoted) {
+                    from = ++i;
+                    while (true) {
+                        if (i >= limit) {
+                            if (!last) {
+                                return -1;
+                            }
+                            malformed = true;
+                            break;
+                        }
+                        byte b = buffer.get(i);
+                        if (b == '"') {
+                            if (i + 1 >= limit && !last) {
+                                return -1;
+                            }
+                            if (i + 1 < limit && buffer.get(i + 1) == '"') {
+                                doubled = true;
+                                i += 2;
+                                continue;
+                            }
+                            break;
+                        }
+                        if (b == '\n') {
+                            newlines++;
+                        }
+                        i++;
+                    }
+                    to = i;
+                    if (i < limit) {
+                        i++;
+                    }
+                }
+                // an unquoted field, or whatever follows a closing quote, runs up to the delimiter or line end
+                int text = i;
+                while (i < limit && buffer.get(i) != delimiter && buffer.get(i) != '\n') {
+                    i++;
+                }
+                if (i >= limit && !last) {
+                    return -1;
+                }
+                int end = i > text && buffer.get(i - 1) == '\r' ? i - 1 : i;
+                if (quoted) {
+                    malformed |= end > text;
+                } else {
+                    to = end;
+                }
+                if (fields < FIELDS) {
+                    starts[fields] = from;
+                    ends[fields] = to;
+                    escaped[fields] = doubled;
+                }
+                fields++;
+                if (i >= limit) {
+                    return limit;
+                }
+                if (buffer.get(i) == '\n') {
+                    return i + 1;
+                }
+                i++;
+            }
+        }
+
+        /**
+         * Turns the row just split into a book or a rejection.
+         *
+         * @param buffer window of the file.
+         * @param start  position of the row.
+         * @param end    position after the row.
+         */
+        private void accept(ByteBuffer buffer, int start, int end) {
+            long rowLine = line;
+            line += 1 + newlines;
+            if (fields == 1 && starts[0] == ends[0]) {
+                return;
+            }
+            if (skipHeader) {
+                skipHeader = false;
+                return;
+            }
+            if (malformed) {
+                reject(rowLine, BookValidator.VALID, "[ERROR] Malformed quoted field.", buffer, start, end);
+                return;
+            }
+            if (fields != FIELDS) {
+                reject(rowLine, BookValidator.VALID, "[ERROR] Expected " + FIELDS + " fields but found " + fields
+                        + ".", buffer, start, end);
+                return;
+            }
+            bind(buffer);
+            LocalDate releaseDate = parseDate(views[4]);
+            double price = parsePrice(views[7]);
+            int errors = BookValidator.checkTitle(views[0]) | BookValidator.checkAuthor(views[1])
+                    | BookValidator.checkGenre(views[2]) | BookValidator.checkPublisher(views[3])
+                    | BookValidator.checkReleaseDate(releaseDate) | BookValidator.checkLanguage(views[5])
+                    | BookValidator.checkIsbn(views[6]) | BookValidator.checkPrice(price);
+            if (errors != BookValidator.VALID) {
+                reject(rowLine, errors, BookValidator.describe(errors), buffer, start, end);
+                return;
+            }
+            books.accept(new Book(views[0].toString(), decode(views[1]), decode(views[2]), decode(views[3]),
+                    releaseDate, Language.fromName(views[5]).getName(), isbnDigits(views[6]),
+                    price));
+            report.imported();
+        }
+
+        /**
+         * Decodes a field that is likely to repeat, reusing the string of the last equal one.
+         *
+         * @param field field to decode.
+         * @return the text of the field.
+         */
+        private String decode(ByteField field) {
+            int slot = field.hash() & (RECENT_STRINGS - 1);
+            String cached = recent[slot];
+            if (cached == null || !field.contentEquals(cached)) {
+                cached = field.toString();
+                recent[slot] = cached;
+            }
+            return cached;
+        }
+
+        /**
+         * Points the views at the fields of the row, copying the escaped ones without their doubled quotes.
+         *
+         * @param buffer window of the file.
+         */
+        private void bind(ByteBuffer buffer) {
+            int needed = 0;
+            for (int field = 0; field < FIELDS; field++) {
+                if (escaped[field]) {
+                    needed += ends[field] - starts[field];
+                }
+            }
+            if (needed > scratch.capacity()) {
+                scratch = ByteBuffer.allocate(Math.max(needed, scratch.capacity() * 2));
+            }
+            int used = 0;
+            for (int field = 0; field < FIELDS; field++) {
+                if (!escaped[field]) {
+                    views[field].set(buffer, starts[field], ends[field]);
+                    continue;
+                }
+                int from = used;
+                for (int i = starts[field]; i < ends[field]; i++) {
+                    byte b = buffer.get(i);
+                    scratch.put(used++, b);
+                    if (b == '"') {
+                        i++;
+                    }
+                }
+                views[field].set(scratch, from, used);
+            }
+        }
+
+        /**
+         * Reports a rejected row.
+         *
+         * @param rowLine line where the row starts.
+         * @param errors  flags of the invalid fields.
+         * @param message why the row was rejected.
+         * @param buffer  window of the file.
+         * @param start   position of the row.
+         * @param end     position after the row.
+         */
+        private void reject(long rowLine, int errors, String message, ByteBuffer buffer, int start, int end) {
+            report.rejected();
+            if (report.hasRoom() || rejectionListener != null) {
+                while (end > start && (buffer.get(end - 1) == '\n' || buffer.get(end - 1) == '\r')) {
+                    end--;
+                }
+                byte[] row = new byte[end - start];
+                buffer.get(start, row);
+                ImportReport.Rejection rejection = new ImportReport.Rejection(rowLine, errors, message,
+                        new String(row, StandardCharsets.UTF_8));
+                report.keep(rejection);
+                if (rejectionListener != null) {
+                    rejectionListener.accept(rejection);
+                }
+            }
+        }
+    }
+}
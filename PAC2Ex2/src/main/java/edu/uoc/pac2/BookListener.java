@@ -0,0 +1,22 @@
+package edu.uoc.pac2;
+
+/**
+ * Receives the changes made to {@link Book} objects through their setters, see {@link BookEvents}.
+ * <p>
+ * Listeners are called synchronously, after the field is stored, by the thread that called the setter, so they
+ * must be quick and thread-safe.
+ *
+ * @author Arnau López Pagès
+ * @version 1.0
+ */
+public interface BookListener {
+
+    /**
+     * Called after a setter changes a book.
+     *
+     * @param book         changed book.
+     * @param previousIsbn ISBN of the book before the change, which differs from the current one only when the
+     *                     ISBN itself changed.
+     */
+    void bookChanged(Book book, String previousIsbn);
+}
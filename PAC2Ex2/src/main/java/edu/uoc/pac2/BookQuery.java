@@ -0,0 +1,758 @@
+package edu.uoc.pac2;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Query over the books of a {@link BookCatalog}, e.g. "classics by an author under a price".
+ * <p>
+ * Conditions mirror the {@link Book} predicates and are combined with a logical and. They are not evaluated one
+ * by one on materialized books: when the query runs, they are resolved to bounds and dictionary ids and checked in
+ * a single pass over the primitive columns. The catalog is split in ranges that run as fork/join tasks, in the
+ * common pool unless another pool is given. Queries with a {@link #limit} stop scanning the ranges that can no
+ * longer contribute to the first results, and top-N queries keep a bounded heap per range instead of sorting all
+ * the matches.
+ * <p>
+ * Results are always the same as a sequential scan. The catalog must not change while a query runs.
+ *
+ * @author Arnau López Pagès
+ * @version 1.0
+ */
+public final class BookQuery {
+
+    /**
+     * Minimum number of books scanned by one task.
+     */
+    private static final int MIN_LEAF_SIZE = 4096;
+
+    /**
+     * Number of books scanned between two checks of whether a limited scan can stop.
+     */
+    private static final int CHECK_INTERVAL = 1024;
+
+    /**
+     * Id of a condition on a dictionary column that is not set.
+     */
+    private static final int ANY = -2;
+
+    /**
+     * Queried catalog.
+     */
+    private final BookCatalog catalog;
+
+    /**
+     * Pool running the tasks, null to scan in the calling thread.
+     */
+    private ForkJoinPool pool = ForkJoinPool.commonPool();
+
+    /**
+     * Whether only classics match.
+     */
+    private boolean classics;
+
+    /**
+     * Author of the matching books, compared ignoring case, null for any.
+     */
+    private String author;
+
+    /**
+     * Genre of the matching books, null for any.
+     */
+    private String genre;
+
+    /**
+     * Language id of the matching books, {@link #ANY} for any.
+     */
+    private int language = ANY;
+
+    /**
+     * Price the matching books are cheaper than.
+     */
+    private double priceBelow = Double.POSITIVE_INFINITY;
+
+    /**
+     * First release date of the matching books, as an epoch day.
+     */
+    private long firstDay = Long.MIN_VALUE;
+
+    /**
+     * Last release date of the matching books, as an epoch day.
+     */
+    private long lastDay = Long.MAX_VALUE;
+
+    /**
+     * Whether two conditions contradict each other, so nothing matches.
+     */
+    private boolean contradiction;
+
+    /**
+     * Maximum number of results.
+     */
+    private int limit = Integer.MAX_VALUE;
+
+    private BookQuery(BookCatalog catalog) {
+        this.catalog = catalog;
+    }
+
+    /**
+     * Starts a query matching all the books of a catalog.
+     *
+     * @param catalog catalog to query.
+     * @return a new query.
+     */
+    public static BookQuery on(BookCatalog catalog) {
+        return new BookQuery(catalog);
+    }
+
+    /**
+     * Keeps the classics, see {@link Book#isClassic}. Books without release date are not classics.
+     *
+     * @return this query.
+     */
+    public BookQuery classics() {
+        classics = true;
+        return this;
+    }
+
+    /**
+     * Keeps the books of an author, see {@link Book#isWrittenBy}.
+     *
+     * @param authorName author name, compared ignoring case.
+     * @return this query.
+     */
+    public BookQuery writtenBy(String authorName) {
+        if (authorName == null || author != null && !author.equalsIgnoreCase(authorName)) {
+            contradiction = true;
+        }
+        author = authorName;
+        return this;
+    }
+
+    /**
+     * Keeps the books cheaper than a price.
+     *
+     * @param price price the books must be cheaper than.
+     * @return this query.
+     */
+    public BookQuery cheaperThan(double price) {
+        priceBelow = Math.min(priceBelow, price);
+        return this;
+    }
+
+    /**
+     * Keeps the books cheaper than another book, see {@link Book#isCheaperThan}.
+     *
+     * @param otherBook book to compare with, nothing matches if it is null.
+     * @return this query.
+     */
+    public BookQuery cheaperThan(Book otherBook) {
+        if (otherBook == null) {
+            contradiction = true;
+            return this;
+        }
+        return cheaperThan(otherBook.getPrice());
+    }
+
+    /**
+     * Keeps the books released in a range of dates.
+     *
+     * @param from first date, inclusive.
+     * @param to   last date, inclusive.
+     * @return this query.
+     */
+    public BookQuery releasedBetween(LocalDate from, LocalDate to) {
+        firstDay = Math.max(firstDay, from.toEpochDay());
+        lastDay = Math.min(lastDay, to.toEpochDay());
+        return this;
+    }
+
+    /**
+     * Keeps the books of a genre.
+     *
+     * @param genreName exact genre name.
+     * @return this query.
+     */
+    public BookQuery inGenre(String genreName) {
+        if (genreName == null || genre != null && !genre.equals(genreName)) {
+            contradiction = true;
+        }
+        genre = genreName;
+        return this;
+    }
+
+    /**
+     * Keeps the books written in a language.
+     *
+     * @param bookLanguage language of the books.
+     * @return this query.
+     */
+    public BookQuery inLanguage(Language bookLanguage) {
+        if (language != ANY && language != bookLanguage.id()) {
+            contradiction = true;
+        }
+        language = bookLanguage.id();
+        return this;
+    }
+
+    /**
+     * Limits the number of results of {@link #ids}, {@link #books} and {@link #count} to the first ones in id
+     * order. Scanning stops as soon as they are known.
+     *
+     * @param maxResults maximum number of results.
+     * @return this query.
+     * @throws IllegalArgumentException if the limit is negative.
+     */
+    public BookQuery limit(int maxResults) {
+        if (maxResults < 0) {
+            throw new IllegalArgumentException("The limit cannot be negative: " + maxResults);
+        }
+        limit = maxResults;
+        return this;
+    }
+
+    /**
+     * Runs the query as tasks of a pool.
+     *
+     * @param forkJoinPool pool running the tasks.
+     * @return this query.
+     * @throws IllegalArgumentException if the pool is null.
+     */
+    public BookQuery parallel(ForkJoinPool forkJoinPool) {
+        if (forkJoinPool == null) {
+            throw new IllegalArgumentException("The pool cannot be null");
+        }
+        pool = forkJoinPool;
+        return this;
+    }
+
+    /**
+     * Runs the query in the calling thread.
+     *
+     * @return this query.
+     */
+    public BookQuery sequential() {
+        pool = null;
+        return this;
+    }
+
+    /**
+     * Finds the matching books.
+     *
+     * @return ids of the matching books, in id order.
+     */
+    public int[] ids() {
+        Result result = run(Mode.IDS, 0, 1);
+        return result != null ? result.ids.toArray() : new int[0];
+    }
+
+    /**
+     * Finds and materializes the matching books, see {@link BookCatalog#get}.
+     *
+     * @return the matching books, in id order.
+     */
+    public List<Book> books() {
+        int[] ids = ids();
+        List<Book> books = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            books.add(catalog.get(id));
+        }
+        return books;
+    }
+
+    /**
+     * Counts the matching books.
+     *
+     * @return number of matching books.
+     */
+    public int count() {
+        Result result = run(Mode.COUNT, 0, 1);
+        return result != null ? result.count : 0;
+    }
+
+    /**
+     * Finds the cheapest matching books. The limit is ignored.
+     *
+     * @param n number of books.
+     * @return ids of at most {@code n} books, by increasing price and then id.
+     * @throws IllegalArgumentException if {@code n} is negative.
+     */
+    public int[] cheapest(int n) {
+        return top(n, 1);
+    }
+
+    /**
+     * Finds the most expensive matching books. The limit is ignored.
+     *
+     * @param n number of books.
+     * @return ids of at most {@code n} books, by decreasing price and then increasing id.
+     * @throws IllegalArgumentException if {@code n} is negative.
+     */
+    public int[] mostExpensive(int n) {
+        return top(n, -1);
+    }
+
+    /**
+     * Finds the first matching books by price.
+     *
+     * @param n     number of books.
+     * @param order 1 for increasing prices, -1 for decreasing prices.
+     * @return ids of at most {@code n} books.
+     */
+    private int[] top(int n, int order) {
+        if (n < 0) {
+            throw new IllegalArgumentException("The number of books cannot be negative: " + n);
+        }
+        Result result = n > 0 ? run(Mode.TOP, n, order) : null;
+        return result != null ? result.top.toSortedArray() : new int[0];
+    }
+
+    /**
+     * Runs the query.
+     *
+     * @param mode  what to collect.
+     * @param n     size of the top, for {@link Mode#TOP}.
+     * @param order order of the top, for {@link Mode#TOP}.
+     * @return the result, null if nothing can match.
+     */
+    private Result run(Mode mode, int n, int order) {
+        Plan plan = plan(mode, n, order);
+        if (plan == null) {
+            return null;
+        }
+        int size = catalog.size();
+        if (pool == null || size <= MIN_LEAF_SIZE) {
+            return plan.scan(0, size);
+        }
+        plan.leafSize = Math.max(MIN_LEAF_SIZE, size / (pool.getParallelism() * 4));
+        return pool.invoke(new Scan(plan, 0, size));
+    }
+
+    /**
+     * Resolves the conditions against the current content of the catalog.
+     *
+     * @param mode  what to collect.
+     * @param n     size of the top, for {@link Mode#TOP}.
+     * @param order order of the top, for {@link Mode#TOP}.
+     * @return the plan, null if nothing can match.
+     */
+    private Plan plan(Mode mode, int n, int order) {
+        if (contradiction || mode != Mode.TOP && limit == 0) {
+            return null;
+        }
+        long first = Integer.MIN_VALUE;
+        long last = Integer.MAX_VALUE;
+        if (classics || firstDay != Long.MIN_VALUE || lastDay != Long.MAX_VALUE) {
+            // NO_DATE is the lowest int, so a first day above it also skips the books without date
+            first = Math.max(firstDay, BookCatalog.NO_DATE + 1L);
+            last = Math.min(lastDay, last);
+            if (classics) {
+                last = Math.min(last, CatalogClock.current().classicThreshold() - 1L);
+            }
+            if (first > last) {
+                return null;
+            }
+        }
+
+        boolean[] authors = null;
+        if (author != null) {
+            StringDictionary dictionary = catalog.getAuthors();
+            authors = new boolean[dictionary.size()];
+            boolean any = false;
+            for (int id = 0; id < authors.length; id++) {
+                authors[id] = dictionary.get(id).equalsIgnoreCase(author);
+                any |= authors[id];
+            }
+            if (!any) {
+                return null;
+            }
+        }
+
+        int genreId = ANY;
+        if (genre != null) {
+            genreId = catalog.getGenres().idOf(genre);
+            if (genreId == StringDictionary.NO_ID) {
+                return null;
+            }
+        }
+
+        // a top never holds more books than the catalog
+        return new Plan(catalog, mode, mode == Mode.TOP ? Integer.MAX_VALUE : limit, Math.min(n, catalog.size()),
+                order, priceBelow, (int) first, (int) last, authors, genreId, language);
+    }
+
+    /**
+     * What a query collects.
+     */
+    private enum Mode {
+        IDS, COUNT, TOP
+    }
+
+    /**
+     * Conditions of a running query, resolved to column values.
+     */
+    private static final class Plan {
+
+        /**
+         * What to collect.
+         */
+        final Mode mode;
+
+        /**
+         * Maximum number of results.
+         */
+        final int limit;
+
+        /**
+         * Size of the top.
+         */
+        final int n;
+
+        /**
+         * 1 for the cheapest books, -1 for the most expensive ones.
+         */
+        final int order;
+
+        /**
+         * Columns of the catalog.
+         */
+        final double[] prices;
+        final int[] releaseDays;
+        final int[] authors;
+        final int[] genres;
+        final byte[] languages;
+
+        /**
+         * Price the matching books are cheaper than.
+         */
+        final double priceBelow;
+
+        /**
+         * Range of release dates, as inclusive epoch days.
+         */
+        final int firstDay;
+        final int lastDay;
+
+        /**
+         * Accepted author ids, null for any.
+         */
+        final boolean[] authorIds;
+
+        /**
+         * Accepted genre id, {@link #ANY} for any.
+         */
+        final int genre;
+
+        /**
+         * Accepted language id, {@link #ANY} for any.
+         */
+        final int language;
+
+        /**
+         * Start of the first range after a range that already found {@link #limit} books. Ranges starting there
+         * or later cannot contribute to the result.
+         */
+        final AtomicInteger stopAt = new AtomicInteger(Integer.MAX_VALUE);
+
+        /**
+         * Maximum number of books scanned by one task.
+         */
+        int leafSize;
+
+        Plan(BookCatalog catalog, Mode mode, int limit, int n, int order, double priceBelow, int firstDay,
+             int lastDay, boolean[] authorIds, int genre, int language) {
+            this.mode = mode;
+            this.limit = limit;
+            this.n = n;
+            this.order = order;
+            this.prices = catalog.priceColumn();
+            this.releaseDays = catalog.releaseDayColumn();
+            this.authors = catalog.authorColumn();
+            this.genres = catalog.genreColumn();
+            this.languages = catalog.languageColumn();
+            this.priceBelow = priceBelow;
+            this.firstDay = firstDay;
+            this.lastDay = lastDay;
+            this.authorIds = authorIds;
+            this.genre = genre;
+            this.language = language;
+        }
+
+        /**
+         * Checks if a book matches all the conditions.
+         *
+         * @param id book id.
+         * @return true if it matches.
+         */
+        boolean matches(int id) {
+            return prices[id] < priceBelow
+                    && releaseDays[id] >= firstDay && releaseDays[id] <= lastDay
+                    && (authorIds == null || authors[id] != StringDictionary.NO_ID && authorIds[authors[id]])
+                    && (genre == ANY || genres[id] == genre)
+                    && (language == ANY || languages[id] == language);
+        }
+
+        /**
+         * Scans a range of books.
+         *
+         * @param from first book id, inclusive.
+         * @param to   last book id, exclusive.
+         * @return what was collected.
+         */
+        Result scan(int from, int to) {
+            Result result = new Result(this, to - from);
+            for (int start = from; start < to && from < stopAt.get(); start += CHECK_INTERVAL) {
+                int end = Math.min(to - start, CHECK_INTERVAL) + start;
+                for (int id = start; id < end; id++) {
+                    if (matches(id)) {
+                        result.accept(id);
+                    }
+                }
+                if (result.count >= limit) {
+                    stopAt.accumulateAndGet(to, Math::min);
+                    break;
+                }
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Matches of a range of books.
+     */
+    private static final class Result {
+
+        /**
+         * Plan of the query.
+         */
+        final Plan plan;
+
+        /**
+         * Matching ids, for {@link Mode#IDS}.
+         */
+        final IntList ids;
+
+        /**
+         * Best books, for {@link Mode#TOP}.
+         */
+        final TopN top;
+
+        /**
+         * Number of matches, up to the limit.
+         */
+        int count;
+
+        Result(Plan plan, int books) {
+            this.plan = plan;
+            this.ids = plan.mode == Mode.IDS ? new IntList() : null;
+            // the heap starts at the size of the range and grows as ranges are merged
+            this.top = plan.mode == Mode.TOP
+                    ? new TopN(plan.n, Math.min(plan.n, books), plan.prices, plan.order) : null;
+        }
+
+        /**
+         * Collects a matching book, if the limit was not reached yet.
+         *
+         * @param id book id.
+         */
+        void accept(int id) {
+            if (count < plan.limit) {
+                count++;
+                if (ids != null) {
+                    ids.add(id);
+                } else if (top != null) {
+                    top.offer(id);
+                }
+            }
+        }
+
+        /**
+         * Adds the matches of the next range.
+         *
+         * @param next matches of the range after this one.
+         * @return this result.
+         */
+        Result merge(Result next) {
+            if (top != null) {
+                top.addAll(next.top);
+                count += next.count;
+            } else if (ids != null) {
+                for (int i = 0; i < next.ids.size() && count < plan.limit; i++) {
+                    accept(next.ids.get(i));
+                }
+            } else {
+                count = (int) Math.min((long) count + next.count, plan.limit);
+            }
+            return this;
+        }
+    }
+
+    /**
+     * Task scanning a range of books, split in halves while it is bigger than {@link Plan#leafSize}.
+     */
+    private static final class Scan extends RecursiveTask<Result> {
+
+        /**
+         * Version of the serialized form; the task is serializable as a ForkJoinTask.
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * Plan of the query.
+         */
+        private final Plan plan;
+
+        /**
+         * Range of book ids, from inclusive to exclusive.
+         */
+        private final int from;
+        private final int to;
+
+        Scan(Plan plan, int from, int to) {
+            this.plan = plan;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Result compute() {
+            if (to - from <= plan.leafSize) {
+                return plan.scan(from, to);
+            }
+            int middle = (from + to) >>> 1;
+            Scan next = new Scan(plan, middle, to);
+            next.fork();
+            // the first half runs here, so that limited scans find their first results early
+            Result result = new Scan(plan, from, middle).compute();
+            return result.merge(next.join());
+        }
+    }
+
+    /**
+     * Bounded heap of the best book ids by price, with the worst one at the root.
+     */
+    private static final class TopN {
+
+        /**
+         * Maximum number of kept books.
+         */
+        private final int n;
+
+        /**
+         * Kept book ids, only the first {@link #size} are used. Grows up to {@link #n} when heaps are merged.
+         */
+        private int[] heap;
+
+        /**
+         * Price column of the catalog.
+         */
+        private final double[] prices;
+
+        /**
+         * 1 if lower prices are better, -1 if higher prices are.
+         */
+        private final int order;
+
+        /**
+         * Number of kept books.
+         */
+        private int size;
+
+        TopN(int n, int capacity, double[] prices, int order) {
+            this.n = n;
+            this.heap = new int[capacity];
+            this.prices = prices;
+            this.order = order;
+        }
+
+        /**
+         * Keeps a book if it is better than the worst kept one.
+         *
+         * @param id book id.
+         */
+        void offer(int id) {
+            if (size < n) {
+                if (size == heap.length) {
+                    heap = Arrays.copyOf(heap, (int) Math.min(n, heap.length * 2L + 1));
+                }
+                heap[size] = id;
+                siftUp(size++);
+            } else if (worse(heap[0], id)) {
+                heap[0] = id;
+                siftDown(0);
+            }
+        }
+
+        /**
+         * Offers all the books of another heap.
+         *
+         * @param other heap to merge.
+         */
+        void addAll(TopN other) {
+            for (int i = 0; i < other.size; i++) {
+                offer(other.heap[i]);
+            }
+        }
+
+        /**
+         * Empties the heap into an array, best book first.
+         *
+         * @return the kept ids.
+         */
+        int[] toSortedArray() {
+            int[] sorted = new int[size];
+            for (int i = sorted.length - 1; i >= 0; i--) {
+                sorted[i] = heap[0];
+                heap[0] = heap[--size];
+                siftDown(0);
+            }
+            return sorted;
+        }
+
+        /**
+         * Compares two books by price and then id.
+         *
+         * @param a first book id.
+         * @param b second book id.
+         * @return true if {@code a} goes after {@code b}.
+         */
+        private boolean worse(int a, int b) {
+            int comparison = order * Double.compare(prices[a], prices[b]);
+            return comparison > 0 || comparison == 0 && a > b;
+        }
+
+        private void siftUp(int index) {
+            while (index > 0) {
+                int parent = (index - 1) >>> 1;
+                if (!worse(heap[index], heap[parent])) {
+                    return;
+                }
+                swap(index, parent);
+                index = parent;
+            }
+        }
+
+        private void siftDown(int index) {
+            for (int child = 2 * index + 1; child < size; child = 2 * index + 1) {
+                if (child + 1 < size && worse(heap[child + 1], heap[child])) {
+                    child++;
+                }
+                if (!worse(heap[child], heap[index])) {
+                    return;
+                }
+                swap(index, child);
+                index = child;
+            }
+        }
+
+        private void swap(int i, int j) {
+            int id = heap[i];
+            heap[i] = heap[j];
+            heap[j] = id;
+        }
+    }
+}
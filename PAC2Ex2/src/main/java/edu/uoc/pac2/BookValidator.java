@@ -0,0 +1,223 @@
+package edu.uoc.pac2;
+
+import java.time.LocalDate;
+
+/**
+ * Validates book fields without throwing exceptions.
+ * <p>
+ * Every check returns {@link #VALID} or the flag of the failed field, and {@link #validate} combines the flags of
+ * a whole row into a bitmask. Bulk importers can reject dirty rows without paying for the stack trace of an
+ * exception, while the {@link Book} setters keep throwing by turning a non valid result into an exception.
+ *
+ * @author Arnau López Pagès
+ * @version 1.0
+ */
+public final class BookValidator {
+
+    /**
+     * Result of a check that did not fail.
+     */
+    public static final int VALID = 0;
+
+    /**
+     * Flag of an invalid title.
+     */
+    public static final int TITLE = 1;
+
+    /**
+     * Flag of an empty author.
+     */
+    public static final int AUTHOR = 1 << 1;
+
+    /**
+     * Flag of an empty genre.
+     */
+    public static final int GENRE = 1 << 2;
+
+    /**
+     * Flag of an invalid publisher.
+     */
+    public static final int PUBLISHER = 1 << 3;
+
+    /**
+     * Flag of a release date in the future or older than 200 years.
+     */
+    public static final int RELEASE_DATE = 1 << 4;
+
+    /**
+     * Flag of a language that is not accepted.
+     */
+    public static final int LANGUAGE = 1 << 5;
+
+    /**
+     * Flag of an ISBN without 10 or 13 digits.
+     */
+    public static final int ISBN = 1 << 6;
+
+    /**
+     * Flag of a negative or zero price.
+     */
+    public static final int PRICE = 1 << 7;
+
+    private BookValidator() {
+    }
+
+    /**
+     * Checks the format of a title.
+     *
+     * @param title title to check.
+     * @return {@link #VALID} or {@link #TITLE}.
+     */
+    public static int checkTitle(CharSequence title) {
+        return FieldValidator.isValidTitle(title) ? VALID : TITLE;
+    }
+
+    /**
+     * Checks that an author is not empty.
+     *
+     * @param author author to check.
+     * @return {@link #VALID} or {@link #AUTHOR}.
+     */
+    public static int checkAuthor(CharSequence author) {
+        return FieldValidator.isBlank(author) ? AUTHOR : VALID;
+    }
+
+    /**
+     * Checks that a genre is not empty.
+     *
+     * @param genre genre to check.
+     * @return {@link #VALID} or {@link #GENRE}.
+     */
+    public static int checkGenre(CharSequence genre) {
+        return FieldValidator.isBlank(genre) ? GENRE : VALID;
+    }
+
+    /**
+     * Checks the format of a publisher.
+     *
+     * @param publisher publisher to check.
+     * @return {@link #VALID} or {@link #PUBLISHER}.
+     */
+    public static int checkPublisher(CharSequence publisher) {
+        return FieldValidator.isValidPublisher(publisher) ? VALID : PUBLISHER;
+    }
+
+    /**
+     * Checks that a release date is within the last 200 years and not in the future, according to
+     * {@link CatalogClock#current()}.
+     *
+     * @param releaseDate release date to check.
+     * @return {@link #VALID} or {@link #RELEASE_DATE}.
+     */
+    public static int checkReleaseDate(LocalDate releaseDate) {
+        return releaseDate != null && CatalogClock.current().isValidRelease(releaseDate.toEpochDay())
+                ? VALID : RELEASE_DATE;
+    }
+
+    /**
+     * Checks that a language is accepted.
+     *
+     * @param language language to check.
+     * @return {@link #VALID} or {@link #LANGUAGE}.
+     */
+    public static int checkLanguage(CharSequence language) {
+        return Language.fromName(language) != null ? VALID : LANGUAGE;
+    }
+
+    /**
+     * Checks that an ISBN has 10 or 13 digits.
+     *
+     * @param isbn ISBN to check.
+     * @return {@link #VALID} or {@link #ISBN}.
+     */
+    public static int checkIsbn(CharSequence isbn) {
+        return FieldValidator.isValidIsbn(isbn) ? VALID : ISBN;
+    }
+
+    /**
+     * Checks that a price is positive.
+     *
+     * @param price price to check.
+     * @return {@link #VALID} or {@link #PRICE}.
+     */
+    public static int checkPrice(double price) {
+        return price > 0 ? VALID : PRICE;
+    }
+
+    /**
+     * Checks all the fields of a book row.
+     *
+     * @param title       book title.
+     * @param author      book author.
+     * @param genre       book genre.
+     * @param publisher   book publisher.
+     * @param releaseDate book release date.
+     * @param language    book language.
+     * @param isbn        book ISBN.
+     * @param price       book price.
+     * @return bitmask with the flags of the invalid fields, {@link #VALID} if the row is valid.
+     */
+    public static int validate(String title, String author, String genre, String publisher, LocalDate releaseDate,
+                               String language, String isbn, double price) {
+        return checkTitle(title) | checkAuthor(author) | checkGenre(genre) | checkPublisher(publisher)
+                | checkReleaseDate(releaseDate) | checkLanguage(language) | checkIsbn(isbn) | checkPrice(price);
+    }
+
+    /**
+     * Checks all the fields of an existing book, e.g. one built with the constructor, which does not validate.
+     *
+     * @param book book to check.
+     * @return bitmask with the flags of the invalid fields, {@link #VALID} if the book is valid.
+     */
+    public static int validate(Book book) {
+        return validate(book.getTitle(), book.getAuthor(), book.getGenre(), book.getPublisher(),
+                book.getReleaseDate(), book.getLanguage(), book.getIsbn(), book.getPrice());
+    }
+
+    /**
+     * Returns the error message the setters use for a field.
+     *
+     * @param field flag of the field.
+     * @return error message of the field.
+     * @throws IllegalArgumentException if the value is not a single field flag.
+     */
+    public static String message(int field) {
+        switch (field) {
+            case TITLE:
+                return "[ERROR] Invalid title format.";
+            case AUTHOR:
+                return "[ERROR] Author cannot be empty.";
+            case GENRE:
+                return "[ERROR] Genre cannot be empty.";
+            case PUBLISHER:
+                return "[ERROR] Invalid publisher format.";
+            case RELEASE_DATE:
+                return "[ERROR] Invalid release date. It should be within the last 200 years and not in the future.";
+            case LANGUAGE:
+                return "[ERROR] Invalid language.";
+            case ISBN:
+                return "[ERROR] Invalid ISBN format.";
+            case PRICE:
+                return "[ERROR] Price cannot be neither negative nor zero.";
+            default:
+                throw new IllegalArgumentException("Not a field flag: " + field);
+        }
+    }
+
+    /**
+     * Describes all the failures of a bitmask, one message per line.
+     *
+     * @param errors bitmask returned by {@link #validate}.
+     * @return the messages of the failed fields, empty if there are none.
+     */
+    public static String describe(int errors) {
+        StringBuilder description = new StringBuilder();
+        for (int remaining = errors; remaining != 0; remaining &= remaining - 1) {
+            if (description.length() > 0) {
+                description.append(System.lineSeparator());
+            }
+            description.append(message(Integer.lowestOneBit(remaining)));
+        }
+        return description.toString();
+    }
+}
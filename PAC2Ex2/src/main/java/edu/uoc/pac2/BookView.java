@@ -0,0 +1,207 @@
+package edu.uoc.pac2;
+
+import java.time.LocalDate;
+
+/**
+ * Immutable snapshot of a {@link Book} as the API returns it: its fields plus the values derived from them, the
+ * price after a discount, the classic flag and the ISO code of the language.
+ * <p>
+ * Views are what {@link BookViewCache} keeps, so deriving them is paid once per book and not once per request.
+ *
+ * @author Arnau López Pagès
+ * @version 1.0
+ */
+public final class BookView {
+
+    /**
+     * Digits of the ISBN of the book.
+     */
+    private final String isbn;
+
+    /**
+     * Title of the book.
+     */
+    private final String title;
+
+    /**
+     * Author of the book.
+     */
+    private final String author;
+
+    /**
+     * Genre of the book.
+     */
+    private final String genre;
+
+    /**
+     * Publisher of the book.
+     */
+    private final String publisher;
+
+    /**
+     * Release date of the book.
+     */
+    private final LocalDate releaseDate;
+
+    /**
+     * Language of the book, null if it has none.
+     */
+    private final Language language;
+
+    /**
+     * Price of the book.
+     */
+    private final double price;
+
+    /**
+     * Discount percentage applied to {@link #discountedPrice}.
+     */
+    private final double discount;
+
+    /**
+     * Price after the discount.
+     */
+    private final double discountedPrice;
+
+    /**
+     * Whether the book was a classic when the view was made.
+     */
+    private final boolean classic;
+
+    BookView(Book book, double discount) {
+        this.isbn = book.getIsbn() != null ? FieldValidator.normalizeIsbn(book.getIsbn()) : null;
+        this.title = book.getTitle();
+        this.author = book.getAuthor();
+        this.genre = book.getGenre();
+        this.publisher = book.getPublisher();
+        this.releaseDate = book.getReleaseDate();
+        this.language = Language.lookup(book.getLanguage());
+        this.price = book.getPrice();
+        this.discount = discount;
+        this.discountedPrice = book.applyDiscount(discount);
+        this.classic = releaseDate != null && book.isClassic();
+    }
+
+    /**
+     * Makes the view of a book.
+     *
+     * @param book               book to describe.
+     * @param discountPercentage discount between 0 and 100 to apply to the price.
+     * @return a new view.
+     * @throws Exception If the discount percentage is not between 0 and 100.
+     */
+    public static BookView of(Book book, double discountPercentage) throws Exception {
+        if (!(discountPercentage >= 0 && discountPercentage <= 100)) {
+            throw new Exception("[ERROR] Invalid discount percentage.");
+        }
+        return new BookView(book, discountPercentage);
+    }
+
+    /**
+     * Returns the ISBN of the book.
+     *
+     * @return the digits of the ISBN, null if the book has none.
+     */
+    public String getIsbn() {
+        return isbn;
+    }
+
+    /**
+     * Returns the title of the book.
+     *
+     * @return the title.
+     */
+    public String getTitle() {
+        return title;
+    }
+
+    /**
+     * Returns the author of the book.
+     *
+     * @return the author.
+     */
+    public String getAuthor() {
+        return author;
+    }
+
+    /**
+     * Returns the genre of the book.
+     *
+     * @return the genre.
+     */
+    public String getGenre() {
+        return genre;
+    }
+
+    /**
+     * Returns the publisher of the book.
+     *
+     * @return the publisher.
+     */
+    public String getPublisher() {
+        return publisher;
+    }
+
+    /**
+     * Returns the release date of the book.
+     *
+     * @return the release date.
+     */
+    public LocalDate getReleaseDate() {
+        return releaseDate;
+    }
+
+    /**
+     * Returns the language of the book.
+     *
+     * @return the language name, null if the book has none.
+     */
+    public String getLanguage() {
+        return language != null ? language.getName() : null;
+    }
+
+    /**
+     * Returns the ISO 639-1 code of the language of the book.
+     *
+     * @return the two letter code, null if the book has no language.
+     */
+    public String getLanguageCode() {
+        return language != null ? language.getIsoCode() : null;
+    }
+
+    /**
+     * Returns the price of the book.
+     *
+     * @return the price before the discount.
+     */
+    public double getPrice() {
+        return price;
+    }
+
+    /**
+     * Returns the discount percentage of the view.
+     *
+     * @return discount between 0 and 100.
+     */
+    public double getDiscount() {
+        return discount;
+    }
+
+    /**
+     * Returns the price after the discount, see {@link Book#applyDiscount}.
+     *
+     * @return the discounted price.
+     */
+    public double getDiscountedPrice() {
+        return discountedPrice;
+    }
+
+    /**
+     * Tells if the book was a classic when the view was made, see {@link Book#isClassic}.
+     *
+     * @return true for a classic, false if it is not or has no release date.
+     */
+    public boolean isClassic() {
+        return classic;
+    }
+}
@@ -0,0 +1,744 @@
+package edu.uoc.pac2;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.ToIntFunction;
+
+/**
+ * Bounded cache of {@link BookView}s keyed by ISBN, for the hot books the API describes again and again.
+ * <p>
+ * Two eviction policies are available. {@link Policy#LRU} drops the least recently used view. {@link
+ * Policy#TINY_LFU} (W-TinyLFU) also remembers how often each ISBN was asked for, in a small count-min sketch of
+ * 4-bit counters that is halved periodically so old popularity fades: new views enter a window LRU of 1% of the
+ * capacity, and when the window overflows its oldest view only stays if it was asked for more often than the
+ * view the main area would drop. The main area is split in probation and protected, a view asked for again being
+ * promoted to protected. This keeps popular books cached through bursts of one-off requests that would flush an
+ * LRU cache.
+ * <p>
+ * The limit counts views, or their weights when a weigher is set. Views are invalidated when a setter changes
+ * their book, as the cache listens to {@link BookEvents} from its creation until it is closed, and when the day
+ * changes, as the classic flag depends on it. Caches no longer used must be closed, or the registry keeps them and
+ * every setter keeps calling them. Books are identified by their ISBN: two book objects with the same ISBN share
+ * the view. The cache is thread-safe, its operations hold its lock but views are built outside of it, and a view
+ * is only stored if its ISBN was not invalidated while it was built.
+ *
+ * @author Arnau López Pagès
+ * @version 1.0
+ */
+public final class BookViewCache implements BookListener, AutoCloseable {
+
+    /**
+     * Eviction policy.
+     */
+    public enum Policy {
+
+        /**
+         * Least recently used.
+         */
+        LRU,
+
+        /**
+         * Window TinyLFU, least recently used with admission by frequency.
+         */
+        TINY_LFU
+    }
+
+    /**
+     * Queue of the window of new views.
+     */
+    private static final int WINDOW = 0;
+
+    /**
+     * Queue of the views of the main area asked for once.
+     */
+    private static final int PROBATION = 1;
+
+    /**
+     * Queue of the views of the main area asked for again.
+     */
+    private static final int PROTECTED = 2;
+
+    /**
+     * Eviction policy.
+     */
+    private final Policy policy;
+
+    /**
+     * Maximum number or weight of the views.
+     */
+    private final long capacity;
+
+    /**
+     * Maximum weight of the window, the whole capacity for LRU.
+     */
+    private final long windowCapacity;
+
+    /**
+     * Maximum weight of the protected queue.
+     */
+    private final long protectedCapacity;
+
+    /**
+     * Entries by ISBN.
+     */
+    private final Map<String, Node> entries = new HashMap<>();
+
+    /**
+     * Queues of the entries, from the least to the most recently used, indexed by {@link #WINDOW},
+     * {@link #PROBATION} and {@link #PROTECTED}.
+     */
+    private final Queue[] queues = {new Queue(), new Queue(), new Queue()};
+
+    /**
+     * Frequency of the ISBNs asked for, null for LRU.
+     */
+    private final FrequencySketch sketch;
+
+    /**
+     * Weight of a view, null to count views.
+     */
+    private ToIntFunction<BookView> weigher;
+
+    /**
+     * Discount percentage applied to the views.
+     */
+    private double discount;
+
+    /**
+     * Weight of all the entries.
+     */
+    private long weight;
+
+    /**
+     * Views being built, by ISBN. An invalidation marks the builds of its ISBN as stale and removes them, so the
+     * views they make are not stored and later requests start new builds.
+     */
+    private final Map<String, Build> builds = new HashMap<>();
+
+    /**
+     * Counters of the metrics.
+     */
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+
+    private BookViewCache(Policy policy, long capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Invalid cache capacity: " + capacity);
+        }
+        this.policy = policy;
+        this.capacity = capacity;
+        if (policy == Policy.LRU) {
+            windowCapacity = capacity;
+            protectedCapacity = 0;
+            sketch = null;
+        } else {
+            windowCapacity = Math.max(1, capacity / 100);
+            protectedCapacity = (capacity - windowCapacity) * 4 / 5;
+            sketch = new FrequencySketch(capacity);
+        }
+    }
+
+    /**
+     * Creates a cache evicting the least recently used views and registers it in {@link BookEvents} until it is
+     * closed.
+     *
+     * @param capacity maximum number of views, or their weight if a weigher is set.
+     * @return a new cache.
+     */
+    public static BookViewCache lru(long capacity) {
+        return register(new BookViewCache(Policy.LRU, capacity));
+    }
+
+    /**
+     * Creates a cache with W-TinyLFU eviction and registers it in {@link BookEvents} until it is closed.
+     *
+     * @param capacity maximum number of views, or their weight if a weigher is set.
+     * @return a new cache.
+     */
+    public static BookViewCache tinyLfu(long capacity) {
+        return register(new BookViewCache(Policy.TINY_LFU, capacity));
+    }
+
+    private static BookViewCache register(BookViewCache cache) {
+        BookEvents.addListener(cache);
+        return cache;
+    }
+
+    /**
+     * Limits the weight of the views instead of their number. Must be set before the cache is used.
+     *
+     * @param viewWeigher weight of a view, e.g. its approximate size in bytes. Must not be negative.
+     * @return this cache.
+     * @throws IllegalStateException if the cache is not empty.
+     */
+    public synchronized BookViewCache weighedBy(ToIntFunction<BookView> viewWeigher) {
+        if (!entries.isEmpty()) {
+            throw new IllegalStateException("The weigher must be set before the cache is used");
+        }
+        weigher = viewWeigher;
+        return this;
+    }
+
+    /**
+     * Sets the discount applied to the prices of the views, dropping the cached ones.
+     *
+     * @param discountPercentage discount between 0 and 100.
+     * @return this cache.
+     * @throws Exception If the discount percentage is not between 0 and 100.
+     */
+    public synchronized BookViewCache discount(double discountPercentage) throws Exception {
+        if (!(discountPercentage >= 0 && discountPercentage <= 100)) {
+            throw new Exception("[ERROR] Invalid discount percentage.");
+        }
+        discount = discountPercentage;
+        invalidateAll();
+        return this;
+    }
+
+    /**
+     * Returns the policy of the cache.
+     *
+     * @return the eviction policy.
+     */
+    public Policy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * Returns the view of a book, from the cache or made and cached if it is missing.
+     *
+     * @param book book to describe.
+     * @return its view. Books without ISBN are not cached.
+     */
+    public BookView get(Book book) {
+        String key = book.getIsbn() != null ? FieldValidator.normalizeIsbn(book.getIsbn()) : null;
+        double viewDiscount;
+        Build build = null;
+        int today = CatalogClock.current().today();
+        synchronized (this) {
+            if (key != null) {
+                BookView view = lookup(key, today);
+                if (view != null) {
+                    return view;
+                }
+                build = builds.computeIfAbsent(key, k -> new Build());
+                build.builders++;
+            } else {
+                misses++;
+            }
+            viewDiscount = discount;
+        }
+        BookView view = new BookView(book, viewDiscount);
+        if (build != null) {
+            synchronized (this) {
+                if (!build.stale) {
+                    store(key, view, today);
+                }
+                if (--build.builders == 0 && builds.get(key) == build) {
+                    builds.remove(key);
+                }
+            }
+        }
+        return view;
+    }
+
+    /**
+     * Returns the cached view of an ISBN, without making it.
+     *
+     * @param isbn ISBN of the book.
+     * @return its view, null if it is not cached.
+     */
+    public synchronized BookView getIfPresent(String isbn) {
+        return lookup(FieldValidator.normalizeIsbn(isbn), CatalogClock.current().today());
+    }
+
+    /**
+     * Drops the view of an ISBN.
+     *
+     * @param isbn ISBN of the book.
+     * @return true if it was cached.
+     */
+    public synchronized boolean invalidate(String isbn) {
+        String key = FieldValidator.normalizeIsbn(isbn);
+        Build build = builds.remove(key);
+        if (build != null) {
+            build.stale = true;
+        }
+        Node node = entries.remove(key);
+        if (node == null) {
+            return false;
+        }
+        unlink(node);
+        invalidations++;
+        return true;
+    }
+
+    /**
+     * Drops all the views.
+     */
+    public synchronized void invalidateAll() {
+        for (Build build : builds.values()) {
+            build.stale = true;
+        }
+        builds.clear();
+        invalidations += entries.size();
+        entries.clear();
+        for (Queue queue : queues) {
+            queue.clear();
+        }
+        weight = 0;
+    }
+
+    /**
+     * Drops the view of a book changed by a setter.
+     *
+     * @param book         changed book.
+     * @param previousIsbn ISBN of the book before the change.
+     */
+    @Override
+    public void bookChanged(Book book, String previousIsbn) {
+        if (previousIsbn != null) {
+            invalidate(previousIsbn);
+        }
+        if (book.getIsbn() != null && !book.getIsbn().equals(previousIsbn)) {
+            invalidate(book.getIsbn());
+        }
+    }
+
+    /**
+     * Stops listening to the {@link Book} setters. The cached views stay, but are no longer invalidated when their
+     * books change.
+     */
+    @Override
+    public void close() {
+        BookEvents.removeListener(this);
+    }
+
+    /**
+     * Returns the number of cached views.
+     *
+     * @return size of the cache.
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Returns the weight of the cached views.
+     *
+     * @return their total weight, their number without weigher.
+     */
+    public synchronized long weight() {
+        return weight;
+    }
+
+    /**
+     * Returns the metrics of the cache since its creation.
+     *
+     * @return a snapshot of the counters.
+     */
+    public synchronized Stats stats() {
+        return new Stats(hits, misses, evictions, invalidations);
+    }
+
+    /**
+     * Finds a view and records the access.
+     *
+     * @param key   normalized ISBN.
+     * @param today current epoch day.
+     * @return the view, null on a miss.
+     */
+    private BookView lookup(String key, int today) {
+        if (sketch != null) {
+            sketch.increment(key);
+        }
+        Node node = entries.get(key);
+        if (node == null || node.day != today) {
+            if (node != null) {
+                entries.remove(key);
+                unlink(node);
+            }
+            misses++;
+            return null;
+        }
+        hits++;
+        if (node.queue == PROBATION) {
+            unlink(node);
+            link(node, PROTECTED);
+            while (queues[PROTECTED].weight > protectedCapacity) {
+                Node demoted = queues[PROTECTED].first();
+                unlink(demoted);
+                link(demoted, PROBATION);
+            }
+        } else {
+            unlink(node);
+            link(node, node.queue);
+        }
+        return node.view;
+    }
+
+    /**
+     * Caches a view and evicts until the cache fits its capacity.
+     *
+     * @param key   normalized ISBN.
+     * @param view  view of the book.
+     * @param today epoch day the view was made.
+     */
+    private void store(String key, BookView view, int today) {
+        int viewWeight = weigher != null ? weigher.applyAsInt(view) : 1;
+        if (viewWeight < 0) {
+            throw new IllegalStateException("Negative weight " + viewWeight + " for book " + key);
+        }
+        Node previous = entries.remove(key);
+        if (previous != null) {
+            unlink(previous);
+        }
+        if (viewWeight > capacity) {
+            return;
+        }
+        Node node = new Node(key, view, viewWeight, today);
+        entries.put(key, node);
+        link(node, WINDOW);
+        if (policy == Policy.LRU) {
+            while (weight > capacity) {
+                evict(queues[WINDOW].first());
+            }
+            return;
+        }
+        while (queues[WINDOW].weight > windowCapacity) {
+            Node candidate = queues[WINDOW].first();
+            unlink(candidate);
+            link(candidate, PROBATION);
+        }
+        while (weight > capacity) {
+            Node victim = queues[PROBATION].first();
+            Node candidate = queues[PROBATION].last();
+            if (victim == null) {
+                victim = queues[PROTECTED].first() != null ? queues[PROTECTED].first() : queues[WINDOW].first();
+                evict(victim);
+            } else if (victim == candidate || sketch.frequency(candidate.key) > sketch.frequency(victim.key)) {
+                evict(victim);
+            } else {
+                evict(candidate);
+            }
+        }
+    }
+
+    /**
+     * Drops an entry to make room.
+     *
+     * @param node entry to drop.
+     */
+    private void evict(Node node) {
+        entries.remove(node.key);
+        unlink(node);
+        evictions++;
+    }
+
+    /**
+     * Appends an entry to a queue, as its most recently used one.
+     *
+     * @param node  entry to append.
+     * @param queue queue index.
+     */
+    private void link(Node node, int queue) {
+        node.queue = queue;
+        queues[queue].addLast(node);
+        weight += node.weight;
+    }
+
+    /**
+     * Removes an entry from its queue.
+     *
+     * @param node entry to remove.
+     */
+    private void unlink(Node node) {
+        queues[node.queue].remove(node);
+        weight -= node.weight;
+    }
+
+    /**
+     * Counters of a cache at one point in time.
+     */
+    public static final class Stats {
+
+        /**
+         * Lookups that found a view.
+         */
+        private final long hits;
+
+        /**
+         * Lookups that did not find a view.
+         */
+        private final long misses;
+
+        /**
+         * Views dropped to make room.
+         */
+        private final long evictions;
+
+        /**
+         * Views dropped by invalidation.
+         */
+        private final long invalidations;
+
+        Stats(long hits, long misses, long evictions, long invalidations) {
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.invalidations = invalidations;
+        }
+
+        /**
+         * Returns the number of lookups that found a view.
+         *
+         * @return hits.
+         */
+        public long getHits() {
+            return hits;
+        }
+
+        /**
+         * Returns the number of lookups that did not find a view.
+         *
+         * @return misses.
+         */
+        public long getMisses() {
+            return misses;
+        }
+
+        /**
+         * Returns the share of lookups that found a view.
+         *
+         * @return hits divided by lookups, 0 without lookups.
+         */
+        public double getHitRate() {
+            long lookups = hits + misses;
+            return lookups == 0 ? 0 : (double) hits / lookups;
+        }
+
+        /**
+         * Returns the number of views dropped to make room.
+         *
+         * @return evictions.
+         */
+        public long getEvictions() {
+            return evictions;
+        }
+
+        /**
+         * Returns the number of views dropped because their book changed or by {@link #invalidate}.
+         *
+         * @return invalidations.
+         */
+        public long getInvalidations() {
+            return invalidations;
+        }
+
+        @Override
+        public String toString() {
+            return "hits=" + hits + ", misses=" + misses + ", hitRate=" + getHitRate() + ", evictions=" + evictions
+                    + ", invalidations=" + invalidations;
+        }
+    }
+
+    /**
+     * Views of one ISBN being built.
+     */
+    private static final class Build {
+
+        /**
+         * Number of threads building the view.
+         */
+        int builders;
+
+        /**
+         * Whether the ISBN was invalidated since the builds started.
+         */
+        boolean stale;
+    }
+
+    /**
+     * Cached view.
+     */
+    private static final class Node {
+
+        /**
+         * Normalized ISBN.
+         */
+        final String key;
+
+        /**
+         * Cached view.
+         */
+        final BookView view;
+
+        /**
+         * Weight of the view.
+         */
+        final int weight;
+
+        /**
+         * Epoch day the view was made.
+         */
+        final int day;
+
+        /**
+         * Queue holding the entry.
+         */
+        int queue;
+
+        /**
+         * Neighbours in the queue.
+         */
+        Node previous;
+        Node next;
+
+        Node(String key, BookView view, int weight, int day) {
+            this.key = key;
+            this.view = view;
+            this.weight = weight;
+            this.day = day;
+        }
+    }
+
+    /**
+     * Doubly linked list of entries, from the least to the most recently used.
+     */
+    private static final class Queue {
+
+        /**
+         * Sentinel before the first and after the last entry.
+         */
+        private final Node head = new Node(null, null, 0, 0);
+
+        /**
+         * Weight of the entries.
+         */
+        long weight;
+
+        Queue() {
+            clear();
+        }
+
+        Node first() {
+            return head.next != head ? head.next : null;
+        }
+
+        Node last() {
+            return head.previous != head ? head.previous : null;
+        }
+
+        void addLast(Node node) {
+            node.previous = head.previous;
+            node.next = head;
+            head.previous.next = node;
+            head.previous = node;
+            weight += node.weight;
+        }
+
+        void remove(Node node) {
+            node.previous.next = node.next;
+            node.next.previous = node.previous;
+            node.previous = null;
+            node.next = null;
+            weight -= node.weight;
+        }
+
+        void clear() {
+            head.previous = head;
+            head.next = head;
+            weight = 0;
+        }
+    }
+
+    /**
+     * Count-min sketch of 4-bit counters estimating how often each key was asked for, with four hashes per key
+     * and sixteen counters per entry of capacity. Once the number of increments reaches ten times the capacity,
+     * all the counters are halved.
+     */
+    private static final class FrequencySketch {
+
+        /**
+         * Seeds of the four hashes.
+         */
+        private static final long[] SEEDS = {
+                0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+
+        /**
+         * Counters, sixteen per long.
+         */
+        private final long[] table;
+
+        /**
+         * Number of increments between two halvings.
+         */
+        private final int sampleSize;
+
+        /**
+         * Increments since the last halving.
+         */
+        private int increments;
+
+        FrequencySketch(long capacity) {
+            int slots = Integer.highestOneBit((int) Math.max(4, Math.min(capacity, 1 << 22)) - 1) << 1;
+            table = new long[slots];
+            sampleSize = 10 * slots;
+        }
+
+        /**
+         * Records an access.
+         *
+         * @param key accessed key.
+         */
+        void increment(String key) {
+            int hash = key.hashCode();
+            boolean added = false;
+            for (int i = 0; i < SEEDS.length; i++) {
+                int counter = counterOf(hash, i);
+                int shift = (counter & 15) << 2;
+                int slot = counter >>> 4;
+                if ((table[slot] >>> shift & 15) < 15) {
+                    table[slot] += 1L << shift;
+                    added = true;
+                }
+            }
+            if (added && ++increments == sampleSize) {
+                for (int slot = 0; slot < table.length; slot++) {
+                    table[slot] = table[slot] >>> 1 & 0x7777777777777777L;
+                }
+                increments /= 2;
+            }
+        }
+
+        /**
+         * Estimates how often a key was asked for.
+         *
+         * @param key key.
+         * @return the lowest of its counters, between 0 and 15.
+         */
+        int frequency(String key) {
+            int hash = key.hashCode();
+            int frequency = 15;
+            for (int i = 0; i < SEEDS.length; i++) {
+                int counter = counterOf(hash, i);
+                frequency = Math.min(frequency, (int) (table[counter >>> 4] >>> ((counter & 15) << 2) & 15));
+            }
+            return frequency;
+        }
+
+        /**
+         * Returns the counter of a key for a hash function.
+         *
+         * @param hash hash code of the key.
+         * @param i    index of the hash function.
+         * @return counter index.
+         */
+        private int counterOf(int hash, int i) {
+            long mixed = (hash + SEEDS[i]) * SEEDS[i];
+            return (int) (mixed >>> 32) & (table.length * 16 - 1);
+        }
+    }
+}
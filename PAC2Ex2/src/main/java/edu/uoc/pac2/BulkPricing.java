@@ -0,0 +1,136 @@
+package edu.uoc.pac2;
+
+/**
+ * Applies discounts to whole price columns in one pass.
+ * <p>
+ * Each price gets exactly the value {@link Book#applyDiscount} would return. The flat discount is a plain loop
+ * that C2 auto-vectorizes. Discounts per group use the Vector API gather kernel of {@link VectorPricing} when the
+ * {@code jdk.incubator.vector} module is available, unless the {@code edu.uoc.pac2.vector} system property is
+ * {@code false}, and a plain loop otherwise. Invalid percentages are rejected before touching any price and
+ * nothing is printed.
+ *
+ * @author Arnau López Pagès
+ * @version 1.0
+ */
+public final class BulkPricing {
+
+    /**
+     * Whether the Vector API kernel is used.
+     */
+    private static final boolean VECTORIZED = Boolean.parseBoolean(System.getProperty("edu.uoc.pac2.vector", "true"))
+            && ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+
+    private BulkPricing() {
+    }
+
+    /**
+     * Tells if the Vector API kernel is in use for discounts per group.
+     *
+     * @return true if prices are discounted with the Vector API.
+     */
+    public static boolean isVectorized() {
+        return VECTORIZED;
+    }
+
+    /**
+     * Applies the same discount to a column of prices.
+     *
+     * @param prices             prices to discount.
+     * @param discountPercentage discount between 0 and 100.
+     * @param out                discounted prices, may be {@code prices} to discount in place.
+     * @param length             number of prices, from the start of the arrays.
+     * @throws Exception If the discount percentage is not between 0 and 100.
+     */
+    public static void applyDiscount(double[] prices, double discountPercentage, double[] out, int length)
+            throws Exception {
+        checkPercentage(discountPercentage);
+        checkLength(length, prices.length, out.length);
+        discountScalar(prices, discountPercentage / 100, out, length);
+    }
+
+    /**
+     * Applies a discount per group, e.g. per genre or publisher id, to a column of prices.
+     *
+     * @param prices              prices to discount.
+     * @param groups              group id of each price, {@link StringDictionary#NO_ID} for no discount.
+     * @param discountPercentages discount of each group id, between 0 and 100.
+     * @param out                 discounted prices, may be {@code prices} to discount in place.
+     * @param length              number of prices, from the start of the arrays.
+     * @throws Exception If a discount percentage is not between 0 and 100.
+     */
+    public static void applyDiscount(double[] prices, int[] groups, double[] discountPercentages, double[] out,
+                                     int length) throws Exception {
+        checkLength(length, prices.length, out.length);
+        checkLength(length, groups.length, length);
+        // rate of group g at g + 1, so that NO_ID reads the 0 at the start
+        double[] rates = new double[discountPercentages.length + 1];
+        for (int group = 0; group < discountPercentages.length; group++) {
+            checkPercentage(discountPercentages[group]);
+            rates[group + 1] = discountPercentages[group] / 100;
+        }
+        for (int i = 0; i < length; i++) {
+            if (groups[i] < StringDictionary.NO_ID || groups[i] >= discountPercentages.length) {
+                throw new IndexOutOfBoundsException("No discount for group " + groups[i]);
+            }
+        }
+        if (VECTORIZED) {
+            VectorPricing.discount(prices, groups, rates, out, length);
+        } else {
+            discountScalar(prices, groups, rates, out, length);
+        }
+    }
+
+    /**
+     * Flat discount loop, simple enough for C2 to vectorize it.
+     *
+     * @param prices prices to discount.
+     * @param rate   discount as a fraction of the price.
+     * @param out    discounted prices.
+     * @param length number of prices.
+     */
+    static void discountScalar(double[] prices, double rate, double[] out, int length) {
+        for (int i = 0; i < length; i++) {
+            out[i] = prices[i] - rate * prices[i];
+        }
+    }
+
+    /**
+     * Scalar version of the discount per group.
+     *
+     * @param prices prices to discount.
+     * @param groups group of each price, -1 for none.
+     * @param rates  discount rate of group {@code g} at {@code rates[g + 1]}.
+     * @param out    discounted prices.
+     * @param length number of prices.
+     */
+    static void discountScalar(double[] prices, int[] groups, double[] rates, double[] out, int length) {
+        for (int i = 0; i < length; i++) {
+            out[i] = prices[i] - rates[groups[i] + 1] * prices[i];
+        }
+    }
+
+    /**
+     * Checks a discount percentage the way {@link Book#applyDiscount} does.
+     *
+     * @param discountPercentage percentage to check.
+     * @throws Exception If it is not between 0 and 100.
+     */
+    private static void checkPercentage(double discountPercentage) throws Exception {
+        if (!(discountPercentage >= 0 && discountPercentage <= 100)) {
+            throw new Exception("[ERROR] Invalid discount percentage.");
+        }
+    }
+
+    /**
+     * Checks that the arrays hold the number of prices to process.
+     *
+     * @param length number of prices.
+     * @param in     length of the input array.
+     * @param out    length of the output array.
+     */
+    private static void checkLength(int length, int in, int out) {
+        if (length < 0 || length > in || length > out) {
+            throw new IndexOutOfBoundsException("Cannot process " + length + " prices");
+        }
+    }
+}
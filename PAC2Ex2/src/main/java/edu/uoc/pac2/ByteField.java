@@ -0,0 +1,123 @@
+package edu.uoc.pac2;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Character view over the UTF-8 bytes of a field, so it can be validated without creating a {@code String}.
+ * <p>
+ * Each byte is seen as one character. ASCII text reads exactly as its decoded string, and the bytes of a
+ * multi-byte character read as characters above {@code 0x7F}, which the validators treat like the decoded
+ * character: not blank and not allowed in titles or publishers. {@link #toString()} decodes the real text.
+ * <p>
+ * A view is mutable and reused from field to field.
+ *
+ * @author Arnau López Pagès
+ * @version 1.0
+ */
+final class ByteField implements CharSequence {
+
+    /**
+     * Bytes the view reads.
+     */
+    private ByteBuffer buffer;
+
+    /**
+     * Absolute position of the first byte.
+     */
+    private int start;
+
+    /**
+     * Number of bytes.
+     */
+    private int length;
+
+    /**
+     * Points the view at some bytes.
+     *
+     * @param buffer bytes to read.
+     * @param start  absolute position of the first byte.
+     * @param end    absolute position after the last byte.
+     * @return this view.
+     */
+    ByteField set(ByteBuffer buffer, int start, int end) {
+        this.buffer = buffer;
+        this.start = start;
+        this.length = end - start;
+        return this;
+    }
+
+    /**
+     * Returns a byte of the field.
+     *
+     * @param index position in the field.
+     * @return the unsigned byte.
+     */
+    int byteAt(int index) {
+        return buffer.get(start + index) & 0xFF;
+    }
+
+    /**
+     * Hashes the bytes of the field.
+     *
+     * @return hash of the bytes.
+     */
+    int hash() {
+        int hash = 0;
+        for (int i = 0; i < length; i++) {
+            hash = 31 * hash + buffer.get(start + i);
+        }
+        return hash;
+    }
+
+    /**
+     * Checks if the field holds exactly the text of an ASCII string.
+     *
+     * @param text string to compare with.
+     * @return true if both have the same characters, false if they differ or the field is not ASCII.
+     */
+    boolean contentEquals(String text) {
+        if (text.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (buffer.get(start + i) != text.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + length);
+        }
+        return (char) byteAt(index);
+    }
+
+    @Override
+    public CharSequence subSequence(int from, int to) {
+        if (from < 0 || from > to || to > length) {
+            throw new IndexOutOfBoundsException("Range [" + from + ", " + to + ") out of bounds for length " + length);
+        }
+        return new ByteField().set(buffer, start + from, start + to);
+    }
+
+    /**
+     * Decodes the field.
+     *
+     * @return the UTF-8 text of the field.
+     */
+    @Override
+    public String toString() {
+        byte[] bytes = new byte[length];
+        buffer.get(start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,186 @@
+package edu.uoc.pac2;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+/**
+ * Coarse-grained clock for date checks on books.
+ * <p>
+ * The date thresholds (today, 50 and 200 years ago) are computed once as epoch days and cached until the next
+ * midnight of the clock zone, so classifying a book is a pair of int comparisons instead of a call to
+ * {@link LocalDate#now()} and some year arithmetic. The staleness check only reads {@link Clock#millis()}.
+ * <p>
+ * Books use the clock returned by {@link #current()}, which tests can pin with {@link #setCurrent}.
+ *
+ * @author Arnau López Pagès
+ * @version 1.0
+ */
+public final class CatalogClock {
+
+    /**
+     * Books released before this number of years ago are classics.
+     */
+    public static final int CLASSIC_YEARS = 50;
+
+    /**
+     * Books cannot be released before this number of years ago.
+     */
+    public static final int MAX_AGE_YEARS = 200;
+
+    /**
+     * Clock used by the books.
+     */
+    private static volatile CatalogClock current = new CatalogClock(Clock.systemDefaultZone());
+
+    /**
+     * Source of the time.
+     */
+    private final Clock clock;
+
+    /**
+     * Thresholds of the current day.
+     */
+    private volatile Day day;
+
+    /**
+     * Creates a clock reading the time of another clock.
+     *
+     * @param clock source of the time.
+     */
+    public CatalogClock(Clock clock) {
+        this.clock = clock;
+        this.day = new Day(clock);
+    }
+
+    /**
+     * Creates a clock pinned to a day.
+     *
+     * @param today the day the clock always returns.
+     * @return a new clock.
+     */
+    public static CatalogClock fixed(LocalDate today) {
+        return new CatalogClock(Clock.fixed(today.atStartOfDay(ZoneOffset.UTC).toInstant(), ZoneOffset.UTC));
+    }
+
+    /**
+     * Returns the clock used by the books.
+     *
+     * @return the current clock.
+     */
+    public static CatalogClock current() {
+        return current;
+    }
+
+    /**
+     * Changes the clock used by the books, e.g. to pin the date in tests or to share one day along a batch.
+     *
+     * @param clock the new clock.
+     */
+    public static void setCurrent(CatalogClock clock) {
+        current = clock;
+    }
+
+    /**
+     * Recomputes the thresholds now instead of waiting for the next midnight, e.g. at the start of a batch.
+     */
+    public void refresh() {
+        day = new Day(clock);
+    }
+
+    /**
+     * Returns today as an epoch day.
+     *
+     * @return today.
+     */
+    public int today() {
+        return day().today;
+    }
+
+    /**
+     * Returns the epoch day {@value #CLASSIC_YEARS} years ago, the books released before it are classics.
+     *
+     * @return the classic threshold.
+     */
+    public int classicThreshold() {
+        return day().classicThreshold;
+    }
+
+    /**
+     * Returns the epoch day {@value #MAX_AGE_YEARS} years ago, the oldest valid release date.
+     *
+     * @return the oldest release day.
+     */
+    public int oldestRelease() {
+        return day().oldestRelease;
+    }
+
+    /**
+     * Checks if a release date makes a classic.
+     *
+     * @param releaseDay release date as an epoch day.
+     * @return true if it is more than {@value #CLASSIC_YEARS} years ago.
+     */
+    public boolean isClassic(long releaseDay) {
+        return releaseDay < day().classicThreshold;
+    }
+
+    /**
+     * Checks if a release date is within the last {@value #MAX_AGE_YEARS} years and not in the future.
+     *
+     * @param releaseDay release date as an epoch day.
+     * @return true if it is valid.
+     */
+    public boolean isValidRelease(long releaseDay) {
+        Day current = day();
+        return releaseDay >= current.oldestRelease && releaseDay <= current.today;
+    }
+
+    /**
+     * Returns the thresholds, recomputing them if the day is over.
+     *
+     * @return thresholds of today.
+     */
+    private Day day() {
+        Day current = day;
+        if (clock.millis() >= current.expiresAt) {
+            current = new Day(clock);
+            day = current;
+        }
+        return current;
+    }
+
+    /**
+     * Thresholds of one day, as epoch days.
+     */
+    private static final class Day {
+
+        /**
+         * Today.
+         */
+        final int today;
+
+        /**
+         * {@value #CLASSIC_YEARS} years ago.
+         */
+        final int classicThreshold;
+
+        /**
+         * {@value #MAX_AGE_YEARS} years ago.
+         */
+        final int oldestRelease;
+
+        /**
+         * Epoch milliseconds of the next midnight, when these thresholds stop being valid.
+         */
+        final long expiresAt;
+
+        Day(Clock clock) {
+            LocalDate now = LocalDate.now(clock);
+            today = (int) now.toEpochDay();
+            classicThreshold = (int) now.minusYears(CLASSIC_YEARS).toEpochDay();
+            oldestRelease = (int) now.minusYears(MAX_AGE_YEARS).toEpochDay();
+            expiresAt = now.plusDays(1).atStartOfDay(clock.getZone()).toInstant().toEpochMilli();
+        }
+    }
+}
@@ -0,0 +1,845 @@
+package edu.uoc.pac2;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * Compact binary file of a {@link BookCatalog}, read through a memory mapping.
+ * <p>
+ * The file keeps the columnar layout of the catalog. Authors, genres and publishers are stored once in
+ * dictionaries of UTF-8 strings with varint lengths, and books refer to them with ids 1, 2 or 4 bytes wide
+ * depending on the size of each dictionary. Release dates are epoch days, ISBNs are {@link Isbn#key} longs and
+ * titles are a blob of UTF-8 bytes with an offset table. Languages are {@link Language} ids, and the few values
+ * that are not the exact name of a language are kept in a dictionary with the sorted ids of their books. A section
+ * of ISBN keys sorted with their book ids serves lookups by binary search.
+ * <p>
+ * Every column has a fixed width per book, so opening a file only decodes its header and dictionaries, and each
+ * book or field is read from the mapping when asked for. Files start with a magic number and a format version, and
+ * are limited to 2 GB.
+ *
+ * @author Arnau López Pagès
+ * @version 1.0
+ */
+public final class CatalogFile {
+
+    /**
+     * Result of a lookup that found nothing.
+     */
+    public static final int NOT_FOUND = -1;
+
+    /**
+     * First bytes of every catalog file, "BKCT".
+     */
+    static final int MAGIC = 0x424B4354;
+
+    /**
+     * Version of the format written by {@link #write}.
+     */
+    static final int VERSION = 2;
+
+    /**
+     * Size of the fixed part of the header: magic, version, book count, id widths and section offsets.
+     */
+    private static final int HEADER_SIZE = 16 + Section.values().length * 8;
+
+    /**
+     * Flag of a book without title.
+     */
+    private static final byte NO_TITLE = 1;
+
+    /**
+     * Sections of the file, in file order. Their offsets follow the fixed header fields.
+     */
+    private enum Section {
+        AUTHOR_DICTIONARY, GENRE_DICTIONARY, PUBLISHER_DICTIONARY, TITLE_OFFSETS, TITLES, AUTHORS, GENRES,
+        PUBLISHERS, RELEASE_DAYS, LANGUAGES, FLAGS, ISBNS, PRICES, ISBN_KEYS, ISBN_IDS, OTHER_LANGUAGE_DICTIONARY,
+        OTHER_LANGUAGE_BOOKS, OTHER_LANGUAGE_IDS, END
+    }
+
+    /**
+     * Content of the file.
+     */
+    private final ByteBuffer buffer;
+
+    /**
+     * Number of books.
+     */
+    private final int size;
+
+    /**
+     * Decoded dictionaries.
+     */
+    private final String[] authors;
+    private final String[] genres;
+    private final String[] publishers;
+    private final String[] otherLanguages;
+
+    /**
+     * Width in bytes of the author, genre and publisher ids.
+     */
+    private final int authorWidth;
+    private final int genreWidth;
+    private final int publisherWidth;
+
+    /**
+     * Offset of each section.
+     */
+    private final int[] sections = new int[Section.values().length];
+
+    /**
+     * Number of entries of the ISBN lookup section.
+     */
+    private final int isbnCount;
+
+    /**
+     * Number of books whose language is not the exact name of a {@link Language}.
+     */
+    private final int otherLanguageCount;
+
+    private CatalogFile(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a catalog file");
+        }
+        if (buffer.getShort(4) != VERSION) {
+            throw new IOException("Unsupported catalog file version " + buffer.getShort(4));
+        }
+        size = buffer.getInt(8);
+        authorWidth = buffer.get(12);
+        genreWidth = buffer.get(13);
+        publisherWidth = buffer.get(14);
+        for (Section section : Section.values()) {
+            sections[section.ordinal()] = (int) buffer.getLong(16 + section.ordinal() * 8);
+        }
+        if (sections[Section.END.ordinal()] != buffer.limit()) {
+            throw new IOException("Truncated catalog file");
+        }
+        authors = readDictionary(sections[Section.AUTHOR_DICTIONARY.ordinal()]);
+        genres = readDictionary(sections[Section.GENRE_DICTIONARY.ordinal()]);
+        publishers = readDictionary(sections[Section.PUBLISHER_DICTIONARY.ordinal()]);
+        isbnCount = (sections[Section.ISBN_IDS.ordinal()] - sections[Section.ISBN_KEYS.ordinal()]) / Long.BYTES;
+        otherLanguages = readDictionary(sections[Section.OTHER_LANGUAGE_DICTIONARY.ordinal()]);
+        otherLanguageCount = (sections[Section.OTHER_LANGUAGE_IDS.ordinal()]
+                - sections[Section.OTHER_LANGUAGE_BOOKS.ordinal()]) / Integer.BYTES;
+    }
+
+    /**
+     * Opens a catalog file.
+     *
+     * @param file file written by {@link #write}.
+     * @return the opened file.
+     * @throws IOException If the file cannot be read, is not a catalog file or has an unsupported version.
+     */
+    public static CatalogFile open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Not a catalog file");
+            }
+            // the mapping stays valid once the channel is closed
+            return new CatalogFile(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Writes a catalog to a file, replacing it if it exists. The catalog is written to a temporary file next to it
+     * and moved into place once complete, so the file is never left truncated and is only replaced on success.
+     *
+     * @param catalog catalog to write.
+     * @param file    file to write.
+     * @throws IOException If the file cannot be written or would be bigger than 2 GB.
+     */
+    public static void write(BookCatalog catalog, Path file) throws IOException {
+        int size = catalog.size();
+        int authorWidth = idWidth(catalog.getAuthors().size());
+        int genreWidth = idWidth(catalog.getGenres().size());
+        int publisherWidth = idWidth(catalog.getPublishers().size());
+
+        // one entry per distinct ISBN, the last book wins as in IsbnIndex
+        IsbnIndex index = IsbnIndex.of(catalog);
+        long[] keys = new long[index.size()];
+        int distinct = 0;
+        for (int id = 0; id < size; id++) {
+            long key = catalog.getIsbn(id);
+            if (key != BookCatalog.NO_ISBN && index.get(key) == id) {
+                keys[distinct++] = key;
+            }
+        }
+        Arrays.sort(keys);
+
+        StringDictionary otherLanguages = new StringDictionary();
+        IntList otherLanguageBooks = new IntList();
+        IntList otherLanguageIds = new IntList();
+        for (int id = 0; id < size; id++) {
+            if (catalog.getLanguage(id) == null && catalog.getLanguageName(id) != null) {
+                otherLanguageBooks.add(id);
+                otherLanguageIds.add(otherLanguages.add(catalog.getLanguageName(id)));
+            }
+        }
+
+        // the size of every section is known up front, so a catalog too big is rejected before writing anything
+        long titleBytes = 0;
+        for (int id = 0; id < size; id++) {
+            String title = catalog.getTitle(id);
+            titleBytes += title != null ? utf8Length(title) : 0;
+        }
+        long fileSize = HEADER_SIZE + dictionarySize(catalog.getAuthors()) + dictionarySize(catalog.getGenres())
+                + dictionarySize(catalog.getPublishers());
+        fileSize = align(fileSize, Integer.BYTES) + (size + 1L) * Integer.BYTES + titleBytes
+                + (long) size * (authorWidth + genreWidth + publisherWidth);
+        fileSize = align(fileSize, Integer.BYTES) + (long) size * (Integer.BYTES + 2);
+        fileSize = align(fileSize, Long.BYTES) + (long) size * (Long.BYTES + Double.BYTES)
+                + (long) keys.length * (Long.BYTES + Integer.BYTES) + dictionarySize(otherLanguages);
+        fileSize = align(fileSize, Integer.BYTES) + otherLanguageBooks.size() * 2L * Integer.BYTES;
+        if (fileSize > Integer.MAX_VALUE) {
+            throw new IOException("The catalog is too big for a catalog file");
+        }
+
+        Path directory = file.toAbsolutePath().getParent();
+        Path temporary = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        boolean moved = false;
+        try {
+            long[] offsets = new long[Section.values().length];
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+                Output out = new Output(channel);
+                out.skip(HEADER_SIZE);
+
+                offsets[Section.AUTHOR_DICTIONARY.ordinal()] = out.position();
+                writeDictionary(out, catalog.getAuthors());
+                offsets[Section.GENRE_DICTIONARY.ordinal()] = out.position();
+                writeDictionary(out, catalog.getGenres());
+                offsets[Section.PUBLISHER_DICTIONARY.ordinal()] = out.position();
+                writeDictionary(out, catalog.getPublishers());
+
+                offsets[Section.TITLE_OFFSETS.ordinal()] = out.align(Integer.BYTES);
+                int titleOffset = 0;
+                out.putInt(0);
+                for (int id = 0; id < size; id++) {
+                    String title = catalog.getTitle(id);
+                    titleOffset += title != null ? utf8Length(title) : 0;
+                    out.putInt(titleOffset);
+                }
+                offsets[Section.TITLES.ordinal()] = out.position();
+                for (int id = 0; id < size; id++) {
+                    String title = catalog.getTitle(id);
+                    if (title != null) {
+                        out.put(title.getBytes(StandardCharsets.UTF_8));
+                    }
+                }
+
+                offsets[Section.AUTHORS.ordinal()] = out.position();
+                for (int id = 0; id < size; id++) {
+                    out.putId(catalog.getAuthorId(id), authorWidth);
+                }
+                offsets[Section.GENRES.ordinal()] = out.position();
+                for (int id = 0; id < size; id++) {
+                    out.putId(catalog.getGenreId(id), genreWidth);
+                }
+                offsets[Section.PUBLISHERS.ordinal()] = out.position();
+                for (int id = 0; id < size; id++) {
+                    out.putId(catalog.getPublisherId(id), publisherWidth);
+                }
+                offsets[Section.RELEASE_DAYS.ordinal()] = out.align(Integer.BYTES);
+                for (int id = 0; id < size; id++) {
+                    out.putInt(catalog.getReleaseEpochDay(id));
+                }
+                offsets[Section.LANGUAGES.ordinal()] = out.position();
+                for (int id = 0; id < size; id++) {
+                    Language language = catalog.getLanguage(id);
+                    out.put(language != null ? (byte) language.id() : BookCatalog.NO_LANGUAGE);
+                }
+                offsets[Section.FLAGS.ordinal()] = out.position();
+                for (int id = 0; id < size; id++) {
+                    out.put(catalog.getTitle(id) == null ? NO_TITLE : 0);
+                }
+                offsets[Section.ISBNS.ordinal()] = out.align(Long.BYTES);
+                for (int id = 0; id < size; id++) {
+                    out.putLong(catalog.getIsbn(id));
+                }
+                offsets[Section.PRICES.ordinal()] = out.position();
+                for (int id = 0; id < size; id++) {
+                    out.putDouble(catalog.getPrice(id));
+                }
+
+                offsets[Section.ISBN_KEYS.ordinal()] = out.position();
+                for (long key : keys) {
+                    out.putLong(key);
+                }
+                offsets[Section.ISBN_IDS.ordinal()] = out.position();
+                for (long key : keys) {
+                    out.putInt(index.get(key));
+                }
+
+                offsets[Section.OTHER_LANGUAGE_DICTIONARY.ordinal()] = out.position();
+                writeDictionary(out, otherLanguages);
+                offsets[Section.OTHER_LANGUAGE_BOOKS.ordinal()] = out.align(Integer.BYTES);
+                for (int i = 0; i < otherLanguageBooks.size(); i++) {
+                    out.putInt(otherLanguageBooks.get(i));
+                }
+                offsets[Section.OTHER_LANGUAGE_IDS.ordinal()] = out.position();
+                for (int i = 0; i < otherLanguageIds.size(); i++) {
+                    out.putInt(otherLanguageIds.get(i));
+                }
+                offsets[Section.END.ordinal()] = out.position();
+                out.flush();
+                if (out.position() != fileSize) {
+                    throw new IllegalStateException("Catalog file of " + out.position() + " bytes, expected "
+                            + fileSize);
+                }
+
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+                header.putInt(MAGIC).putShort((short) VERSION).putShort((short) 0).putInt(size);
+                header.put((byte) authorWidth).put((byte) genreWidth).put((byte) publisherWidth).put((byte) 0);
+                for (long offset : offsets) {
+                    header.putLong(offset);
+                }
+                header.flip();
+                while (header.hasRemaining()) {
+                    channel.write(header, header.position());
+                }
+                channel.force(true);
+            }
+            Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            moved = true;
+        } finally {
+            if (!moved) {
+                Files.deleteIfExists(temporary);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of books.
+     *
+     * @return size of the catalog.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Materializes a book, as {@link BookCatalog#get} does.
+     *
+     * @param id book id.
+     * @return a new book with the stored values.
+     */
+    public Book get(int id) {
+        return new Book(getTitle(id), getAuthor(id), getGenre(id), getPublisher(id), getReleaseDate(id),
+                getLanguageName(id), Isbn.toString(getIsbn(id)), getPrice(id));
+    }
+
+    /**
+     * Returns the title of a book.
+     *
+     * @param id book id.
+     * @return the title.
+     */
+    public String getTitle(int id) {
+        checkId(id);
+        if ((buffer.get(sections[Section.FLAGS.ordinal()] + id) & NO_TITLE) != 0) {
+            return null;
+        }
+        int offsets = sections[Section.TITLE_OFFSETS.ordinal()] + id * Integer.BYTES;
+        int start = buffer.getInt(offsets);
+        byte[] title = new byte[buffer.getInt(offsets + Integer.BYTES) - start];
+        buffer.get(sections[Section.TITLES.ordinal()] + start, title);
+        return new String(title, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns the author of a book.
+     *
+     * @param id book id.
+     * @return the author.
+     */
+    public String getAuthor(int id) {
+        return entry(authors, Section.AUTHORS, authorWidth, id);
+    }
+
+    /**
+     * Returns the genre of a book.
+     *
+     * @param id book id.
+     * @return the genre.
+     */
+    public String getGenre(int id) {
+        return entry(genres, Section.GENRES, genreWidth, id);
+    }
+
+    /**
+     * Returns the publisher of a book.
+     *
+     * @param id book id.
+     * @return the publisher.
+     */
+    public String getPublisher(int id) {
+        return entry(publishers, Section.PUBLISHERS, publisherWidth, id);
+    }
+
+    /**
+     * Returns the release date of a book.
+     *
+     * @param id book id.
+     * @return the release date, null if it is missing.
+     */
+    public LocalDate getReleaseDate(int id) {
+        checkId(id);
+        int day = buffer.getInt(sections[Section.RELEASE_DAYS.ordinal()] + id * Integer.BYTES);
+        return day != BookCatalog.NO_DATE ? LocalDate.ofEpochDay(day) : null;
+    }
+
+    /**
+     * Returns the language of a book.
+     *
+     * @param id book id.
+     * @return the language, null if it is missing or not the exact name of a {@link Language}.
+     */
+    public Language getLanguage(int id) {
+        checkId(id);
+        byte language = buffer.get(sections[Section.LANGUAGES.ordinal()] + id);
+        return language != BookCatalog.NO_LANGUAGE ? Language.fromId(language) : null;
+    }
+
+    /**
+     * Returns the language of a book as it was added to the catalog, see {@link BookCatalog#getLanguageName}.
+     *
+     * @param id book id.
+     * @return the language value, null if it is missing.
+     */
+    public String getLanguageName(int id) {
+        Language language = getLanguage(id);
+        if (language != null) {
+            return language.getName();
+        }
+        int books = sections[Section.OTHER_LANGUAGE_BOOKS.ordinal()];
+        int low = 0;
+        int high = otherLanguageCount - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int book = buffer.getInt(books + middle * Integer.BYTES);
+            if (book < id) {
+                low = middle + 1;
+            } else if (book > id) {
+                high = middle - 1;
+            } else {
+                return otherLanguages[buffer.getInt(sections[Section.OTHER_LANGUAGE_IDS.ordinal()]
+                        + middle * Integer.BYTES)];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the packed ISBN of a book.
+     *
+     * @param id book id.
+     * @return the ISBN key, {@link BookCatalog#NO_ISBN} if it is missing.
+     */
+    public long getIsbn(int id) {
+        checkId(id);
+        return buffer.getLong(sections[Section.ISBNS.ordinal()] + id * Long.BYTES);
+    }
+
+    /**
+     * Returns the price of a book.
+     *
+     * @param id book id.
+     * @return the price.
+     */
+    public double getPrice(int id) {
+        checkId(id);
+        return buffer.getDouble(sections[Section.PRICES.ordinal()] + id * Double.BYTES);
+    }
+
+    /**
+     * Finds the book of an ISBN.
+     *
+     * @param isbn ISBN, in any form accepted by {@link Isbn#key}.
+     * @return the book id, {@link #NOT_FOUND} if the ISBN is unknown or not valid.
+     */
+    public int findByIsbn(CharSequence isbn) {
+        return findByIsbn(Isbn.key(isbn));
+    }
+
+    /**
+     * Finds the book of an ISBN key by binary search.
+     *
+     * @param key ISBN key returned by {@link Isbn#key} or {@link Isbn#parse}.
+     * @return the book id, {@link #NOT_FOUND} if the key is unknown.
+     */
+    public int findByIsbn(long key) {
+        int keys = sections[Section.ISBN_KEYS.ordinal()];
+        int low = 0;
+        int high = isbnCount - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            long candidate = buffer.getLong(keys + middle * Long.BYTES);
+            if (candidate < key) {
+                low = middle + 1;
+            } else if (candidate > key) {
+                high = middle - 1;
+            } else {
+                return buffer.getInt(sections[Section.ISBN_IDS.ordinal()] + middle * Integer.BYTES);
+            }
+        }
+        return NOT_FOUND;
+    }
+
+    /**
+     * Loads all the books into a catalog.
+     *
+     * @return a new catalog with the books in id order.
+     */
+    public BookCatalog toCatalog() {
+        BookCatalog catalog = new BookCatalog(size);
+        for (int id = 0; id < size; id++) {
+            catalog.add(get(id));
+        }
+        return catalog;
+    }
+
+    /**
+     * Reads the dictionary entry of a book.
+     *
+     * @param dictionary decoded dictionary.
+     * @param column     column with the ids of the books.
+     * @param width      width of the ids.
+     * @param id         book id.
+     * @return the entry, null if the book has none.
+     */
+    private String entry(String[] dictionary, Section column, int width, int id) {
+        checkId(id);
+        int position = sections[column.ordinal()] + id * width;
+        int entry;
+        if (width == 1) {
+            entry = buffer.get(position) & 0xFF;
+        } else if (width == 2) {
+            entry = buffer.getShort(position) & 0xFFFF;
+        } else {
+            entry = buffer.getInt(position);
+        }
+        // ids are stored plus one, so that 0 is a missing value
+        return entry != 0 ? dictionary[entry - 1] : null;
+    }
+
+    /**
+     * Decodes a dictionary: a varint count followed by UTF-8 strings with varint lengths.
+     *
+     * @param position offset of the dictionary.
+     * @return the strings.
+     */
+    private String[] readDictionary(int position) {
+        ByteBuffer in = buffer.duplicate().position(position);
+        String[] strings = new String[readVarint(in)];
+        for (int i = 0; i < strings.length; i++) {
+            byte[] bytes = new byte[readVarint(in)];
+            in.get(bytes);
+            strings[i] = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return strings;
+    }
+
+    /**
+     * Checks that an id belongs to the catalog.
+     *
+     * @param id book id.
+     * @throws IndexOutOfBoundsException if it does not.
+     */
+    private void checkId(int id) {
+        if (id < 0 || id >= size) {
+            throw new IndexOutOfBoundsException("Book id " + id + " out of bounds for size " + size);
+        }
+    }
+
+    /**
+     * Writes a dictionary: a varint count followed by UTF-8 strings with varint lengths.
+     *
+     * @param out        output.
+     * @param dictionary dictionary to write.
+     * @throws IOException If it cannot be written.
+     */
+    private static void writeDictionary(Output out, StringDictionary dictionary) throws IOException {
+        out.putVarint(dictionary.size());
+        for (int id = 0; id < dictionary.size(); id++) {
+            byte[] bytes = dictionary.get(id).getBytes(StandardCharsets.UTF_8);
+            out.putVarint(bytes.length);
+            out.put(bytes);
+        }
+    }
+
+    /**
+     * Returns the size of a dictionary written by {@link #writeDictionary}.
+     *
+     * @param dictionary dictionary to write.
+     * @return its size in bytes.
+     */
+    private static long dictionarySize(StringDictionary dictionary) {
+        long bytes = varintSize(dictionary.size());
+        for (int id = 0; id < dictionary.size(); id++) {
+            int length = utf8Length(dictionary.get(id));
+            bytes += varintSize(length) + length;
+        }
+        return bytes;
+    }
+
+    /**
+     * Returns the length of a string in UTF-8 without encoding it, as {@link String#getBytes} would encode it:
+     * unpaired surrogates become a single '?'.
+     *
+     * @param text string to measure.
+     * @return its length in bytes.
+     */
+    private static int utf8Length(String text) {
+        int length = text.length();
+        for (int i = 0; i < text.length(); i++) {
+            char ch = text.charAt(i);
+            if (ch < 0x80 || Character.isSurrogate(ch) && !isSurrogatePair(text, i)) {
+                continue;
+            }
+            if (ch < 0x800) {
+                length += 1;
+            } else if (Character.isHighSurrogate(ch)) {
+                // four bytes for the two chars of the pair
+                length += 2;
+                i++;
+            } else {
+                length += 2;
+            }
+        }
+        return length;
+    }
+
+    private static boolean isSurrogatePair(String text, int i) {
+        return Character.isHighSurrogate(text.charAt(i)) && i + 1 < text.length()
+                && Character.isLowSurrogate(text.charAt(i + 1));
+    }
+
+    /**
+     * Returns the number of bytes of an unsigned varint.
+     *
+     * @param value value to write.
+     * @return between 1 and 5 bytes.
+     */
+    private static int varintSize(int value) {
+        return (38 - Integer.numberOfLeadingZeros(value | 1)) / 7;
+    }
+
+    /**
+     * Rounds a position up to a multiple of an alignment.
+     *
+     * @param position  position in the file.
+     * @param alignment alignment in bytes, a power of two.
+     * @return the aligned position.
+     */
+    private static long align(long position, int alignment) {
+        return position + (-position & (alignment - 1));
+    }
+
+    /**
+     * Returns the width of the ids of a dictionary, stored plus one.
+     *
+     * @param size number of entries of the dictionary.
+     * @return 1, 2 or 4 bytes.
+     */
+    private static int idWidth(int size) {
+        return size < 0xFF ? 1 : size < 0xFFFF ? 2 : 4;
+    }
+
+    /**
+     * Reads an unsigned varint: 7 bits per byte, least significant first, high bit set on all but the last byte.
+     *
+     * @param in input.
+     * @return the value.
+     */
+    static int readVarint(ByteBuffer in) {
+        int value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = in.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+    }
+
+    /**
+     * Buffered output to a file channel that knows its position.
+     */
+    private static final class Output {
+
+        /**
+         * Destination.
+         */
+        private final FileChannel channel;
+
+        /**
+         * Pending bytes.
+         */
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 16);
+
+        /**
+         * Position of the first pending byte in the file.
+         */
+        private long flushed;
+
+        Output(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        /**
+         * Returns the position in the file of the next byte.
+         *
+         * @return the position.
+         */
+        long position() {
+            return flushed + buffer.position();
+        }
+
+        /**
+         * Leaves a gap, e.g. for the header written at the end.
+         *
+         * @param bytes size of the gap.
+         * @throws IOException If it cannot be written.
+         */
+        void skip(int bytes) throws IOException {
+            for (int i = 0; i < bytes; i++) {
+                put((byte) 0);
+            }
+        }
+
+        /**
+         * Pads with zeros up to a multiple of an alignment.
+         *
+         * @param alignment alignment in bytes.
+         * @return the aligned position.
+         * @throws IOException If it cannot be written.
+         */
+        long align(int alignment) throws IOException {
+            skip((int) (-position() & (alignment - 1)));
+            return position();
+        }
+
+        /**
+         * Writes a byte.
+         *
+         * @param value byte to write.
+         * @throws IOException If it cannot be written.
+         */
+        void put(byte value) throws IOException {
+            ensure(1);
+            buffer.put(value);
+        }
+
+        /**
+         * Writes some bytes.
+         *
+         * @param bytes bytes to write.
+         * @throws IOException If they cannot be written.
+         */
+        void put(byte[] bytes) throws IOException {
+            for (int written = 0; written < bytes.length; ) {
+                ensure(1);
+                int length = Math.min(bytes.length - written, buffer.remaining());
+                buffer.put(bytes, written, length);
+                written += length;
+            }
+        }
+
+        /**
+         * Writes an int.
+         *
+         * @param value int to write.
+         * @throws IOException If it cannot be written.
+         */
+        void putInt(int value) throws IOException {
+            ensure(Integer.BYTES);
+            buffer.putInt(value);
+        }
+
+        /**
+         * Writes a long.
+         *
+         * @param value long to write.
+         * @throws IOException If it cannot be written.
+         */
+        void putLong(long value) throws IOException {
+            ensure(Long.BYTES);
+            buffer.putLong(value);
+        }
+
+        /**
+         * Writes a double.
+         *
+         * @param value double to write.
+         * @throws IOException If it cannot be written.
+         */
+        void putDouble(double value) throws IOException {
+            ensure(Double.BYTES);
+            buffer.putDouble(value);
+        }
+
+        /**
+         * Writes a dictionary id plus one in a fixed width, so that {@link StringDictionary#NO_ID} is 0.
+         *
+         * @param id    dictionary id.
+         * @param width width in bytes.
+         * @throws IOException If it cannot be written.
+         */
+        void putId(int id, int width) throws IOException {
+            if (width == 1) {
+                put((byte) (id + 1));
+            } else if (width == 2) {
+                ensure(Short.BYTES);
+                buffer.putShort((short) (id + 1));
+            } else {
+                putInt(id + 1);
+            }
+        }
+
+        /**
+         * Writes an unsigned varint, see {@link #readVarint}.
+         *
+         * @param value value to write, not negative.
+         * @throws IOException If it cannot be written.
+         */
+        void putVarint(int value) throws IOException {
+            while ((value & ~0x7F) != 0) {
+                put((byte) (value & 0x7F | 0x80));
+                value >>>= 7;
+            }
+            put((byte) value);
+        }
+
+        /**
+         * Makes room for some bytes.
+         *
+         * @param bytes number of bytes.
+         * @throws IOException If the pending bytes cannot be written.
+         */
+        private void ensure(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                flush();
+            }
+        }
+
+        /**
+         * Writes the pending bytes.
+         *
+         * @throws IOException If they cannot be written.
+         */
+        void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                flushed += channel.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+}
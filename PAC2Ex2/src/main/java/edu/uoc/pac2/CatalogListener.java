@@ -0,0 +1,38 @@
+package edu.uoc.pac2;
+
+/**
+ * Receives the changes of a {@link BookCatalog}, so that indexes built over it can follow them incrementally
+ * instead of being rebuilt.
+ * <p>
+ * Listeners are called synchronously, after the change is stored, by the thread that made it. All the methods do
+ * nothing by default.
+ *
+ * @author Arnau López Pagès
+ * @version 1.0
+ */
+public interface CatalogListener {
+
+    /**
+     * Called after a book is added.
+     *
+     * @param id id of the new book.
+     */
+    default void bookAdded(int id) {
+    }
+
+    /**
+     * Called after the price of a book changes.
+     *
+     * @param id       book id.
+     * @param oldPrice price before the change.
+     * @param newPrice price after the change.
+     */
+    default void priceChanged(int id, double oldPrice, double newPrice) {
+    }
+
+    /**
+     * Called after the prices of the whole catalog change at once, e.g. by a discount.
+     */
+    default void pricesChanged() {
+    }
+}
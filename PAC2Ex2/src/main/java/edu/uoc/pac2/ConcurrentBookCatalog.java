@@ -0,0 +1,230 @@
+package edu.uoc.pac2;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Catalog of {@link ImmutableBook} records, keyed by ISBN, that many threads can read and update at once. ISBNs are
+ * compared by their {@link Isbn#key}, as in {@link BookCatalog}, so an ISBN-10 and its ISBN-13 are the same book.
+ * <p>
+ * Records are never modified: an update builds a new record and swaps it in, so a reader always sees either the
+ * old or the new version of a book, never a mix of both, and {@link #get} never waits. Writers of the same book
+ * are serialized by a lock chosen by the hash of its ISBN, out of a fixed number of stripes, so writers of
+ * different books rarely wait for each other. {@link #snapshot()} takes every stripe to copy the catalog at a
+ * single point in time, pausing writers but not readers.
+ *
+ * @author Arnau López Pagès
+ * @version 1.0
+ */
+public final class ConcurrentBookCatalog {
+
+    /**
+     * Number of stripes used when none is given.
+     */
+    public static final int DEFAULT_STRIPES = 64;
+
+    /**
+     * Current record of each book, by the {@link Isbn#key} of its ISBN.
+     */
+    private final ConcurrentHashMap<Long, ImmutableBook> books = new ConcurrentHashMap<>();
+
+    /**
+     * Locks of the writers, a power of two of them.
+     */
+    private final ReentrantLock[] stripes;
+
+    /**
+     * Change applied to a book by {@link #update}.
+     */
+    @FunctionalInterface
+    public interface Update {
+
+        /**
+         * Computes the new record of a book.
+         *
+         * @param current current record.
+         * @return the new record, with the same ISBN.
+         * @throws Exception If the change is not valid, usually from {@link ImmutableBook.Builder#build()}.
+         */
+        ImmutableBook apply(ImmutableBook current) throws Exception;
+    }
+
+    /**
+     * Creates an empty catalog with {@link #DEFAULT_STRIPES} stripes.
+     */
+    public ConcurrentBookCatalog() {
+        this(DEFAULT_STRIPES);
+    }
+
+    /**
+     * Creates an empty catalog.
+     *
+     * @param stripes minimum number of writer locks, rounded up to a power of two. One lock serializes all the
+     *                writers.
+     */
+    public ConcurrentBookCatalog(int stripes) {
+        if (stripes < 1 || stripes > 1 << 16) {
+            throw new IllegalArgumentException("Invalid number of stripes: " + stripes);
+        }
+        int count = Integer.highestOneBit(stripes - 1) << 1;
+        this.stripes = new ReentrantLock[Math.max(count, 1)];
+        for (int i = 0; i < this.stripes.length; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Adds a book if there is no book with its ISBN.
+     *
+     * @param book book to add.
+     * @return true if the book was added, false if its ISBN was already in the catalog.
+     */
+    public boolean add(ImmutableBook book) {
+        long key = Isbn.key(book.getIsbn());
+        ReentrantLock lock = stripeOf(key);
+        lock.lock();
+        try {
+            return books.putIfAbsent(key, book) == null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Adds a book or replaces the book with the same ISBN.
+     *
+     * @param book book to store.
+     * @return the replaced book, null if there was none.
+     */
+    public ImmutableBook put(ImmutableBook book) {
+        long key = Isbn.key(book.getIsbn());
+        ReentrantLock lock = stripeOf(key);
+        lock.lock();
+        try {
+            return books.put(key, book);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes a book.
+     *
+     * @param isbn ISBN of the book, with or without separators.
+     * @return the removed book, null if there was none or the ISBN is null or not valid.
+     */
+    public ImmutableBook remove(String isbn) {
+        long key = Isbn.key(isbn);
+        if (key == Isbn.INVALID) {
+            return null;
+        }
+        ReentrantLock lock = stripeOf(key);
+        lock.lock();
+        try {
+            return books.remove(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the current record of a book, without waiting for the writers.
+     *
+     * @param isbn ISBN of the book, with or without separators.
+     * @return the book, null if there is none or the ISBN is null or not valid.
+     */
+    public ImmutableBook get(String isbn) {
+        long key = Isbn.key(isbn);
+        return key != Isbn.INVALID ? books.get(key) : null;
+    }
+
+    /**
+     * Changes a book atomically: no other writer changes the book between reading its record and storing the new
+     * one, so updates computed from the current values are never lost.
+     * <p>
+     * The update runs while holding the stripe of the book and must not access the catalog.
+     *
+     * @param isbn   ISBN of the book, with or without separators.
+     * @param update change to apply.
+     * @return the new record, null if there is no such book or the ISBN is null or not valid.
+     * @throws Exception If the update throws, in which case the book is left unchanged.
+     */
+    public ImmutableBook update(String isbn, Update update) throws Exception {
+        long key = Isbn.key(isbn);
+        if (key == Isbn.INVALID) {
+            return null;
+        }
+        ReentrantLock lock = stripeOf(key);
+        lock.lock();
+        try {
+            ImmutableBook current = books.get(key);
+            if (current == null) {
+                return null;
+            }
+            ImmutableBook next = update.apply(current);
+            if (next == null || Isbn.key(next.getIsbn()) != key) {
+                throw new IllegalArgumentException("An update cannot change the ISBN of book " + current.getIsbn());
+            }
+            if (next != current) {
+                books.put(key, next);
+            }
+            return next;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Changes the price of a book.
+     *
+     * @param isbn  ISBN of the book, with or without separators.
+     * @param price new price.
+     * @return the new record, null if there is no such book.
+     * @throws Exception If the price is negative or zero.
+     */
+    public ImmutableBook updatePrice(String isbn, double price) throws Exception {
+        return update(isbn, book -> book.withPrice(price));
+    }
+
+    /**
+     * Returns the number of books.
+     *
+     * @return size of the catalog.
+     */
+    public int size() {
+        return books.size();
+    }
+
+    /**
+     * Copies the catalog as it is at one point in time: every change finished before the call is in the copy and
+     * none started after it. Writers wait while the records are copied; readers do not.
+     *
+     * @return the books, in no particular order.
+     */
+    public List<ImmutableBook> snapshot() {
+        for (ReentrantLock stripe : stripes) {
+            stripe.lock();
+        }
+        try {
+            return Collections.unmodifiableList(new ArrayList<>(books.values()));
+        } finally {
+            for (int i = stripes.length - 1; i >= 0; i--) {
+                stripes[i].unlock();
+            }
+        }
+    }
+
+    /**
+     * Returns the writer lock of a book.
+     *
+     * @param key {@link Isbn#key} of the book.
+     * @return its stripe.
+     */
+    private ReentrantLock stripeOf(long key) {
+        int hash = (int) (key * 0x9E3779B97F4A7C15L >>> 32);
+        return stripes[hash & (stripes.length - 1)];
+    }
+}
@@ -0,0 +1,71 @@
+package edu.uoc.pac2;
+
+/**
+ * Dictionary encoded attribute of the books of a {@link BookCatalog} by which they can be grouped, see
+ * {@link FacetIndex}.
+ *
+ * @author Arnau López Pagès
+ * @version 1.0
+ */
+public enum Facet {
+
+    /**
+     * Genre, values are ids of {@link BookCatalog#getGenres()}.
+     */
+    GENRE,
+
+    /**
+     * Language, values are {@link Language#id()}.
+     */
+    LANGUAGE,
+
+    /**
+     * Publisher, values are ids of {@link BookCatalog#getPublishers()}.
+     */
+    PUBLISHER;
+
+    /**
+     * Value used for books without the attribute.
+     */
+    public static final int MISSING = -1;
+
+    /**
+     * Returns the value of a book.
+     *
+     * @param catalog catalog of the book.
+     * @param id      book id.
+     * @return the value, {@link #MISSING} if the book has none.
+     */
+    public int valueOf(BookCatalog catalog, int id) {
+        switch (this) {
+            case GENRE:
+                return catalog.getGenreId(id);
+            case LANGUAGE:
+                Language language = catalog.getLanguage(id);
+                return language != null ? language.id() : MISSING;
+            default:
+                return catalog.getPublisherId(id);
+        }
+    }
+
+    /**
+     * Returns the name of a value, for display.
+     *
+     * @param catalog catalog the value comes from.
+     * @param value   value of the facet.
+     * @return the genre, language or publisher name, null for {@link #MISSING}.
+     */
+    public String label(BookCatalog catalog, int value) {
+        if (value == MISSING) {
+            return null;
+        }
+        switch (this) {
+            case GENRE:
+                return catalog.getGenres().get(value);
+            case LANGUAGE:
+                return Language.fromId(value).getName();
+            default:
+                return catalog.getPublishers().get(value);
+        }
+    }
+}
@@ -0,0 +1,283 @@
+package edu.uoc.pac2;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Faceted aggregation of a {@link BookCatalog}: the {@link FacetTable} of its books grouped by some of their
+ * genre, language and publisher, e.g. the count and average price of each genre and language combination.
+ * <p>
+ * The table is first computed from the dictionary id columns of the catalog, in ranges that run as fork/join
+ * tasks and whose partial tables are merged. It then listens to the catalog, see {@link CatalogListener}: added
+ * books are aggregated one by one and a price change adjusts the sum of its cell. When a change removes the
+ * minimum or maximum price of a cell, or the classic boundary of {@link CatalogClock} moves to another day, the
+ * affected aggregates are recomputed in one pass the next time the table is read. A discount of the whole
+ * catalog computes the table again.
+ * <p>
+ * The index is not thread-safe, like the catalog.
+ *
+ * @author Arnau López Pagès
+ * @version 1.0
+ */
+public class FacetIndex implements CatalogListener {
+
+    /**
+     * Minimum number of books aggregated by one task.
+     */
+    private static final int MIN_LEAF_SIZE = 4096;
+
+    /**
+     * Catalog aggregated.
+     */
+    private final BookCatalog catalog;
+
+    /**
+     * Facets grouped by.
+     */
+    private final Facet[] facets;
+
+    /**
+     * Pool of the aggregation tasks, null to aggregate in the calling thread.
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * Aggregates of the catalog.
+     */
+    private FacetTable table;
+
+    /**
+     * Classic threshold the classics of {@link #table} were counted with.
+     */
+    private int threshold;
+
+    /**
+     * Whether some cell of {@link #table} has stale bounds.
+     */
+    private boolean staleBounds;
+
+    private FacetIndex(BookCatalog catalog, ForkJoinPool pool, Facet[] facets) {
+        this.catalog = catalog;
+        this.facets = facets.clone();
+        this.pool = pool;
+        table = aggregate();
+    }
+
+    /**
+     * Aggregates a catalog in the common pool and keeps following its changes, until removed with
+     * {@link BookCatalog#removeListener}.
+     *
+     * @param catalog catalog to aggregate.
+     * @param facets  facets to group by, at most three.
+     * @return a new index.
+     */
+    public static FacetIndex of(BookCatalog catalog, Facet... facets) {
+        return of(catalog, ForkJoinPool.commonPool(), facets);
+    }
+
+    /**
+     * Aggregates a catalog and keeps following its changes, until removed with {@link BookCatalog#removeListener}.
+     *
+     * @param catalog catalog to aggregate.
+     * @param pool    pool running the aggregation, null to run it in the calling thread.
+     * @param facets  facets to group by, at most three.
+     * @return a new index.
+     */
+    public static FacetIndex of(BookCatalog catalog, ForkJoinPool pool, Facet... facets) {
+        FacetIndex index = new FacetIndex(catalog, pool, facets);
+        catalog.addListener(index);
+        return index;
+    }
+
+    /**
+     * Returns the aggregates of the catalog, up to date with its changes and with the current classic boundary.
+     * The returned table is owned by the index and changes with the catalog.
+     *
+     * @return the table.
+     */
+    public FacetTable table() {
+        int current = CatalogClock.current().classicThreshold();
+        if (current != threshold) {
+            recountClassics(current);
+        }
+        if (staleBounds) {
+            recomputeBounds();
+        }
+        return table;
+    }
+
+    @Override
+    public void bookAdded(int id) {
+        int day = catalog.getReleaseEpochDay(id);
+        table.add(keyOf(id), catalog.getPrice(id), day != BookCatalog.NO_DATE && day < threshold);
+    }
+
+    @Override
+    public void priceChanged(int id, double oldPrice, double newPrice) {
+        long key = keyOf(id);
+        table.reprice(key, oldPrice, newPrice);
+        staleBounds |= table.hasStaleBounds(table.locate(key));
+    }
+
+    @Override
+    public void pricesChanged() {
+        table = aggregate();
+        staleBounds = false;
+    }
+
+    /**
+     * Computes the table of the whole catalog.
+     *
+     * @return a new table.
+     */
+    private FacetTable aggregate() {
+        threshold = CatalogClock.current().classicThreshold();
+        int size = catalog.size();
+        if (pool == null || size <= MIN_LEAF_SIZE) {
+            return aggregate(0, size);
+        }
+        int leafSize = Math.max(MIN_LEAF_SIZE, size / (pool.getParallelism() * 4));
+        return pool.invoke(new Partition(this, 0, size, leafSize));
+    }
+
+    /**
+     * Computes the table of a range of books.
+     *
+     * @param from first book id, inclusive.
+     * @param to   last book id, exclusive.
+     * @return a new table.
+     */
+    private FacetTable aggregate(int from, int to) {
+        FacetTable partial = new FacetTable(facets);
+        double[] prices = catalog.priceColumn();
+        int[] days = catalog.releaseDayColumn();
+        int[] genres = catalog.genreColumn();
+        byte[] languages = catalog.languageColumn();
+        int[] publishers = catalog.publisherColumn();
+        for (int id = from; id < to; id++) {
+            partial.add(keyOf(id, genres, languages, publishers), prices[id],
+                    days[id] != BookCatalog.NO_DATE && days[id] < threshold);
+        }
+        return partial;
+    }
+
+    /**
+     * Counts the classics again after the classic boundary moved.
+     *
+     * @param current new classic threshold.
+     */
+    private void recountClassics(int current) {
+        threshold = current;
+        table.resetClassics();
+        int[] days = catalog.releaseDayColumn();
+        for (int id = 0; id < catalog.size(); id++) {
+            if (days[id] != BookCatalog.NO_DATE && days[id] < threshold) {
+                table.addClassic(keyOf(id));
+            }
+        }
+    }
+
+    /**
+     * Recomputes the minimum and maximum prices of the cells with stale bounds.
+     */
+    private void recomputeBounds() {
+        for (int cell = 0; cell < table.size(); cell++) {
+            if (table.hasStaleBounds(cell)) {
+                table.resetBounds(cell);
+            }
+        }
+        double[] prices = catalog.priceColumn();
+        for (int id = 0; id < catalog.size(); id++) {
+            int cell = table.locate(keyOf(id));
+            if (table.hasStaleBounds(cell)) {
+                table.widenBounds(cell, prices[id]);
+            }
+        }
+        table.clearStaleBounds();
+        staleBounds = false;
+    }
+
+    /**
+     * Packs the facet values of a book.
+     *
+     * @param id book id.
+     * @return key of its cell.
+     */
+    private long keyOf(int id) {
+        return keyOf(id, catalog.genreColumn(), catalog.languageColumn(), catalog.publisherColumn());
+    }
+
+    /**
+     * Packs the facet values of a book read from the given columns, so that scans fetch them once.
+     *
+     * @param id         book id.
+     * @param genres     genre column of the catalog.
+     * @param languages  language column of the catalog.
+     * @param publishers publisher column of the catalog.
+     * @return key of its cell.
+     */
+    private long keyOf(int id, int[] genres, byte[] languages, int[] publishers) {
+        long key = 0;
+        for (int i = 0; i < facets.length; i++) {
+            int value;
+            switch (facets[i]) {
+                case GENRE:
+                    value = genres[id];
+                    break;
+                case LANGUAGE:
+                    value = languages[id];
+                    break;
+                default:
+                    value = publishers[id];
+            }
+            key = FacetTable.pack(key, i, value);
+        }
+        return key;
+    }
+
+    /**
+     * Task aggregating a range of books, split in halves while it is bigger than the leaf size.
+     */
+    private static final class Partition extends RecursiveTask<FacetTable> {
+
+        /**
+         * Serialization version, required as RecursiveTask is Serializable.
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * Index whose table is computed.
+         */
+        private final FacetIndex index;
+
+        /**
+         * Range of book ids, from inclusive to exclusive.
+         */
+        private final int from;
+        private final int to;
+
+        /**
+         * Maximum number of books aggregated without splitting.
+         */
+        private final int leafSize;
+
+        Partition(FacetIndex index, int from, int to, int leafSize) {
+            this.index = index;
+            this.from = from;
+            this.to = to;
+            this.leafSize = leafSize;
+        }
+
+        @Override
+        protected FacetTable compute() {
+            if (to - from <= leafSize) {
+                return index.aggregate(from, to);
+            }
+            int middle = (from + to) >>> 1;
+            Partition next = new Partition(index, middle, to, leafSize);
+            next.fork();
+            FacetTable table = new Partition(index, from, middle, leafSize).compute();
+            return table.merge(next.join());
+        }
+    }
+}
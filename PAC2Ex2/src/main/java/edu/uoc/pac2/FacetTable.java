@@ -0,0 +1,445 @@
+package edu.uoc.pac2;
+
+import java.util.Arrays;
+
+/**
+ * Aggregates of the books of each combination of facet values: count, minimum, maximum and average price and
+ * number of classics.
+ * <p>
+ * Each combination present in the books is a cell. Its facet values are packed in a long key, found with an
+ * open addressing hash table, and its aggregates are kept in primitive arrays indexed by cell, so adding a book is
+ * one hash lookup and a few array writes without boxing. Tables over disjoint sets of books can be merged, which
+ * is how {@link FacetIndex} aggregates partitions of the catalog in parallel.
+ * <p>
+ * Tables are not thread-safe.
+ *
+ * @author Arnau López Pagès
+ * @version 1.0
+ */
+public final class FacetTable {
+
+    /**
+     * Cell returned by {@link #find} for a combination without books.
+     */
+    public static final int NOT_FOUND = -1;
+
+    /**
+     * Bits of the key used by each facet value, the values are stored plus one.
+     */
+    private static final int VALUE_BITS = 21;
+
+    /**
+     * Largest value that fits in the key.
+     */
+    static final int MAX_VALUE = (1 << VALUE_BITS) - 2;
+
+    /**
+     * Facets grouped by, in key order.
+     */
+    private final Facet[] facets;
+
+    /**
+     * Key of each cell.
+     */
+    private long[] keys;
+
+    /**
+     * Number of books of each cell.
+     */
+    private int[] counts;
+
+    /**
+     * Sum of the prices of each cell.
+     */
+    private double[] sums;
+
+    /**
+     * Minimum price of each cell.
+     */
+    private double[] mins;
+
+    /**
+     * Maximum price of each cell.
+     */
+    private double[] maxs;
+
+    /**
+     * Number of classics of each cell.
+     */
+    private int[] classics;
+
+    /**
+     * Whether the minimum or maximum of each cell may be wrong after a price change, see {@link #reprice}.
+     */
+    private boolean[] staleBounds;
+
+    /**
+     * Number of cells.
+     */
+    private int size;
+
+    /**
+     * Hash table from key to cell plus one, 0 for empty slots. Its length is a power of two.
+     */
+    private int[] slots = new int[16];
+
+    /**
+     * Creates an empty table.
+     *
+     * @param facets facets grouped by, at most three.
+     */
+    FacetTable(Facet[] facets) {
+        if (facets.length > Long.SIZE / VALUE_BITS) {
+            throw new IllegalArgumentException("Too many facets: " + facets.length);
+        }
+        this.facets = facets.clone();
+        keys = new long[8];
+        counts = new int[8];
+        sums = new double[8];
+        mins = new double[8];
+        maxs = new double[8];
+        classics = new int[8];
+        staleBounds = new boolean[8];
+    }
+
+    /**
+     * Packs a facet value into a key.
+     *
+     * @param key      key with the values of the previous facets.
+     * @param position position of the facet.
+     * @param value    value of the facet, {@link Facet#MISSING} if there is none.
+     * @return the new key.
+     */
+    static long pack(long key, int position, int value) {
+        if (value > MAX_VALUE) {
+            throw new IllegalStateException("Facet value " + value + " does not fit in a key");
+        }
+        return key | (long) (value + 1) << position * VALUE_BITS;
+    }
+
+    /**
+     * Adds a book.
+     *
+     * @param key     key of the facet values of the book.
+     * @param price   price of the book.
+     * @param classic whether the book is a classic.
+     */
+    void add(long key, double price, boolean classic) {
+        int cell = cellOf(key);
+        if (counts[cell] == 0 || price < mins[cell]) {
+            mins[cell] = price;
+        }
+        if (counts[cell] == 0 || price > maxs[cell]) {
+            maxs[cell] = price;
+        }
+        counts[cell]++;
+        sums[cell] += price;
+        if (classic) {
+            classics[cell]++;
+        }
+    }
+
+    /**
+     * Changes the price of a book. The sum is adjusted, but if the old price was the minimum or the maximum of
+     * the cell it is marked stale, as the new bound cannot be known without the other prices.
+     *
+     * @param key      key of the facet values of the book.
+     * @param oldPrice price before the change.
+     * @param newPrice price after the change.
+     */
+    void reprice(long key, double oldPrice, double newPrice) {
+        int cell = cellOf(key);
+        sums[cell] += newPrice - oldPrice;
+        if (oldPrice == mins[cell] && newPrice > oldPrice || oldPrice == maxs[cell] && newPrice < oldPrice) {
+            staleBounds[cell] = true;
+        }
+        if (newPrice < mins[cell]) {
+            mins[cell] = newPrice;
+        }
+        if (newPrice > maxs[cell]) {
+            maxs[cell] = newPrice;
+        }
+    }
+
+    /**
+     * Tells if a cell has a stale minimum or maximum.
+     *
+     * @param cell cell index.
+     * @return true if its bounds must be recomputed.
+     */
+    boolean hasStaleBounds(int cell) {
+        return staleBounds[cell];
+    }
+
+    /**
+     * Starts recomputing the bounds of a stale cell.
+     *
+     * @param cell cell index.
+     */
+    void resetBounds(int cell) {
+        mins[cell] = Double.POSITIVE_INFINITY;
+        maxs[cell] = Double.NEGATIVE_INFINITY;
+    }
+
+    /**
+     * Takes a price into the bounds of a stale cell.
+     *
+     * @param cell  cell index.
+     * @param price price of a book of the cell.
+     */
+    void widenBounds(int cell, double price) {
+        mins[cell] = Math.min(mins[cell], price);
+        maxs[cell] = Math.max(maxs[cell], price);
+    }
+
+    /**
+     * Marks the bounds of all the cells as up to date.
+     */
+    void clearStaleBounds() {
+        Arrays.fill(staleBounds, 0, size, false);
+    }
+
+    /**
+     * Sets the number of classics of every cell to zero, before counting them again.
+     */
+    void resetClassics() {
+        Arrays.fill(classics, 0, size, 0);
+    }
+
+    /**
+     * Counts a classic again.
+     *
+     * @param key key of the facet values of the book.
+     */
+    void addClassic(long key) {
+        classics[cellOf(key)]++;
+    }
+
+    /**
+     * Adds the aggregates of another table over the same facets and other books.
+     *
+     * @param other table to merge into this one.
+     * @return this table.
+     */
+    public FacetTable merge(FacetTable other) {
+        if (!Arrays.equals(facets, other.facets)) {
+            throw new IllegalArgumentException("Cannot merge tables of different facets: "
+                    + Arrays.toString(facets) + " and " + Arrays.toString(other.facets));
+        }
+        for (int from = 0; from < other.size; from++) {
+            int cell = cellOf(other.keys[from]);
+            if (counts[cell] == 0) {
+                mins[cell] = other.mins[from];
+                maxs[cell] = other.maxs[from];
+            } else {
+                mins[cell] = Math.min(mins[cell], other.mins[from]);
+                maxs[cell] = Math.max(maxs[cell], other.maxs[from]);
+            }
+            counts[cell] += other.counts[from];
+            sums[cell] += other.sums[from];
+            classics[cell] += other.classics[from];
+            staleBounds[cell] |= other.staleBounds[from];
+        }
+        return this;
+    }
+
+    /**
+     * Returns the facets grouped by.
+     *
+     * @return the facets, in the order of the values of {@link #find}.
+     */
+    public Facet[] getFacets() {
+        return facets.clone();
+    }
+
+    /**
+     * Returns the number of cells, the combinations of facet values that have books.
+     *
+     * @return number of cells.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Finds the cell of a combination of facet values.
+     *
+     * @param values one value per facet, in the order of {@link #getFacets()}, {@link Facet#MISSING} for books
+     *               without it.
+     * @return the cell, {@link #NOT_FOUND} if no book has these values.
+     */
+    public int find(int... values) {
+        if (values.length != facets.length) {
+            throw new IllegalArgumentException("Expected " + facets.length + " values, got " + values.length);
+        }
+        long key = 0;
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] < Facet.MISSING || values[i] > MAX_VALUE) {
+                return NOT_FOUND;
+            }
+            key = pack(key, i, values[i]);
+        }
+        return locate(key);
+    }
+
+    /**
+     * Finds the cell of a key.
+     *
+     * @param key packed facet values.
+     * @return the cell, {@link #NOT_FOUND} if no book has these values.
+     */
+    int locate(long key) {
+        int slot = slotOf(key);
+        return slots[slot] != 0 ? slots[slot] - 1 : NOT_FOUND;
+    }
+
+    /**
+     * Returns the value of a facet in a cell.
+     *
+     * @param cell  cell index.
+     * @param facet one of the facets of the table.
+     * @return its value, {@link Facet#MISSING} if the books of the cell have none.
+     */
+    public int getValue(int cell, Facet facet) {
+        checkCell(cell);
+        for (int i = 0; i < facets.length; i++) {
+            if (facets[i] == facet) {
+                return (int) (keys[cell] >>> i * VALUE_BITS & (1L << VALUE_BITS) - 1) - 1;
+            }
+        }
+        throw new IllegalArgumentException("Facet " + facet + " is not grouped by");
+    }
+
+    /**
+     * Returns the number of books of a cell.
+     *
+     * @param cell cell index.
+     * @return number of books.
+     */
+    public int getCount(int cell) {
+        checkCell(cell);
+        return counts[cell];
+    }
+
+    /**
+     * Returns the lowest price of a cell.
+     *
+     * @param cell cell index.
+     * @return minimum price.
+     */
+    public double getMinPrice(int cell) {
+        checkCell(cell);
+        return mins[cell];
+    }
+
+    /**
+     * Returns the highest price of a cell.
+     *
+     * @param cell cell index.
+     * @return maximum price.
+     */
+    public double getMaxPrice(int cell) {
+        checkCell(cell);
+        return maxs[cell];
+    }
+
+    /**
+     * Returns the average price of a cell.
+     *
+     * @param cell cell index.
+     * @return average price.
+     */
+    public double getAveragePrice(int cell) {
+        checkCell(cell);
+        return sums[cell] / counts[cell];
+    }
+
+    /**
+     * Returns the number of classics of a cell.
+     *
+     * @param cell cell index.
+     * @return number of classics.
+     */
+    public int getClassics(int cell) {
+        checkCell(cell);
+        return classics[cell];
+    }
+
+    /**
+     * Returns the share of classics of a cell.
+     *
+     * @param cell cell index.
+     * @return classics divided by books, between 0 and 1.
+     */
+    public double getClassicRatio(int cell) {
+        checkCell(cell);
+        return (double) classics[cell] / counts[cell];
+    }
+
+    /**
+     * Checks that a cell belongs to the table.
+     *
+     * @param cell cell index.
+     * @throws IndexOutOfBoundsException if it does not.
+     */
+    private void checkCell(int cell) {
+        if (cell < 0 || cell >= size) {
+            throw new IndexOutOfBoundsException("Cell " + cell + " out of bounds for size " + size);
+        }
+    }
+
+    /**
+     * Returns the cell of a key, adding an empty one if it is new.
+     *
+     * @param key packed facet values.
+     * @return cell index.
+     */
+    private int cellOf(long key) {
+        int slot = slotOf(key);
+        if (slots[slot] != 0) {
+            return slots[slot] - 1;
+        }
+        if (size == keys.length) {
+            int capacity = size + (size >> 1) + 1;
+            keys = Arrays.copyOf(keys, capacity);
+            counts = Arrays.copyOf(counts, capacity);
+            sums = Arrays.copyOf(sums, capacity);
+            mins = Arrays.copyOf(mins, capacity);
+            maxs = Arrays.copyOf(maxs, capacity);
+            classics = Arrays.copyOf(classics, capacity);
+            staleBounds = Arrays.copyOf(staleBounds, capacity);
+        }
+        int cell = size++;
+        keys[cell] = key;
+        slots[slot] = cell + 1;
+        if (size * 2 > slots.length) {
+            rehash();
+        }
+        return cell;
+    }
+
+    /**
+     * Finds the slot of a key: the one holding it or the empty one where it would go.
+     *
+     * @param key packed facet values.
+     * @return slot index.
+     */
+    private int slotOf(long key) {
+        int mask = slots.length - 1;
+        int slot = (int) (key * 0x9E3779B97F4A7C15L >>> 32) & mask;
+        while (slots[slot] != 0 && keys[slots[slot] - 1] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Doubles the hash table.
+     */
+    private void rehash() {
+        slots = new int[slots.length * 2];
+        for (int cell = 0; cell < size; cell++) {
+            slots[slotOf(keys[cell])] = cell + 1;
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package edu.uoc.pac2;
+
+/**
+ * Allocation-free validators for the fields of a {@link Book}.
+ * <p>
+ * The character classes of the former regular expressions are precomputed once as 128-bit ASCII masks, so every
+ * check is a single scan over the input that creates no objects.
+ *
+ * @author Arnau López Pagès
+ * @version 1.0
+ */
+public final class FieldValidator {
+
+    /**
+     * Lower half (chars 0-63) of the title character class {@code [a-zA-Z\s-]}.
+     */
+    private static final long TITLE_LOW = lowMask(" \t\n\u000B\f\r-");
+
+    /**
+     * Upper half (chars 64-127) of the title character class {@code [a-zA-Z\s-]}.
+     */
+    private static final long TITLE_HIGH = highMask("ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz");
+
+    /**
+     * Lower half (chars 0-63) of the publisher character class {@code [a-zA-Z0-9 ,.()]}.
+     */
+    private static final long PUBLISHER_LOW = lowMask("0123456789 ,.()");
+
+    /**
+     * Upper half (chars 64-127) of the publisher character class {@code [a-zA-Z0-9 ,.()]}.
+     */
+    private static final long PUBLISHER_HIGH = highMask("ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz");
+
+    private FieldValidator() {
+    }
+
+    /**
+     * Checks that a title matches {@code ^[a-zA-Z\s-]+$}.
+     *
+     * @param title title to check.
+     * @return true if the title is not null, not empty and only contains letters, whitespace or hyphens.
+     */
+    public static boolean isValidTitle(CharSequence title) {
+        return matches(title, TITLE_LOW, TITLE_HIGH);
+    }
+
+    /**
+     * Checks that a publisher matches {@code ^[a-zA-Z0-9 ,.()]+$}.
+     *
+     * @param publisher publisher to check.
+     * @return true if the publisher is not null, not empty and only contains the allowed characters.
+     */
+    public static boolean isValidPublisher(CharSequence publisher) {
+        return matches(publisher, PUBLISHER_LOW, PUBLISHER_HIGH);
+    }
+
+    /**
+     * Checks if a value is null, empty or only made of characters that {@link String#trim()} would remove.
+     *
+     * @param value value to check.
+     * @return true if the value is blank.
+     */
+    public static boolean isBlank(CharSequence value) {
+        if (value == null) {
+            return true;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks that an ISBN has 10 or 13 digits once every non digit character is ignored.
+     *
+     * @param isbn ISBN to check.
+     * @return true if the ISBN has a valid number of digits.
+     */
+    public static boolean isValidIsbn(CharSequence isbn) {
+        int digits = countDigits(isbn);
+        return digits == 10 || digits == 13;
+    }
+
+    /**
+     * Removes every non digit character of an ISBN. The same instance is returned when there is nothing to remove,
+     * so already normalized values are not copied.
+     *
+     * @param isbn ISBN to normalize. Must not be null.
+     * @return the digits of the ISBN.
+     */
+    public static String normalizeIsbn(String isbn) {
+        int digits = countDigits(isbn);
+        if (digits == isbn.length()) {
+            return isbn;
+        }
+        char[] buffer = new char[digits];
+        int j = 0;
+        for (int i = 0; i < isbn.length(); i++) {
+            char c = isbn.charAt(i);
+            if (c >= '0' && c <= '9') {
+                buffer[j++] = c;
+            }
+        }
+        return new String(buffer);
+    }
+
+    /**
+     * Checks if a language is one of the languages accepted by {@link Book}, using the shared {@link Language}
+     * registry instead of scanning a list of candidates.
+     *
+     * @param language language to check.
+     * @return true if the language is valid.
+     */
+    public static boolean isValidLanguage(String language) {
+        return Language.fromName(language) != null;
+    }
+
+    /**
+     * Counts the ASCII digits of a value.
+     *
+     * @param value value to scan.
+     * @return number of digits, 0 if the value is null.
+     */
+    private static int countDigits(CharSequence value) {
+        if (value == null) {
+            return 0;
+        }
+        int digits = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits++;
+            }
+        }
+        return digits;
+    }
+
+    /**
+     * Checks that a value is not empty and that all its characters belong to the given ASCII class.
+     *
+     * @param value value to check.
+     * @param low   bits for chars 0-63.
+     * @param high  bits for chars 64-127.
+     * @return true if every character belongs to the class.
+     */
+    private static boolean matches(CharSequence value, long low, long high) {
+        if (value == null || value.length() == 0) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 64) {
+                if ((low & (1L << c)) == 0) {
+                    return false;
+                }
+            } else if (c < 128) {
+                if ((high & (1L << (c - 64))) == 0) {
+                    return false;
+                }
+            } else {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Builds the bits for chars 0-63 of a character class.
+     *
+     * @param chars characters of the class.
+     * @return mask with one bit per character below 64.
+     */
+    private static long lowMask(String chars) {
+        long mask = 0;
+        for (int i = 0; i < chars.length(); i++) {
+            char c = chars.charAt(i);
+            if (c < 64) {
+                mask |= 1L << c;
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Builds the bits for chars 64-127 of a character class.
+     *
+     * @param chars characters of the class.
+     * @return mask with one bit per character between 64 and 127.
+     */
+    private static long highMask(String chars) {
+        long mask = 0;
+        for (int i = 0; i < chars.length(); i++) {
+            char c = chars.charAt(i);
+            if (c >= 64 && c < 128) {
+                mask |= 1L << (c - 64);
+            }
+        }
+        return mask;
+    }
+}
@@ -0,0 +1,421 @@
+package edu.uoc.pac2;
+
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * Immutable book, the value type of catalogs that share books between threads or hold millions of them.
+ * <p>
+ * Instances are only created through a {@link Builder}, which checks every field with the rules of the
+ * {@link Book} setters, so an immutable book is always valid. Author, genre and publisher go through a
+ * {@link StringPool}: books repeating them share one string instead of holding a copy each. The language is a
+ * {@link Language} constant and the ISBN is kept as its digits, as {@link Book#setIsbn} does.
+ *
+ * @author Arnau López Pagès
+ * @version 1.0
+ */
+public final class ImmutableBook {
+
+    /**
+     * Title of the book.
+     */
+    private final String title;
+
+    /**
+     * Author of the book, interned.
+     */
+    private final String author;
+
+    /**
+     * Genre of the book, interned.
+     */
+    private final String genre;
+
+    /**
+     * Publisher of the book, interned.
+     */
+    private final String publisher;
+
+    /**
+     * Release date of the book.
+     */
+    private final LocalDate releaseDate;
+
+    /**
+     * Language in which the book is written.
+     */
+    private final Language language;
+
+    /**
+     * Digits of the ISBN of the book.
+     */
+    private final String isbn;
+
+    /**
+     * Price of the book.
+     */
+    private final double price;
+
+    private ImmutableBook(String title, String author, String genre, String publisher, LocalDate releaseDate,
+                          Language language, String isbn, double price) {
+        this.title = title;
+        this.author = author;
+        this.genre = genre;
+        this.publisher = publisher;
+        this.releaseDate = releaseDate;
+        this.language = language;
+        this.isbn = isbn;
+        this.price = price;
+    }
+
+    /**
+     * Starts building a book whose strings are interned in the shared pool.
+     *
+     * @return a new builder.
+     */
+    public static Builder builder() {
+        return new Builder(StringPool.shared());
+    }
+
+    /**
+     * Starts building a book whose strings are interned in a given pool.
+     *
+     * @param pool pool of the author, genre and publisher.
+     * @return a new builder.
+     */
+    public static Builder builder(StringPool pool) {
+        return new Builder(pool);
+    }
+
+    /**
+     * Copies a mutable book.
+     *
+     * @param book book to copy.
+     * @return an immutable copy.
+     * @throws Exception If a field of the book is not valid, with the messages of the failed fields.
+     */
+    public static ImmutableBook of(Book book) throws Exception {
+        return builder().title(book.getTitle()).author(book.getAuthor()).genre(book.getGenre())
+                .publisher(book.getPublisher()).releaseDate(book.getReleaseDate()).language(book.getLanguage())
+                .isbn(book.getIsbn()).price(book.getPrice()).build();
+    }
+
+    /**
+     * Returns a mutable copy.
+     *
+     * @return a new book with the same values.
+     */
+    public Book toBook() {
+        return new Book(title, author, genre, publisher, releaseDate, language.getName(), isbn, price);
+    }
+
+    /**
+     * Returns a builder initialized with the values of this book, to derive a modified copy.
+     *
+     * @return a new builder using the shared pool.
+     */
+    public Builder toBuilder() {
+        return toBuilder(StringPool.shared());
+    }
+
+    /**
+     * Returns a builder initialized with the values of this book, to derive a modified copy.
+     *
+     * @param pool pool of the author, genre and publisher of the copy.
+     * @return a new builder using the given pool.
+     */
+    public Builder toBuilder(StringPool pool) {
+        return builder(pool).title(title).author(author).genre(genre).publisher(publisher).releaseDate(releaseDate)
+                .language(language.getName()).isbn(isbn).price(price);
+    }
+
+    /**
+     * Returns a copy with another price.
+     *
+     * @param newPrice new price.
+     * @return a new book, or this one if the price does not change.
+     * @throws Exception If the price is negative or zero.
+     */
+    public ImmutableBook withPrice(double newPrice) throws Exception {
+        if (BookValidator.checkPrice(newPrice) != BookValidator.VALID) {
+            throw new Exception(BookValidator.message(BookValidator.PRICE));
+        }
+        if (Double.compare(newPrice, price) == 0) {
+            return this;
+        }
+        return new ImmutableBook(title, author, genre, publisher, releaseDate, language, isbn, newPrice);
+    }
+
+    /**
+     * Returns the title of the book.
+     *
+     * @return The title of the book.
+     */
+    public String getTitle() {
+        return title;
+    }
+
+    /**
+     * Returns the author of the book.
+     *
+     * @return The author of the book.
+     */
+    public String getAuthor() {
+        return author;
+    }
+
+    /**
+     * Returns the genre of the book.
+     *
+     * @return The genre of the book.
+     */
+    public String getGenre() {
+        return genre;
+    }
+
+    /**
+     * Returns the publisher of the book.
+     *
+     * @return The publisher of the book.
+     */
+    public String getPublisher() {
+        return publisher;
+    }
+
+    /**
+     * Returns the release date of the book.
+     *
+     * @return The release date of the book.
+     */
+    public LocalDate getReleaseDate() {
+        return releaseDate;
+    }
+
+    /**
+     * Returns the language of the book.
+     *
+     * @return The language of the book.
+     */
+    public String getLanguage() {
+        return language.getName();
+    }
+
+    /**
+     * Returns the ISBN of the book.
+     *
+     * @return The digits of the ISBN of the book.
+     */
+    public String getIsbn() {
+        return isbn;
+    }
+
+    /**
+     * Returns the price of the book.
+     *
+     * @return The price of the book.
+     */
+    public double getPrice() {
+        return price;
+    }
+
+    /**
+     * Checks if the book is cheaper than another book, see {@link Book#isCheaperThan}.
+     *
+     * @param otherBook the other book to compare prices with.
+     * @return true if the book is cheaper, false if it is not or the other book is null.
+     */
+    public boolean isCheaperThan(ImmutableBook otherBook) {
+        return otherBook != null && price < otherBook.price;
+    }
+
+    /**
+     * Checks if the book is written by an author, see {@link Book#isWrittenBy}.
+     *
+     * @param authorName the name of the author, compared ignoring case.
+     * @return true if the book is written by the author.
+     */
+    public boolean isWrittenBy(String authorName) {
+        return author.equalsIgnoreCase(authorName);
+    }
+
+    /**
+     * Checks if the book is a classic, see {@link Book#isClassic}.
+     *
+     * @return true if the book was released more than 50 years ago.
+     */
+    public boolean isClassic() {
+        return CatalogClock.current().isClassic(releaseDate.toEpochDay());
+    }
+
+    /**
+     * Computes the price after a discount, as {@link Book#applyDiscount} does but without printing anything.
+     *
+     * @param discountPercentage the percentage of discount to apply.
+     * @return the discounted price.
+     * @throws IllegalArgumentException if the percentage is not between 0 and 100.
+     */
+    public double applyDiscount(double discountPercentage) {
+        if (!(discountPercentage >= 0 && discountPercentage <= 100)) {
+            throw new IllegalArgumentException("[ERROR] Invalid discount percentage.");
+        }
+        double discountAmount = (discountPercentage / 100) * price;
+        return price - discountAmount;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof ImmutableBook)) {
+            return false;
+        }
+        ImmutableBook book = (ImmutableBook) other;
+        return Double.compare(price, book.price) == 0 && title.equals(book.title) && author.equals(book.author)
+                && genre.equals(book.genre) && publisher.equals(book.publisher)
+                && releaseDate.equals(book.releaseDate) && language == book.language && isbn.equals(book.isbn);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(title, author, genre, publisher, releaseDate, language, isbn, price);
+    }
+
+    @Override
+    public String toString() {
+        return "ImmutableBook[title=" + title + ", author=" + author + ", genre=" + genre + ", publisher="
+                + publisher + ", releaseDate=" + releaseDate + ", language=" + language.getName() + ", isbn=" + isbn
+                + ", price=" + price + "]";
+    }
+
+    /**
+     * Collects the fields of an {@link ImmutableBook} and validates them all at once.
+     */
+    public static final class Builder {
+
+        /**
+         * Pool of the repeated strings.
+         */
+        private final StringPool pool;
+
+        /**
+         * Values of the book being built.
+         */
+        private String title;
+        private String author;
+        private String genre;
+        private String publisher;
+        private LocalDate releaseDate;
+        private String language;
+        private String isbn;
+        private double price;
+
+        private Builder(StringPool pool) {
+            this.pool = pool;
+        }
+
+        /**
+         * Sets the title.
+         *
+         * @param value title of the book.
+         * @return this builder.
+         */
+        public Builder title(String value) {
+            title = value;
+            return this;
+        }
+
+        /**
+         * Sets the author.
+         *
+         * @param value author of the book.
+         * @return this builder.
+         */
+        public Builder author(String value) {
+            author = value;
+            return this;
+        }
+
+        /**
+         * Sets the genre.
+         *
+         * @param value genre of the book.
+         * @return this builder.
+         */
+        public Builder genre(String value) {
+            genre = value;
+            return this;
+        }
+
+        /**
+         * Sets the publisher.
+         *
+         * @param value publisher of the book.
+         * @return this builder.
+         */
+        public Builder publisher(String value) {
+            publisher = value;
+            return this;
+        }
+
+        /**
+         * Sets the release date.
+         *
+         * @param value release date of the book.
+         * @return this builder.
+         */
+        public Builder releaseDate(LocalDate value) {
+            releaseDate = value;
+            return this;
+        }
+
+        /**
+         * Sets the language.
+         *
+         * @param value language of the book, one of {@link Book#getValidLanguages()}.
+         * @return this builder.
+         */
+        public Builder language(String value) {
+            language = value;
+            return this;
+        }
+
+        /**
+         * Sets the ISBN.
+         *
+         * @param value ISBN of the book, with 10 or 13 digits.
+         * @return this builder.
+         */
+        public Builder isbn(String value) {
+            isbn = value;
+            return this;
+        }
+
+        /**
+         * Sets the price.
+         *
+         * @param value price of the book.
+         * @return this builder.
+         */
+        public Builder price(double value) {
+            price = value;
+            return this;
+        }
+
+        /**
+         * Validates the fields and builds the book.
+         *
+         * @return a new immutable book.
+         * @throws Exception If a field is missing or not valid, with the setter message of each failed field, one
+         *                   per line.
+         */
+        public ImmutableBook build() throws Exception {
+            int errors = BookValidator.validate(title, author, genre, publisher, releaseDate, language, isbn, price);
+            if (errors != BookValidator.VALID) {
+                throw new Exception(BookValidator.describe(errors));
+            }
+            return new ImmutableBook(title, pool.intern(author), pool.intern(genre), pool.intern(publisher),
+                    releaseDate, Language.fromName(language), FieldValidator.normalizeIsbn(isbn), price);
+        }
+    }
+}
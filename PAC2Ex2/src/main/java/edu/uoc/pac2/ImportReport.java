@@ -0,0 +1,192 @@
+package edu.uoc.pac2;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of an import: how many rows were read, imported and rejected, and why the first rejected rows failed.
+ * <p>
+ * Only a bounded number of rejections is kept, so the report stays small whatever the size of the file.
+ *
+ * @author Arnau López Pagès
+ * @version 1.0
+ */
+public final class ImportReport {
+
+    /**
+     * Number of data rows read.
+     */
+    private long rows;
+
+    /**
+     * Number of rows turned into books.
+     */
+    private long imported;
+
+    /**
+     * Maximum number of kept rejections.
+     */
+    private final int maxRejections;
+
+    /**
+     * First rejected rows.
+     */
+    private final List<Rejection> rejections = new ArrayList<>();
+
+    /**
+     * Number of rejected rows, including the ones not kept.
+     */
+    private long rejected;
+
+    /**
+     * Creates an empty report.
+     *
+     * @param maxRejections maximum number of kept rejections.
+     */
+    ImportReport(int maxRejections) {
+        this.maxRejections = maxRejections;
+    }
+
+    /**
+     * Counts an imported row.
+     */
+    void imported() {
+        rows++;
+        imported++;
+    }
+
+    /**
+     * Counts a rejected row.
+     */
+    void rejected() {
+        rows++;
+        rejected++;
+    }
+
+    /**
+     * Tells if there is room for another rejection.
+     *
+     * @return true if {@link #keep} would keep it.
+     */
+    boolean hasRoom() {
+        return rejections.size() < maxRejections;
+    }
+
+    /**
+     * Keeps a rejected row if there is room.
+     *
+     * @param rejection the rejected row.
+     */
+    void keep(Rejection rejection) {
+        if (hasRoom()) {
+            rejections.add(rejection);
+        }
+    }
+
+    /**
+     * Returns the number of data rows read, without the header and the blank lines.
+     *
+     * @return rows read.
+     */
+    public long getRows() {
+        return rows;
+    }
+
+    /**
+     * Returns the number of rows turned into books.
+     *
+     * @return imported rows.
+     */
+    public long getImported() {
+        return imported;
+    }
+
+    /**
+     * Returns the number of rejected rows.
+     *
+     * @return rejected rows.
+     */
+    public long getRejected() {
+        return rejected;
+    }
+
+    /**
+     * Returns the first rejected rows, in file order.
+     *
+     * @return rejections, at most the configured maximum.
+     */
+    public List<Rejection> getRejections() {
+        return Collections.unmodifiableList(rejections);
+    }
+
+    /**
+     * A row that could not be turned into a book.
+     */
+    public static final class Rejection {
+
+        /**
+         * Line where the row starts, from 1.
+         */
+        private final long line;
+
+        /**
+         * Flags of the invalid fields, see {@link BookValidator}.
+         */
+        private final int errors;
+
+        /**
+         * Why the row was rejected.
+         */
+        private final String message;
+
+        /**
+         * Text of the row.
+         */
+        private final String row;
+
+        Rejection(long line, int errors, String message, String row) {
+            this.line = line;
+            this.errors = errors;
+            this.message = message;
+            this.row = row;
+        }
+
+        /**
+         * Returns the line where the row starts.
+         *
+         * @return line number, from 1.
+         */
+        public long getLine() {
+            return line;
+        }
+
+        /**
+         * Returns the flags of the invalid fields.
+         *
+         * @return bitmask of {@link BookValidator} flags, {@link BookValidator#VALID} if the row could not be split
+         * in fields.
+         */
+        public int getErrors() {
+            return errors;
+        }
+
+        /**
+         * Returns why the row was rejected.
+         *
+         * @return the error messages, one per line.
+         */
+        public String getMessage() {
+            return message;
+        }
+
+        /**
+         * Returns the text of the row.
+         *
+         * @return the row, without line terminator.
+         */
+        public String getRow() {
+            return row;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package edu.uoc.pac2;
+
+import java.util.Arrays;
+
+/**
+ * Growable list of primitive ints, used for book ids and posting lists without boxing.
+ *
+ * @author Arnau López Pagès
+ * @version 1.0
+ */
+final class IntList {
+
+    /**
+     * Stored values, only the first {@link #size} are used.
+     */
+    private int[] values;
+
+    /**
+     * Number of stored values.
+     */
+    private int size;
+
+    IntList() {
+        this(8);
+    }
+
+    IntList(int capacity) {
+        values = new int[Math.max(capacity, 1)];
+    }
+
+    /**
+     * Appends a value.
+     *
+     * @param value value to append.
+     */
+    void add(int value) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size + (size >> 1) + 1);
+        }
+        values[size++] = value;
+    }
+
+    /**
+     * Appends all the values of another list.
+     *
+     * @param other list to append.
+     */
+    void addAll(IntList other) {
+        if (size + other.size > values.length) {
+            values = Arrays.copyOf(values, Math.max(size + other.size, size + (size >> 1) + 1));
+        }
+        System.arraycopy(other.values, 0, values, size, other.size);
+        size += other.size;
+    }
+
+    /**
+     * Returns a value.
+     *
+     * @param index position of the value.
+     * @return the value.
+     */
+    int get(int index) {
+        if (index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+        return values[index];
+    }
+
+    /**
+     * Returns the number of values.
+     *
+     * @return size of the list.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Removes all the values, keeping the capacity.
+     */
+    void clear() {
+        size = 0;
+    }
+
+    /**
+     * Copies the values to a new array of the exact size.
+     *
+     * @return the values.
+     */
+    int[] toArray() {
+        return Arrays.copyOf(values, size);
+    }
+}
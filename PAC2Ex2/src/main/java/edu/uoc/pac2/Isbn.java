@@ -0,0 +1,192 @@
+package edu.uoc.pac2;
+
+/**
+ * Single pass ISBN scanner packing ISBNs in a primitive long.
+ * <p>
+ * The canonical form of an ISBN is its ISBN-13 number, so an ISBN-10 and its ISBN-13 conversion get the same
+ * value and lookups, equality and hashing are plain long operations. None of the methods allocate, except
+ * {@link #toString(long)}.
+ *
+ * @author Arnau López Pagès
+ * @version 1.0
+ */
+public final class Isbn {
+
+    /**
+     * Value returned for an ISBN that cannot be packed.
+     */
+    public static final long INVALID = -1L;
+
+    /**
+     * Bit marking a 10 digit value whose check digit is wrong. {@link Book#setIsbn} accepts those, so
+     * {@link #key} keeps their digits as they are instead of converting them.
+     */
+    private static final long UNCHECKED_TEN = 1L << 62;
+
+    /**
+     * EAN prefix of the ISBN-13 converted from an ISBN-10.
+     */
+    private static final long BOOKLAND_PREFIX = 978_000_000_000L;
+
+    private Isbn() {
+    }
+
+    /**
+     * Parses an ISBN-10 or ISBN-13 checking its check digit. Hyphens and spaces are allowed as separators and the
+     * check digit of an ISBN-10 may be an X.
+     *
+     * @param isbn ISBN to parse.
+     * @return the ISBN-13 number, {@link #INVALID} if the format or the check digit is wrong.
+     */
+    public static long parse(CharSequence isbn) {
+        if (isbn == null) {
+            return INVALID;
+        }
+        long value = 0;
+        int digits = 0;
+        int checkX = -1;
+        for (int i = 0; i < isbn.length(); i++) {
+            char c = isbn.charAt(i);
+            if (c >= '0' && c <= '9' && checkX < 0) {
+                value = value * 10 + (c - '0');
+                digits++;
+            } else if ((c == 'X' || c == 'x') && digits == 9 && checkX < 0) {
+                checkX = i;
+                digits++;
+            } else if (c != '-' && c != ' ') {
+                return INVALID;
+            }
+        }
+        if (digits == 13) {
+            return isValidIsbn13(value) ? value : INVALID;
+        }
+        if (digits == 10) {
+            long body = checkX >= 0 ? value : value / 10;
+            int check = checkX >= 0 ? 10 : (int) (value % 10);
+            return checkDigit10(body) == check ? toIsbn13(body) : INVALID;
+        }
+        return INVALID;
+    }
+
+    /**
+     * Packs an ISBN the way {@link Book#setIsbn} normalizes it: every character but the digits is ignored and the
+     * ISBN must have 10 or 13 digits. A trailing X is read as the check digit of an ISBN-10.
+     * <p>
+     * ISBN-10s with a right check digit are converted to their ISBN-13, while the ones with a wrong check digit
+     * keep their digits, so that the key of every ISBN accepted by a book is unique and {@link #toString(long)}
+     * restores its digits.
+     *
+     * @param isbn ISBN to pack.
+     * @return the key of the ISBN, {@link #INVALID} if it does not have 10 or 13 digits.
+     */
+    public static long key(CharSequence isbn) {
+        if (isbn == null) {
+            return INVALID;
+        }
+        long value = 0;
+        int digits = 0;
+        boolean checkX = false;
+        for (int i = 0; i < isbn.length(); i++) {
+            char c = isbn.charAt(i);
+            if (c >= '0' && c <= '9') {
+                if (checkX || ++digits > 13) {
+                    return INVALID;
+                }
+                value = value * 10 + (c - '0');
+            } else if ((c == 'X' || c == 'x') && digits == 9 && !checkX) {
+                checkX = true;
+            }
+        }
+        if (checkX) {
+            return checkDigit10(value) == 10 ? toIsbn13(value) : INVALID;
+        }
+        if (digits == 13) {
+            return value;
+        }
+        if (digits == 10) {
+            return checkDigit10(value / 10) == value % 10 ? toIsbn13(value / 10) : value | UNCHECKED_TEN;
+        }
+        return INVALID;
+    }
+
+    /**
+     * Checks if an ISBN is a well-formed ISBN-10 or ISBN-13 with a right check digit.
+     *
+     * @param isbn ISBN to check.
+     * @return true if {@link #parse} accepts it.
+     */
+    public static boolean isValid(CharSequence isbn) {
+        return parse(isbn) != INVALID;
+    }
+
+    /**
+     * Checks the check digit of a 13 digit number.
+     *
+     * @param isbn13 ISBN-13 number.
+     * @return true if its last digit is the right check digit.
+     */
+    public static boolean isValidIsbn13(long isbn13) {
+        return isbn13 >= 0 && isbn13 < 10_000_000_000_000L && checkDigit13(isbn13 / 10) == isbn13 % 10;
+    }
+
+    /**
+     * Converts the first nine digits of an ISBN-10 to its ISBN-13.
+     *
+     * @param body first nine digits of the ISBN-10.
+     * @return the ISBN-13 number, with the 978 prefix and its own check digit.
+     */
+    public static long toIsbn13(long body) {
+        long first12 = BOOKLAND_PREFIX + body;
+        return first12 * 10 + checkDigit13(first12);
+    }
+
+    /**
+     * Restores the digits of a packed ISBN.
+     *
+     * @param key value returned by {@link #parse} or {@link #key}.
+     * @return 13 digits, 10 for an ISBN-10 with a wrong check digit, null for {@link #INVALID}.
+     */
+    public static String toString(long key) {
+        if (key == INVALID) {
+            return null;
+        }
+        int length = (key & UNCHECKED_TEN) != 0 ? 10 : 13;
+        long value = key & ~UNCHECKED_TEN;
+        char[] digits = new char[length];
+        for (int i = length - 1; i >= 0; i--) {
+            digits[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        return new String(digits);
+    }
+
+    /**
+     * Computes the check digit of an ISBN-10.
+     *
+     * @param body first nine digits.
+     * @return check digit, 10 standing for X.
+     */
+    private static int checkDigit10(long body) {
+        int sum = 0;
+        for (int weight = 2; weight <= 10; weight++) {
+            sum += weight * (int) (body % 10);
+            body /= 10;
+        }
+        return (11 - sum % 11) % 11;
+    }
+
+    /**
+     * Computes the check digit of an ISBN-13.
+     *
+     * @param first12 first twelve digits.
+     * @return check digit.
+     */
+    private static int checkDigit13(long first12) {
+        int sum = 0;
+        for (int i = 0; i < 12; i++) {
+            sum += (i % 2 == 0 ? 3 : 1) * (int) (first12 % 10);
+            first12 /= 10;
+        }
+        return (10 - sum % 10) % 10;
+    }
+}
@@ -0,0 +1,273 @@
+package edu.uoc.pac2;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Index from ISBN to book id.
+ * <p>
+ * Keys are the {@link Isbn#key} longs, so lookups neither box nor build strings. Entries live in two parallel
+ * arrays with open addressing and linear probing, which costs about 17 bytes per book against the hundred or more
+ * of a {@code HashMap<String, Book>}.
+ * <p>
+ * Reads are lock-free and can run concurrently with one another and with writers. Writers are serialized: each
+ * value is stored before its key is published with release semantics, and a resize publishes a complete new table.
+ *
+ * @author Arnau López Pagès
+ * @version 1.0
+ */
+public class IsbnIndex {
+
+    /**
+     * Result of a lookup that found nothing.
+     */
+    public static final int NOT_FOUND = -1;
+
+    /**
+     * Marker of a free slot, an ISBN key can never take this value.
+     */
+    private static final long EMPTY = Isbn.INVALID;
+
+    /**
+     * Maximum load factor before growing, in percent.
+     */
+    private static final int MAX_LOAD = 70;
+
+    /**
+     * Access to the key slots with acquire/release semantics.
+     */
+    private static final VarHandle KEY = MethodHandles.arrayElementVarHandle(long[].class);
+
+    /**
+     * Current table, replaced as a whole when it grows.
+     */
+    private volatile Table table;
+
+    /**
+     * Number of entries.
+     */
+    private volatile int size;
+
+    /**
+     * Creates an empty index.
+     */
+    public IsbnIndex() {
+        this(16);
+    }
+
+    /**
+     * Creates an empty index sized for a number of books.
+     *
+     * @param expected expected number of books.
+     */
+    public IsbnIndex(int expected) {
+        table = new Table(capacityFor(expected));
+    }
+
+    /**
+     * Indexes all the books of a catalog by their id. Books without a valid ISBN are skipped and, if an ISBN is
+     * repeated, the last book wins.
+     *
+     * @param catalog catalog to index.
+     * @return a new index.
+     */
+    public static IsbnIndex of(BookCatalog catalog) {
+        IsbnIndex index = new IsbnIndex(catalog.size());
+        for (int id = 0; id < catalog.size(); id++) {
+            long key = catalog.getIsbn(id);
+            if (key != Isbn.INVALID) {
+                index.put(key, id);
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Indexes a list of books by their position. Books without a valid ISBN are skipped and, if an ISBN is
+     * repeated, the last book wins.
+     *
+     * @param books books to index.
+     * @return a new index.
+     */
+    public static IsbnIndex of(List<Book> books) {
+        IsbnIndex index = new IsbnIndex(books.size());
+        for (int id = 0; id < books.size(); id++) {
+            long key = Isbn.key(books.get(id).getIsbn());
+            if (key != Isbn.INVALID) {
+                index.put(key, id);
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Associates an ISBN with a book id.
+     *
+     * @param isbn ISBN, in any form accepted by {@link Isbn#key}.
+     * @param id   book id, not negative.
+     * @return the previous id of the ISBN, {@link #NOT_FOUND} if it is new.
+     * @throws IllegalArgumentException if the ISBN is not valid or the id is negative.
+     */
+    public int put(CharSequence isbn, int id) {
+        long key = Isbn.key(isbn);
+        if (key == Isbn.INVALID) {
+            throw new IllegalArgumentException(BookValidator.message(BookValidator.ISBN));
+        }
+        return put(key, id);
+    }
+
+    /**
+     * Associates an ISBN key with a book id.
+     *
+     * @param key ISBN key returned by {@link Isbn#key} or {@link Isbn#parse}.
+     * @param id  book id, not negative.
+     * @return the previous id of the ISBN, {@link #NOT_FOUND} if it is new.
+     * @throws IllegalArgumentException if the key is {@link Isbn#INVALID} or the id is negative.
+     */
+    public synchronized int put(long key, int id) {
+        if (key == EMPTY) {
+            throw new IllegalArgumentException(BookValidator.message(BookValidator.ISBN));
+        }
+        if (id < 0) {
+            throw new IllegalArgumentException("Book ids cannot be negative: " + id);
+        }
+        Table current = table;
+        int mask = current.keys.length - 1;
+        int slot = hash(key) & mask;
+        for (long stored = current.keys[slot]; stored != EMPTY; stored = current.keys[slot]) {
+            if (stored == key) {
+                int previous = current.ids[slot];
+                current.ids[slot] = id;
+                return previous;
+            }
+            slot = (slot + 1) & mask;
+        }
+        current.ids[slot] = id;
+        KEY.setRelease(current.keys, slot, key);
+        size++;
+        if (size * 100L > current.keys.length * (long) MAX_LOAD) {
+            table = current.resize(current.keys.length * 2);
+        }
+        return NOT_FOUND;
+    }
+
+    /**
+     * Finds the book id of an ISBN.
+     *
+     * @param isbn ISBN, in any form accepted by {@link Isbn#key}.
+     * @return the book id, {@link #NOT_FOUND} if the ISBN is unknown or not valid.
+     */
+    public int get(CharSequence isbn) {
+        return get(Isbn.key(isbn));
+    }
+
+    /**
+     * Finds the book id of an ISBN key.
+     *
+     * @param key ISBN key returned by {@link Isbn#key} or {@link Isbn#parse}.
+     * @return the book id, {@link #NOT_FOUND} if the key is unknown.
+     */
+    public int get(long key) {
+        if (key == EMPTY) {
+            return NOT_FOUND;
+        }
+        Table current = table;
+        int mask = current.keys.length - 1;
+        for (int slot = hash(key) & mask; ; slot = (slot + 1) & mask) {
+            long stored = (long) KEY.getAcquire(current.keys, slot);
+            if (stored == key) {
+                return current.ids[slot];
+            }
+            if (stored == EMPTY) {
+                return NOT_FOUND;
+            }
+        }
+    }
+
+    /**
+     * Checks if an ISBN key is indexed.
+     *
+     * @param key ISBN key.
+     * @return true if the key has a book id.
+     */
+    public boolean contains(long key) {
+        return get(key) != NOT_FOUND;
+    }
+
+    /**
+     * Returns the number of indexed ISBNs.
+     *
+     * @return size of the index.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the number of slots that keeps a number of entries under the maximum load factor.
+     *
+     * @param expected number of entries.
+     * @return a power of two number of slots.
+     */
+    private static int capacityFor(int expected) {
+        long needed = Math.max(expected, 8) * 100L / MAX_LOAD + 1;
+        return (int) Math.min(Long.highestOneBit(needed - 1) << 1, 1 << 30);
+    }
+
+    /**
+     * Spreads the bits of a key, ISBNs being close numbers that would cluster with linear probing.
+     *
+     * @param key ISBN key.
+     * @return mixed hash.
+     */
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    /**
+     * Slots of the index, never shrunk nor moved once published.
+     */
+    private static final class Table {
+
+        /**
+         * ISBN keys, {@link #EMPTY} for free slots.
+         */
+        final long[] keys;
+
+        /**
+         * Book id of each key.
+         */
+        final int[] ids;
+
+        Table(int capacity) {
+            keys = new long[capacity];
+            ids = new int[capacity];
+            Arrays.fill(keys, EMPTY);
+        }
+
+        /**
+         * Copies the entries into a bigger table.
+         *
+         * @param capacity number of slots of the new table.
+         * @return the new table.
+         */
+        Table resize(int capacity) {
+            Table resized = new Table(capacity);
+            int mask = capacity - 1;
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] != EMPTY) {
+                    int slot = hash(keys[i]) & mask;
+                    while (resized.keys[slot] != EMPTY) {
+                        slot = (slot + 1) & mask;
+                    }
+                    resized.keys[slot] = keys[i];
+                    resized.ids[slot] = ids[i];
+                }
+            }
+            return resized;
+        }
+    }
+}
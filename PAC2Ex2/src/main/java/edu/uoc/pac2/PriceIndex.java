@@ -0,0 +1,552 @@
+package edu.uoc.pac2;
+
+import java.util.Arrays;
+
+/**
+ * Index of the book ids of a {@link BookCatalog} sorted by price, for range and cheapest-first queries.
+ * <p>
+ * The (price, id) pairs are kept in order in primitive blocks of at most {@link #BLOCK} entries, a two-level
+ * B-tree: a binary search over the first entry of each block and another inside the block find any price in
+ * logarithmic time, and a price change only shifts the entries of one block instead of a whole sorted array. The
+ * block sizes are summed in a Fenwick tree, so range counts are logarithmic too. Each genre has its own blocks,
+ * so the cheapest books of a genre are found without walking the other genres. The index listens to its catalog,
+ * see {@link CatalogListener}: added books and {@link BookCatalog#setPrice} are applied incrementally, a discount
+ * of the whole catalog re-sorts it.
+ * <p>
+ * The index is not thread-safe, like the catalog.
+ *
+ * @author Arnau López Pagès
+ * @version 1.0
+ */
+public class PriceIndex implements CatalogListener {
+
+    /**
+     * Maximum number of entries of a block.
+     */
+    private static final int BLOCK = 256;
+
+    /**
+     * Entries per block when the index is built, leaving room for insertions.
+     */
+    private static final int FILL = BLOCK * 3 / 4;
+
+    /**
+     * Catalog indexed.
+     */
+    private final BookCatalog catalog;
+
+    /**
+     * All the books.
+     */
+    private Blocks all;
+
+    /**
+     * Books of each genre, indexed by genre id. Genres without books may be null.
+     */
+    private Blocks[] byGenre;
+
+    private PriceIndex(BookCatalog catalog) {
+        this.catalog = catalog;
+        rebuild();
+    }
+
+    /**
+     * Indexes a catalog and keeps following its changes, until removed with {@link BookCatalog#removeListener}.
+     *
+     * @param catalog catalog to index.
+     * @return a new index.
+     */
+    public static PriceIndex of(BookCatalog catalog) {
+        PriceIndex index = new PriceIndex(catalog);
+        catalog.addListener(index);
+        return index;
+    }
+
+    /**
+     * Returns the number of indexed books.
+     *
+     * @return size of the index.
+     */
+    public int size() {
+        return all.size;
+    }
+
+    /**
+     * Finds the books with a price in a range, like {@link BookCatalog#filterByPrice} without scanning the
+     * catalog.
+     *
+     * @param min minimum price, inclusive.
+     * @param max maximum price, inclusive.
+     * @return ids of the matching books, from the cheapest.
+     */
+    public int[] range(double min, double max) {
+        IntList ids = new IntList();
+        if (min <= max) {
+            long cursor = all.lowerBound(min, -1);
+            for (int b = block(cursor), pos = position(cursor); b < all.blocks; b++, pos = 0) {
+                double[] prices = all.blockPrices[b];
+                for (; pos < all.blockSizes[b]; pos++) {
+                    if (Double.compare(prices[pos], max) > 0) {
+                        return ids.toArray();
+                    }
+                    ids.add(all.blockIds[b][pos]);
+                }
+            }
+        }
+        return ids.toArray();
+    }
+
+    /**
+     * Counts the books with a price in a range, without listing them.
+     *
+     * @param min minimum price, inclusive.
+     * @param max maximum price, inclusive.
+     * @return number of matching books.
+     */
+    public int count(double min, double max) {
+        if (!(min <= max)) {
+            return 0;
+        }
+        return all.rank(all.lowerBound(max, Integer.MAX_VALUE)) - all.rank(all.lowerBound(min, -1));
+    }
+
+    /**
+     * Finds the books cheaper than a price, see {@link Book#isCheaperThan}.
+     *
+     * @param price price to compare with.
+     * @return ids of the books with a lower price, from the cheapest.
+     */
+    public int[] cheaperThan(double price) {
+        IntList ids = new IntList();
+        for (int b = 0; b < all.blocks; b++) {
+            double[] prices = all.blockPrices[b];
+            for (int pos = 0; pos < all.blockSizes[b]; pos++) {
+                if (!(prices[pos] < price)) {
+                    return ids.toArray();
+                }
+                ids.add(all.blockIds[b][pos]);
+            }
+        }
+        return ids.toArray();
+    }
+
+    /**
+     * Finds the cheapest books.
+     *
+     * @param n maximum number of books.
+     * @return ids of the n cheapest books, from the cheapest.
+     */
+    public int[] cheapest(int n) {
+        return all.first(n);
+    }
+
+    /**
+     * Finds the cheapest books of a genre, from the blocks of the genre.
+     *
+     * @param n     maximum number of books.
+     * @param genre genre of the books.
+     * @return ids of the n cheapest books of the genre, from the cheapest.
+     */
+    public int[] cheapestInGenre(int n, String genre) {
+        int wanted = genre != null ? catalog.getGenres().idOf(genre) : StringDictionary.NO_ID;
+        if (wanted == StringDictionary.NO_ID || wanted >= byGenre.length || byGenre[wanted] == null) {
+            return new int[0];
+        }
+        return byGenre[wanted].first(n);
+    }
+
+    @Override
+    public void bookAdded(int id) {
+        double price = catalog.getPrice(id);
+        all.insert(price, id);
+        int genre = catalog.getGenreId(id);
+        if (genre != StringDictionary.NO_ID) {
+            if (genre >= byGenre.length) {
+                byGenre = Arrays.copyOf(byGenre, Math.max(genre + 1, byGenre.length + (byGenre.length >> 1)));
+            }
+            if (byGenre[genre] == null) {
+                byGenre[genre] = new Blocks(new int[0], 0, null);
+            }
+            byGenre[genre].insert(price, id);
+        }
+    }
+
+    @Override
+    public void priceChanged(int id, double oldPrice, double newPrice) {
+        all.remove(oldPrice, id);
+        all.insert(newPrice, id);
+        int genre = catalog.getGenreId(id);
+        if (genre != StringDictionary.NO_ID) {
+            byGenre[genre].remove(oldPrice, id);
+            byGenre[genre].insert(newPrice, id);
+        }
+    }
+
+    @Override
+    public void pricesChanged() {
+        rebuild();
+    }
+
+    /**
+     * Sorts all the books of the catalog again, then splits them by genre keeping the order.
+     */
+    private void rebuild() {
+        int size = catalog.size();
+        double[] prices = catalog.priceColumn();
+        int[] ids = new int[size];
+        for (int id = 0; id < size; id++) {
+            ids[id] = id;
+        }
+        sort(ids, prices);
+        all = new Blocks(ids, size, prices);
+
+        int[] genres = catalog.genreColumn();
+        int[] genreSizes = new int[catalog.getGenres().size()];
+        for (int id = 0; id < size; id++) {
+            if (genres[id] != StringDictionary.NO_ID) {
+                genreSizes[genres[id]]++;
+            }
+        }
+        int[][] genreIds = new int[genreSizes.length][];
+        for (int genre = 0; genre < genreIds.length; genre++) {
+            genreIds[genre] = new int[genreSizes[genre]];
+        }
+        int[] filled = new int[genreSizes.length];
+        for (int id : ids) {
+            int genre = genres[id];
+            if (genre != StringDictionary.NO_ID) {
+                genreIds[genre][filled[genre]++] = id;
+            }
+        }
+        byGenre = new Blocks[genreSizes.length];
+        for (int genre = 0; genre < byGenre.length; genre++) {
+            byGenre[genre] = new Blocks(genreIds[genre], genreSizes[genre], prices);
+        }
+    }
+
+    private static int block(long cursor) {
+        return (int) (cursor >>> 32);
+    }
+
+    private static int position(long cursor) {
+        return (int) cursor;
+    }
+
+    /**
+     * Orders two entries by price, then by book id.
+     */
+    private static int compare(double price, int id, double otherPrice, int otherId) {
+        int byPrice = Double.compare(price, otherPrice);
+        return byPrice != 0 ? byPrice : Integer.compare(id, otherId);
+    }
+
+    /**
+     * Sorts book ids by price with a stable merge sort, so ids in increasing order stay so among equal prices.
+     *
+     * @param ids    ids to sort.
+     * @param prices prices indexed by id.
+     */
+    private static void sort(int[] ids, double[] prices) {
+        int[] from = ids;
+        int[] to = new int[ids.length];
+        for (int width = 1; width < ids.length; width <<= 1) {
+            for (int start = 0; start < ids.length; start += width << 1) {
+                int middle = Math.min(start + width, ids.length);
+                int end = Math.min(start + (width << 1), ids.length);
+                int i = start;
+                int j = middle;
+                for (int k = start; k < end; k++) {
+                    if (i < middle && (j == end || Double.compare(prices[from[i]], prices[from[j]]) <= 0)) {
+                        to[k] = from[i++];
+                    } else {
+                        to[k] = from[j++];
+                    }
+                }
+            }
+            int[] swap = from;
+            from = to;
+            to = swap;
+        }
+        if (from != ids) {
+            System.arraycopy(from, 0, ids, 0, ids.length);
+        }
+    }
+
+    /**
+     * Entries sorted by price and id in blocks, with the Fenwick tree of their sizes.
+     */
+    private static final class Blocks {
+
+        /**
+         * Prices of each block, in increasing order.
+         */
+        private double[][] blockPrices;
+
+        /**
+         * Book ids of each block, increasing among equal prices.
+         */
+        private int[][] blockIds;
+
+        /**
+         * Number of entries of each block.
+         */
+        private int[] blockSizes;
+
+        /**
+         * Fenwick tree of {@link #blockSizes}, 1-based, to count the entries before a block.
+         */
+        private int[] sizeTree;
+
+        /**
+         * Number of blocks, at least one.
+         */
+        private int blocks;
+
+        /**
+         * Number of entries.
+         */
+        private int size;
+
+        /**
+         * Fills the blocks from sorted ids.
+         *
+         * @param ids    book ids sorted by price and id.
+         * @param size   number of ids used.
+         * @param prices prices indexed by id, only read if there are ids.
+         */
+        Blocks(int[] ids, int size, double[] prices) {
+            this.size = size;
+            blocks = Math.max(1, (size + FILL - 1) / FILL);
+            blockPrices = new double[blocks + 1][];
+            blockIds = new int[blocks + 1][];
+            blockSizes = new int[blocks + 1];
+            for (int b = 0; b < blocks; b++) {
+                int from = b * FILL;
+                blockSizes[b] = Math.min(FILL, size - from);
+                // small genres start with small blocks, they grow up to BLOCK entries
+                int capacity = Math.min(BLOCK, Math.max(8, Integer.highestOneBit(blockSizes[b]) << 1));
+                blockPrices[b] = new double[capacity];
+                blockIds[b] = new int[capacity];
+                for (int pos = 0; pos < blockSizes[b]; pos++) {
+                    blockIds[b][pos] = ids[from + pos];
+                    blockPrices[b][pos] = prices[ids[from + pos]];
+                }
+            }
+            rebuildSizeTree();
+        }
+
+        /**
+         * Returns the first entries.
+         *
+         * @param n maximum number of entries.
+         * @return ids of the n first entries, from the cheapest.
+         */
+        int[] first(int n) {
+            int[] ids = new int[Math.max(0, Math.min(n, size))];
+            int found = 0;
+            for (int b = 0; found < ids.length; b++) {
+                int count = Math.min(blockSizes[b], ids.length - found);
+                System.arraycopy(blockIds[b], 0, ids, found, count);
+                found += count;
+            }
+            return ids;
+        }
+
+        /**
+         * Adds an entry.
+         *
+         * @param price price of the book.
+         * @param id    book id.
+         */
+        void insert(double price, int id) {
+            int b = findBlock(price, id);
+            int pos = search(b, price, id);
+            if (blockSizes[b] == BLOCK) {
+                split(b);
+                if (pos > BLOCK / 2) {
+                    b++;
+                    pos -= BLOCK / 2;
+                }
+            } else if (blockSizes[b] == blockIds[b].length) {
+                blockPrices[b] = Arrays.copyOf(blockPrices[b], Math.min(BLOCK, blockSizes[b] * 2));
+                blockIds[b] = Arrays.copyOf(blockIds[b], blockPrices[b].length);
+            }
+            int moved = blockSizes[b] - pos;
+            System.arraycopy(blockPrices[b], pos, blockPrices[b], pos + 1, moved);
+            System.arraycopy(blockIds[b], pos, blockIds[b], pos + 1, moved);
+            blockPrices[b][pos] = price;
+            blockIds[b][pos] = id;
+            blockSizes[b]++;
+            addToSizeTree(b, 1);
+            size++;
+        }
+
+        /**
+         * Removes an entry.
+         *
+         * @param price price of the book in the index.
+         * @param id    book id.
+         * @throws IllegalStateException if the entry is not in the index.
+         */
+        void remove(double price, int id) {
+            int b = findBlock(price, id);
+            int pos = search(b, price, id);
+            if (pos == blockSizes[b] || blockIds[b][pos] != id || Double.compare(blockPrices[b][pos], price) != 0) {
+                throw new IllegalStateException("Book " + id + " with price " + price + " is not in the price index");
+            }
+            int moved = blockSizes[b] - pos - 1;
+            System.arraycopy(blockPrices[b], pos + 1, blockPrices[b], pos, moved);
+            System.arraycopy(blockIds[b], pos + 1, blockIds[b], pos, moved);
+            blockSizes[b]--;
+            addToSizeTree(b, -1);
+            size--;
+            if (blockSizes[b] == 0 && blocks > 1) {
+                int after = blocks - b - 1;
+                System.arraycopy(blockPrices, b + 1, blockPrices, b, after);
+                System.arraycopy(blockIds, b + 1, blockIds, b, after);
+                System.arraycopy(blockSizes, b + 1, blockSizes, b, after);
+                blocks--;
+                blockPrices[blocks] = null;
+                blockIds[blocks] = null;
+                rebuildSizeTree();
+            }
+        }
+
+        /**
+         * Splits a full block in two halves.
+         *
+         * @param b block to split.
+         */
+        private void split(int b) {
+            if (blocks == blockSizes.length) {
+                int capacity = blocks + (blocks >> 1) + 1;
+                blockPrices = Arrays.copyOf(blockPrices, capacity);
+                blockIds = Arrays.copyOf(blockIds, capacity);
+                blockSizes = Arrays.copyOf(blockSizes, capacity);
+            }
+            int after = blocks - b - 1;
+            System.arraycopy(blockPrices, b + 1, blockPrices, b + 2, after);
+            System.arraycopy(blockIds, b + 1, blockIds, b + 2, after);
+            System.arraycopy(blockSizes, b + 1, blockSizes, b + 2, after);
+            blocks++;
+
+            int half = BLOCK / 2;
+            blockPrices[b + 1] = new double[BLOCK];
+            blockIds[b + 1] = new int[BLOCK];
+            System.arraycopy(blockPrices[b], half, blockPrices[b + 1], 0, BLOCK - half);
+            System.arraycopy(blockIds[b], half, blockIds[b + 1], 0, BLOCK - half);
+            blockSizes[b + 1] = BLOCK - half;
+            blockSizes[b] = half;
+            rebuildSizeTree();
+        }
+
+        /**
+         * Finds the block where an entry is or would be inserted: the last block whose first entry is not after
+         * it.
+         *
+         * @param price price of the entry.
+         * @param id    book id of the entry.
+         * @return block index.
+         */
+        private int findBlock(double price, int id) {
+            int low = 1;
+            int high = blocks - 1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                if (compare(blockPrices[middle][0], blockIds[middle][0], price, id) <= 0) {
+                    low = middle + 1;
+                } else {
+                    high = middle - 1;
+                }
+            }
+            return low - 1;
+        }
+
+        /**
+         * Finds the position of the first entry of a block that is not before a given entry.
+         *
+         * @param b     block to search.
+         * @param price price of the entry.
+         * @param id    book id of the entry.
+         * @return position in the block, its size if all the entries are before.
+         */
+        private int search(int b, double price, int id) {
+            double[] prices = blockPrices[b];
+            int[] ids = blockIds[b];
+            int low = 0;
+            int high = blockSizes[b];
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (compare(prices[middle], ids[middle], price, id) < 0) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        /**
+         * Finds the first entry that is not before a given entry.
+         *
+         * @param price price of the entry.
+         * @param id    book id of the entry, -1 to find the first entry with the price.
+         * @return block in the high half and position in the low half, the end of the last block if all the
+         * entries are before.
+         */
+        long lowerBound(double price, int id) {
+            int b = findBlock(price, id);
+            int pos = search(b, price, id);
+            if (pos == blockSizes[b] && b < blocks - 1) {
+                b++;
+                pos = 0;
+            }
+            return (long) b << 32 | pos;
+        }
+
+        /**
+         * Counts the entries before a position.
+         *
+         * @param cursor position returned by {@link #lowerBound}.
+         * @return number of entries before it.
+         */
+        int rank(long cursor) {
+            int rank = position(cursor);
+            for (int i = block(cursor); i > 0; i -= i & -i) {
+                rank += sizeTree[i];
+            }
+            return rank;
+        }
+
+        /**
+         * Updates the size of a block in the Fenwick tree.
+         *
+         * @param b     block index.
+         * @param delta change of its size.
+         */
+        private void addToSizeTree(int b, int delta) {
+            for (int i = b + 1; i <= blocks; i += i & -i) {
+                sizeTree[i] += delta;
+            }
+        }
+
+        /**
+         * Builds the Fenwick tree again after blocks were added or removed, in linear time. Splits happen once
+         * every {@value PriceIndex#BLOCK} / 2 insertions in a block at most, so this stays amortized.
+         */
+        private void rebuildSizeTree() {
+            if (sizeTree == null || sizeTree.length != blockSizes.length + 1) {
+                sizeTree = new int[blockSizes.length + 1];
+            } else {
+                Arrays.fill(sizeTree, 0);
+            }
+            for (int i = 1; i <= blocks; i++) {
+                sizeTree[i] += blockSizes[i - 1];
+                int parent = i + (i & -i);
+                if (parent <= blocks) {
+                    sizeTree[parent] += sizeTree[i];
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,267 @@
+package edu.uoc.pac2;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * Index of the books of a {@link BookCatalog} by release year, for classic and date range queries.
+ * <p>
+ * Each year is a bucket holding the ids of the books released in it together with their release dates as epoch
+ * days. A date range takes the buckets of the years it covers whole and only compares the dates of the books of
+ * its first and last year, so a query touches the matching books and at most two partial years, never the whole
+ * catalog. Classics are the range before {@link CatalogClock#classicThreshold()}, read from the current clock on
+ * each query, so the boundary moves day by day without rebuilding anything.
+ * <p>
+ * The index listens to its catalog, see {@link CatalogListener}, and indexes the added books. Books without
+ * release date are not indexed. The index is not thread-safe, like the catalog.
+ *
+ * @author Arnau López Pagès
+ * @version 1.0
+ */
+public class ReleaseDateIndex implements CatalogListener {
+
+    /**
+     * Catalog indexed.
+     */
+    private final BookCatalog catalog;
+
+    /**
+     * Year of the first bucket.
+     */
+    private int firstYear;
+
+    /**
+     * Book ids of each year, indexed from {@link #firstYear}, null for years without books.
+     */
+    private IntList[] ids = new IntList[0];
+
+    /**
+     * Release dates of the books of each year, as epoch days, parallel to {@link #ids}.
+     */
+    private IntList[] days = new IntList[0];
+
+    /**
+     * Number of indexed books.
+     */
+    private int size;
+
+    private ReleaseDateIndex(BookCatalog catalog) {
+        this.catalog = catalog;
+        for (int id = 0; id < catalog.size(); id++) {
+            bookAdded(id);
+        }
+    }
+
+    /**
+     * Indexes a catalog and keeps following its changes, until removed with {@link BookCatalog#removeListener}.
+     *
+     * @param catalog catalog to index.
+     * @return a new index.
+     */
+    public static ReleaseDateIndex of(BookCatalog catalog) {
+        ReleaseDateIndex index = new ReleaseDateIndex(catalog);
+        catalog.addListener(index);
+        return index;
+    }
+
+    /**
+     * Returns the number of indexed books, those with a release date.
+     *
+     * @return size of the index.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Finds the books released in a year.
+     *
+     * @param year release year.
+     * @return ids of the matching books, in id order.
+     */
+    public int[] releasedIn(int year) {
+        int bucket = year - firstYear;
+        return bucket >= 0 && bucket < ids.length && ids[bucket] != null ? ids[bucket].toArray() : new int[0];
+    }
+
+    /**
+     * Finds the books released in a date range.
+     *
+     * @param from first release date, inclusive.
+     * @param to   last release date, inclusive.
+     * @return ids of the matching books, by release year and in id order within a year.
+     */
+    public int[] releasedBetween(LocalDate from, LocalDate to) {
+        return collect(from.toEpochDay(), to.toEpochDay());
+    }
+
+    /**
+     * Counts the books released in a date range, without listing them.
+     *
+     * @param from first release date, inclusive.
+     * @param to   last release date, inclusive.
+     * @return number of matching books.
+     */
+    public int countReleasedBetween(LocalDate from, LocalDate to) {
+        return count(from.toEpochDay(), to.toEpochDay());
+    }
+
+    /**
+     * Finds the classics, see {@link Book#isClassic}.
+     *
+     * @return ids of the books released before the classic threshold of the current clock, by release year.
+     */
+    public int[] classics() {
+        return collect(Long.MIN_VALUE, CatalogClock.current().classicThreshold() - 1L);
+    }
+
+    /**
+     * Finds the books with a release date that are not classics.
+     *
+     * @return ids of the books released on or after the classic threshold of the current clock, by release year.
+     */
+    public int[] nonClassics() {
+        return collect(CatalogClock.current().classicThreshold(), Long.MAX_VALUE);
+    }
+
+    /**
+     * Counts the classics.
+     *
+     * @return number of books released before the classic threshold of the current clock.
+     */
+    public int countClassics() {
+        return count(Long.MIN_VALUE, CatalogClock.current().classicThreshold() - 1L);
+    }
+
+    @Override
+    public void bookAdded(int id) {
+        int day = catalog.getReleaseEpochDay(id);
+        if (day == BookCatalog.NO_DATE) {
+            return;
+        }
+        int bucket = bucketOf(LocalDate.ofEpochDay(day).getYear());
+        if (ids[bucket] == null) {
+            ids[bucket] = new IntList();
+            days[bucket] = new IntList();
+        }
+        ids[bucket].add(id);
+        days[bucket].add(day);
+        size++;
+    }
+
+    /**
+     * Lists the books released in a range of epoch days.
+     *
+     * @param from first epoch day, inclusive.
+     * @param to   last epoch day, inclusive.
+     * @return ids of the matching books.
+     */
+    private int[] collect(long from, long to) {
+        IntList matches = new IntList();
+        int first = firstBucket(from);
+        int last = lastBucket(to);
+        for (int bucket = first; bucket <= last; bucket++) {
+            if (ids[bucket] == null) {
+                continue;
+            }
+            if (bucket != first && bucket != last) {
+                matches.addAll(ids[bucket]);
+                continue;
+            }
+            IntList bucketIds = ids[bucket];
+            IntList bucketDays = days[bucket];
+            for (int i = 0; i < bucketIds.size(); i++) {
+                int day = bucketDays.get(i);
+                if (day >= from && day <= to) {
+                    matches.add(bucketIds.get(i));
+                }
+            }
+        }
+        return matches.toArray();
+    }
+
+    /**
+     * Counts the books released in a range of epoch days.
+     *
+     * @param from first epoch day, inclusive.
+     * @param to   last epoch day, inclusive.
+     * @return number of matching books.
+     */
+    private int count(long from, long to) {
+        int count = 0;
+        int first = firstBucket(from);
+        int last = lastBucket(to);
+        for (int bucket = first; bucket <= last; bucket++) {
+            if (ids[bucket] == null) {
+                continue;
+            }
+            if (bucket != first && bucket != last) {
+                count += ids[bucket].size();
+                continue;
+            }
+            IntList bucketDays = days[bucket];
+            for (int i = 0; i < bucketDays.size(); i++) {
+                int day = bucketDays.get(i);
+                if (day >= from && day <= to) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns the first bucket a range starting on a day can match.
+     *
+     * @param from first epoch day of the range.
+     * @return bucket index, 0 if the range starts before the first year.
+     */
+    private int firstBucket(long from) {
+        if (ids.length == 0 || from <= LocalDate.of(firstYear, 1, 1).toEpochDay()) {
+            return 0;
+        }
+        return (int) Math.min((long) LocalDate.ofEpochDay(Math.min(from, Integer.MAX_VALUE)).getYear() - firstYear,
+                ids.length);
+    }
+
+    /**
+     * Returns the last bucket a range ending on a day can match.
+     *
+     * @param to last epoch day of the range.
+     * @return bucket index, the last one if the range ends after the last year, -1 if it ends before the first.
+     */
+    private int lastBucket(long to) {
+        int last = ids.length - 1;
+        if (last < 0 || to >= LocalDate.of(firstYear + last, 12, 31).toEpochDay()) {
+            return last;
+        }
+        return (int) Math.max((long) LocalDate.ofEpochDay(Math.max(to, Integer.MIN_VALUE)).getYear() - firstYear, -1);
+    }
+
+    /**
+     * Returns the bucket of a year, adding buckets before or after the existing ones if needed.
+     *
+     * @param year release year.
+     * @return bucket index.
+     */
+    private int bucketOf(int year) {
+        if (ids.length == 0) {
+            firstYear = year;
+            ids = new IntList[1];
+            days = new IntList[1];
+        } else if (year < firstYear) {
+            int added = firstYear - year;
+            IntList[] movedIds = new IntList[ids.length + added];
+            IntList[] movedDays = new IntList[days.length + added];
+            System.arraycopy(ids, 0, movedIds, added, ids.length);
+            System.arraycopy(days, 0, movedDays, added, days.length);
+            ids = movedIds;
+            days = movedDays;
+            firstYear = year;
+        } else if (year - firstYear >= ids.length) {
+            ids = Arrays.copyOf(ids, year - firstYear + 1);
+            days = Arrays.copyOf(days, year - firstYear + 1);
+        }
+        return year - firstYear;
+    }
+}
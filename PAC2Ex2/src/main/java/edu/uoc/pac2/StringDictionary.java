@@ -0,0 +1,165 @@
+package edu.uoc.pac2;
+
+import java.util.Arrays;
+
+/**
+ * Dictionary encoding of repeated strings such as authors, genres or publishers.
+ * <p>
+ * Each distinct string gets a dense int id in insertion order. Ids are kept in an open addressing table of
+ * primitive ints, so lookups neither box nor allocate.
+ *
+ * @author Arnau López Pagès
+ * @version 1.0
+ */
+public class StringDictionary {
+
+    /**
+     * Id used for a missing (null) string.
+     */
+    public static final int NO_ID = -1;
+
+    /**
+     * Strings indexed by id.
+     */
+    private String[] values;
+
+    /**
+     * Hash table slots holding id + 1, 0 being a free slot.
+     */
+    private int[] slots;
+
+    /**
+     * Number of distinct strings.
+     */
+    private int size;
+
+    /**
+     * Creates an empty dictionary.
+     */
+    public StringDictionary() {
+        this(16);
+    }
+
+    /**
+     * Creates an empty dictionary sized for a number of distinct strings.
+     *
+     * @param capacity expected number of distinct strings.
+     */
+    public StringDictionary(int capacity) {
+        values = new String[Math.max(capacity, 4)];
+        slots = new int[tableSize(values.length)];
+    }
+
+    /**
+     * Returns the id of a string, adding it if it is new.
+     *
+     * @param value string to encode.
+     * @return id of the string, {@link #NO_ID} for null.
+     */
+    public int add(String value) {
+        if (value == null) {
+            return NO_ID;
+        }
+        int mask = slots.length - 1;
+        int slot = mix(value.hashCode()) & mask;
+        for (int entry = slots[slot]; entry != 0; entry = slots[slot]) {
+            if (values[entry - 1].equals(value)) {
+                return entry - 1;
+            }
+            slot = (slot + 1) & mask;
+        }
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+        }
+        values[size] = value;
+        slots[slot] = ++size;
+        if (size * 2 > slots.length) {
+            rehash(slots.length * 2);
+        }
+        return size - 1;
+    }
+
+    /**
+     * Returns the id of a string without adding it.
+     *
+     * @param value string to look up.
+     * @return id of the string, {@link #NO_ID} if it is null or not in the dictionary.
+     */
+    public int idOf(String value) {
+        if (value == null) {
+            return NO_ID;
+        }
+        int mask = slots.length - 1;
+        for (int slot = mix(value.hashCode()) & mask; slots[slot] != 0; slot = (slot + 1) & mask) {
+            if (values[slots[slot] - 1].equals(value)) {
+                return slots[slot] - 1;
+            }
+        }
+        return NO_ID;
+    }
+
+    /**
+     * Returns the string of an id.
+     *
+     * @param id id of the string.
+     * @return the string, null for {@link #NO_ID}.
+     * @throws IndexOutOfBoundsException if the id is not in the dictionary.
+     */
+    public String get(int id) {
+        if (id == NO_ID) {
+            return null;
+        }
+        if (id < 0 || id >= size) {
+            throw new IndexOutOfBoundsException("Unknown id " + id);
+        }
+        return values[id];
+    }
+
+    /**
+     * Returns the number of distinct strings.
+     *
+     * @return size of the dictionary.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Rebuilds the hash table with a new size.
+     *
+     * @param newSize new number of slots, a power of two.
+     */
+    private void rehash(int newSize) {
+        int[] newSlots = new int[newSize];
+        int mask = newSize - 1;
+        for (int id = 0; id < size; id++) {
+            int slot = mix(values[id].hashCode()) & mask;
+            while (newSlots[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            newSlots[slot] = id + 1;
+        }
+        slots = newSlots;
+    }
+
+    /**
+     * Returns the smallest power of two table that keeps the load factor under one half.
+     *
+     * @param capacity number of strings.
+     * @return number of slots.
+     */
+    private static int tableSize(int capacity) {
+        return Integer.highestOneBit(capacity * 2 - 1) << 1;
+    }
+
+    /**
+     * Spreads the bits of a hash code so that similar strings do not cluster.
+     *
+     * @param hash hash code.
+     * @return mixed hash.
+     */
+    private static int mix(int hash) {
+        int h = hash * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
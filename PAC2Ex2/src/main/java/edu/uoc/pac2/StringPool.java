@@ -0,0 +1,58 @@
+package edu.uoc.pac2;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Pool of canonical strings, so that values repeated by many books such as authors, genres or publishers are
+ * stored once.
+ * <p>
+ * Unlike {@link String#intern()}, each pool is an ordinary object that can be sized, measured and dropped with
+ * the catalog using it. Pools are thread-safe.
+ *
+ * @author Arnau López Pagès
+ * @version 1.0
+ */
+public final class StringPool {
+
+    /**
+     * Pool used when none is given.
+     */
+    private static final StringPool SHARED = new StringPool();
+
+    /**
+     * Canonical instance of each string.
+     */
+    private final ConcurrentHashMap<String, String> strings = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the pool shared by all the books built without an explicit pool.
+     *
+     * @return the shared pool.
+     */
+    public static StringPool shared() {
+        return SHARED;
+    }
+
+    /**
+     * Returns the canonical instance of a string, adding it if it is new.
+     *
+     * @param value string to intern.
+     * @return an equal string, the same instance for all equal strings. Null for null.
+     */
+    public String intern(String value) {
+        if (value == null) {
+            return null;
+        }
+        String canonical = strings.putIfAbsent(value, value);
+        return canonical != null ? canonical : value;
+    }
+
+    /**
+     * Returns the number of distinct strings.
+     *
+     * @return size of the pool.
+     */
+    public int size() {
+        return strings.size();
+    }
+}
@@ -0,0 +1,657 @@
+package edu.uoc.pac2;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Full-text index of book titles with prefix and typo-tolerant search.
+ * <p>
+ * Titles are split in words, normalized like author names (see {@link AuthorIndex#normalize}), and each distinct
+ * word, or term, maps to the posting list of the ids of the books whose title has it. Prefix searches walk the
+ * terms in sorted order, which are sorted lazily: terms added since the last search are sorted alone and merged.
+ * Typos are found with a deletion neighbourhood: every term is also indexed under each string obtained by
+ * deleting one of its letters, so the terms at one edit (insertion, deletion, substitution or transposition) of a
+ * query word are found by looking up the word and its own deletions, without comparing it to every term.
+ * <p>
+ * {@link #search} ranks the books by the query words their title contains: each word counts once per book, by
+ * its best match, the weight of the kind of match times the rarity of the term. An exact term weighs more than a
+ * completion of the last word, which weighs more than a typo.
+ * <p>
+ * The index is not thread-safe.
+ *
+ * @author Arnau López Pagès
+ * @version 1.0
+ */
+public class TitleIndex implements CatalogListener {
+
+    /**
+     * Minimum length of the query words that may match with a typo, shorter ones only match exactly.
+     */
+    private static final int MIN_FUZZY_LENGTH = 4;
+
+    /**
+     * Weight of a word found exactly.
+     */
+    private static final double EXACT = 1.0;
+
+    /**
+     * Weight of a term completing the last word of the query.
+     */
+    private static final double PREFIX = 0.75;
+
+    /**
+     * Weight of a term at one edit of a query word.
+     */
+    private static final double FUZZY = 0.5;
+
+    /**
+     * Catalog followed, null if the index is filled with {@link #add}.
+     */
+    private final BookCatalog catalog;
+
+    /**
+     * Distinct normalized words of the titles.
+     */
+    private final StringDictionary terms = new StringDictionary();
+
+    /**
+     * Book ids of each term, in increasing order, indexed by term id.
+     */
+    private IntList[] postings = new IntList[16];
+
+    /**
+     * Strings obtained by deleting one letter of a term.
+     */
+    private final StringDictionary deletions = new StringDictionary();
+
+    /**
+     * Term ids of each deletion, indexed by deletion id.
+     */
+    private IntList[] deletionTerms = new IntList[16];
+
+    /**
+     * Term ids sorted by term, the first {@link #sortedCount} terms.
+     */
+    private int[] sortedTerms = new int[0];
+
+    /**
+     * Number of terms in {@link #sortedTerms}, the following term ids are not sorted yet.
+     */
+    private int sortedCount;
+
+    /**
+     * Number of indexed books.
+     */
+    private int size;
+
+    /**
+     * Next book id, the ids must be added in increasing order.
+     */
+    private int nextId;
+
+    /**
+     * Score of each book in the running search.
+     */
+    private double[] scores = new double[16];
+
+    /**
+     * Score of the best match of the current query word in each book, already counted in {@link #scores}.
+     */
+    private double[] wordScores = new double[16];
+
+    /**
+     * Last query word that scored each book, see {@link #stamp}.
+     */
+    private int[] marks = new int[16];
+
+    /**
+     * Number of the current query word, increased for every word of every search.
+     */
+    private int stamp;
+
+    /**
+     * Creates an empty index, filled with {@link #add}.
+     */
+    public TitleIndex() {
+        this(null);
+    }
+
+    private TitleIndex(BookCatalog catalog) {
+        this.catalog = catalog;
+    }
+
+    /**
+     * Indexes the titles of a catalog and keeps following its changes, until removed with
+     * {@link BookCatalog#removeListener}.
+     *
+     * @param catalog catalog to index.
+     * @return a new index, whose ids are the catalog ids.
+     */
+    public static TitleIndex of(BookCatalog catalog) {
+        TitleIndex index = new TitleIndex(catalog);
+        for (int id = 0; id < catalog.size(); id++) {
+            index.add(id, catalog.getTitle(id));
+        }
+        catalog.addListener(index);
+        return index;
+    }
+
+    /**
+     * Indexes the titles of a list of books by their position.
+     *
+     * @param books books to index.
+     * @return a new index.
+     */
+    public static TitleIndex of(List<Book> books) {
+        TitleIndex index = new TitleIndex();
+        for (int id = 0; id < books.size(); id++) {
+            index.add(id, books.get(id).getTitle());
+        }
+        return index;
+    }
+
+    @Override
+    public void bookAdded(int id) {
+        add(id, catalog.getTitle(id));
+    }
+
+    /**
+     * Adds a book to the index.
+     *
+     * @param id    book id, greater than all the indexed ones.
+     * @param title title of the book, may be null.
+     * @throws IllegalArgumentException if the id is not greater than all the indexed ones.
+     */
+    public void add(int id, String title) {
+        if (id < nextId) {
+            throw new IllegalArgumentException("Book id " + id + " is not greater than the last indexed one");
+        }
+        nextId = id + 1;
+        size++;
+        if (nextId > scores.length) {
+            int capacity = Math.max(nextId, scores.length + (scores.length >> 1));
+            scores = Arrays.copyOf(scores, capacity);
+            wordScores = Arrays.copyOf(wordScores, capacity);
+            marks = Arrays.copyOf(marks, capacity);
+        }
+        for (String word : words(title)) {
+            int before = terms.size();
+            int term = terms.add(word);
+            if (term == before) {
+                if (term == postings.length) {
+                    postings = Arrays.copyOf(postings, term * 2);
+                }
+                postings[term] = new IntList(2);
+                addDeletions(word, term);
+            }
+            IntList books = postings[term];
+            if (books.size() == 0 || books.get(books.size() - 1) != id) {
+                books.add(id);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of indexed books.
+     *
+     * @return size of the index.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the number of distinct words of the titles.
+     *
+     * @return number of terms.
+     */
+    public int terms() {
+        return terms.size();
+    }
+
+    /**
+     * Finds the books with a title word equal to a word, in any case or accentuation.
+     *
+     * @param word word to find.
+     * @return ids of the matching books, in id order.
+     */
+    public int[] withWord(String word) {
+        int term = terms.idOf(AuthorIndex.normalize(word));
+        return term != StringDictionary.NO_ID ? postings[term].toArray() : new int[0];
+    }
+
+    /**
+     * Finds the books with a title word starting with a prefix, in any case or accentuation.
+     *
+     * @param prefix start of the word.
+     * @return ids of the matching books, in id order.
+     */
+    public int[] withPrefix(String prefix) {
+        String normalized = AuthorIndex.normalize(prefix);
+        IntList ids = new IntList();
+        if (normalized == null || normalized.isEmpty()) {
+            return ids.toArray();
+        }
+        int word = nextStamp();
+        sortTerms();
+        for (int i = firstWithPrefix(normalized); i < sortedCount; i++) {
+            int term = sortedTerms[i];
+            if (!terms.get(term).startsWith(normalized)) {
+                break;
+            }
+            IntList books = postings[term];
+            for (int p = 0; p < books.size(); p++) {
+                int id = books.get(p);
+                if (marks[id] != word) {
+                    marks[id] = word;
+                    ids.add(id);
+                }
+            }
+        }
+        int[] result = ids.toArray();
+        Arrays.sort(result);
+        return result;
+    }
+
+    /**
+     * Finds the terms at one edit of a word, the word itself excluded: one letter inserted, deleted, replaced or
+     * swapped with the next one.
+     *
+     * @param word word to find.
+     * @return the matching terms, in no particular order.
+     */
+    public String[] similarTerms(String word) {
+        String normalized = AuthorIndex.normalize(word);
+        if (normalized == null) {
+            return new String[0];
+        }
+        IntList similar = similar(normalized);
+        String[] result = new String[similar.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = terms.get(similar.get(i));
+        }
+        return result;
+    }
+
+    /**
+     * Finds the books that best match a query, as typed in a search box: every word may appear exactly or with a
+     * typo, and the last one may also be the start of a word.
+     *
+     * @param query words to find.
+     * @param n     maximum number of books.
+     * @return ids of the best matching books, from the best, and by id among equal scores.
+     */
+    public int[] search(String query, int n) {
+        String[] words = words(query);
+        if (words.length == 0 || n <= 0) {
+            return new int[0];
+        }
+        IntList touched = new IntList();
+        int first = stamp + 1;
+        if (first > Integer.MAX_VALUE - words.length - 1) {
+            Arrays.fill(marks, 0);
+            stamp = 0;
+            first = 1;
+        }
+        for (int w = 0; w < words.length; w++) {
+            String word = words[w];
+            int current = ++stamp;
+            int exact = terms.idOf(word);
+            if (exact != StringDictionary.NO_ID) {
+                score(exact, EXACT, current, first, touched);
+            }
+            if (w == words.length - 1) {
+                sortTerms();
+                for (int i = firstWithPrefix(word); i < sortedCount; i++) {
+                    int term = sortedTerms[i];
+                    if (!terms.get(term).startsWith(word)) {
+                        break;
+                    }
+                    if (term != exact) {
+                        score(term, PREFIX, current, first, touched);
+                    }
+                }
+            }
+            if (word.length() >= MIN_FUZZY_LENGTH) {
+                IntList similar = similar(word);
+                for (int i = 0; i < similar.size(); i++) {
+                    score(similar.get(i), FUZZY, current, first, touched);
+                }
+            }
+        }
+        return best(touched, n);
+    }
+
+    /**
+     * Adds the score of a term to the books that have it, keeping for each book the best scoring match of the
+     * current word: a rare term found with a typo may beat a common one found exactly.
+     *
+     * @param term    matching term.
+     * @param weight  weight of the kind of match.
+     * @param current stamp of the current word.
+     * @param first   stamp of the first word of the search.
+     * @param touched books scored in this search, new ones are appended.
+     */
+    private void score(int term, double weight, int current, int first, IntList touched) {
+        IntList books = postings[term];
+        double score = weight * Math.log(1 + (double) size / books.size());
+        for (int p = 0; p < books.size(); p++) {
+            int id = books.get(p);
+            if (marks[id] == current) {
+                if (score > wordScores[id]) {
+                    scores[id] += score - wordScores[id];
+                    wordScores[id] = score;
+                }
+                continue;
+            }
+            if (marks[id] < first) {
+                scores[id] = 0;
+                touched.add(id);
+            }
+            marks[id] = current;
+            wordScores[id] = score;
+            scores[id] += score;
+        }
+    }
+
+    /**
+     * Selects the best scored books with a bounded heap, the worst kept book at the root.
+     *
+     * @param touched scored books.
+     * @param n       maximum number of books.
+     * @return the best books, from the best.
+     */
+    private int[] best(IntList touched, int n) {
+        int[] heap = new int[Math.min(n, touched.size())];
+        int kept = 0;
+        for (int i = 0; i < touched.size(); i++) {
+            int id = touched.get(i);
+            if (kept < heap.length) {
+                heap[kept] = id;
+                for (int child = kept++; child > 0 && worse(heap[child], heap[(child - 1) / 2]); ) {
+                    int parent = (child - 1) / 2;
+                    int swap = heap[child];
+                    heap[child] = heap[parent];
+                    heap[parent] = swap;
+                    child = parent;
+                }
+            } else if (worse(heap[0], id)) {
+                heap[0] = id;
+                siftDown(heap, 0, kept);
+            }
+        }
+        // repeatedly moving the worst to the end leaves the best first
+        for (int end = kept - 1; end > 0; end--) {
+            int swap = heap[0];
+            heap[0] = heap[end];
+            heap[end] = swap;
+            siftDown(heap, 0, end);
+        }
+        return heap;
+    }
+
+    /**
+     * Moves an entry of the heap down to its place.
+     *
+     * @param heap  heap of book ids.
+     * @param index entry to move.
+     * @param size  number of entries of the heap.
+     */
+    private void siftDown(int[] heap, int index, int size) {
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= size) {
+                return;
+            }
+            if (child + 1 < size && worse(heap[child + 1], heap[child])) {
+                child++;
+            }
+            if (!worse(heap[child], heap[index])) {
+                return;
+            }
+            int swap = heap[child];
+            heap[child] = heap[index];
+            heap[index] = swap;
+            index = child;
+        }
+    }
+
+    /**
+     * Orders books by score, then by id.
+     *
+     * @param id    first book id.
+     * @param other second book id.
+     * @return true if the first book ranks after the second one.
+     */
+    private boolean worse(int id, int other) {
+        return scores[id] < scores[other] || scores[id] == scores[other] && id > other;
+    }
+
+    /**
+     * Finds the terms at one edit of a normalized word, the word itself excluded.
+     *
+     * @param word normalized word.
+     * @return ids of the matching terms.
+     */
+    private IntList similar(String word) {
+        IntList candidates = new IntList();
+        // terms with one more letter
+        addCandidates(candidates, deletions.idOf(word));
+        for (int i = 0; i < word.length(); i++) {
+            if (i > 0 && word.charAt(i) == word.charAt(i - 1)) {
+                continue;
+            }
+            String deleted = deletion(word, i);
+            // terms with one less letter
+            int term = terms.idOf(deleted);
+            if (term != StringDictionary.NO_ID && !contains(candidates, term)) {
+                candidates.add(term);
+            }
+            // terms with another letter or two swapped letters
+            addCandidates(candidates, deletions.idOf(deleted));
+        }
+        IntList similar = new IntList();
+        for (int i = 0; i < candidates.size(); i++) {
+            String term = terms.get(candidates.get(i));
+            if (!term.equals(word) && isOneEdit(word, term)) {
+                similar.add(candidates.get(i));
+            }
+        }
+        return similar;
+    }
+
+    /**
+     * Appends the terms of a deletion that are not in a list yet.
+     *
+     * @param candidates list of term ids.
+     * @param deletion   deletion id, {@link StringDictionary#NO_ID} for none.
+     */
+    private void addCandidates(IntList candidates, int deletion) {
+        if (deletion == StringDictionary.NO_ID) {
+            return;
+        }
+        IntList found = deletionTerms[deletion];
+        for (int i = 0; i < found.size(); i++) {
+            if (!contains(candidates, found.get(i))) {
+                candidates.add(found.get(i));
+            }
+        }
+    }
+
+    /**
+     * Indexes a new term under each of its deletions.
+     *
+     * @param word new term.
+     * @param term its id.
+     */
+    private void addDeletions(String word, int term) {
+        if (word.length() < MIN_FUZZY_LENGTH - 1) {
+            return;
+        }
+        for (int i = 0; i < word.length(); i++) {
+            if (i > 0 && word.charAt(i) == word.charAt(i - 1)) {
+                continue;
+            }
+            int before = deletions.size();
+            int deletion = deletions.add(deletion(word, i));
+            if (deletion == before) {
+                if (deletion == deletionTerms.length) {
+                    deletionTerms = Arrays.copyOf(deletionTerms, deletion * 2);
+                }
+                deletionTerms[deletion] = new IntList(1);
+            }
+            deletionTerms[deletion].add(term);
+        }
+    }
+
+    /**
+     * Sorts the terms added since the last sort and merges them with the sorted ones.
+     */
+    private void sortTerms() {
+        int count = terms.size();
+        if (count == sortedCount) {
+            return;
+        }
+        Integer[] added = new Integer[count - sortedCount];
+        for (int i = 0; i < added.length; i++) {
+            added[i] = sortedCount + i;
+        }
+        Arrays.sort(added, (a, b) -> terms.get(a).compareTo(terms.get(b)));
+        int[] merged = new int[count];
+        int i = 0;
+        int j = 0;
+        for (int k = 0; k < count; k++) {
+            if (j == added.length || i < sortedCount && terms.get(sortedTerms[i]).compareTo(terms.get(added[j])) <= 0) {
+                merged[k] = sortedTerms[i++];
+            } else {
+                merged[k] = added[j++];
+            }
+        }
+        sortedTerms = merged;
+        sortedCount = count;
+    }
+
+    /**
+     * Finds the first sorted term that is not before a prefix.
+     *
+     * @param prefix normalized prefix.
+     * @return position in {@link #sortedTerms}.
+     */
+    private int firstWithPrefix(String prefix) {
+        int low = 0;
+        int high = sortedCount;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (terms.get(sortedTerms[middle]).compareTo(prefix) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Returns a new stamp for a scan that marks books, e.g. to remove duplicates.
+     *
+     * @return the stamp.
+     */
+    private int nextStamp() {
+        if (stamp == Integer.MAX_VALUE) {
+            Arrays.fill(marks, 0);
+            stamp = 0;
+        }
+        return ++stamp;
+    }
+
+    /**
+     * Splits a text in normalized words.
+     *
+     * @param text title or query.
+     * @return its words, in order.
+     */
+    private static String[] words(String text) {
+        String normalized = AuthorIndex.normalize(text);
+        if (normalized == null) {
+            return new String[0];
+        }
+        String[] words = new String[8];
+        int count = 0;
+        int start = -1;
+        for (int i = 0; i <= normalized.length(); i++) {
+            boolean letter = i < normalized.length() && Character.isLetterOrDigit(normalized.charAt(i));
+            if (letter && start < 0) {
+                start = i;
+            } else if (!letter && start >= 0) {
+                if (count == words.length) {
+                    words = Arrays.copyOf(words, count * 2);
+                }
+                words[count++] = normalized.substring(start, i);
+                start = -1;
+            }
+        }
+        return Arrays.copyOf(words, count);
+    }
+
+    /**
+     * Deletes a letter of a word.
+     *
+     * @param word  word.
+     * @param index position of the letter.
+     * @return the word without the letter.
+     */
+    private static String deletion(String word, int index) {
+        return new StringBuilder(word.length() - 1).append(word, 0, index).append(word, index + 1, word.length())
+                .toString();
+    }
+
+    /**
+     * Tells if two different words are at one edit: one letter inserted, deleted, replaced or swapped with the
+     * next one.
+     *
+     * @param a first word.
+     * @param b second word.
+     * @return true if they are at one edit.
+     */
+    static boolean isOneEdit(String a, String b) {
+        if (a.length() > b.length()) {
+            String swap = a;
+            a = b;
+            b = swap;
+        }
+        if (b.length() - a.length() > 1) {
+            return false;
+        }
+        int i = 0;
+        while (i < a.length() && a.charAt(i) == b.charAt(i)) {
+            i++;
+        }
+        if (a.length() < b.length()) {
+            return a.regionMatches(i, b, i + 1, a.length() - i);
+        }
+        if (i == a.length()) {
+            return false;
+        }
+        if (a.regionMatches(i + 1, b, i + 1, a.length() - i - 1)) {
+            return true;
+        }
+        return i + 1 < a.length() && a.charAt(i) == b.charAt(i + 1) && a.charAt(i + 1) == b.charAt(i)
+                && a.regionMatches(i + 2, b, i + 2, a.length() - i - 2);
+    }
+
+    /**
+     * Tells if a small list holds a value.
+     *
+     * @param list  list to scan.
+     * @param value value to find.
+     * @return true if it is in the list.
+     */
+    private static boolean contains(IntList list, int value) {
+        for (int i = 0; i < list.size(); i++) {
+            if (list.get(i) == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
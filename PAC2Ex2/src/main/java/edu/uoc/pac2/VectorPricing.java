@@ -0,0 +1,47 @@
+package edu.uoc.pac2;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Vector API kernel of {@link BulkPricing}.
+ * <p>
+ * Only the discount per group needs an explicit kernel: its table lookup is a gather that C2 does not
+ * auto-vectorize, while the flat discount loop already is. This is the only class that references
+ * {@code jdk.incubator.vector}, so it is only loaded when {@link BulkPricing} has checked that the module is
+ * available.
+ *
+ * @author Arnau López Pagès
+ * @version 1.0
+ */
+final class VectorPricing {
+
+    /**
+     * Widest double vector supported by the CPU.
+     */
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    private VectorPricing() {
+    }
+
+    /**
+     * Applies a discount rate per group to the prices.
+     *
+     * @param prices prices to discount.
+     * @param groups group of each price, -1 for none.
+     * @param rates  discount rate of group {@code g} at {@code rates[g + 1]}, 0 at {@code rates[0]}.
+     * @param out    discounted prices, may be {@code prices}.
+     * @param length number of prices.
+     */
+    static void discount(double[] prices, int[] groups, double[] rates, double[] out, int length) {
+        int i = 0;
+        for (int bound = SPECIES.loopBound(length); i < bound; i += SPECIES.length()) {
+            DoubleVector price = DoubleVector.fromArray(SPECIES, prices, i);
+            DoubleVector rate = DoubleVector.fromArray(SPECIES, rates, 1, groups, i);
+            price.sub(rate.mul(price)).intoArray(out, i);
+        }
+        for (; i < length; i++) {
+            out[i] = prices[i] - rates[groups[i] + 1] * prices[i];
+        }
+    }
+}
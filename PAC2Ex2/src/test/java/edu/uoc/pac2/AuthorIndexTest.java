@@ -0,0 +1,72 @@
+package edu.uoc.pac2;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AuthorIndexTest {
+
+    @Test
+    public void testNormalize() {
+        assertEquals("john doe", AuthorIndex.normalize("John Doe"));
+        assertEquals("john doe", AuthorIndex.normalize("  JOHN \t  doe "));
+        assertEquals("jose garcia", AuthorIndex.normalize("José García"));
+        assertEquals("jose garcia", AuthorIndex.normalize("JOSÉ GARCÍA"));
+        assertEquals("francoise sagan", AuthorIndex.normalize("Françoise Sagan"));
+        assertEquals("", AuthorIndex.normalize("   "));
+        assertNull(AuthorIndex.normalize(null));
+    }
+
+    @Test
+    public void testLookups() {
+        List<Book> books = new ArrayList<>();
+        books.add(new Book("Sample Book", "José García", "Fiction", "Sample Publisher",
+                LocalDate.of(2000, 1, 1), "English", "1234567890", 10.0));
+        books.add(new Book("Sample Book", "John Doe", "Fiction", "Sample Publisher",
+                LocalDate.of(2000, 1, 1), "English", "1234567890", 10.0));
+        books.add(new Book("Sample Book", "jose  garcia", "Fiction", "Sample Publisher",
+                LocalDate.of(2000, 1, 1), "English", "1234567890", 10.0));
+        books.add(new Book("Sample Book", null, "Fiction", "Sample Publisher",
+                LocalDate.of(2000, 1, 1), "English", "1234567890", 10.0));
+        books.add(new Book("Sample Book", "JOSÉ GARCÍA", "Fiction", "Sample Publisher",
+                LocalDate.of(2000, 1, 1), "English", "1234567890", 10.0));
+
+        for (AuthorIndex index : List.of(AuthorIndex.of(books), AuthorIndex.of(BookCatalog.of(books)))) {
+            assertEquals(2, index.size());
+            assertArrayEquals(new int[]{0, 2, 4}, index.booksBy("Jose Garcia"));
+            assertArrayEquals(new int[]{1}, index.booksBy("john doe"));
+            assertArrayEquals(new int[0], index.booksBy("Jane Smith"));
+            assertArrayEquals(new int[0], index.booksBy(null));
+            assertEquals(3, index.countBy("JOSÉ  GARCÍA"));
+            assertEquals(0, index.countBy("Jane Smith"));
+
+            int key = index.keyOf("José García");
+            assertEquals("jose garcia", index.getKey(key));
+            assertEquals(key, index.keyOfBook(2));
+            assertTrue(index.isWrittenBy(2, key));
+            assertTrue(index.isWrittenBy(1, "JoHn DoE"));
+            assertFalse(index.isWrittenBy(1, key));
+            assertFalse(index.isWrittenBy(3, "John Doe"));
+            assertEquals(StringDictionary.NO_ID, index.keyOfBook(3));
+            assertEquals(StringDictionary.NO_ID, index.keyOfBook(5));
+            assertFalse(index.isWrittenBy(5, key));
+            assertFalse(index.isWrittenBy(0, StringDictionary.NO_ID));
+        }
+    }
+
+    @Test
+    public void testAdd() {
+        AuthorIndex index = new AuthorIndex();
+        index.add(0, "John Doe");
+        index.add(100, "john doe");
+
+        assertArrayEquals(new int[]{0, 100}, index.booksBy("John Doe"));
+        assertEquals(StringDictionary.NO_ID, index.keyOfBook(50));
+        assertThrows(IllegalArgumentException.class, () -> index.add(100, "Jane Smith"));
+        assertThrows(IllegalArgumentException.class, () -> index.add(-1, "Jane Smith"));
+    }
+}
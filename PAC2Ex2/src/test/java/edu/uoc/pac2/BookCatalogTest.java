@@ -0,0 +1,175 @@
+package edu.uoc.pac2;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BookCatalogTest {
+
+    private static BookCatalog sampleCatalog() {
+        return BookCatalog.of(List.of(
+                new Book("Sample Book", "John Doe", "Fiction", "Sample Publisher",
+                        LocalDate.of(1960, 1, 1), "English", "0-306-40615-2", 20.0),
+                new Book("New Book", "Jane Smith", "Fantasy", "Other Publisher",
+                        LocalDate.of(2001, 5, 3), "Spanish", "978-1234567891", 35.5),
+                new Book("Third Book", "John Doe", "Fiction", "Sample Publisher",
+                        LocalDate.of(2015, 9, 12), "English", "0987654321", 10.0)));
+    }
+
+    @Test
+    public void testAddAndGet() {
+        BookCatalog catalog = new BookCatalog(1);
+        Book book = new Book("Sample Book", "John Doe", "Fiction", "Sample Publisher",
+                LocalDate.of(1983, 9, 12), "English", "978-1234567891", 29.99);
+
+        assertEquals(0, catalog.add(book));
+        assertEquals(1, catalog.add(book));
+        assertEquals(2, catalog.size());
+        assertEquals(1, catalog.getAuthors().size());
+
+        Book copy = catalog.get(1);
+        assertNotSame(book, copy);
+        assertEquals("Sample Book", copy.getTitle());
+        assertEquals("John Doe", copy.getAuthor());
+        assertEquals("Fiction", copy.getGenre());
+        assertEquals("Sample Publisher", copy.getPublisher());
+        assertEquals(LocalDate.of(1983, 9, 12), copy.getReleaseDate());
+        assertEquals("English", copy.getLanguage());
+        assertEquals("9781234567891", copy.getIsbn());
+        assertEquals(29.99, copy.getPrice());
+
+        assertThrows(IndexOutOfBoundsException.class, () -> catalog.get(2));
+        assertThrows(IndexOutOfBoundsException.class, () -> catalog.getPrice(-1));
+    }
+
+    @Test
+    public void testMissingValues() {
+        BookCatalog catalog = new BookCatalog();
+        catalog.add(new Book(null, null, null, null, null, null, "123", 1.0));
+
+        Book copy = catalog.get(0);
+        assertNull(copy.getTitle());
+        assertNull(copy.getAuthor());
+        assertNull(copy.getReleaseDate());
+        assertNull(copy.getLanguage());
+        assertNull(copy.getIsbn());
+        assertEquals(BookCatalog.NO_DATE, catalog.getReleaseEpochDay(0));
+        assertEquals(BookCatalog.NO_ISBN, catalog.getIsbn(0));
+    }
+
+    @Test
+    public void testLanguagesAsAdded() {
+        BookCatalog catalog = new BookCatalog();
+        String[] languages = {"Klingon", "it", "English", null, "english", "Klingon"};
+        for (String language : languages) {
+            catalog.add(new Book("Sample Book", "John Doe", "Fiction", "Sample Publisher",
+                    LocalDate.of(2000, 1, 1), language, "1234567890", 10.0));
+        }
+
+        for (int id = 0; id < languages.length; id++) {
+            assertEquals(languages[id], catalog.get(id).getLanguage());
+            assertEquals(languages[id], catalog.getLanguageName(id));
+        }
+        assertEquals(Language.ENGLISH, catalog.getLanguage(2));
+        assertNull(catalog.getLanguage(0));
+        assertNull(catalog.getLanguage(1));
+        assertArrayEquals(new int[]{2}, catalog.filterByLanguage(Language.ENGLISH));
+        assertArrayEquals(new int[0], catalog.filterByLanguage(Language.ITALIAN));
+    }
+
+    @Test
+    public void testIsbn() {
+        BookCatalog catalog = sampleCatalog();
+
+        assertEquals(9780306406157L, catalog.getIsbn(0));
+        assertEquals("9780306406157", catalog.get(0).getIsbn());
+        assertEquals(Isbn.parse("978-0-306-40615-7"), catalog.getIsbn(0));
+        assertEquals("0987654321", catalog.get(2).getIsbn());
+    }
+
+    @Test
+    public void testSetPrice() throws Exception {
+        BookCatalog catalog = sampleCatalog();
+
+        catalog.setPrice(0, 12.5);
+        assertEquals(12.5, catalog.getPrice(0));
+
+        Exception exception = assertThrows(Exception.class, () -> catalog.setPrice(0, 0));
+        assertEquals("[ERROR] Price cannot be neither negative nor zero.", exception.getMessage());
+        assertEquals(12.5, catalog.getPrice(0));
+    }
+
+    @Test
+    public void testFilters() {
+        BookCatalog catalog = sampleCatalog();
+
+        assertArrayEquals(new int[]{0, 2}, catalog.filterByPrice(10.0, 20.0));
+        assertArrayEquals(new int[]{1, 2}, catalog.filterByReleaseDate(LocalDate.of(2001, 5, 3), LocalDate.now()));
+        assertArrayEquals(new int[]{0, 2}, catalog.filterByAuthor("John Doe"));
+        assertArrayEquals(new int[0], catalog.filterByAuthor("Nobody"));
+        assertArrayEquals(new int[]{1}, catalog.filterByGenre("Fantasy"));
+        assertArrayEquals(new int[]{0, 2}, catalog.filterByPublisher("Sample Publisher"));
+        assertArrayEquals(new int[]{1}, catalog.filterByLanguage(Language.SPANISH));
+        assertArrayEquals(new int[0], catalog.filterByLanguage(Language.ITALIAN));
+    }
+
+    @Test
+    public void testAggregations() {
+        BookCatalog catalog = sampleCatalog();
+
+        assertEquals(10.0, catalog.minPrice());
+        assertEquals(35.5, catalog.maxPrice());
+        assertEquals(65.5 / 3, catalog.averagePrice(), 1e-9);
+        assertEquals(15.0, catalog.averagePrice(new int[]{0, 2}));
+
+        int fiction = catalog.getGenres().idOf("Fiction");
+        int fantasy = catalog.getGenres().idOf("Fantasy");
+        assertEquals(2, catalog.countByGenre()[fiction]);
+        assertEquals(1, catalog.countByGenre()[fantasy]);
+        assertEquals(15.0, catalog.averagePriceByGenre()[fiction]);
+        assertEquals(35.5, catalog.averagePriceByGenre()[fantasy]);
+
+        assertTrue(Double.isNaN(new BookCatalog().minPrice()));
+        assertTrue(Double.isNaN(new BookCatalog().averagePrice()));
+    }
+
+    @Test
+    public void testListeners() throws Exception {
+        BookCatalog catalog = sampleCatalog();
+        StringBuilder events = new StringBuilder();
+        CatalogListener listener = new CatalogListener() {
+            @Override
+            public void bookAdded(int id) {
+                events.append("added ").append(id).append(';');
+            }
+
+            @Override
+            public void priceChanged(int id, double oldPrice, double newPrice) {
+                events.append("price ").append(id).append(' ').append(oldPrice).append(' ').append(newPrice)
+                        .append(';');
+            }
+
+            @Override
+            public void pricesChanged() {
+                events.append("prices;");
+            }
+        };
+        catalog.addListener(listener);
+
+        catalog.add(catalog.get(0));
+        catalog.setPrice(1, 30.0);
+        assertThrows(Exception.class, () -> catalog.setPrice(1, -1));
+        catalog.applyDiscount(50);
+        assertThrows(Exception.class, () -> catalog.applyDiscount(100));
+        assertEquals("added 3;price 1 35.5 30.0;prices;", events.toString());
+
+        assertTrue(catalog.removeListener(listener));
+        assertFalse(catalog.removeListener(listener));
+        catalog.add(catalog.get(0));
+        assertEquals("added 3;price 1 35.5 30.0;prices;", events.toString());
+        assertThrows(IllegalArgumentException.class, () -> catalog.addListener(null));
+    }
+}
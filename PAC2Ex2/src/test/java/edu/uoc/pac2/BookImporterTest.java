@@ -0,0 +1,191 @@
+package edu.uoc.pac2;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BookImporterTest {
+
+    @TempDir
+    Path directory;
+
+    private Path write(String content) throws IOException {
+        Path file = directory.resolve("books.csv");
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    private static ByteField field(String text) {
+        return new ByteField().set(ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8)), 0,
+                text.getBytes(StandardCharsets.UTF_8).length);
+    }
+
+    @Test
+    public void testImportCsv() throws IOException {
+        Path file = write("title,author,genre,publisher,releaseDate,language,isbn,price\r\n"
+                + "Sample Book,John Doe,Fiction,Sample Publisher,1983-09-12,English,978-0-306-40615-7,29.99\r\n"
+                + "\r\n"
+                + "\"Quoted Book\",\"José \"\"Pepe\"\" García\",\"Science\nFiction\",\"Other, Publisher\","
+                + "2001-05-03,Spanish,0306406152,10\n"
+                + "Last Book,Jane Smith,Fantasy,Sample Publisher,2015-09-12,French,1234567890,5.5");
+        List<Book> books = new ArrayList<>();
+
+        ImportReport report = BookImporter.csv().withHeader().importFile(file, books::add);
+
+        assertEquals(3, report.getRows());
+        assertEquals(3, report.getImported());
+        assertEquals(0, report.getRejected());
+        assertEquals(3, books.size());
+
+        Book first = books.get(0);
+        assertEquals("Sample Book", first.getTitle());
+        assertEquals("John Doe", first.getAuthor());
+        assertEquals("Fiction", first.getGenre());
+        assertEquals("Sample Publisher", first.getPublisher());
+        assertEquals(LocalDate.of(1983, 9, 12), first.getReleaseDate());
+        assertEquals("English", first.getLanguage());
+        assertEquals("9780306406157", first.getIsbn());
+        assertEquals(29.99, first.getPrice());
+
+        Book second = books.get(1);
+        assertEquals("Quoted Book", second.getTitle());
+        assertEquals("Other, Publisher", second.getPublisher());
+        assertEquals("José \"Pepe\" García", second.getAuthor());
+        assertEquals("Science\nFiction", second.getGenre());
+        assertEquals(10.0, second.getPrice());
+
+        assertEquals("Last Book", books.get(2).getTitle());
+        assertEquals(5.5, books.get(2).getPrice());
+    }
+
+    @Test
+    public void testRejectedRows() throws IOException {
+        Path file = write("Sample Book,John Doe,Fiction,Sample Publisher,1983-09-12,English,1234567890,29.99\n"
+                + "Book 2,John Doe,Fiction,Sample Publisher,1983-09-12,English,1234567890,29.99\n"
+                + "Sample Book,,Fiction,Sample Publisher,1983-02-30,english,123,-1\n"
+                + "Sample Book,John Doe,Fiction\n"
+                + "Sample Book,John Doe,Fiction,Sample Publisher,3000-01-01,English,1234567890,abc\n"
+                + "\"Sample\" Book,John Doe,Fiction,Sample Publisher,1983-09-12,English,1234567890,29.99\n");
+        List<ImportReport.Rejection> listened = new ArrayList<>();
+        BookCatalog catalog = new BookCatalog();
+
+        ImportReport report = BookImporter.csv().maxRejections(3).onRejection(listened::add)
+                .importFile(file, catalog);
+
+        assertEquals(6, report.getRows());
+        assertEquals(1, report.getImported());
+        assertEquals(5, report.getRejected());
+        assertEquals(1, catalog.size());
+        assertEquals(5, listened.size());
+        assertEquals(3, report.getRejections().size());
+
+        ImportReport.Rejection title = report.getRejections().get(0);
+        assertEquals(2, title.getLine());
+        assertEquals(BookValidator.TITLE, title.getErrors());
+        assertEquals(BookValidator.message(BookValidator.TITLE), title.getMessage());
+        assertEquals("Book 2,John Doe,Fiction,Sample Publisher,1983-09-12,English,1234567890,29.99", title.getRow());
+
+        ImportReport.Rejection many = report.getRejections().get(1);
+        assertEquals(BookValidator.AUTHOR | BookValidator.RELEASE_DATE | BookValidator.LANGUAGE
+                | BookValidator.ISBN | BookValidator.PRICE, many.getErrors());
+        assertEquals(BookValidator.describe(many.getErrors()), many.getMessage());
+
+        ImportReport.Rejection fields = report.getRejections().get(2);
+        assertEquals(4, fields.getLine());
+        assertEquals(BookValidator.VALID, fields.getErrors());
+        assertEquals("[ERROR] Expected 8 fields but found 3.", fields.getMessage());
+
+        assertEquals(BookValidator.RELEASE_DATE | BookValidator.PRICE, listened.get(3).getErrors());
+        assertEquals("[ERROR] Malformed quoted field.", listened.get(4).getMessage());
+        assertEquals(6, listened.get(4).getLine());
+    }
+
+    @Test
+    public void testSmallWindows() throws IOException {
+        StringBuilder content = new StringBuilder();
+        Random random = new Random(42);
+        for (int i = 0; i < 500; i++) {
+            content.append(i % 7 == 0 ? "\"Quoted \"\"Book\"\"\"" : "Book").append(",Author ").append(i)
+                    .append(",Fiction,Publisher ").append(i % 10).append(",19").append(10 + random.nextInt(90))
+                    .append("-0").append(1 + random.nextInt(9)).append("-1").append(random.nextInt(10))
+                    .append(",English,").append(1000000000L + i).append(',').append(random.nextInt(10000) / 100.0)
+                    .append(i % 3 == 0 ? "\r\n" : "\n");
+        }
+        Path file = write(content.toString());
+        List<Book> expected = new ArrayList<>();
+        ImportReport whole = BookImporter.csv().importFile(file, expected::add);
+
+        for (int window : new int[]{100, 150, 1000}) {
+            List<Book> books = new ArrayList<>();
+            ImportReport report = BookImporter.csv().window(window).importFile(file, books::add);
+            assertEquals(whole.getImported(), report.getImported());
+            assertEquals(whole.getRejected(), report.getRejected());
+            assertEquals(expected.size(), books.size());
+            for (int i = 0; i < books.size(); i++) {
+                assertEquals(expected.get(i).getAuthor(), books.get(i).getAuthor());
+                assertEquals(expected.get(i).getTitle(), books.get(i).getTitle());
+                assertEquals(expected.get(i).getPrice(), books.get(i).getPrice());
+            }
+        }
+        assertTrue(whole.getImported() > 0);
+        assertEquals(500, whole.getRows());
+
+        assertThrows(IOException.class, () -> BookImporter.csv().window(50).importFile(file, book -> { }));
+    }
+
+    @Test
+    public void testImportTsv() throws IOException {
+        Path file = write("Sample Book\tJohn Doe\tFiction\tSample, Publisher\t1983-09-12\tEnglish\t1234567890\t29.99\n"
+                + "\"Sample Book\"\tJohn Doe\tFiction\tSample Publisher\t1983-09-12\tEnglish\t1234567890\t29.99\n");
+        List<Book> books = new ArrayList<>();
+
+        ImportReport report = BookImporter.tsv().importFile(file, books::add);
+
+        assertEquals(1, report.getImported());
+        assertEquals("Sample, Publisher", books.get(0).getPublisher());
+        assertEquals(BookValidator.TITLE, report.getRejections().get(0).getErrors());
+    }
+
+    @Test
+    public void testParseFields() {
+        assertEquals(LocalDate.of(2024, 2, 29), BookImporter.parseDate(field("2024-02-29")));
+        assertNull(BookImporter.parseDate(field("2023-02-29")));
+        assertNull(BookImporter.parseDate(field("2023-13-01")));
+        assertNull(BookImporter.parseDate(field("2023/01/01")));
+        assertNull(BookImporter.parseDate(field("23-01-01")));
+
+        Random random = new Random(42);
+        for (int i = 0; i < 10_000; i++) {
+            String price = random.nextInt(100_000) + "." + random.nextInt(1000);
+            assertEquals(Double.parseDouble(price), BookImporter.parsePrice(field(price)));
+        }
+        assertEquals(1e3, BookImporter.parsePrice(field("1e3")));
+        assertEquals(-5.0, BookImporter.parsePrice(field("-5")));
+        assertEquals(12.0, BookImporter.parsePrice(field("12.")));
+        assertTrue(Double.isNaN(BookImporter.parsePrice(field("abc"))));
+        assertTrue(Double.isNaN(BookImporter.parsePrice(field(""))));
+    }
+
+    @Test
+    public void testByteField() {
+        ByteField field = field("José");
+        assertEquals(5, field.length());
+        assertEquals('J', field.charAt(0));
+        assertEquals("José", field.toString());
+        assertEquals("os", field.subSequence(1, 3).toString());
+        assertThrows(IndexOutOfBoundsException.class, () -> field.charAt(5));
+        assertFalse(FieldValidator.isValidTitle(field));
+        assertTrue(FieldValidator.isValidTitle(field("Jose")));
+    }
+}
@@ -0,0 +1,155 @@
+package edu.uoc.pac2;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BookQueryTest {
+
+    private static final String[] AUTHORS = {"John Doe", "Jane Smith", "Ana García"};
+
+    private static final String[] GENRES = {"Fiction", "Fantasy", "Poetry"};
+
+    private static BookCatalog randomCatalog(int size) {
+        Random random = new Random(42);
+        BookCatalog catalog = new BookCatalog(size);
+        for (int i = 0; i < size; i++) {
+            catalog.add(new Book("Book " + i, AUTHORS[random.nextInt(AUTHORS.length)],
+                    GENRES[random.nextInt(GENRES.length)], "Sample Publisher",
+                    LocalDate.of(1900 + random.nextInt(120), 1 + random.nextInt(12), 1 + random.nextInt(28)),
+                    random.nextBoolean() ? "English" : "Spanish", "1234567890",
+                    1 + random.nextInt(5000) / 100.0));
+        }
+        return catalog;
+    }
+
+    @AfterEach
+    public void restoreClock() {
+        CatalogClock.setCurrent(new CatalogClock(Clock.systemDefaultZone()));
+    }
+
+    @Test
+    public void testMatchesBookPredicates() {
+        CatalogClock.setCurrent(CatalogClock.fixed(LocalDate.of(2024, 1, 1)));
+        BookCatalog catalog = randomCatalog(50_000);
+        Book reference = catalog.get(0);
+
+        int[] ids = BookQuery.on(catalog).classics().writtenBy("john DOE").cheaperThan(reference).ids();
+
+        int expected = 0;
+        for (int id = 0; id < catalog.size(); id++) {
+            Book book = catalog.get(id);
+            if (book.isClassic() && book.isWrittenBy("john DOE") && book.isCheaperThan(reference)) {
+                assertEquals(id, ids[expected++]);
+            }
+        }
+        assertEquals(expected, ids.length);
+        assertTrue(expected > 0);
+    }
+
+    @Test
+    public void testParallelEqualsSequential() {
+        BookCatalog catalog = randomCatalog(100_000);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            BookQuery parallel = BookQuery.on(catalog).inGenre("Fiction").inLanguage(Language.SPANISH)
+                    .releasedBetween(LocalDate.of(1950, 1, 1), LocalDate.of(2000, 12, 31)).parallel(pool);
+            BookQuery sequential = BookQuery.on(catalog).inGenre("Fiction").inLanguage(Language.SPANISH)
+                    .releasedBetween(LocalDate.of(1950, 1, 1), LocalDate.of(2000, 12, 31)).sequential();
+
+            assertArrayEquals(sequential.ids(), parallel.ids());
+            assertEquals(sequential.count(), parallel.count());
+            assertEquals(parallel.ids().length, parallel.count());
+            assertArrayEquals(sequential.cheapest(25), parallel.cheapest(25));
+            assertArrayEquals(sequential.mostExpensive(25), parallel.mostExpensive(25));
+
+            int[] all = sequential.ids();
+            parallel.limit(1000);
+            int[] first = parallel.ids();
+            assertEquals(1000, first.length);
+            for (int i = 0; i < first.length; i++) {
+                assertEquals(all[i], first[i]);
+            }
+            assertEquals(1000, parallel.count());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testTopN() {
+        BookCatalog catalog = randomCatalog(20_000);
+
+        int[] cheapest = BookQuery.on(catalog).inGenre("Poetry").cheapest(10);
+        assertEquals(10, cheapest.length);
+        double lowest = Double.POSITIVE_INFINITY;
+        for (int id : BookQuery.on(catalog).inGenre("Poetry").ids()) {
+            lowest = Math.min(lowest, catalog.getPrice(id));
+        }
+        assertEquals(lowest, catalog.getPrice(cheapest[0]));
+        for (int i = 1; i < cheapest.length; i++) {
+            assertTrue(catalog.getPrice(cheapest[i - 1]) < catalog.getPrice(cheapest[i])
+                    || catalog.getPrice(cheapest[i - 1]) == catalog.getPrice(cheapest[i])
+                    && cheapest[i - 1] < cheapest[i]);
+        }
+
+        int[] expensive = BookQuery.on(catalog).mostExpensive(3);
+        assertEquals(catalog.maxPrice(), catalog.getPrice(expensive[0]));
+        assertTrue(catalog.getPrice(expensive[1]) <= catalog.getPrice(expensive[0]));
+
+        assertEquals(0, BookQuery.on(catalog).cheapest(0).length);
+        assertThrows(IllegalArgumentException.class, () -> BookQuery.on(catalog).cheapest(-1));
+    }
+
+    @Test
+    public void testTopLargerThanCatalog() {
+        BookCatalog single = BookCatalog.of(List.of(new Book("Sample Book", "John Doe", "Fiction",
+                "Sample Publisher", LocalDate.of(1960, 1, 1), "English", "1234567890", 20.0)));
+        assertArrayEquals(new int[]{0}, BookQuery.on(single).cheapest(Integer.MAX_VALUE));
+        assertArrayEquals(new int[]{0}, BookQuery.on(single).mostExpensive(Integer.MAX_VALUE));
+        assertEquals(0, BookQuery.on(new BookCatalog()).cheapest(Integer.MAX_VALUE).length);
+
+        BookCatalog catalog = randomCatalog(100_000);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            BookQuery parallel = BookQuery.on(catalog).inGenre("Poetry").parallel(pool);
+            int[] all = parallel.cheapest(Integer.MAX_VALUE);
+            assertEquals(parallel.count(), all.length);
+            assertArrayEquals(BookQuery.on(catalog).inGenre("Poetry").sequential().cheapest(1_000_000), all);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testNoMatches() {
+        BookCatalog catalog = BookCatalog.of(List.of(
+                new Book("Sample Book", "John Doe", "Fiction", "Sample Publisher",
+                        LocalDate.of(1960, 1, 1), "English", "1234567890", 20.0),
+                new Book("Missing Date", "John Doe", "Fiction", "Sample Publisher",
+                        null, "English", "1234567890", 10.0)));
+
+        assertEquals(1, BookQuery.on(catalog).classics().count());
+        assertEquals(2, BookQuery.on(catalog).writtenBy("John Doe").count());
+        assertEquals(0, BookQuery.on(catalog).writtenBy("Jane Smith").count());
+        assertEquals(0, BookQuery.on(catalog).writtenBy("John Doe").writtenBy("Jane Smith").count());
+        assertEquals(0, BookQuery.on(catalog).inGenre("Fantasy").ids().length);
+        assertEquals(0, BookQuery.on(catalog).inGenre("Fiction").inGenre("Fantasy").count());
+        assertEquals(0, BookQuery.on(catalog).inLanguage(Language.SPANISH).count());
+        assertEquals(0, BookQuery.on(catalog).cheaperThan((Book) null).count());
+        assertEquals(1, BookQuery.on(catalog).cheaperThan(20.0).count());
+        assertEquals(0, BookQuery.on(catalog).limit(0).count());
+        assertEquals(List.of(), BookQuery.on(catalog).cheaperThan(1.0).books());
+        assertEquals("Missing Date", BookQuery.on(catalog).cheaperThan(15.0).books().get(0).getTitle());
+
+        assertThrows(IllegalArgumentException.class, () -> BookQuery.on(catalog).limit(-1));
+        assertThrows(IllegalArgumentException.class, () -> BookQuery.on(catalog).parallel(null));
+    }
+}
@@ -157,6 +157,25 @@ public class BookTest {
         assertEquals(LocalDate.of(1983,9,12),book.getReleaseDate());
     }
 
+    @Test
+    public void testConstructorLanguage() {
+        // the constructor does not validate, the language is kept as given
+        Book unknown = new Book("Sample Book", "John Doe", "Fiction", "Sample Publisher",
+                LocalDate.now().minusDays(7), "Klingon", "1234567890", 29.99);
+        assertEquals("Klingon", unknown.getLanguage());
+
+        Book code = new Book("Sample Book", "John Doe", "Fiction", "Sample Publisher",
+                LocalDate.now().minusDays(7), "it", "1234567890", 29.99);
+        assertEquals("it", code.getLanguage());
+
+        Book missing = new Book("Sample Book", "John Doe", "Fiction", "Sample Publisher",
+                LocalDate.now().minusDays(7), null, "1234567890", 29.99);
+        assertNull(missing.getLanguage());
+
+        assertNotEquals(BookValidator.VALID, BookValidator.validate(code));
+        assertNotEquals(BookValidator.VALID, BookValidator.validate(unknown));
+    }
+
     @Test
     public void testSetLanguage() throws Exception{
         Book book = new Book("Sample Book", "John Doe", "Fiction", "Sample Publisher",
@@ -281,7 +300,7 @@ public class BookTest {
     @DisplayName("Sanity - Fields definition")
     void checkFieldsSanity() {
         //check attribute fields
-        assertEquals(9, Book.class.getDeclaredFields().length);
+        assertEquals(8, Book.class.getDeclaredFields().length);
         try {
             assertTrue(Modifier.isPrivate(Book.class.getDeclaredField("title").getModifiers()));
             assertTrue(Modifier.isPrivate(Book.class.getDeclaredField("author").getModifiers()));
@@ -0,0 +1,67 @@
+package edu.uoc.pac2;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BookValidatorTest {
+
+    @Test
+    public void testValidRow() {
+        assertEquals(BookValidator.VALID, BookValidator.validate("Sample Book", "John Doe", "Fiction",
+                "Sample Publisher", LocalDate.now().minusDays(7), "English", "978-1234567891", 29.99));
+    }
+
+    @Test
+    public void testInvalidRow() {
+        int errors = BookValidator.validate("Book 2", " ", "Fiction", "Publisher & Co",
+                LocalDate.now().plusDays(1), "Klingon", "123", 0);
+
+        assertEquals(BookValidator.TITLE | BookValidator.AUTHOR | BookValidator.PUBLISHER
+                | BookValidator.RELEASE_DATE | BookValidator.LANGUAGE | BookValidator.ISBN | BookValidator.PRICE, errors);
+        assertEquals(0, errors & BookValidator.GENRE);
+    }
+
+    @Test
+    public void testSingleChecks() {
+        assertEquals(BookValidator.TITLE, BookValidator.checkTitle(null));
+        assertEquals(BookValidator.GENRE, BookValidator.checkGenre(""));
+        assertEquals(BookValidator.RELEASE_DATE, BookValidator.checkReleaseDate(null));
+        assertEquals(BookValidator.RELEASE_DATE, BookValidator.checkReleaseDate(LocalDate.now().minusYears(201)));
+        assertEquals(BookValidator.VALID, BookValidator.checkReleaseDate(LocalDate.now()));
+        assertEquals(BookValidator.VALID, BookValidator.checkReleaseDate(LocalDate.now().minusYears(200)));
+    }
+
+    @Test
+    public void testValidateBook() {
+        Book book = new Book("Sample Book 2", "John Doe", "Fiction", "Sample Publisher",
+                LocalDate.now().minusDays(7), "English", "1234567890", 29.99);
+
+        assertEquals(BookValidator.TITLE, BookValidator.validate(book));
+    }
+
+    @Test
+    public void testMessages() {
+        assertEquals("[ERROR] Invalid title format.", BookValidator.message(BookValidator.TITLE));
+        assertEquals("[ERROR] Price cannot be neither negative nor zero.", BookValidator.message(BookValidator.PRICE));
+        assertThrows(IllegalArgumentException.class, () -> BookValidator.message(BookValidator.TITLE | BookValidator.PRICE));
+
+        assertEquals("", BookValidator.describe(BookValidator.VALID));
+        assertEquals("[ERROR] Invalid title format." + System.lineSeparator() + "[ERROR] Invalid ISBN format.",
+                BookValidator.describe(BookValidator.ISBN | BookValidator.TITLE));
+    }
+
+    @Test
+    public void testSettersUseMessages() {
+        Book book = new Book("Sample Book", "John Doe", "Fiction", "Sample Publisher",
+                LocalDate.now().minusDays(7), "English", "1234567890", 29.99);
+
+        Exception exception = assertThrows(Exception.class, () -> book.setLanguage("Klingon"));
+        assertEquals("[ERROR] Invalid language.", exception.getMessage());
+
+        exception = assertThrows(Exception.class, () -> book.setPrice(0));
+        assertEquals("[ERROR] Price cannot be neither negative nor zero.", exception.getMessage());
+    }
+}
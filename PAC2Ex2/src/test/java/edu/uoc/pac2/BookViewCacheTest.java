@@ -0,0 +1,248 @@
+package edu.uoc.pac2;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BookViewCacheTest {
+
+    private final List<BookViewCache> caches = new ArrayList<>();
+
+    private BookViewCache track(BookViewCache cache) {
+        caches.add(cache);
+        return cache;
+    }
+
+    private static Book book(int number) {
+        return new Book("Book Title " + number, "John Doe", "Fiction", "Sample Publisher", LocalDate.of(2000, 1, 1),
+                "English", Isbn.toString(Isbn.toIsbn13(number)), 10.0);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        for (BookViewCache cache : caches) {
+            cache.close();
+        }
+        CatalogClock.setCurrent(new CatalogClock(Clock.systemDefaultZone()));
+    }
+
+    @Test
+    public void testLru() {
+        BookViewCache cache = track(BookViewCache.lru(3));
+        Book[] books = {book(0), book(1), book(2), book(3)};
+        BookView first = cache.get(books[0]);
+        cache.get(books[1]);
+        cache.get(books[2]);
+        assertSame(first, cache.get(books[0]));
+        cache.get(books[3]);
+
+        assertEquals(3, cache.size());
+        assertEquals(3, cache.weight());
+        assertNull(cache.getIfPresent(books[1].getIsbn()));
+        assertNotNull(cache.getIfPresent(books[0].getIsbn()));
+        assertNotNull(cache.getIfPresent(books[2].getIsbn()));
+        assertNotNull(cache.getIfPresent(books[3].getIsbn()));
+
+        BookViewCache.Stats stats = cache.stats();
+        assertEquals(4, stats.getHits());
+        assertEquals(5, stats.getMisses());
+        assertEquals(1, stats.getEvictions());
+        assertEquals(0, stats.getInvalidations());
+        assertEquals(4 / 9.0, stats.getHitRate(), 1e-9);
+        assertEquals(BookViewCache.Policy.LRU, cache.getPolicy());
+    }
+
+    @Test
+    public void testTinyLfuResistsScans() {
+        BookViewCache lru = track(BookViewCache.lru(100));
+        BookViewCache tinyLfu = track(BookViewCache.tinyLfu(100));
+        for (BookViewCache cache : new BookViewCache[]{lru, tinyLfu}) {
+            for (int round = 0; round < 5; round++) {
+                for (int i = 0; i < 50; i++) {
+                    cache.get(book(i));
+                }
+            }
+            for (int i = 1000; i < 2000; i++) {
+                cache.get(book(i));
+            }
+            assertEquals(100, cache.size());
+        }
+
+        int lruHot = 0;
+        int tinyLfuHot = 0;
+        for (int i = 0; i < 50; i++) {
+            String isbn = book(i).getIsbn();
+            lruHot += lru.getIfPresent(isbn) != null ? 1 : 0;
+            tinyLfuHot += tinyLfu.getIfPresent(isbn) != null ? 1 : 0;
+        }
+        assertEquals(0, lruHot);
+        assertEquals(50, tinyLfuHot);
+        assertEquals(950, tinyLfu.stats().getEvictions());
+    }
+
+    @Test
+    public void testWeight() throws Exception {
+        BookViewCache cache = track(BookViewCache.lru(30).weighedBy(view -> view.getTitle().length()));
+        cache.get(book(1));
+        cache.get(book(2));
+        assertEquals(24, cache.weight());
+        cache.get(book(3));
+        assertEquals(2, cache.size());
+        assertEquals(24, cache.weight());
+        assertNull(cache.getIfPresent(book(1).getIsbn()));
+
+        Book heavy = book(4);
+        heavy.setTitle("A title longer than the whole capacity");
+        assertEquals(heavy.getTitle(), cache.get(heavy).getTitle());
+        assertNull(cache.getIfPresent(heavy.getIsbn()));
+        assertEquals(2, cache.size());
+
+        assertThrows(IllegalStateException.class, () -> cache.weighedBy(view -> 1));
+        cache.invalidateAll();
+        assertEquals(0, cache.weight());
+        assertSame(cache, cache.weighedBy(view -> 1));
+    }
+
+    @Test
+    public void testSettersInvalidate() throws Exception {
+        BookViewCache cache = track(BookViewCache.tinyLfu(10));
+        Book book = book(1);
+        assertEquals(10, cache.get(book).getPrice());
+        assertSame(cache.get(book), cache.getIfPresent(book.getIsbn()));
+
+        book.setPrice(12);
+        assertNull(cache.getIfPresent(book.getIsbn()));
+        assertEquals(12, cache.get(book).getPrice());
+
+        book.setTitle("Another Title");
+        assertEquals("Another Title", cache.get(book).getTitle());
+
+        String previousIsbn = book.getIsbn();
+        book.setIsbn("978-3-16-148410-0");
+        assertNull(cache.getIfPresent(previousIsbn));
+        assertEquals("9783161484100", cache.get(book).getIsbn());
+
+        assertEquals(3, cache.stats().getInvalidations());
+        assertTrue(cache.invalidate("978-3-16-148410-0"));
+        assertFalse(cache.invalidate("978-3-16-148410-0"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testChangeWhileBuilding() throws Exception {
+        BookViewCache cache = track(BookViewCache.lru(10));
+        // the price changes after the view read it and before the view is stored, as another thread could do
+        Book book = new Book("Sample Book", "John Doe", "Fiction", "Sample Publisher", LocalDate.of(1990, 1, 1),
+                "English", "1234567890", 10) {
+            private boolean changed;
+
+            @Override
+            public double getPrice() {
+                double price = super.getPrice();
+                if (!changed) {
+                    changed = true;
+                    try {
+                        setPrice(price + 5);
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                }
+                return price;
+            }
+        };
+        assertEquals(10, cache.get(book).getPrice());
+        assertNull(cache.getIfPresent(book.getIsbn()));
+        assertEquals(15, cache.get(book).getPrice());
+        assertEquals(15, cache.getIfPresent(book.getIsbn()).getPrice());
+    }
+
+    @Test
+    public void testOtherChangesWhileBuilding() throws Exception {
+        BookViewCache cache = track(BookViewCache.lru(10));
+        Book other = book(2);
+        // another book changes while the view is built, which must not keep it from being stored
+        Book book = new Book("Sample Book", "John Doe", "Fiction", "Sample Publisher", LocalDate.of(1990, 1, 1),
+                "English", "1234567890", 10) {
+            @Override
+            public double getPrice() {
+                try {
+                    other.setPrice(other.getPrice() + 1);
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+                return super.getPrice();
+            }
+        };
+        cache.get(other);
+        assertEquals(10, cache.get(book).getPrice());
+        assertNotNull(cache.getIfPresent(book.getIsbn()));
+        assertNull(cache.getIfPresent(other.getIsbn()));
+        assertEquals(1, cache.stats().getInvalidations());
+    }
+
+    @Test
+    public void testClose() throws Exception {
+        Book book = book(1);
+        BookViewCache closed;
+        try (BookViewCache cache = BookViewCache.lru(10)) {
+            closed = cache;
+            cache.get(book);
+            book.setTitle("Another Title");
+            assertNull(cache.getIfPresent(book.getIsbn()));
+            cache.get(book);
+        }
+        assertFalse(BookEvents.removeListener(closed));
+        book.setTitle("Third Title");
+        assertEquals("Another Title", closed.getIfPresent(book.getIsbn()).getTitle());
+    }
+
+    @Test
+    public void testDiscount() throws Exception {
+        BookViewCache cache = track(BookViewCache.lru(10));
+        Book book = book(1);
+        assertEquals(10, cache.get(book).getDiscountedPrice());
+        assertSame(cache, cache.discount(20));
+        assertEquals(0, cache.size());
+        assertEquals(8, cache.get(book).getDiscountedPrice(), 1e-9);
+
+        Exception exception = assertThrows(Exception.class, () -> cache.discount(120));
+        assertEquals("[ERROR] Invalid discount percentage.", exception.getMessage());
+        assertEquals(20, cache.get(book).getDiscount());
+    }
+
+    @Test
+    public void testExpiresAtMidnight() {
+        CatalogClock.setCurrent(CatalogClock.fixed(LocalDate.of(2040, 1, 1)));
+        BookViewCache cache = track(BookViewCache.lru(10));
+        Book book = new Book("Sample Book", "John Doe", "Fiction", "Sample Publisher",
+                LocalDate.of(1990, 1, 1), "English", "1234567890", 10.0);
+        assertFalse(cache.get(book).isClassic());
+        assertFalse(cache.get(book).isClassic());
+
+        CatalogClock.setCurrent(CatalogClock.fixed(LocalDate.of(2040, 1, 2)));
+        assertNull(cache.getIfPresent(book.getIsbn()));
+        assertTrue(cache.get(book).isClassic());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testBooksWithoutIsbn() {
+        BookViewCache cache = track(BookViewCache.lru(10));
+        Book book = new Book("Sample Book", "John Doe", "Fiction", "Sample Publisher", null, "English", null, 10.0);
+        assertEquals("Sample Book", cache.get(book).getTitle());
+        assertEquals(0, cache.size());
+        assertEquals(1, cache.stats().getMisses());
+    }
+
+    @Test
+    public void testInvalidCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> BookViewCache.lru(0));
+        assertThrows(IllegalArgumentException.class, () -> BookViewCache.tinyLfu(-1));
+    }
+}
@@ -0,0 +1,62 @@
+package edu.uoc.pac2;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BookViewTest {
+
+    @AfterEach
+    public void restoreClock() {
+        CatalogClock.setCurrent(new CatalogClock(Clock.systemDefaultZone()));
+    }
+
+    @Test
+    public void testOf() throws Exception {
+        CatalogClock.setCurrent(CatalogClock.fixed(LocalDate.of(2024, 1, 1)));
+        Book book = new Book("Sample Book", "John Doe", "Fiction", "Sample Publisher", LocalDate.of(1950, 6, 1),
+                "Spanish", "978-3-16-148410-0", 20);
+        BookView view = BookView.of(book, 25);
+
+        assertEquals("9783161484100", view.getIsbn());
+        assertEquals("Sample Book", view.getTitle());
+        assertEquals("John Doe", view.getAuthor());
+        assertEquals("Fiction", view.getGenre());
+        assertEquals("Sample Publisher", view.getPublisher());
+        assertEquals(LocalDate.of(1950, 6, 1), view.getReleaseDate());
+        assertEquals("Spanish", view.getLanguage());
+        assertEquals("es", view.getLanguageCode());
+        assertEquals(20, view.getPrice());
+        assertEquals(25, view.getDiscount());
+        assertEquals(15, view.getDiscountedPrice(), 1e-9);
+        assertTrue(view.isClassic());
+
+        book.setPrice(40);
+        assertEquals(20, view.getPrice());
+    }
+
+    @Test
+    public void testMissingFields() throws Exception {
+        Book book = new Book("Sample Book", "John Doe", "Fiction", "Sample Publisher", null, "Klingon", null, 10);
+        BookView view = BookView.of(book, 0);
+
+        assertNull(view.getIsbn());
+        assertNull(view.getLanguage());
+        assertNull(view.getLanguageCode());
+        assertFalse(view.isClassic());
+        assertEquals(10, view.getDiscountedPrice());
+    }
+
+    @Test
+    public void testInvalidDiscount() {
+        Book book = new Book("Sample Book", "John Doe", "Fiction", "Sample Publisher", null, "English", null, 10);
+        Exception exception = assertThrows(Exception.class, () -> BookView.of(book, 101));
+        assertEquals("[ERROR] Invalid discount percentage.", exception.getMessage());
+        assertThrows(Exception.class, () -> BookView.of(book, -1));
+        assertThrows(Exception.class, () -> BookView.of(book, Double.NaN));
+    }
+}
@@ -0,0 +1,116 @@
+package edu.uoc.pac2;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BulkPricingTest {
+
+    private static double[] randomPrices(int length) {
+        Random random = new Random(42);
+        double[] prices = new double[length];
+        for (int i = 0; i < length; i++) {
+            prices[i] = 0.01 + random.nextInt(10_000) / 100.0;
+        }
+        return prices;
+    }
+
+    private static double applyDiscount(double price, double discountPercentage) {
+        Book book = new Book("Sample Book", "John Doe", "Fiction", "Sample Publisher",
+                LocalDate.now().minusDays(7), "English", "1234567890", price);
+        return book.applyDiscount(discountPercentage);
+    }
+
+    @Test
+    public void testVectorModuleIsUsed() {
+        assertTrue(BulkPricing.isVectorized());
+    }
+
+    @Test
+    public void testSameAsBookDiscount() throws Exception {
+        // odd length so that the scalar tail of the vector loop runs too
+        double[] prices = randomPrices(1_003);
+        double[] discounted = new double[prices.length];
+        BulkPricing.applyDiscount(prices, 12.5, discounted, prices.length);
+
+        for (int i = 0; i < prices.length; i++) {
+            assertEquals(applyDiscount(prices[i], 12.5), discounted[i]);
+        }
+    }
+
+    @Test
+    public void testVectorAndScalarMatch() {
+        double[] prices = randomPrices(517);
+        int[] groups = new int[prices.length];
+        for (int i = 0; i < groups.length; i++) {
+            groups[i] = i % 4 - 1;
+        }
+        double[] rates = {0, 0.1, 0.25, 0.333};
+
+        double[] vector = new double[prices.length];
+        double[] scalar = new double[prices.length];
+        VectorPricing.discount(prices, groups, rates, vector, prices.length);
+        BulkPricing.discountScalar(prices, groups, rates, scalar, prices.length);
+        assertArrayEquals(scalar, vector);
+    }
+
+    @Test
+    public void testDiscountByGroup() throws Exception {
+        double[] prices = {10, 20, 30, 40};
+        int[] groups = {0, 1, StringDictionary.NO_ID, 0};
+        double[] discounted = new double[4];
+
+        BulkPricing.applyDiscount(prices, groups, new double[]{50, 10}, discounted, 4);
+        assertArrayEquals(new double[]{5, 18, 30, 20}, discounted);
+
+        assertThrows(IndexOutOfBoundsException.class,
+                () -> BulkPricing.applyDiscount(prices, new int[]{0, 1, 2, 0}, new double[]{50, 10}, discounted, 4));
+    }
+
+    @Test
+    public void testInvalidPercentage() {
+        double[] prices = {10, 20};
+
+        Exception exception = assertThrows(Exception.class, () -> BulkPricing.applyDiscount(prices, 101, prices, 2));
+        assertEquals("[ERROR] Invalid discount percentage.", exception.getMessage());
+        assertThrows(Exception.class, () -> BulkPricing.applyDiscount(prices, -1, prices, 2));
+        assertThrows(Exception.class, () -> BulkPricing.applyDiscount(prices, Double.NaN, prices, 2));
+        assertThrows(Exception.class,
+                () -> BulkPricing.applyDiscount(prices, new int[]{0, 0}, new double[]{200}, prices, 2));
+        assertArrayEquals(new double[]{10, 20}, prices);
+
+        assertThrows(IndexOutOfBoundsException.class, () -> BulkPricing.applyDiscount(prices, 10, prices, 3));
+    }
+
+    @Test
+    public void testCatalogDiscounts() throws Exception {
+        List<Book> books = new ArrayList<>();
+        books.add(new Book("Sample Book", "John Doe", "Fiction", "Sample Publisher",
+                LocalDate.now().minusDays(7), "English", "1234567890", 10.0));
+        books.add(new Book("New Book", "Jane Smith", "Fantasy", "Other Publisher",
+                LocalDate.now().minusDays(7), "English", "1234567890", 20.0));
+        BookCatalog catalog = BookCatalog.of(books);
+
+        assertArrayEquals(new double[]{9, 18}, catalog.discountedPrices(10));
+        double[] byGenre = new double[catalog.getGenres().size()];
+        byGenre[catalog.getGenres().idOf("Fantasy")] = 50;
+        assertArrayEquals(new double[]{10, 10}, catalog.discountedPricesByGenre(byGenre));
+        double[] byPublisher = new double[catalog.getPublishers().size()];
+        byPublisher[catalog.getPublishers().idOf("Sample Publisher")] = 20;
+        assertArrayEquals(new double[]{8, 20}, catalog.discountedPricesByPublisher(byPublisher));
+        assertEquals(10.0, catalog.getPrice(0));
+
+        catalog.applyDiscount(50);
+        assertEquals(5.0, catalog.getPrice(0));
+        assertEquals(10.0, catalog.getPrice(1));
+
+        Exception exception = assertThrows(Exception.class, () -> catalog.applyDiscount(100));
+        assertEquals("[ERROR] Price cannot be neither negative nor zero.", exception.getMessage());
+        assertEquals(5.0, catalog.getPrice(0));
+    }
+}
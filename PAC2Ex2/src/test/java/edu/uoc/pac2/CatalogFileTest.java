@@ -0,0 +1,185 @@
+package edu.uoc.pac2;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CatalogFileTest {
+
+    @TempDir
+    Path directory;
+
+    private static void assertSameBook(Book expected, Book actual) {
+        assertEquals(expected.getTitle(), actual.getTitle());
+        assertEquals(expected.getAuthor(), actual.getAuthor());
+        assertEquals(expected.getGenre(), actual.getGenre());
+        assertEquals(expected.getPublisher(), actual.getPublisher());
+        assertEquals(expected.getReleaseDate(), actual.getReleaseDate());
+        assertEquals(expected.getLanguage(), actual.getLanguage());
+        assertEquals(expected.getIsbn(), actual.getIsbn());
+        assertEquals(expected.getPrice(), actual.getPrice());
+    }
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        BookCatalog catalog = BookCatalog.of(List.of(
+                new Book("Sample Book", "John Doe", "Fiction", "Sample Publisher",
+                        LocalDate.of(1960, 1, 1), "English", "0-306-40615-2", 20.0),
+                new Book("Cien años de soledad", "Gabriel García Márquez", "Novela", "Sudamericana",
+                        LocalDate.of(1967, 5, 30), "Spanish", "978-1234567891", 35.5),
+                new Book(null, null, null, null, null, null, "123", 1.0),
+                new Book("Third Book", "John Doe", "Fiction", "Sample Publisher",
+                        LocalDate.of(2015, 9, 12), "English", "0-306-40615-2", 10.0)));
+        Path file = directory.resolve("books.bin");
+
+        CatalogFile.write(catalog, file);
+        CatalogFile read = CatalogFile.open(file);
+
+        assertEquals(4, read.size());
+        for (int id = 0; id < catalog.size(); id++) {
+            assertSameBook(catalog.get(id), read.get(id));
+        }
+        assertEquals("Gabriel García Márquez", read.getAuthor(1));
+        assertEquals(Language.SPANISH, read.getLanguage(1));
+        assertNull(read.getTitle(2));
+        assertNull(read.getAuthor(2));
+        assertNull(read.getReleaseDate(2));
+        assertEquals(BookCatalog.NO_ISBN, read.getIsbn(2));
+
+        assertEquals(3, read.findByIsbn("978-0-306-40615-7"));
+        assertEquals(1, read.findByIsbn(9781234567891L));
+        assertEquals(CatalogFile.NOT_FOUND, read.findByIsbn("9780000000002"));
+        assertEquals(CatalogFile.NOT_FOUND, read.findByIsbn("123"));
+
+        BookCatalog copy = read.toCatalog();
+        assertEquals(catalog.size(), copy.size());
+        assertEquals(catalog.averagePrice(), copy.averagePrice());
+        assertThrows(IndexOutOfBoundsException.class, () -> read.get(4));
+    }
+
+    @Test
+    public void testOtherLanguages() throws IOException {
+        BookCatalog catalog = new BookCatalog();
+        String[] languages = {"English", "Klingon", null, "it", "Klingon"};
+        for (String language : languages) {
+            catalog.add(new Book("Sample Book", "John Doe", "Fiction", "Sample Publisher",
+                    LocalDate.of(2000, 1, 1), language, "1234567890", 10.0));
+        }
+        Path file = directory.resolve("languages.bin");
+
+        CatalogFile.write(catalog, file);
+        CatalogFile read = CatalogFile.open(file);
+
+        for (int id = 0; id < languages.length; id++) {
+            assertEquals(languages[id], read.get(id).getLanguage());
+            assertEquals(languages[id], read.getLanguageName(id));
+        }
+        assertEquals(Language.ENGLISH, read.getLanguage(0));
+        assertNull(read.getLanguage(3));
+        assertEquals("Klingon", read.toCatalog().get(4).getLanguage());
+    }
+
+    @Test
+    public void testWideDictionaries() throws IOException {
+        BookCatalog catalog = new BookCatalog();
+        for (int i = 0; i < 70_000; i++) {
+            catalog.add(new Book("Book", "Author " + i, "Genre " + (i % 300), "Publisher",
+                    LocalDate.of(2000, 1, 1), "English", Isbn.toString(Isbn.toIsbn13(i)), 1 + i));
+        }
+        Path file = directory.resolve("wide.bin");
+
+        CatalogFile.write(catalog, file);
+        CatalogFile read = CatalogFile.open(file);
+
+        for (int id = 0; id < catalog.size(); id += 997) {
+            assertSameBook(catalog.get(id), read.get(id));
+            assertEquals(id, read.findByIsbn(catalog.getIsbn(id)));
+        }
+        assertEquals("Author 69999", read.getAuthor(69_999));
+        assertEquals("Genre 299", read.getGenre(299));
+    }
+
+    @Test
+    public void testEmptyCatalog() throws IOException {
+        Path file = directory.resolve("empty.bin");
+
+        CatalogFile.write(new BookCatalog(), file);
+        CatalogFile read = CatalogFile.open(file);
+
+        assertEquals(0, read.size());
+        assertEquals(CatalogFile.NOT_FOUND, read.findByIsbn("978-0-306-40615-7"));
+    }
+
+    @Test
+    public void testReplaceFile() throws IOException {
+        Path file = directory.resolve("books.bin");
+        CatalogFile.write(BookCatalog.of(List.of(new Book("Sample Book", "John Doe", "Fiction",
+                "Sample Publisher", LocalDate.of(1960, 1, 1), "English", "0-306-40615-2", 20.0))), file);
+        // titles of one to four bytes per char, and a lone surrogate written as '?'
+        BookCatalog catalog = BookCatalog.of(List.of(
+                new Book("Ñandú \u20ac \uD83D\uDCDA", "Ana", "Poesía", "Sample Publisher",
+                        LocalDate.of(2001, 2, 3), "Spanish", "978-1234567891", 12.0),
+                new Book("Broken \uD83D", "Ana", "Poesía", "Sample Publisher",
+                        LocalDate.of(2001, 2, 3), "Spanish", "1234567890", 12.0)));
+
+        CatalogFile.write(catalog, file);
+        CatalogFile read = CatalogFile.open(file);
+
+        assertEquals(2, read.size());
+        assertSameBook(catalog.get(0), read.get(0));
+        assertEquals("Broken ?", read.getTitle(1));
+        try (var files = Files.list(directory)) {
+            assertEquals(List.of(file), files.toList());
+        }
+    }
+
+    @Test
+    public void testFailedWriteKeepsFile() throws IOException {
+        Path file = directory.resolve("books");
+        Files.createDirectory(file);
+        Files.write(file.resolve("kept.txt"), new byte[]{1});
+
+        assertThrows(IOException.class, () -> CatalogFile.write(new BookCatalog(), file));
+        assertTrue(Files.exists(file.resolve("kept.txt")));
+        try (var files = Files.list(directory)) {
+            assertEquals(List.of(file), files.toList());
+        }
+    }
+
+    @Test
+    public void testInvalidFiles() throws IOException {
+        Path file = directory.resolve("books.bin");
+        CatalogFile.write(BookCatalog.of(List.of(new Book("Sample Book", "John Doe", "Fiction",
+                "Sample Publisher", LocalDate.of(1960, 1, 1), "English", "0-306-40615-2", 20.0))), file);
+        byte[] bytes = Files.readAllBytes(file);
+
+        Files.write(file, new byte[]{1, 2, 3});
+        assertThrows(IOException.class, () -> CatalogFile.open(file));
+
+        byte[] newer = bytes.clone();
+        ByteBuffer.wrap(newer).putShort(4, (short) (CatalogFile.VERSION + 1));
+        Files.write(file, newer);
+        IOException version = assertThrows(IOException.class, () -> CatalogFile.open(file));
+        assertTrue(version.getMessage().contains("version"));
+
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 1));
+        assertThrows(IOException.class, () -> CatalogFile.open(file));
+    }
+
+    @Test
+    public void testVarint() {
+        ByteBuffer buffer = ByteBuffer.wrap(new byte[]{0x05, (byte) 0xAC, 0x02, (byte) 0xFF, (byte) 0xFF, 0x03});
+        assertEquals(5, CatalogFile.readVarint(buffer));
+        assertEquals(300, CatalogFile.readVarint(buffer));
+        assertEquals(65535, CatalogFile.readVarint(buffer));
+    }
+}
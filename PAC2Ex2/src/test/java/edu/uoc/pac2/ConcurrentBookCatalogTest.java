@@ -0,0 +1,163 @@
+package edu.uoc.pac2;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConcurrentBookCatalogTest {
+
+    private static ImmutableBook book(long isbn, double price) throws Exception {
+        return ImmutableBook.builder().title("Sample Book").author("John Doe").genre("Fiction")
+                .publisher("Sample Publisher").releaseDate(LocalDate.of(2020, 1, 1)).language("English")
+                .isbn(String.valueOf(isbn)).price(price).build();
+    }
+
+    @Test
+    public void testAddGetRemove() throws Exception {
+        ConcurrentBookCatalog catalog = new ConcurrentBookCatalog();
+        ImmutableBook book = book(9783161484100L, 10);
+
+        assertTrue(catalog.add(book));
+        assertFalse(catalog.add(book(9783161484100L, 20)));
+        assertSame(book, catalog.get("978-3-16-148410-0"));
+        assertNull(catalog.get("1234567890"));
+        assertEquals(1, catalog.size());
+
+        ImmutableBook other = book(9783161484100L, 30);
+        assertSame(book, catalog.put(other));
+        assertSame(other, catalog.get("9783161484100"));
+
+        assertSame(other, catalog.remove("978 3161484100"));
+        assertNull(catalog.remove("9783161484100"));
+        assertEquals(0, catalog.size());
+    }
+
+    @Test
+    public void testUpdate() throws Exception {
+        ConcurrentBookCatalog catalog = new ConcurrentBookCatalog(1);
+        ImmutableBook book = book(1234567890L, 10);
+        catalog.add(book);
+
+        ImmutableBook cheaper = catalog.updatePrice("1234567890", 5);
+        assertEquals(5, cheaper.getPrice());
+        assertSame(cheaper, catalog.get("1234567890"));
+        assertEquals(10, book.getPrice());
+        assertNull(catalog.updatePrice("9783161484100", 5));
+
+        Exception exception = assertThrows(Exception.class, () -> catalog.updatePrice("1234567890", -1));
+        assertEquals(BookValidator.message(BookValidator.PRICE), exception.getMessage());
+        assertSame(cheaper, catalog.get("1234567890"));
+
+        ImmutableBook renamed = catalog.update("1234567890", current -> current.toBuilder().title("New Title").build());
+        assertEquals("New Title", catalog.get("1234567890").getTitle());
+        assertSame(renamed, catalog.get("1234567890"));
+        assertThrows(Exception.class, () -> catalog.update("1234567890", current -> current.toBuilder().title("").build()));
+        assertThrows(IllegalArgumentException.class,
+                () -> catalog.update("1234567890", current -> current.toBuilder().isbn("9783161484100").build()));
+        assertSame(renamed, catalog.get("1234567890"));
+    }
+
+    @Test
+    public void testIsbnKeys() throws Exception {
+        ConcurrentBookCatalog catalog = new ConcurrentBookCatalog();
+        ImmutableBook book = book(9780306406157L, 10).toBuilder().isbn("0-306-40615-2").build();
+        assertTrue(catalog.add(book));
+        assertFalse(catalog.add(book(9780306406157L, 20)));
+        assertSame(book, catalog.get("978-0-306-40615-7"));
+        assertSame(book, catalog.get("0-306-40615-2"));
+        assertEquals(15, catalog.updatePrice("9780306406157", 15).getPrice());
+        assertEquals(15, catalog.put(book(9780306406157L, 25)).getPrice());
+        assertEquals(1, catalog.size());
+
+        assertNull(catalog.get(null));
+        assertNull(catalog.get("123"));
+        assertNull(catalog.remove(null));
+        assertNull(catalog.updatePrice(null, 5));
+        assertEquals(25, catalog.remove("0306406152").getPrice());
+    }
+
+    @Test
+    public void testInvalidStripes() {
+        assertThrows(IllegalArgumentException.class, () -> new ConcurrentBookCatalog(0));
+        assertThrows(IllegalArgumentException.class, () -> new ConcurrentBookCatalog((1 << 16) + 1));
+    }
+
+    @Test
+    public void testConcurrentUpdates() throws Exception {
+        int books = 16;
+        int writers = 8;
+        int increments = 2000;
+        ConcurrentBookCatalog catalog = new ConcurrentBookCatalog(4);
+        for (int i = 0; i < books; i++) {
+            catalog.add(book(1000000000L + i, 1).toBuilder().title(titleOf(1)).build());
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(writers + 2);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean done = new AtomicBoolean();
+        try {
+            List<Future<?>> tasks = new ArrayList<>();
+            for (int w = 0; w < writers; w++) {
+                int seed = w;
+                tasks.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < increments; i++) {
+                        String isbn = String.valueOf(1000000000L + (seed + i) % books);
+                        catalog.update(isbn, book -> book.toBuilder()
+                                .price(book.getPrice() + 1).title(titleOf(book.getPrice() + 1)).build());
+                    }
+                    return null;
+                }));
+            }
+            List<Future<?>> readers = new ArrayList<>();
+            for (int r = 0; r < 2; r++) {
+                readers.add(executor.submit(() -> {
+                    start.await();
+                    while (!done.get()) {
+                        for (int i = 0; i < books; i++) {
+                            ImmutableBook book = catalog.get(String.valueOf(1000000000L + i));
+                            assertEquals(titleOf(book.getPrice()), book.getTitle());
+                        }
+                        List<ImmutableBook> snapshot = catalog.snapshot();
+                        assertEquals(books, snapshot.size());
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> task : tasks) {
+                task.get();
+            }
+            done.set(true);
+            for (Future<?> reader : readers) {
+                reader.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        double total = 0;
+        for (ImmutableBook book : catalog.snapshot()) {
+            assertEquals(titleOf(book.getPrice()), book.getTitle());
+            total += book.getPrice();
+        }
+        assertEquals(books + writers * increments, total);
+    }
+
+    private static String titleOf(double price) {
+        StringBuilder title = new StringBuilder("Price ");
+        for (long number = (long) price; number > 0; number /= 26) {
+            title.append((char) ('a' + number % 26));
+        }
+        return title.toString();
+    }
+}
@@ -0,0 +1,142 @@
+package edu.uoc.pac2;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FacetIndexTest {
+
+    private static final String[] GENRES = {"Fiction", "Fantasy", "Drama"};
+    private static final String[] LANGUAGES = {"English", "Spanish", "French", null};
+    private static final String[] PUBLISHERS = {"Sample Publisher", "Other Publisher"};
+
+    private static BookCatalog randomCatalog(int books) {
+        Random random = new Random(42);
+        BookCatalog catalog = new BookCatalog();
+        for (int i = 0; i < books; i++) {
+            String genre = GENRES[random.nextInt(GENRES.length)];
+            String publisher = PUBLISHERS[random.nextInt(PUBLISHERS.length)];
+            LocalDate releaseDate = LocalDate.of(1900 + random.nextInt(120), 1 + random.nextInt(12),
+                    1 + random.nextInt(28));
+            String language = LANGUAGES[random.nextInt(LANGUAGES.length)];
+            catalog.add(new Book("Sample Book", "John Doe", genre, publisher, releaseDate, language, "1234567890",
+                    1 + random.nextInt(1000) / 10.0));
+        }
+        return catalog;
+    }
+
+    /**
+     * Checks a table against the aggregates computed book by book.
+     */
+    private static void assertMatchesCatalog(BookCatalog catalog, FacetTable table) {
+        int total = 0;
+        for (int cell = 0; cell < table.size(); cell++) {
+            int genre = table.getValue(cell, Facet.GENRE);
+            int language = table.getValue(cell, Facet.LANGUAGE);
+            int publisher = table.getValue(cell, Facet.PUBLISHER);
+            int count = 0;
+            int classics = 0;
+            double sum = 0;
+            double min = Double.POSITIVE_INFINITY;
+            double max = Double.NEGATIVE_INFINITY;
+            for (int id = 0; id < catalog.size(); id++) {
+                if (Facet.GENRE.valueOf(catalog, id) == genre && Facet.LANGUAGE.valueOf(catalog, id) == language
+                        && Facet.PUBLISHER.valueOf(catalog, id) == publisher) {
+                    double price = catalog.getPrice(id);
+                    count++;
+                    sum += price;
+                    min = Math.min(min, price);
+                    max = Math.max(max, price);
+                    if (catalog.get(id).isClassic()) {
+                        classics++;
+                    }
+                }
+            }
+            assertEquals(count, table.getCount(cell));
+            assertEquals(sum / count, table.getAveragePrice(cell), 1e-9);
+            assertEquals(min, table.getMinPrice(cell));
+            assertEquals(max, table.getMaxPrice(cell));
+            assertEquals(classics, table.getClassics(cell));
+            total += count;
+        }
+        assertEquals(catalog.size(), total);
+    }
+
+    @AfterEach
+    public void restoreClock() {
+        CatalogClock.setCurrent(new CatalogClock(Clock.systemDefaultZone()));
+    }
+
+    @Test
+    public void testGenreAndLanguage() throws Exception {
+        CatalogClock.setCurrent(CatalogClock.fixed(LocalDate.of(2000, 1, 1)));
+        BookCatalog catalog = new BookCatalog();
+        catalog.add(new Book("Sample Book", "John Doe", "Fiction", "Sample Publisher",
+                LocalDate.of(1940, 1, 1), "English", "1234567890", 10.0));
+        catalog.add(new Book("Sample Book", "John Doe", "Fiction", "Sample Publisher",
+                LocalDate.of(1990, 1, 1), "English", "1234567890", 30.0));
+        catalog.add(new Book("Sample Book", "John Doe", "Fiction", "Sample Publisher",
+                null, "Spanish", "1234567890", 20.0));
+        catalog.add(new Book("Sample Book", "John Doe", null, "Sample Publisher",
+                LocalDate.of(1990, 1, 1), "Spanish", "1234567890", 5.0));
+        FacetIndex index = FacetIndex.of(catalog, (ForkJoinPool) null, Facet.GENRE, Facet.LANGUAGE);
+        FacetTable table = index.table();
+
+        assertEquals(3, table.size());
+        int fiction = catalog.getGenres().idOf("Fiction");
+        int cell = table.find(fiction, Language.fromName("English").id());
+        assertEquals(2, table.getCount(cell));
+        assertEquals(20, table.getAveragePrice(cell));
+        assertEquals(0.5, table.getClassicRatio(cell));
+        assertEquals("Fiction", Facet.GENRE.label(catalog, table.getValue(cell, Facet.GENRE)));
+        assertEquals("English", Facet.LANGUAGE.label(catalog, table.getValue(cell, Facet.LANGUAGE)));
+        assertNull(Facet.GENRE.label(catalog, Facet.MISSING));
+        assertEquals(1, table.getCount(table.find(Facet.MISSING, Language.fromName("Spanish").id())));
+        assertEquals(0, table.getClassics(table.find(fiction, Language.fromName("Spanish").id())));
+    }
+
+    @Test
+    public void testParallelMatchesCatalog() {
+        BookCatalog catalog = randomCatalog(50000);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            FacetTable table = FacetIndex.of(catalog, pool, Facet.GENRE, Facet.LANGUAGE, Facet.PUBLISHER).table();
+            assertEquals(GENRES.length * LANGUAGES.length * PUBLISHERS.length, table.size());
+            assertMatchesCatalog(catalog, table);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testFollowsCatalog() throws Exception {
+        CatalogClock.setCurrent(CatalogClock.fixed(LocalDate.of(2000, 1, 1)));
+        BookCatalog catalog = randomCatalog(2000);
+        FacetIndex index = FacetIndex.of(catalog, Facet.GENRE, Facet.LANGUAGE, Facet.PUBLISHER);
+
+        Random random = new Random(7);
+        for (int step = 0; step < 500; step++) {
+            if (step % 5 == 0) {
+                catalog.add(new Book("Sample Book", "John Doe", "Poetry", "Sample Publisher",
+                        LocalDate.of(1960, 6, 1), "Italian", "1234567890", 1 + random.nextInt(100)));
+            } else {
+                catalog.setPrice(random.nextInt(catalog.size()), 1 + random.nextInt(1000) / 10.0);
+            }
+        }
+        assertMatchesCatalog(catalog, index.table());
+
+        catalog.applyDiscount(10);
+        assertMatchesCatalog(catalog, index.table());
+
+        CatalogClock.setCurrent(CatalogClock.fixed(LocalDate.of(2015, 1, 1)));
+        catalog.add(new Book("Sample Book", "John Doe", "Poetry", "Sample Publisher",
+                LocalDate.of(1964, 6, 1), "Italian", "1234567890", 3.0));
+        assertMatchesCatalog(catalog, index.table());
+    }
+}
@@ -0,0 +1,99 @@
+package edu.uoc.pac2;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FacetTableTest {
+
+    private static long key(int genre, int language) {
+        return FacetTable.pack(FacetTable.pack(0, 0, genre), 1, language);
+    }
+
+    @Test
+    public void testAdd() {
+        FacetTable table = new FacetTable(new Facet[]{Facet.GENRE, Facet.LANGUAGE});
+        table.add(key(0, 1), 10, true);
+        table.add(key(0, 1), 30, false);
+        table.add(key(1, Facet.MISSING), 5, false);
+
+        assertEquals(2, table.size());
+        int cell = table.find(0, 1);
+        assertEquals(0, table.getValue(cell, Facet.GENRE));
+        assertEquals(1, table.getValue(cell, Facet.LANGUAGE));
+        assertEquals(2, table.getCount(cell));
+        assertEquals(10, table.getMinPrice(cell));
+        assertEquals(30, table.getMaxPrice(cell));
+        assertEquals(20, table.getAveragePrice(cell));
+        assertEquals(1, table.getClassics(cell));
+        assertEquals(0.5, table.getClassicRatio(cell));
+
+        int missing = table.find(1, Facet.MISSING);
+        assertEquals(Facet.MISSING, table.getValue(missing, Facet.LANGUAGE));
+        assertEquals(1, table.getCount(missing));
+
+        assertEquals(FacetTable.NOT_FOUND, table.find(1, 1));
+        assertEquals(FacetTable.NOT_FOUND, table.find(-5, 1));
+        assertThrows(IllegalArgumentException.class, () -> table.find(1));
+        assertThrows(IllegalArgumentException.class, () -> table.getValue(cell, Facet.PUBLISHER));
+        assertThrows(IndexOutOfBoundsException.class, () -> table.getCount(2));
+        assertThrows(IllegalStateException.class, () -> FacetTable.pack(0, 0, FacetTable.MAX_VALUE + 1));
+    }
+
+    @Test
+    public void testManyCells() {
+        FacetTable table = new FacetTable(new Facet[]{Facet.PUBLISHER});
+        for (int i = 0; i < 10000; i++) {
+            table.add(FacetTable.pack(0, 0, i % 1000), i, false);
+        }
+        assertEquals(1000, table.size());
+        for (int publisher = 0; publisher < 1000; publisher++) {
+            int cell = table.find(publisher);
+            assertEquals(publisher, table.getValue(cell, Facet.PUBLISHER));
+            assertEquals(10, table.getCount(cell));
+            assertEquals(publisher, table.getMinPrice(cell));
+            assertEquals(publisher + 9000, table.getMaxPrice(cell));
+        }
+    }
+
+    @Test
+    public void testMerge() {
+        Facet[] facets = {Facet.GENRE, Facet.LANGUAGE};
+        FacetTable first = new FacetTable(facets);
+        first.add(key(0, 0), 10, true);
+        first.add(key(1, 0), 20, false);
+        FacetTable second = new FacetTable(facets);
+        second.add(key(0, 0), 5, false);
+        second.add(key(2, 0), 7, true);
+
+        assertSame(first, first.merge(second));
+        assertEquals(3, first.size());
+        int cell = first.find(0, 0);
+        assertEquals(2, first.getCount(cell));
+        assertEquals(5, first.getMinPrice(cell));
+        assertEquals(10, first.getMaxPrice(cell));
+        assertEquals(1, first.getClassics(cell));
+        assertEquals(7, first.getMinPrice(first.find(2, 0)));
+
+        assertThrows(IllegalArgumentException.class, () -> first.merge(new FacetTable(new Facet[]{Facet.GENRE})));
+        assertThrows(IllegalArgumentException.class,
+                () -> new FacetTable(new Facet[]{Facet.GENRE, Facet.LANGUAGE, Facet.PUBLISHER, Facet.GENRE}));
+    }
+
+    @Test
+    public void testReprice() {
+        FacetTable table = new FacetTable(new Facet[]{Facet.GENRE});
+        long key = FacetTable.pack(0, 0, 0);
+        table.add(key, 10, false);
+        table.add(key, 20, false);
+        int cell = table.find(0);
+
+        table.reprice(key, 20, 25);
+        assertFalse(table.hasStaleBounds(cell));
+        assertEquals(25, table.getMaxPrice(cell));
+        assertEquals(17.5, table.getAveragePrice(cell));
+
+        table.reprice(key, 10, 12);
+        assertTrue(table.hasStaleBounds(cell));
+    }
+}
@@ -0,0 +1,69 @@
+package edu.uoc.pac2;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FieldValidatorTest {
+
+    @Test
+    public void testIsValidTitle() {
+        assertTrue(FieldValidator.isValidTitle("Peter Pan"));
+        assertTrue(FieldValidator.isValidTitle("El Qui-jote"));
+        assertTrue(FieldValidator.isValidTitle("      "));
+        assertTrue(FieldValidator.isValidTitle("Tab\tand\nnew line"));
+
+        assertFalse(FieldValidator.isValidTitle(null));
+        assertFalse(FieldValidator.isValidTitle(""));
+        assertFalse(FieldValidator.isValidTitle("56754"));
+        assertFalse(FieldValidator.isValidTitle("El Qui, jote"));
+        assertFalse(FieldValidator.isValidTitle("El Quijote*"));
+        assertFalse(FieldValidator.isValidTitle("Canción"));
+    }
+
+    @Test
+    public void testIsValidPublisher() {
+        assertTrue(FieldValidator.isValidPublisher("Carl3s, () .3..A"));
+        assertTrue(FieldValidator.isValidPublisher("  "));
+
+        assertFalse(FieldValidator.isValidPublisher(null));
+        assertFalse(FieldValidator.isValidPublisher(""));
+        assertFalse(FieldValidator.isValidPublisher("  ?     "));
+        assertFalse(FieldValidator.isValidPublisher("\"sa\""));
+        assertFalse(FieldValidator.isValidPublisher("Tab\tPress"));
+        assertFalse(FieldValidator.isValidPublisher("Edició"));
+    }
+
+    @Test
+    public void testIsBlank() {
+        assertTrue(FieldValidator.isBlank(null));
+        assertTrue(FieldValidator.isBlank(""));
+        assertTrue(FieldValidator.isBlank(" \t\n "));
+
+        assertFalse(FieldValidator.isBlank(" a "));
+    }
+
+    @Test
+    public void testIsbn() {
+        assertTrue(FieldValidator.isValidIsbn("1234567890"));
+        assertTrue(FieldValidator.isValidIsbn("978-1234567891"));
+
+        assertFalse(FieldValidator.isValidIsbn(null));
+        assertFalse(FieldValidator.isValidIsbn("12345-678905"));
+        assertFalse(FieldValidator.isValidIsbn("12345678900000000"));
+
+        String digits = "1234567890";
+        assertSame(digits, FieldValidator.normalizeIsbn(digits));
+        assertEquals("9781234567891", FieldValidator.normalizeIsbn("978-1234567891"));
+    }
+
+    @Test
+    public void testIsValidLanguage() {
+        assertTrue(FieldValidator.isValidLanguage("English"));
+        assertTrue(FieldValidator.isValidLanguage("Italian"));
+
+        assertFalse(FieldValidator.isValidLanguage(null));
+        assertFalse(FieldValidator.isValidLanguage("english"));
+        assertFalse(FieldValidator.isValidLanguage("Swedish"));
+    }
+}
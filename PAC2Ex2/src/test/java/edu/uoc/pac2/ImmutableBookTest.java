@@ -0,0 +1,118 @@
+package edu.uoc.pac2;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ImmutableBookTest {
+
+    private static ImmutableBook.Builder sample(StringPool pool) {
+        return ImmutableBook.builder(pool).title("Sample Book").author("John Doe").genre("Fiction")
+                .publisher("Sample Publisher").releaseDate(LocalDate.of(2020, 1, 1)).language("English")
+                .isbn("978-3-16-148410-0").price(29.99);
+    }
+
+    @AfterEach
+    public void restoreClock() {
+        CatalogClock.setCurrent(new CatalogClock(Clock.systemDefaultZone()));
+    }
+
+    @Test
+    public void testBuild() throws Exception {
+        ImmutableBook book = sample(new StringPool()).build();
+
+        assertEquals("Sample Book", book.getTitle());
+        assertEquals("John Doe", book.getAuthor());
+        assertEquals("Fiction", book.getGenre());
+        assertEquals("Sample Publisher", book.getPublisher());
+        assertEquals(LocalDate.of(2020, 1, 1), book.getReleaseDate());
+        assertEquals("English", book.getLanguage());
+        assertEquals("9783161484100", book.getIsbn());
+        assertEquals(29.99, book.getPrice());
+    }
+
+    @Test
+    public void testBuildInvalid() {
+        Exception exception = assertThrows(Exception.class,
+                () -> sample(new StringPool()).title("Bad: title").language("Klingon").price(0).build());
+        assertEquals(BookValidator.describe(BookValidator.TITLE | BookValidator.LANGUAGE | BookValidator.PRICE),
+                exception.getMessage());
+
+        assertThrows(Exception.class, () -> ImmutableBook.builder().build());
+        assertThrows(Exception.class, () -> sample(new StringPool()).isbn("12345").build());
+        assertThrows(Exception.class,
+                () -> sample(new StringPool()).releaseDate(LocalDate.now().plusDays(1)).build());
+    }
+
+    @Test
+    public void testInterning() throws Exception {
+        StringPool pool = new StringPool();
+        ImmutableBook first = sample(pool).author(new String("John Doe")).build();
+        ImmutableBook second = sample(pool).title("Other Book").author(new String("John Doe")).build();
+
+        assertSame(first.getAuthor(), second.getAuthor());
+        assertSame(first.getGenre(), second.getGenre());
+        assertSame(first.getPublisher(), second.getPublisher());
+        assertEquals(3, pool.size());
+    }
+
+    @Test
+    public void testCopies() throws Exception {
+        Book book = new Book("Sample Book", "John Doe", "Fiction", "Sample Publisher",
+                LocalDate.of(2020, 1, 1), "English", "1234567890", 29.99);
+        ImmutableBook immutable = ImmutableBook.of(book);
+        Book copy = immutable.toBook();
+
+        assertEquals(book.getTitle(), copy.getTitle());
+        assertEquals(book.getIsbn(), copy.getIsbn());
+        assertEquals(book.getLanguage(), copy.getLanguage());
+        assertEquals(immutable, ImmutableBook.of(copy));
+        assertEquals(immutable.hashCode(), ImmutableBook.of(copy).hashCode());
+        assertEquals(immutable, immutable.toBuilder().build());
+
+        book.setTitle("Changed");
+        assertEquals("Sample Book", immutable.getTitle());
+
+        Book invalid = new Book("Sample Book", "John Doe", "Fiction", "Sample Publisher",
+                LocalDate.of(2020, 1, 1), "Klingon", "1234567890", 29.99);
+        assertThrows(Exception.class, () -> ImmutableBook.of(invalid));
+    }
+
+    @Test
+    public void testWithPrice() throws Exception {
+        ImmutableBook book = sample(new StringPool()).build();
+        ImmutableBook cheaper = book.withPrice(9.99);
+
+        assertEquals(29.99, book.getPrice());
+        assertEquals(9.99, cheaper.getPrice());
+        assertSame(book.getAuthor(), cheaper.getAuthor());
+        assertSame(book, book.withPrice(29.99));
+        assertNotEquals(book, cheaper);
+
+        Exception exception = assertThrows(Exception.class, () -> book.withPrice(-1));
+        assertEquals(BookValidator.message(BookValidator.PRICE), exception.getMessage());
+    }
+
+    @Test
+    public void testPredicates() throws Exception {
+        CatalogClock.setCurrent(CatalogClock.fixed(LocalDate.of(2000, 1, 1)));
+        ImmutableBook book = sample(new StringPool()).releaseDate(LocalDate.of(1949, 12, 31)).build();
+        ImmutableBook cheaper = book.withPrice(9.99);
+
+        assertTrue(book.isClassic());
+        assertFalse(book.toBuilder().releaseDate(LocalDate.of(1950, 1, 1)).build().isClassic());
+        assertTrue(cheaper.isCheaperThan(book));
+        assertFalse(book.isCheaperThan(cheaper));
+        assertFalse(book.isCheaperThan(null));
+        assertTrue(book.isWrittenBy("john doe"));
+        assertFalse(book.isWrittenBy("Jane Doe"));
+        assertEquals(14.995, book.applyDiscount(50), 1e-9);
+        Exception exception = assertThrows(IllegalArgumentException.class, () -> book.applyDiscount(101));
+        assertEquals("[ERROR] Invalid discount percentage.", exception.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> book.applyDiscount(Double.NaN));
+    }
+}
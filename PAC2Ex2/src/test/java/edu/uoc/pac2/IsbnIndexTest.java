@@ -0,0 +1,104 @@
+package edu.uoc.pac2;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IsbnIndexTest {
+
+    @Test
+    public void testPutAndGet() {
+        IsbnIndex index = new IsbnIndex();
+
+        assertEquals(IsbnIndex.NOT_FOUND, index.put("0-306-40615-2", 7));
+        assertEquals(7, index.get("978-0-306-40615-7"));
+        assertEquals(7, index.get(9780306406157L));
+        assertTrue(index.contains(9780306406157L));
+
+        assertEquals(7, index.put("9780306406157", 8));
+        assertEquals(8, index.get("0306406152"));
+        assertEquals(1, index.size());
+
+        assertEquals(IsbnIndex.NOT_FOUND, index.get("1234567890"));
+        assertEquals(IsbnIndex.NOT_FOUND, index.get("123"));
+        assertEquals(IsbnIndex.NOT_FOUND, index.get(Isbn.INVALID));
+
+        assertThrows(IllegalArgumentException.class, () -> index.put("123", 1));
+        assertThrows(IllegalArgumentException.class, () -> index.put(Isbn.INVALID, 1));
+        assertThrows(IllegalArgumentException.class, () -> index.put("1234567890", -1));
+    }
+
+    @Test
+    public void testGrow() {
+        IsbnIndex index = new IsbnIndex(1);
+        for (int i = 0; i < 100_000; i++) {
+            index.put(Isbn.toIsbn13(i), i);
+        }
+        assertEquals(100_000, index.size());
+        for (int i = 0; i < 100_000; i++) {
+            assertEquals(i, index.get(Isbn.toIsbn13(i)));
+        }
+        assertEquals(IsbnIndex.NOT_FOUND, index.get(Isbn.toIsbn13(100_000)));
+    }
+
+    @Test
+    public void testBulkBuild() {
+        List<Book> books = new ArrayList<>();
+        books.add(new Book("Sample Book", "John Doe", "Fiction", "Sample Publisher",
+                LocalDate.of(1983, 9, 12), "English", "1234567890", 29.99));
+        books.add(new Book("New Book", "Jane Smith", "Fiction", "Sample Publisher",
+                LocalDate.of(1983, 9, 12), "English", "bad", 29.99));
+        books.add(new Book("Other Book", "Jane Smith", "Fiction", "Sample Publisher",
+                LocalDate.of(1983, 9, 12), "English", "978-0-306-40615-7", 29.99));
+
+        IsbnIndex fromList = IsbnIndex.of(books);
+        assertEquals(2, fromList.size());
+        assertEquals(0, fromList.get("1234567890"));
+        assertEquals(2, fromList.get("0-306-40615-2"));
+
+        IsbnIndex fromCatalog = IsbnIndex.of(BookCatalog.of(books));
+        assertEquals(2, fromCatalog.size());
+        assertEquals(2, fromCatalog.get("9780306406157"));
+    }
+
+    @Test
+    public void testConcurrentReads() throws InterruptedException {
+        IsbnIndex index = new IsbnIndex(1);
+        int books = 200_000;
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicInteger errors = new AtomicInteger();
+
+        List<Thread> readers = new ArrayList<>();
+        for (int r = 0; r < 4; r++) {
+            Thread reader = new Thread(() -> {
+                while (!done.get()) {
+                    for (int i = 0; i < books; i += 97) {
+                        int id = index.get(Isbn.toIsbn13(i));
+                        // a key is either not there yet or mapped to its own id
+                        if (id != IsbnIndex.NOT_FOUND && id != i) {
+                            errors.incrementAndGet();
+                        }
+                    }
+                }
+            });
+            reader.start();
+            readers.add(reader);
+        }
+        for (int i = 0; i < books; i++) {
+            index.put(Isbn.toIsbn13(i), i);
+        }
+        done.set(true);
+        for (Thread reader : readers) {
+            reader.join();
+        }
+
+        assertEquals(0, errors.get());
+        assertEquals(books, index.size());
+    }
+}
@@ -0,0 +1,64 @@
+package edu.uoc.pac2;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IsbnTest {
+
+    @Test
+    public void testParseIsbn13() {
+        assertEquals(9780306406157L, Isbn.parse("978-0-306-40615-7"));
+        assertEquals(9780306406157L, Isbn.parse("978 0306406157"));
+        assertEquals(9780306406157L, Isbn.parse(new StringBuilder("9780306406157")));
+
+        assertEquals(Isbn.INVALID, Isbn.parse("978-0-306-40615-8"));
+        assertEquals(Isbn.INVALID, Isbn.parse("978-0-306-40615-7-1"));
+        assertEquals(Isbn.INVALID, Isbn.parse("978/0306406157"));
+        assertEquals(Isbn.INVALID, Isbn.parse(""));
+        assertEquals(Isbn.INVALID, Isbn.parse(null));
+    }
+
+    @Test
+    public void testParseIsbn10() {
+        assertEquals(9780306406157L, Isbn.parse("0-306-40615-2"));
+        assertEquals(9780804429573L, Isbn.parse("080442957X"));
+        assertEquals(9780804429573L, Isbn.parse("0-8044-2957-x"));
+
+        assertEquals(Isbn.INVALID, Isbn.parse("0-306-40615-3"));
+        assertEquals(Isbn.INVALID, Isbn.parse("1234567890"));
+        assertEquals(Isbn.INVALID, Isbn.parse("08044X2957"));
+        assertEquals(Isbn.INVALID, Isbn.parse("080442957X1"));
+    }
+
+    @Test
+    public void testKey() {
+        // same canonical value for both forms of the same book
+        assertEquals(Isbn.key("0-306-40615-2"), Isbn.key("9780306406157"));
+        assertEquals(9780804429573L, Isbn.key("080442957X"));
+
+        // digits accepted by Book.setIsbn but with a wrong check digit keep their digits
+        assertEquals("1234567890", Isbn.toString(Isbn.key("1234567890")));
+        assertEquals("1234567890234", Isbn.toString(Isbn.key("1234567890234")));
+        assertEquals("0000000001", Isbn.toString(Isbn.key("000-000-0001")));
+        assertNotEquals(Isbn.key("0000000001"), Isbn.key("0000000000001"));
+
+        assertEquals(Isbn.INVALID, Isbn.key("12345-678905"));
+        assertEquals(Isbn.INVALID, Isbn.key("12345678900000000"));
+        assertEquals(Isbn.INVALID, Isbn.key(null));
+    }
+
+    @Test
+    public void testConversions() {
+        assertTrue(Isbn.isValid("978-0-306-40615-7"));
+        assertFalse(Isbn.isValid("1234567890"));
+        assertTrue(Isbn.isValidIsbn13(9780306406157L));
+        assertFalse(Isbn.isValidIsbn13(9780306406158L));
+        assertFalse(Isbn.isValidIsbn13(-1));
+
+        assertEquals(9780306406157L, Isbn.toIsbn13(30640615L));
+        assertEquals("9780306406157", Isbn.toString(9780306406157L));
+        assertEquals("0000000000017", Isbn.toString(17));
+        assertNull(Isbn.toString(Isbn.INVALID));
+    }
+}
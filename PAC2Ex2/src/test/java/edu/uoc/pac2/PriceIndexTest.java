@@ -0,0 +1,130 @@
+package edu.uoc.pac2;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PriceIndexTest {
+
+    /**
+     * Sorts the ids of a catalog by price and id, the order the index must keep.
+     */
+    private static int[] sortedByPrice(BookCatalog catalog, int[] ids) {
+        return Arrays.stream(ids).boxed()
+                .sorted((a, b) -> a.equals(b) ? 0 : catalog.getPrice(a) != catalog.getPrice(b)
+                        ? Double.compare(catalog.getPrice(a), catalog.getPrice(b)) : Integer.compare(a, b))
+                .mapToInt(Integer::intValue).toArray();
+    }
+
+    @Test
+    public void testQueries() throws Exception {
+        BookCatalog catalog = BookCatalog.of(List.of(
+                new Book("Sample Book", "John Doe", "Fiction", "Sample Publisher",
+                        LocalDate.of(2000, 1, 1), "English", "1234567890", 20.0),
+                new Book("Sample Book", "John Doe", "Fantasy", "Sample Publisher",
+                        LocalDate.of(2000, 1, 1), "English", "1234567890", 35.5),
+                new Book("Sample Book", "John Doe", "Fiction", "Sample Publisher",
+                        LocalDate.of(2000, 1, 1), "English", "1234567890", 10.0),
+                new Book("Sample Book", "John Doe", "Fantasy", "Sample Publisher",
+                        LocalDate.of(2000, 1, 1), "English", "1234567890", 20.0),
+                new Book("Sample Book", "John Doe", "Fiction", "Sample Publisher",
+                        LocalDate.of(2000, 1, 1), "English", "1234567890", 5.0)));
+        PriceIndex index = PriceIndex.of(catalog);
+
+        assertEquals(5, index.size());
+        assertArrayEquals(new int[]{2, 0, 3}, index.range(10, 20));
+        assertArrayEquals(new int[]{}, index.range(21, 30));
+        assertArrayEquals(new int[]{}, index.range(20, 10));
+        assertEquals(3, index.count(10, 20));
+        assertEquals(0, index.count(20, 10));
+        assertArrayEquals(new int[]{4, 2}, index.cheaperThan(20));
+        assertArrayEquals(new int[]{4, 2}, index.cheapest(2));
+        assertArrayEquals(new int[]{4, 2, 0, 3, 1}, index.cheapest(10));
+        assertArrayEquals(new int[]{}, index.cheapest(-1));
+        assertArrayEquals(new int[]{3, 1}, index.cheapestInGenre(5, "Fantasy"));
+        assertArrayEquals(new int[]{4}, index.cheapestInGenre(1, "Fiction"));
+        assertArrayEquals(new int[]{}, index.cheapestInGenre(1, "Drama"));
+        assertArrayEquals(new int[]{}, index.cheapestInGenre(1, null));
+    }
+
+    @Test
+    public void testFollowsCatalog() throws Exception {
+        BookCatalog catalog = new BookCatalog();
+        PriceIndex index = PriceIndex.of(catalog);
+        assertArrayEquals(new int[]{}, index.cheapest(3));
+
+        catalog.add(new Book("Sample Book", "John Doe", "Fiction", "Sample Publisher",
+                LocalDate.of(2000, 1, 1), "English", "1234567890", 20.0));
+        catalog.add(new Book("Sample Book", "John Doe", "Fiction", "Sample Publisher",
+                LocalDate.of(2000, 1, 1), "English", "1234567890", 10.0));
+        catalog.setPrice(0, 5);
+        assertArrayEquals(new int[]{0, 1}, index.cheapest(2));
+
+        catalog.applyDiscount(50);
+        assertArrayEquals(new int[]{0}, index.range(2.5, 2.5));
+        assertArrayEquals(new int[]{1}, index.range(5, 5));
+
+        catalog.add(new Book("Sample Book", "John Doe", "Poetry", "Sample Publisher",
+                LocalDate.of(2000, 1, 1), "English", "1234567890", 1.0));
+        catalog.add(new Book("Sample Book", "John Doe", null, "Sample Publisher",
+                LocalDate.of(2000, 1, 1), "English", "1234567890", 1.0));
+        assertArrayEquals(new int[]{2}, index.cheapestInGenre(5, "Poetry"));
+        assertArrayEquals(new int[]{0, 1}, index.cheapestInGenre(5, "Fiction"));
+        catalog.setPrice(2, 50);
+        assertArrayEquals(new int[]{2}, index.cheapestInGenre(5, "Poetry"));
+        assertArrayEquals(new int[]{3, 0, 1, 2}, index.cheapest(5));
+        catalog.setPrice(2, 1);
+
+        catalog.removeListener(index);
+        catalog.setPrice(0, 100);
+        assertArrayEquals(new int[]{0}, index.range(2.5, 2.5));
+    }
+
+    @Test
+    public void testRandomUpdates() throws Exception {
+        Random random = new Random(42);
+        String[] genres = {"Fiction", "Fantasy", "Drama"};
+        BookCatalog catalog = new BookCatalog();
+        for (int i = 0; i < 1000; i++) {
+            String genre = genres[random.nextInt(genres.length)];
+            catalog.add(new Book("Sample Book", "John Doe", genre, "Sample Publisher",
+                    LocalDate.of(2000, 1, 1), "English", "1234567890", 1 + random.nextInt(100)));
+        }
+        PriceIndex index = PriceIndex.of(catalog);
+        for (int step = 0; step < 5000; step++) {
+            if (random.nextInt(4) == 0) {
+                String genre = genres[random.nextInt(genres.length)];
+                catalog.add(new Book("Sample Book", "John Doe", genre, "Sample Publisher",
+                        LocalDate.of(2000, 1, 1), "English", "1234567890", 1 + random.nextInt(100)));
+            } else {
+                catalog.setPrice(random.nextInt(catalog.size()), 1 + random.nextInt(10) * (step % 3 == 0 ? 1 : 10));
+            }
+            if (step % 250 == 0) {
+                double min = 1 + random.nextInt(100);
+                assertEquals(catalog.filterByPrice(min, min + 20).length, index.count(min, min + 20));
+            }
+        }
+        assertEquals(catalog.size(), index.size());
+
+        int[] all = new int[catalog.size()];
+        Arrays.setAll(all, id -> id);
+        assertArrayEquals(sortedByPrice(catalog, all), index.cheapest(catalog.size()));
+        for (int test = 0; test < 50; test++) {
+            double min = 1 + random.nextInt(100);
+            double max = min + random.nextInt(30);
+            int[] expected = sortedByPrice(catalog, catalog.filterByPrice(min, max));
+            assertArrayEquals(expected, index.range(min, max));
+            assertEquals(expected.length, index.count(min, max));
+        }
+        for (String genre : genres) {
+            int[] expected = sortedByPrice(catalog, catalog.filterByGenre(genre));
+            assertArrayEquals(Arrays.copyOf(expected, 10), index.cheapestInGenre(10, genre));
+            assertArrayEquals(expected, index.cheapestInGenre(Integer.MAX_VALUE, genre));
+        }
+    }
+}
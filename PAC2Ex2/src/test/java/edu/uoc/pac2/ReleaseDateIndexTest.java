@@ -0,0 +1,111 @@
+package edu.uoc.pac2;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReleaseDateIndexTest {
+
+    private static int[] sorted(int[] ids) {
+        int[] copy = ids.clone();
+        Arrays.sort(copy);
+        return copy;
+    }
+
+    @AfterEach
+    public void restoreClock() {
+        CatalogClock.setCurrent(new CatalogClock(Clock.systemDefaultZone()));
+    }
+
+    @Test
+    public void testRanges() {
+        BookCatalog catalog = new BookCatalog();
+        catalog.add(new Book("Sample Book", "John Doe", "Fiction", "Sample Publisher",
+                LocalDate.of(1995, 6, 1), "English", "1234567890", 10.0));
+        catalog.add(new Book("Sample Book", "John Doe", "Fiction", "Sample Publisher",
+                LocalDate.of(1989, 12, 31), "English", "1234567890", 10.0));
+        catalog.add(new Book("Sample Book", "John Doe", "Fiction", "Sample Publisher",
+                LocalDate.of(1990, 1, 1), "English", "1234567890", 10.0));
+        catalog.add(new Book("Sample Book", "John Doe", "Fiction", "Sample Publisher",
+                null, "English", "1234567890", 10.0));
+        catalog.add(new Book("Sample Book", "John Doe", "Fiction", "Sample Publisher",
+                LocalDate.of(1999, 12, 31), "English", "1234567890", 10.0));
+        catalog.add(new Book("Sample Book", "John Doe", "Fiction", "Sample Publisher",
+                LocalDate.of(2000, 1, 1), "English", "1234567890", 10.0));
+        ReleaseDateIndex index = ReleaseDateIndex.of(catalog);
+
+        assertEquals(5, index.size());
+        assertArrayEquals(new int[]{2, 0, 4}, index.releasedBetween(LocalDate.of(1990, 1, 1), LocalDate.of(1999, 12, 31)));
+        assertEquals(3, index.countReleasedBetween(LocalDate.of(1990, 1, 1), LocalDate.of(1999, 12, 31)));
+        assertArrayEquals(new int[]{0}, index.releasedBetween(LocalDate.of(1995, 6, 1), LocalDate.of(1995, 6, 1)));
+        assertArrayEquals(new int[]{}, index.releasedBetween(LocalDate.of(1995, 6, 2), LocalDate.of(1995, 6, 1)));
+        assertArrayEquals(new int[]{}, index.releasedBetween(LocalDate.of(1800, 1, 1), LocalDate.of(1900, 1, 1)));
+        assertArrayEquals(new int[]{}, index.releasedBetween(LocalDate.of(2100, 1, 1), LocalDate.of(2200, 1, 1)));
+        assertArrayEquals(new int[]{1, 2, 0, 4, 5}, index.releasedBetween(LocalDate.MIN, LocalDate.MAX));
+        assertArrayEquals(new int[]{2}, index.releasedIn(1990));
+        assertArrayEquals(new int[]{}, index.releasedIn(1991));
+        assertArrayEquals(new int[]{}, index.releasedIn(1800));
+
+        catalog.add(new Book("Sample Book", "John Doe", "Fiction", "Sample Publisher",
+                LocalDate.of(1950, 3, 3), "English", "1234567890", 10.0));
+        catalog.add(new Book("Sample Book", "John Doe", "Fiction", "Sample Publisher",
+                LocalDate.of(2020, 3, 3), "English", "1234567890", 10.0));
+        assertArrayEquals(new int[]{6}, index.releasedIn(1950));
+        assertArrayEquals(new int[]{7}, index.releasedIn(2020));
+        assertArrayEquals(new int[]{6, 1}, index.releasedBetween(LocalDate.of(1900, 1, 1), LocalDate.of(1989, 12, 31)));
+    }
+
+    @Test
+    public void testClassicBoundaryMoves() {
+        BookCatalog catalog = new BookCatalog();
+        catalog.add(new Book("Sample Book", "John Doe", "Fiction", "Sample Publisher",
+                LocalDate.of(1949, 12, 31), "English", "1234567890", 10.0));
+        catalog.add(new Book("Sample Book", "John Doe", "Fiction", "Sample Publisher",
+                LocalDate.of(1950, 1, 1), "English", "1234567890", 10.0));
+        catalog.add(new Book("Sample Book", "John Doe", "Fiction", "Sample Publisher",
+                LocalDate.of(1950, 1, 2), "English", "1234567890", 10.0));
+        catalog.add(new Book("Sample Book", "John Doe", "Fiction", "Sample Publisher",
+                null, "English", "1234567890", 10.0));
+        ReleaseDateIndex index = ReleaseDateIndex.of(catalog);
+
+        CatalogClock.setCurrent(CatalogClock.fixed(LocalDate.of(2000, 1, 1)));
+        assertArrayEquals(new int[]{0}, index.classics());
+        assertArrayEquals(new int[]{1, 2}, index.nonClassics());
+        assertEquals(1, index.countClassics());
+
+        CatalogClock.setCurrent(CatalogClock.fixed(LocalDate.of(2000, 1, 2)));
+        assertArrayEquals(new int[]{0, 1}, index.classics());
+        assertArrayEquals(new int[]{2}, index.nonClassics());
+
+        CatalogClock.setCurrent(CatalogClock.fixed(LocalDate.of(2000, 1, 3)));
+        assertEquals(3, index.countClassics());
+        assertArrayEquals(new int[]{}, index.nonClassics());
+    }
+
+    @Test
+    public void testMatchesScan() {
+        Random random = new Random(42);
+        BookCatalog catalog = new BookCatalog();
+        ReleaseDateIndex index = ReleaseDateIndex.of(catalog);
+        for (int i = 0; i < 2000; i++) {
+            LocalDate releaseDate = random.nextInt(20) == 0 ? null : LocalDate.ofEpochDay(random.nextInt(40000) - 20000);
+            catalog.add(new Book("Sample Book", "John Doe", "Fiction", "Sample Publisher",
+                    releaseDate, "English", "1234567890", 10.0));
+        }
+        CatalogClock.setCurrent(CatalogClock.fixed(LocalDate.of(2010, 7, 15)));
+        assertArrayEquals(BookQuery.on(catalog).classics().sequential().ids(), sorted(index.classics()));
+        for (int test = 0; test < 50; test++) {
+            LocalDate from = LocalDate.ofEpochDay(random.nextInt(40000) - 20000);
+            LocalDate to = from.plusDays(random.nextInt(5000));
+            int[] expected = catalog.filterByReleaseDate(from, to);
+            assertArrayEquals(expected, sorted(index.releasedBetween(from, to)));
+            assertEquals(expected.length, index.countReleasedBetween(from, to));
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package edu.uoc.pac2;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StringDictionaryTest {
+
+    @Test
+    public void testAdd() {
+        StringDictionary dictionary = new StringDictionary(2);
+
+        assertEquals(0, dictionary.add("Fiction"));
+        assertEquals(1, dictionary.add("Fantasy"));
+        assertEquals(0, dictionary.add(new String("Fiction")));
+        assertEquals(StringDictionary.NO_ID, dictionary.add(null));
+        assertEquals(2, dictionary.size());
+
+        assertEquals("Fantasy", dictionary.get(1));
+        assertNull(dictionary.get(StringDictionary.NO_ID));
+        assertThrows(IndexOutOfBoundsException.class, () -> dictionary.get(2));
+    }
+
+    @Test
+    public void testIdOf() {
+        StringDictionary dictionary = new StringDictionary();
+        dictionary.add("Fiction");
+
+        assertEquals(0, dictionary.idOf("Fiction"));
+        assertEquals(StringDictionary.NO_ID, dictionary.idOf("fiction"));
+        assertEquals(StringDictionary.NO_ID, dictionary.idOf(null));
+        assertEquals(1, dictionary.size());
+    }
+
+    @Test
+    public void testGrow() {
+        StringDictionary dictionary = new StringDictionary(1);
+        for (int i = 0; i < 10_000; i++) {
+            assertEquals(i, dictionary.add("Author " + i));
+        }
+        for (int i = 0; i < 10_000; i++) {
+            assertEquals(i, dictionary.idOf("Author " + i));
+            assertEquals("Author " + i, dictionary.get(i));
+        }
+        assertEquals(10_000, dictionary.size());
+    }
+}
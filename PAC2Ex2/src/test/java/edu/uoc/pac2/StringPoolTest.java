@@ -0,0 +1,56 @@
+package edu.uoc.pac2;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StringPoolTest {
+
+    @Test
+    public void testIntern() {
+        StringPool pool = new StringPool();
+        String first = new String("Fiction");
+        String second = new String("Fiction");
+
+        assertSame(first, pool.intern(first));
+        assertSame(first, pool.intern(second));
+        assertEquals("Drama", pool.intern("Drama"));
+        assertNull(pool.intern(null));
+        assertEquals(2, pool.size());
+        assertSame(StringPool.shared(), StringPool.shared());
+    }
+
+    @Test
+    public void testConcurrentIntern() throws Exception {
+        StringPool pool = new StringPool();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<String[]>> results = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                results.add(executor.submit(() -> {
+                    String[] canonical = new String[100];
+                    for (int i = 0; i < canonical.length; i++) {
+                        canonical[i] = pool.intern(new String("Author " + i));
+                    }
+                    return canonical;
+                }));
+            }
+            String[] expected = results.get(0).get();
+            for (Future<String[]> result : results) {
+                String[] canonical = result.get();
+                for (int i = 0; i < canonical.length; i++) {
+                    assertSame(expected[i], canonical[i]);
+                }
+            }
+            assertEquals(100, pool.size());
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package edu.uoc.pac2;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TitleIndexTest {
+
+    private static TitleIndex sampleIndex() {
+        return TitleIndex.of(List.of(
+                new Book("The Lord of the Rings", "John Doe", "Fiction", "Sample Publisher",
+                        LocalDate.of(2000, 1, 1), "English", "1234567890", 10.0),
+                new Book("The Hobbit", "John Doe", "Fiction", "Sample Publisher",
+                        LocalDate.of(2000, 1, 1), "English", "1234567890", 10.0),
+                new Book("Lord of the Flies", "John Doe", "Fiction", "Sample Publisher",
+                        LocalDate.of(2000, 1, 1), "English", "1234567890", 10.0),
+                new Book("Harry Potter and the Chamber of Secrets", "John Doe", "Fiction", "Sample Publisher",
+                        LocalDate.of(2000, 1, 1), "English", "1234567890", 10.0),
+                new Book("The Lost Symbol", "John Doe", "Fiction", "Sample Publisher",
+                        LocalDate.of(2000, 1, 1), "English", "1234567890", 10.0),
+                new Book("Ring World", "John Doe", "Fiction", "Sample Publisher",
+                        LocalDate.of(2000, 1, 1), "English", "1234567890", 10.0)));
+    }
+
+    @Test
+    public void testWords() {
+        TitleIndex index = sampleIndex();
+
+        assertEquals(6, index.size());
+        assertArrayEquals(new int[]{0, 2}, index.withWord("LORD"));
+        assertArrayEquals(new int[]{0, 1, 2, 3, 4}, index.withWord("the"));
+        assertArrayEquals(new int[]{}, index.withWord("Lords"));
+        assertArrayEquals(new int[]{}, index.withWord(null));
+    }
+
+    @Test
+    public void testPrefix() {
+        TitleIndex index = sampleIndex();
+
+        assertArrayEquals(new int[]{0, 2, 4}, index.withPrefix("Lo"));
+        assertArrayEquals(new int[]{0, 5}, index.withPrefix("ring"));
+        assertArrayEquals(new int[]{3}, index.withPrefix("Ch"));
+        assertArrayEquals(new int[]{}, index.withPrefix("x"));
+        assertArrayEquals(new int[]{}, index.withPrefix(""));
+
+        index.add(6, "Chronicles of Narnia");
+        assertArrayEquals(new int[]{3, 6}, index.withPrefix("ch"));
+        assertArrayEquals(new int[]{6}, index.withPrefix("narn"));
+    }
+
+    @Test
+    public void testSimilarTerms() {
+        TitleIndex index = sampleIndex();
+
+        assertEquals(List.of("hobbit"), Arrays.asList(index.similarTerms("hobit")));
+        assertEquals(List.of("hobbit"), Arrays.asList(index.similarTerms("hobbits")));
+        assertEquals(List.of("potter"), Arrays.asList(index.similarTerms("poter")));
+        assertEquals(List.of("secrets"), Arrays.asList(index.similarTerms("secrtes")));
+        assertEquals(List.of("symbol"), Arrays.asList(index.similarTerms("symbal")));
+        assertEquals(List.of(), Arrays.asList(index.similarTerms("hobbit")));
+        assertEquals(List.of(), Arrays.asList(index.similarTerms("hbbt")));
+
+        assertFalse(TitleIndex.isOneEdit("lord", "lost"));
+        assertTrue(TitleIndex.isOneEdit("ab", "ba"));
+        assertTrue(TitleIndex.isOneEdit("abc", "ac"));
+        assertFalse(TitleIndex.isOneEdit("abc", "abc"));
+        assertFalse(TitleIndex.isOneEdit("abc", "cab"));
+    }
+
+    @Test
+    public void testSearch() {
+        TitleIndex index = sampleIndex();
+
+        assertArrayEquals(new int[]{0, 2}, index.search("lord rings", 2));
+        assertEquals(0, index.search("lord of the rings", 6)[0]);
+        assertArrayEquals(new int[]{1}, index.search("hobit", 5));
+        assertArrayEquals(new int[]{3}, index.search("harry pot", 5));
+        assertArrayEquals(new int[]{4, 0, 2}, index.search("lo", 5));
+        assertArrayEquals(new int[]{0, 2}, index.search("lord", 5));
+        assertArrayEquals(new int[]{}, index.search("", 5));
+        assertArrayEquals(new int[]{}, index.search("lord", 0));
+        assertArrayEquals(new int[]{}, index.search("dune", 5));
+
+        int[] all = index.search("the", 10);
+        assertEquals(5, all.length);
+        assertArrayEquals(new int[]{0, 1, 2, 3, 4}, all);
+    }
+
+    @Test
+    public void testBestMatchPerWord() {
+        TitleIndex index = new TitleIndex();
+        for (int id = 0; id < 8; id++) {
+            index.add(id, "Lord");
+        }
+        index.add(8, "Lord Lore");
+        index.add(9, "Lore");
+
+        // the rare typo outweighs the common exact word, so book 8 scores as much as book 9
+        assertArrayEquals(new int[]{8, 9, 0}, index.search("lord", 3));
+    }
+
+    @Test
+    public void testFollowsCatalog() {
+        BookCatalog catalog = BookCatalog.of(List.of(
+                new Book("The Hobbit", "John Doe", "Fiction", "Sample Publisher",
+                        LocalDate.of(2000, 1, 1), "English", "1234567890", 10.0),
+                new Book("Dune", "John Doe", "Fiction", "Sample Publisher",
+                        LocalDate.of(2000, 1, 1), "English", "1234567890", 10.0)));
+        TitleIndex index = TitleIndex.of(catalog);
+        assertArrayEquals(new int[]{1}, index.search("dune", 5));
+
+        catalog.add(new Book("Dune Messiah", "John Doe", "Fiction", "Sample Publisher",
+                LocalDate.of(2000, 1, 1), "English", "1234567890", 10.0));
+        catalog.add(new Book(null, "John Doe", "Fiction", "Sample Publisher",
+                LocalDate.of(2000, 1, 1), "English", "1234567890", 10.0));
+        assertEquals(4, index.size());
+        assertArrayEquals(new int[]{1, 2}, index.search("dune", 5));
+        assertArrayEquals(new int[]{2}, index.search("dune messiah", 1));
+        assertThrows(IllegalArgumentException.class, () -> index.add(1, "Again"));
+    }
+}
@@ -0,0 +1,121 @@
+package edu.uoc.pac2;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the throughput of {@link CaesarCipher} on a 1 MiB payload of English-like text, on strings, char
+ * arrays, UTF-8 bytes and the streaming wrappers, against the per char formula {@link SentenceAnalyzer#encrypt} used before. Scores are
+ * in chars per microsecond, that is millions of chars (MB for the byte arrays) per second.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+@OperationsPerInvocation(CaesarCipherBenchmark.PAYLOAD)
+public class CaesarCipherBenchmark {
+
+    /**
+     * Length of the payload.
+     */
+    static final int PAYLOAD = 1 << 20;
+
+    /**
+     * Shift of the cipher.
+     */
+    private int shift = 3;
+
+    /**
+     * Payload as a string.
+     */
+    private String text;
+
+    /**
+     * Payload as chars and its output buffer.
+     */
+    private char[] chars;
+    private char[] encryptedChars;
+
+    /**
+     * Payload as UTF-8 bytes and its output buffer.
+     */
+    private byte[] bytes;
+    private byte[] encryptedBytes;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        StringBuilder builder = new StringBuilder(PAYLOAD);
+        while (builder.length() < PAYLOAD) {
+            int letters = 1 + random.nextInt(9);
+            for (int i = 0; i < letters && builder.length() < PAYLOAD; i++) {
+                char first = random.nextInt(8) == 0 ? 'A' : 'a';
+                builder.append((char) (first + random.nextInt(26)));
+            }
+            if (builder.length() < PAYLOAD) {
+                builder.append(random.nextInt(10) == 0 ? ',' : ' ');
+            }
+        }
+        text = builder.toString();
+        chars = text.toCharArray();
+        encryptedChars = new char[PAYLOAD];
+        bytes = text.getBytes(StandardCharsets.UTF_8);
+        encryptedBytes = new byte[PAYLOAD];
+    }
+
+    @Benchmark
+    public String formula() {
+        StringBuilder encryptedText = new StringBuilder();
+        for (int i = 0; i < text.length(); i++) {
+            char ch = text.charAt(i);
+            if (Character.isLowerCase(ch)) {
+                encryptedText.append((char) (((ch - 'a' + shift) % 26 + 26) % 26 + 'a'));
+            } else if (Character.isUpperCase(ch)) {
+                encryptedText.append((char) (((ch - 'A' + shift) % 26 + 26) % 26 + 'A'));
+            } else {
+                encryptedText.append(ch);
+            }
+        }
+        return encryptedText.toString();
+    }
+
+    @Benchmark
+    public String string() {
+        return SentenceAnalyzer.encrypt(text, shift);
+    }
+
+    @Benchmark
+    public char[] charArray() {
+        CaesarCipher.of(shift).encrypt(chars, 0, PAYLOAD, encryptedChars, 0);
+        return encryptedChars;
+    }
+
+    @Benchmark
+    public byte[] byteArray() {
+        CaesarCipher.of(shift).encrypt(bytes, 0, PAYLOAD, encryptedBytes, 0);
+        return encryptedBytes;
+    }
+
+    @Benchmark
+    public Writer writer() throws IOException {
+        Writer writer = new CipherWriter(Writer.nullWriter(), shift);
+        writer.write(text);
+        return writer;
+    }
+
+    @Benchmark
+    public long channel() throws IOException {
+        return CaesarCipher.of(shift).transform(Channels.newChannel(new ByteArrayInputStream(bytes)),
+                Channels.newChannel(OutputStream.nullOutputStream()));
+    }
+}
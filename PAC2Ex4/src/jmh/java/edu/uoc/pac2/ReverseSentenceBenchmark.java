@@ -0,0 +1,62 @@
+package edu.uoc.pac2;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link SentenceAnalyzer#reverseSentence}, which copies the words from the end of the input straight
+ * into the output, with the previous version, which split the input into an array of words first.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Thread)
+public class ReverseSentenceBenchmark {
+
+    /**
+     * Approximate length of the sentence, in chars.
+     */
+    @Param({"10", "1000", "100000", "10000000"})
+    private int length;
+
+    /**
+     * Sentence under test, words of 1 to 12 letters.
+     */
+    private String sentence;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        StringBuilder builder = new StringBuilder(length + 16);
+        while (builder.length() < length) {
+            if (builder.length() > 0) {
+                builder.append(' ');
+            }
+            int letters = 1 + random.nextInt(12);
+            for (int i = 0; i < letters; i++) {
+                builder.append((char) ('a' + random.nextInt(26)));
+            }
+        }
+        sentence = builder.toString();
+    }
+
+    @Benchmark
+    public String backwards() {
+        return SentenceAnalyzer.reverseSentence(sentence);
+    }
+
+    @Benchmark
+    public String split() {
+        String[] words = sentence.split(" ");
+        StringBuilder reversedSentence = new StringBuilder();
+        for (int i = words.length - 1; i >= 0; i--) {
+            reversedSentence.append(words[i]).append(" ");
+        }
+        reversedSentence.setLength(reversedSentence.length() - 1);
+        return reversedSentence.toString();
+    }
+}
@@ -0,0 +1,64 @@
+package edu.uoc.pac2;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link SentenceAnalyzer#reverseWords}, which reverses the words in place in one char array, with the
+ * previous version, which split the input and reversed each word in its own StringBuilder, from 10 B to 10 MB.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Thread)
+public class ReverseWordsBenchmark {
+
+    /**
+     * Approximate length of the sentence, in chars.
+     */
+    @Param({"10", "1000", "100000", "10000000"})
+    private int length;
+
+    /**
+     * Sentence under test, words of 1 to 12 letters.
+     */
+    private String sentence;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        StringBuilder builder = new StringBuilder(length + 16);
+        while (builder.length() < length) {
+            if (builder.length() > 0) {
+                builder.append(' ');
+            }
+            int letters = 1 + random.nextInt(12);
+            for (int i = 0; i < letters; i++) {
+                builder.append((char) ('a' + random.nextInt(26)));
+            }
+        }
+        sentence = builder.toString();
+    }
+
+    @Benchmark
+    public String inPlace() {
+        return SentenceAnalyzer.reverseWords(sentence);
+    }
+
+    @Benchmark
+    public String split() {
+        String[] words = sentence.split(" ");
+        StringBuilder reversedSentence = new StringBuilder();
+        for (String word : words) {
+            StringBuilder reversedWord = new StringBuilder(word);
+            reversedWord.reverse();
+            reversedSentence.append(reversedWord).append(" ");
+        }
+        reversedSentence.setLength(reversedSentence.length() - 1);
+        return reversedSentence.toString();
+    }
+}
@@ -0,0 +1,81 @@
+package edu.uoc.pac2;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the {@link SentenceAnalyzer} operations on sentences of increasing length, made of random words of
+ * mixed case with punctuation, so that every branch of the cipher is taken.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SentenceAnalyzerBenchmark {
+
+    /**
+     * Approximate length of the sentence, in chars.
+     */
+    @Param({"16", "1024", "65536", "1048576"})
+    private int length;
+
+    /**
+     * Shift of the cipher.
+     */
+    private int shift = 3;
+
+    /**
+     * Sentence under test.
+     */
+    private String sentence;
+
+    /**
+     * Sentence encrypted with {@link #shift}.
+     */
+    private String encrypted;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        StringBuilder builder = new StringBuilder(length + 16);
+        while (builder.length() < length) {
+            if (builder.length() > 0) {
+                builder.append(' ');
+            }
+            int letters = 1 + random.nextInt(9);
+            for (int i = 0; i < letters; i++) {
+                char first = random.nextInt(8) == 0 ? 'A' : 'a';
+                builder.append((char) (first + random.nextInt(26)));
+            }
+            if (random.nextInt(6) == 0) {
+                builder.append(random.nextBoolean() ? ',' : '.');
+            }
+        }
+        sentence = builder.toString();
+        encrypted = SentenceAnalyzer.encrypt(sentence, shift);
+    }
+
+    @Benchmark
+    public String reverseWords() {
+        return SentenceAnalyzer.reverseWords(sentence);
+    }
+
+    @Benchmark
+    public String reverseSentence() {
+        return SentenceAnalyzer.reverseSentence(sentence);
+    }
+
+    @Benchmark
+    public String encrypt() {
+        return SentenceAnalyzer.encrypt(sentence, shift);
+    }
+
+    @Benchmark
+    public String decrypt() {
+        return SentenceAnalyzer.decrypt(encrypted, shift);
+    }
+}
@@ -0,0 +1,129 @@
+package edu.uoc.pac2;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the scalar table loops of {@link CaesarCipher} with the Vector API kernels of {@link VectorCaesar} on
+ * ASCII text of increasing size, in heap arrays, direct buffers, char arrays and through
+ * {@link SentenceAnalyzer#encrypt}. Scores are in bytes or chars per microsecond, for bytes that is MB per second.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+@State(Scope.Thread)
+public class VectorCaesarBenchmark {
+
+    /**
+     * Length of the text, in bytes.
+     */
+    @Param({"64", "4096", "262144", "16777216"})
+    private int length;
+
+    /**
+     * Shift of the cipher.
+     */
+    private int shift = 3;
+
+    /**
+     * Text and its output buffer.
+     */
+    private byte[] text;
+    private byte[] encrypted;
+
+    /**
+     * Text in a direct buffer, encrypted in place.
+     */
+    private ByteBuffer direct;
+
+    /**
+     * Text as chars and its output array.
+     */
+    private char[] chars;
+    private char[] encryptedChars;
+
+    /**
+     * Text as a string.
+     */
+    private String string;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        text = new byte[length];
+        for (int i = 0; i < length; i++) {
+            int kind = random.nextInt(10);
+            text[i] = (byte) (kind == 0 ? ' ' : kind == 1 ? 'A' + random.nextInt(26) : kind == 2 ? ',' : 'a' + random.nextInt(26));
+        }
+        encrypted = new byte[length];
+        direct = ByteBuffer.allocateDirect(length).put(text).flip();
+        string = new String(text, StandardCharsets.US_ASCII);
+        chars = string.toCharArray();
+        encryptedChars = new char[length];
+    }
+
+    @Benchmark
+    public byte[] scalar(ThroughputCounter counter) {
+        CaesarCipher.of(shift).encryptScalar(text, 0, length, encrypted, 0);
+        counter.bytes += length;
+        return encrypted;
+    }
+
+    @Benchmark
+    public byte[] vector(ThroughputCounter counter) {
+        CaesarCipher.of(shift).encrypt(text, 0, length, encrypted, 0);
+        counter.bytes += length;
+        return encrypted;
+    }
+
+    @Benchmark
+    public ByteBuffer directBuffer(ThroughputCounter counter) {
+        CaesarCipher.of(shift).encrypt(direct);
+        counter.bytes += length;
+        return direct;
+    }
+
+    @Benchmark
+    public char[] charsScalar(ThroughputCounter counter) {
+        CaesarCipher.of(shift).encryptScalar(chars, 0, length, encryptedChars, 0);
+        counter.bytes += length;
+        return encryptedChars;
+    }
+
+    @Benchmark
+    public char[] charsVector(ThroughputCounter counter) {
+        CaesarCipher.of(shift).encrypt(chars, 0, length, encryptedChars, 0);
+        counter.bytes += length;
+        return encryptedChars;
+    }
+
+    /**
+     * The String API, copying the text to chars and back around the char kernel.
+     */
+    @Benchmark
+    public String sentenceAnalyzer(ThroughputCounter counter) {
+        counter.bytes += length;
+        return SentenceAnalyzer.encrypt(string, shift);
+    }
+
+    /**
+     * Bytes or chars encrypted per microsecond, the throughput in MB/s for bytes.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class ThroughputCounter {
+
+        public long bytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            bytes = 0;
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package edu.uoc.pac2;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.Objects;
+
+/**
+ * Caesar cipher with a fixed shift, driven by a substitution table of the 128 ASCII chars.
+ * <p>
+ * There is one cipher per shift modulo 26, built once and shared, see {@link #of(int)}. Chars outside ASCII are
+ * shifted like {@link SentenceAnalyzer#encrypt} always did: lowercase and uppercase letters of other alphabets are
+ * moved into 'a'-'z' and 'A'-'Z', anything else is kept.
+ * <p>
+ * The byte and char paths use the Vector API kernels of {@link VectorCaesar} when the {@code jdk.incubator.vector}
+ * module is available, unless the {@code edu.uoc.pac2.vector} system property is {@code false}, and the table
+ * otherwise.
+ */
+public final class CaesarCipher {
+
+    private static final int ALPHABET = 26;
+
+    private static final int ASCII = 128;
+
+    // size of the direct buffer of transform
+    private static final int BUFFER = 64 * 1024;
+
+    // whether the byte and char paths use the Vector API kernels
+    private static final boolean VECTORIZED = Boolean.parseBoolean(System.getProperty("edu.uoc.pac2.vector", "true"))
+            && ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+
+    // one cipher per shift, the tables take 26 * 256 bytes
+    private static final CaesarCipher[] CIPHERS = new CaesarCipher[ALPHABET];
+
+    static {
+        for (int shift = 0; shift < ALPHABET; shift++) {
+            CIPHERS[shift] = new CaesarCipher(shift);
+        }
+    }
+
+    private final int shift;
+
+    // substitution of every ASCII char
+    private final char[] table = new char[ASCII];
+
+    private CaesarCipher(int shift) {
+        this.shift = shift;
+        for (char ch = 0; ch < ASCII; ch++) {
+            if (ch >= 'a' && ch <= 'z') {
+                table[ch] = (char) ((ch - 'a' + shift) % ALPHABET + 'a');
+            } else if (ch >= 'A' && ch <= 'Z') {
+                table[ch] = (char) ((ch - 'A' + shift) % ALPHABET + 'A');
+            } else {
+                table[ch] = ch;
+            }
+        }
+    }
+
+    /**
+     * Returns the cipher of a shift.
+     *
+     * @param shift letters to move forward, negative to move backward.
+     * @return the shared cipher of the shift modulo 26.
+     */
+    public static CaesarCipher of(int shift) {
+        return CIPHERS[Math.floorMod(shift, ALPHABET)];
+    }
+
+    /**
+     * Tells if the byte and char paths are encrypted with the Vector API.
+     *
+     * @return true if the Vector API kernels are in use.
+     */
+    public static boolean isVectorized() {
+        return VECTORIZED;
+    }
+
+    /**
+     * Returns the shift of the cipher.
+     *
+     * @return shift between 0 and 25.
+     */
+    public int getShift() {
+        return shift;
+    }
+
+    /**
+     * Returns the cipher that undoes this one.
+     *
+     * @return the cipher of the opposite shift.
+     */
+    public CaesarCipher inverse() {
+        return of(-shift);
+    }
+
+    /**
+     * Encrypts a text.
+     *
+     * @param text text to encrypt.
+     * @return the encrypted text.
+     */
+    public String encrypt(String text) {
+        char[] chars = text.toCharArray();
+        encrypt(chars, 0, chars.length, chars, 0);
+        return new String(chars);
+    }
+
+    /**
+     * Decrypts a text encrypted with this cipher.
+     *
+     * @param text text to decrypt.
+     * @return the plain text.
+     */
+    public String decrypt(String text) {
+        return inverse().encrypt(text);
+    }
+
+    /**
+     * Encrypts a char.
+     *
+     * @param ch char to encrypt.
+     * @return the encrypted char.
+     */
+    public char encrypt(char ch) {
+        return ch < ASCII ? table[ch] : shiftOther(ch);
+    }
+
+    /**
+     * Encrypts a range of chars. Source and destination may be the same array.
+     *
+     * @param src    chars to encrypt.
+     * @param from   first char of the range.
+     * @param to     end of the range, exclusive.
+     * @param dst    array of the encrypted chars.
+     * @param offset position in dst of the first encrypted char.
+     */
+    public void encrypt(char[] src, int from, int to, char[] dst, int offset) {
+        if (!VECTORIZED) {
+            encryptScalar(src, from, to, dst, offset);
+            return;
+        }
+        Objects.checkFromToIndex(from, to, src.length);
+        Objects.checkFromIndexSize(offset, to - from, dst.length);
+        // the kernel stops at a vector with chars outside ASCII or at the tail, the table loop takes it and the
+        // kernel goes on after it
+        int lanes = VectorCaesar.charLanes();
+        for (int i = from; i < to; ) {
+            i = VectorCaesar.encrypt(src, i, to, dst, offset + i - from, shift);
+            int end = Math.min(to, i + lanes);
+            encryptScalar(src, i, end, dst, offset + i - from);
+            i = end;
+        }
+    }
+
+    // table loop of the char paths, also the chars the vector kernel leaves
+    void encryptScalar(char[] src, int from, int to, char[] dst, int offset) {
+        char[] substitution = table;
+        for (int i = from; i < to; i++) {
+            char ch = src[i];
+            dst[offset++] = ch < ASCII ? substitution[ch] : shiftOther(ch);
+        }
+    }
+
+    /**
+     * Encrypts a range of bytes of an ASCII compatible encoding such as UTF-8. Bytes outside ASCII are copied as
+     * they are, so multibyte characters stay valid. The encrypted bytes may replace the source ones in place.
+     *
+     * @param src    bytes to encrypt.
+     * @param from   first byte of the range.
+     * @param to     end of the range, exclusive.
+     * @param dst    array of the encrypted bytes.
+     * @param offset position in dst of the first encrypted byte.
+     */
+    public void encrypt(byte[] src, int from, int to, byte[] dst, int offset) {
+        Objects.checkFromToIndex(from, to, src.length);
+        Objects.checkFromIndexSize(offset, to - from, dst.length);
+        int i = VECTORIZED ? VectorCaesar.encrypt(src, from, to, dst, offset, shift) : from;
+        encryptScalar(src, i, to, dst, offset + i - from);
+    }
+
+    // table loop of the byte paths, also the tail of the vector kernel
+    void encryptScalar(byte[] src, int from, int to, byte[] dst, int offset) {
+        char[] substitution = table;
+        for (int i = from; i < to; i++) {
+            byte b = src[i];
+            dst[offset++] = b >= 0 ? (byte) substitution[b] : b;
+        }
+    }
+
+    /**
+     * Encrypts the remaining bytes of a buffer in place, as {@link #encrypt(byte[], int, int, byte[], int)} does.
+     * The position of the buffer does not move.
+     *
+     * @param buffer bytes to encrypt, direct or not.
+     */
+    public void encrypt(ByteBuffer buffer) {
+        if (buffer.hasArray()) {
+            int from = buffer.arrayOffset() + buffer.position();
+            encrypt(buffer.array(), from, from + buffer.remaining(), buffer.array(), from);
+            return;
+        }
+        char[] substitution = table;
+        int from = buffer.position();
+        int to = buffer.limit();
+        for (int i = VECTORIZED ? VectorCaesar.encrypt(buffer, from, to, shift) : from; i < to; i++) {
+            byte b = buffer.get(i);
+            if (b >= 0) {
+                buffer.put(i, (byte) substitution[b]);
+            }
+        }
+    }
+
+    /**
+     * Encrypts everything a channel reads into another channel, through one direct buffer of 64 KiB, so files of
+     * any size are encrypted in constant memory. Streams can be adapted with {@link java.nio.channels.Channels}.
+     * <p>
+     * The bytes are taken as ASCII compatible text such as UTF-8 and only ASCII letters are shifted: the output
+     * is the text {@link #encrypt(String)} gives for texts without letters outside ASCII. Channels are not closed.
+     *
+     * @param in  channel to read.
+     * @param out channel to write.
+     * @return the number of bytes encrypted.
+     * @throws IOException If reading or writing fails.
+     */
+    public long transform(ReadableByteChannel in, WritableByteChannel out) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER);
+        long total = 0;
+        while (in.read(buffer) >= 0) {
+            buffer.flip();
+            encrypt(buffer);
+            total += buffer.remaining();
+            while (buffer.hasRemaining()) {
+                out.write(buffer);
+            }
+            buffer.clear();
+        }
+        return total;
+    }
+
+    private char shiftOther(char ch) {
+        if (Character.isLowerCase(ch)) {
+            return (char) ((ch - 'a' + shift) % ALPHABET + 'a');
+        } else if (Character.isUpperCase(ch)) {
+            return (char) ((ch - 'A' + shift) % ALPHABET + 'A');
+        }
+        return ch;
+    }
+}
@@ -0,0 +1,38 @@
+package edu.uoc.pac2;
+
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Reader that encrypts the chars it reads with a {@link CaesarCipher}, in constant memory. Wrapping an encrypted
+ * text with the inverse cipher reads it decrypted, as {@link SentenceAnalyzer#decrypt} would.
+ */
+public class CipherReader extends FilterReader {
+
+    private final CaesarCipher cipher;
+
+    public CipherReader(Reader in, int shift) {
+        this(in, CaesarCipher.of(shift));
+    }
+
+    public CipherReader(Reader in, CaesarCipher cipher) {
+        super(in);
+        this.cipher = cipher;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int c = in.read();
+        return c < 0 ? c : cipher.encrypt((char) c);
+    }
+
+    @Override
+    public int read(char[] cbuf, int off, int len) throws IOException {
+        int n = in.read(cbuf, off, len);
+        if (n > 0) {
+            cipher.encrypt(cbuf, off, off + n, cbuf, off);
+        }
+        return n;
+    }
+}
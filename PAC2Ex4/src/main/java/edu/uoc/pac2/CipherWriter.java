@@ -0,0 +1,69 @@
+package edu.uoc.pac2;
+
+import java.io.FilterWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Objects;
+
+/**
+ * Writer that encrypts the chars written to it with a {@link CaesarCipher} before passing them on, in constant
+ * memory. Writing a text gives the same chars as {@link SentenceAnalyzer#encrypt}.
+ */
+public class CipherWriter extends FilterWriter {
+
+    private static final int BUFFER = 8192;
+
+    private final CaesarCipher cipher;
+
+    // encrypted chars waiting to be written, allocated on the first write
+    private char[] buffer;
+
+    public CipherWriter(Writer out, int shift) {
+        this(out, CaesarCipher.of(shift));
+    }
+
+    public CipherWriter(Writer out, CaesarCipher cipher) {
+        super(out);
+        this.cipher = cipher;
+    }
+
+    @Override
+    public void write(int c) throws IOException {
+        out.write(cipher.encrypt((char) c));
+    }
+
+    @Override
+    public void write(char[] cbuf, int off, int len) throws IOException {
+        Objects.checkFromIndexSize(off, len, cbuf.length);
+        // the buffer is shared, so writes from several threads must not interleave
+        synchronized (lock) {
+            char[] encrypted = buffer();
+            for (int from = off, end = off + len; from < end; from += BUFFER) {
+                int to = Math.min(end, from + BUFFER);
+                cipher.encrypt(cbuf, from, to, encrypted, 0);
+                out.write(encrypted, 0, to - from);
+            }
+        }
+    }
+
+    @Override
+    public void write(String str, int off, int len) throws IOException {
+        Objects.checkFromIndexSize(off, len, str.length());
+        synchronized (lock) {
+            char[] encrypted = buffer();
+            for (int from = off, end = off + len; from < end; from += BUFFER) {
+                int to = Math.min(end, from + BUFFER);
+                str.getChars(from, to, encrypted, 0);
+                cipher.encrypt(encrypted, 0, to - from, encrypted, 0);
+                out.write(encrypted, 0, to - from);
+            }
+        }
+    }
+
+    private char[] buffer() {
+        if (buffer == null) {
+            buffer = new char[BUFFER];
+        }
+        return buffer;
+    }
+}
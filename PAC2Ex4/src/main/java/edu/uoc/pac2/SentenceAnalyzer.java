@@ -1,56 +1,85 @@
 package edu.uoc.pac2;
 
+import java.io.IOException;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+
 public class SentenceAnalyzer {
 
     public static String reverseWords(String input) {
-        // create a String array of words
-        String[] words = input.split(" ");
-        // create the final reversed sentenec with StringBuilder
-        StringBuilder reversedSentence = new StringBuilder();
-
-        for (String word : words) {
-            StringBuilder reversedWord = new StringBuilder(word);
-            reversedWord.reverse();
-            reversedSentence.append(reversedWord).append(" ");
+        // reverse every run of non space chars in place, in a single copy of the input,
+        // so that leading, trailing and repeated spaces are kept as they are
+        char[] chars = input.toCharArray();
+        int start = 0;
+        while (start < chars.length) {
+            if (chars[start] == ' ') {
+                start++;
+                continue;
+            }
+            int end = start + 1;
+            while (end < chars.length && chars[end] != ' ') {
+                end++;
+            }
+            reverse(chars, start, end);
+            start = end;
         }
-        // delete last "space"
-        reversedSentence.setLength(reversedSentence.length() - 1);
-        return reversedSentence.toString();
+        return new String(chars);
     }
 
-    public static String reverseSentence(String input) {
-        String[] words = input.split(" ");
-        StringBuilder reversedSentence = new StringBuilder();
-
-        for (int i = words.length - 1; i >= 0; i--) {
-            reversedSentence.append(words[i]).append(" ");
+    private static void reverse(char[] chars, int from, int to) {
+        boolean surrogates = false;
+        for (int i = from, j = to - 1; i < j; i++, j--) {
+            char ch = chars[i];
+            chars[i] = chars[j];
+            chars[j] = ch;
+            surrogates |= Character.isSurrogate(ch) || Character.isSurrogate(chars[i]);
+        }
+        if (surrogates) {
+            // the swap turned each surrogate pair around, put its halves back in order
+            for (int i = from; i < to - 1; i++) {
+                if (Character.isLowSurrogate(chars[i]) && Character.isHighSurrogate(chars[i + 1])) {
+                    char ch = chars[i];
+                    chars[i] = chars[i + 1];
+                    chars[i + 1] = ch;
+                    i++;
+                }
+            }
         }
-        reversedSentence.setLength(reversedSentence.length() - 1);
-        return reversedSentence.toString();
     }
 
-    public static String encrypt(String plainText, int shift) {
-        StringBuilder encryptedText = new StringBuilder();
-
-        for (int i = 0; i < plainText.length(); i++) {
-            char ch = plainText.charAt(i);
-
-            if (Character.isLowerCase(ch)) {
-                char shiftedChar = (char) (((ch - 'a' + shift) % 26 + 26) % 26 + 'a');
-                encryptedText.append(shiftedChar);
-            } else if (Character.isUpperCase(ch)) {
-                char shiftedChar = (char) (((ch - 'A' + shift) % 26 + 26) % 26 + 'A');
-                encryptedText.append(shiftedChar);
-            } else {
-                encryptedText.append(ch);
+    public static String reverseSentence(String input) {
+        // scan the words from the end and copy them straight into an output of the same length,
+        // runs of spaces are mirrored like the words so that no space is lost or added
+        char[] reversedSentence = new char[input.length()];
+        int length = 0;
+        int end = input.length();
+        while (end > 0) {
+            if (input.charAt(end - 1) == ' ') {
+                reversedSentence[length++] = ' ';
+                end--;
+                continue;
+            }
+            int start = end - 1;
+            while (start > 0 && input.charAt(start - 1) != ' ') {
+                start--;
             }
+            input.getChars(start, end, reversedSentence, length);
+            length += end - start;
+            end = start;
         }
-
-        return encryptedText.toString();
+        return new String(reversedSentence);
     }
 
+    public static String encrypt(String plainText, int shift) {
+        return CaesarCipher.of(shift).encrypt(plainText);
+    }
 
     public static String decrypt(String encryptedText, int shift) {
-        return encrypt(encryptedText, -shift);
+        return CaesarCipher.of(shift).decrypt(encryptedText);
+    }
+
+    // encrypts a text of any size from channel to channel, a negative shift decrypts
+    public static long transform(ReadableByteChannel in, WritableByteChannel out, int shift) throws IOException {
+        return CaesarCipher.of(shift).transform(in, out);
     }
-}
\ No newline at end of file
+}
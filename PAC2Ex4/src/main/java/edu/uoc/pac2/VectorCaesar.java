@@ -0,0 +1,93 @@
+package edu.uoc.pac2;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.ShortVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Vector API kernels of the {@link CaesarCipher} byte and char paths.
+ * <p>
+ * Letters are found with range compares on whole vectors and shifted with masked adds, without branches. This is
+ * the only class that references {@code jdk.incubator.vector}, so it is only loaded when {@link CaesarCipher} has
+ * checked that the module is available. The kernels stop at the last whole vector and return where they stopped,
+ * the caller finishes the tail with the scalar loop. The char kernel also stops before a vector with chars outside
+ * ASCII, which the scalar loop shifts.
+ */
+final class VectorCaesar {
+
+    // widest byte vector supported by the CPU
+    private static final VectorSpecies<Byte> SPECIES = ByteVector.SPECIES_PREFERRED;
+
+    // widest short vector supported by the CPU, chars are loaded as shorts
+    private static final VectorSpecies<Short> CHAR_SPECIES = ShortVector.SPECIES_PREFERRED;
+
+    private VectorCaesar() {
+    }
+
+    static int encrypt(byte[] src, int from, int to, byte[] dst, int offset, int shift) {
+        int i = from;
+        for (int bound = from + SPECIES.loopBound(to - from); i < bound; i += SPECIES.length()) {
+            shift(ByteVector.fromArray(SPECIES, src, i), shift).intoArray(dst, offset + i - from);
+        }
+        return i;
+    }
+
+    static int encrypt(ByteBuffer buffer, int from, int to, int shift) {
+        int i = from;
+        for (int bound = from + SPECIES.loopBound(to - from); i < bound; i += SPECIES.length()) {
+            shift(ByteVector.fromByteBuffer(SPECIES, buffer, i, ByteOrder.nativeOrder()), shift)
+                    .intoByteBuffer(buffer, i, ByteOrder.nativeOrder());
+        }
+        return i;
+    }
+
+    static int charLanes() {
+        return CHAR_SPECIES.length();
+    }
+
+    static int encrypt(char[] src, int from, int to, char[] dst, int offset, int shift) {
+        int i = from;
+        for (int bound = from + CHAR_SPECIES.loopBound(to - from); i < bound; i += CHAR_SPECIES.length()) {
+            ShortVector chars = ShortVector.fromCharArray(CHAR_SPECIES, src, i);
+            // chars from 128 up, negative as shorts from 0x8000, go through the scalar loop
+            if (chars.compare(VectorOperators.UNSIGNED_GE, (short) 128).anyTrue()) {
+                break;
+            }
+            shift(chars, shift).intoCharArray(dst, offset + i - from);
+        }
+        return i;
+    }
+
+    private static ShortVector shift(ShortVector chars, int shift) {
+        VectorMask<Short> lower = chars.compare(VectorOperators.GE, (short) 'a')
+                .and(chars.compare(VectorOperators.LE, (short) 'z'));
+        VectorMask<Short> upper = chars.compare(VectorOperators.GE, (short) 'A')
+                .and(chars.compare(VectorOperators.LE, (short) 'Z'));
+        // shorts do not overflow, so letters move forward and the ones past the last letter go back 26
+        ShortVector shifted = chars.add((short) shift);
+        ShortVector lowerShifted = shifted.lanewise(VectorOperators.SUB, (short) 26,
+                shifted.compare(VectorOperators.GT, (short) 'z'));
+        ShortVector upperShifted = shifted.lanewise(VectorOperators.SUB, (short) 26,
+                shifted.compare(VectorOperators.GT, (short) 'Z'));
+        return chars.blend(lowerShifted, lower).blend(upperShifted, upper);
+    }
+
+    private static ByteVector shift(ByteVector chars, int shift) {
+        VectorMask<Byte> lower = chars.compare(VectorOperators.GE, (byte) 'a')
+                .and(chars.compare(VectorOperators.LE, (byte) 'z'));
+        VectorMask<Byte> upper = chars.compare(VectorOperators.GE, (byte) 'A')
+                .and(chars.compare(VectorOperators.LE, (byte) 'Z'));
+        // shift - 26 and add the 26 back below the first letter, as 'z' + 25 would overflow a byte
+        ByteVector shifted = chars.add((byte) (shift - 26));
+        ByteVector lowerShifted = shifted.lanewise(VectorOperators.ADD, (byte) 26,
+                shifted.compare(VectorOperators.LT, (byte) 'a'));
+        ByteVector upperShifted = shifted.lanewise(VectorOperators.ADD, (byte) 26,
+                shifted.compare(VectorOperators.LT, (byte) 'A'));
+        return chars.blend(lowerShifted, lower).blend(upperShifted, upper);
+    }
+}
@@ -0,0 +1,170 @@
+package edu.uoc.pac2;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CaesarCipherTest {
+
+    // the per char formula SentenceAnalyzer.encrypt used before the tables
+    private static char shift(char ch, int shift) {
+        if (Character.isLowerCase(ch)) {
+            return (char) (((ch - 'a' + shift) % 26 + 26) % 26 + 'a');
+        } else if (Character.isUpperCase(ch)) {
+            return (char) (((ch - 'A' + shift) % 26 + 26) % 26 + 'A');
+        }
+        return ch;
+    }
+
+    @Test
+    public void testOf() {
+        assertSame(CaesarCipher.of(3), CaesarCipher.of(3));
+        assertSame(CaesarCipher.of(3), CaesarCipher.of(29));
+        assertSame(CaesarCipher.of(23), CaesarCipher.of(-3));
+        assertSame(CaesarCipher.of(0), CaesarCipher.of(Integer.MIN_VALUE + 24));
+        assertEquals(23, CaesarCipher.of(-3).getShift());
+        assertSame(CaesarCipher.of(23), CaesarCipher.of(3).inverse());
+        assertSame(CaesarCipher.of(0), CaesarCipher.of(0).inverse());
+    }
+
+    @Test
+    public void testEncrypt() {
+        assertEquals("Khoor, zruog!", CaesarCipher.of(3).encrypt("Hello, world!"));
+        assertEquals("Hello, world!", CaesarCipher.of(3).decrypt("Khoor, zruog!"));
+        assertEquals("", CaesarCipher.of(3).encrypt(""));
+        assertEquals("😀 Bcd", CaesarCipher.of(1).encrypt("😀 Abc"));
+    }
+
+    @Test
+    public void testEveryChar() {
+        char[] chars = new char[Character.MAX_VALUE + 1];
+        for (int ch = 0; ch <= Character.MAX_VALUE; ch++) {
+            chars[ch] = (char) ch;
+        }
+        char[] encrypted = new char[chars.length];
+        for (int shift = -26; shift <= 26; shift++) {
+            CaesarCipher.of(shift).encrypt(chars, 0, chars.length, encrypted, 0);
+            for (int ch = 0; ch <= Character.MAX_VALUE; ch++) {
+                if (encrypted[ch] != shift((char) ch, shift)) {
+                    fail("Shift " + shift + " of char " + ch + " gives " + (int) encrypted[ch]);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testRanges() {
+        char[] chars = "abc xyz".toCharArray();
+        CaesarCipher.of(1).encrypt(chars, 4, 7, chars, 0);
+        assertEquals("yza xyz", new String(chars));
+
+        byte[] bytes = "Señor Zorro".getBytes(StandardCharsets.UTF_8);
+        CaesarCipher.of(2).encrypt(bytes, 0, bytes.length, bytes, 0);
+        assertEquals("Ugñqt Bqttq", new String(bytes, StandardCharsets.UTF_8));
+        byte[] out = new byte[3];
+        CaesarCipher.of(-2).encrypt(bytes, 0, 3, out, 0);
+        assertArrayEquals(new byte[]{'S', 'e', bytes[2]}, out);
+    }
+
+    @Test
+    public void testByteBuffers() {
+        byte[] bytes = "Hello, Señor!".getBytes(StandardCharsets.UTF_8);
+        ByteBuffer heap = ByteBuffer.wrap(bytes.clone(), 1, 6).slice();
+        CaesarCipher.of(1).encrypt(heap);
+        assertEquals(0, heap.position());
+        ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length).put(bytes).flip();
+        direct.position(7);
+        CaesarCipher.of(1).encrypt(direct);
+        assertEquals(7, direct.position());
+        byte[] result = new byte[bytes.length];
+        direct.get(0, result);
+        assertEquals("Hello, Tfñps!", new String(result, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testTransform() throws IOException {
+        Random random = new Random(4);
+        StringBuilder builder = new StringBuilder();
+        while (builder.length() < 300_000) {
+            builder.append(random.nextInt(5) == 0 ? " 1,2!" : "").append((char) ('a' + random.nextInt(26)))
+                    .append(random.nextInt(9) == 0 ? "\u00b7\u20ac\uD83D\uDE00" : "").append((char) ('A' + random.nextInt(26)));
+        }
+        String text = builder.toString();
+        byte[] utf8 = text.getBytes(StandardCharsets.UTF_8);
+        ByteArrayOutputStream encrypted = new ByteArrayOutputStream();
+        long bytes = SentenceAnalyzer.transform(Channels.newChannel(new ByteArrayInputStream(utf8)),
+                Channels.newChannel(encrypted), 11);
+        assertEquals(utf8.length, bytes);
+        assertEquals(SentenceAnalyzer.encrypt(text, 11), encrypted.toString(StandardCharsets.UTF_8));
+
+        ByteArrayOutputStream decrypted = new ByteArrayOutputStream();
+        CaesarCipher.of(11).inverse().transform(Channels.newChannel(new ByteArrayInputStream(encrypted.toByteArray())),
+                Channels.newChannel(decrypted));
+        assertArrayEquals(utf8, decrypted.toByteArray());
+    }
+
+    @Test
+    public void testVectorKernel() {
+        assertTrue(CaesarCipher.isVectorized());
+        // every byte value, at every alignment, and an odd length so that the scalar tail runs too
+        byte[] bytes = new byte[256 * 5 + 37];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) (i * 7);
+        }
+        for (int shift = 0; shift < 26; shift++) {
+            CaesarCipher cipher = CaesarCipher.of(shift);
+            for (int from = 0; from < 70; from += 23) {
+                byte[] scalar = new byte[bytes.length + 1];
+                cipher.encryptScalar(bytes, from, bytes.length, scalar, 1);
+                byte[] vector = new byte[bytes.length + 1];
+                int end = VectorCaesar.encrypt(bytes, from, bytes.length, vector, 1, shift);
+                assertTrue(end > from + bytes.length / 2);
+                cipher.encryptScalar(bytes, end, bytes.length, vector, 1 + end - from);
+                assertArrayEquals(scalar, vector);
+
+                ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length).put(bytes).flip().position(from);
+                cipher.encrypt(direct);
+                byte[] buffered = new byte[bytes.length - from];
+                direct.get(buffered);
+                assertArrayEquals(Arrays.copyOfRange(scalar, 1, 1 + buffered.length), buffered);
+            }
+        }
+    }
+
+    @Test
+    public void testVectorCharKernel() {
+        // ASCII text with some chars outside ASCII, so that the kernel stops and resumes, and an odd length
+        Random random = new Random(42);
+        char[] chars = new char[1000 + 37];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = (char) (random.nextInt(50) == 0 ? 'é' + random.nextInt(0xFFFF - 'é') : random.nextInt(128));
+        }
+        for (int shift = 0; shift < 26; shift++) {
+            CaesarCipher cipher = CaesarCipher.of(shift);
+            for (int from = 0; from < 70; from += 23) {
+                char[] scalar = new char[chars.length + 1];
+                cipher.encryptScalar(chars, from, chars.length, scalar, 1);
+                char[] vector = new char[chars.length + 1];
+                cipher.encrypt(chars, from, chars.length, vector, 1);
+                assertArrayEquals(scalar, vector);
+            }
+        }
+
+        char[] ascii = new char[256];
+        Arrays.fill(ascii, 'z');
+        char[] encrypted = new char[ascii.length];
+        assertEquals(ascii.length, VectorCaesar.encrypt(ascii, 0, ascii.length, encrypted, 0, 1));
+        assertEquals('a', encrypted[255]);
+        ascii[0] = 'ñ';
+        assertEquals(0, VectorCaesar.encrypt(ascii, 0, ascii.length, encrypted, 0, 1));
+    }
+}
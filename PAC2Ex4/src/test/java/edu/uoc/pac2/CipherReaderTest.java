@@ -0,0 +1,56 @@
+package edu.uoc.pac2;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CipherReaderTest {
+
+    @Test
+    public void testSameAsEncrypt() throws IOException {
+        String text = CipherWriterTest.text(50_000, 2);
+        for (int shift : new int[]{-3, 0, 7, 25}) {
+            StringBuilder read = new StringBuilder();
+            try (Reader reader = new CipherReader(new StringReader(text), shift)) {
+                read.append((char) reader.read());
+                char[] chunk = new char[1000];
+                int n;
+                while ((n = reader.read(chunk, 1, 999)) >= 0) {
+                    read.append(chunk, 1, n);
+                }
+                assertEquals(-1, reader.read());
+            }
+            assertEquals(SentenceAnalyzer.encrypt(text, shift), read.toString());
+        }
+    }
+
+    @Test
+    public void testFilePipeline(@TempDir Path directory) throws IOException {
+        String text = CipherWriterTest.text(200_000, 3);
+        Path plain = directory.resolve("plain.txt");
+        Path encrypted = directory.resolve("encrypted.txt");
+        Files.writeString(plain, text);
+        try (Reader reader = new CipherReader(Files.newBufferedReader(plain), 5);
+             Writer writer = Files.newBufferedWriter(encrypted)) {
+            reader.transferTo(writer);
+        }
+        String encryptedText = Files.readString(encrypted);
+        assertEquals(SentenceAnalyzer.encrypt(text, 5), encryptedText);
+
+        try (BufferedReader reader = new BufferedReader(new CipherReader(Files.newBufferedReader(encrypted,
+                StandardCharsets.UTF_8), CaesarCipher.of(5).inverse()))) {
+            assertEquals(SentenceAnalyzer.decrypt(encryptedText, 5).lines().findFirst().orElse(""),
+                    reader.readLine());
+        }
+    }
+}
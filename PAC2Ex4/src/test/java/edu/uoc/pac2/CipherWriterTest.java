@@ -0,0 +1,87 @@
+package edu.uoc.pac2;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CipherWriterTest {
+
+    static String text(int length, long seed) {
+        Random random = new Random(seed);
+        int[] alphabet = "abcxyzABCXYZ ,.!0123456789\t\néñßÀΩжあ😀".codePoints().toArray();
+        StringBuilder builder = new StringBuilder(length);
+        while (builder.length() < length) {
+            builder.appendCodePoint(alphabet[random.nextInt(alphabet.length)]);
+        }
+        return builder.toString();
+    }
+
+    @Test
+    public void testSameAsEncrypt() throws IOException {
+        String text = text(50_000, 1);
+        for (int shift : new int[]{-27, -3, 0, 3, 13, 25, 29}) {
+            StringWriter out = new StringWriter();
+            try (CipherWriter writer = new CipherWriter(out, shift)) {
+                writer.write(text.substring(0, 10));
+                writer.write(text.charAt(10));
+                writer.write(text.toCharArray(), 11, 20_000);
+                writer.write(text, 20_011, text.length() - 20_011);
+            }
+            assertEquals(SentenceAnalyzer.encrypt(text, shift), out.toString());
+        }
+    }
+
+    @Test
+    public void testDecrypt() throws IOException {
+        StringWriter out = new StringWriter();
+        try (CipherWriter writer = new CipherWriter(out, CaesarCipher.of(3).inverse())) {
+            writer.write("Khoor, zruog!");
+        }
+        assertEquals("Hello, world!", out.toString());
+    }
+
+    @Test
+    public void testConcurrentWrites() throws Exception {
+        int length = 20_000;
+        int writes = 50;
+        StringWriter out = new StringWriter();
+        CipherWriter writer = new CipherWriter(out, 1);
+        Thread[] threads = new Thread[2];
+        for (int t = 0; t < threads.length; t++) {
+            String text = String.valueOf((char) ('a' + t)).repeat(length);
+            threads[t] = new Thread(() -> {
+                try {
+                    for (int i = 0; i < writes; i++) {
+                        writer.write(text);
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        // each write lands whole, in the order of one of the threads
+        String result = out.toString();
+        assertEquals(threads.length * writes * length, result.length());
+        for (int from = 0; from < result.length(); from += length) {
+            String written = result.substring(from, from + length);
+            assertTrue(written.equals("b".repeat(length)) || written.equals("c".repeat(length)));
+        }
+    }
+
+    @Test
+    public void testInvalidRange() {
+        CipherWriter writer = new CipherWriter(new StringWriter(), 3);
+        assertThrows(IndexOutOfBoundsException.class, () -> writer.write(new char[4], 2, 3));
+        assertThrows(IndexOutOfBoundsException.class, () -> writer.write("abcd", -1, 2));
+    }
+}
@@ -19,6 +19,36 @@ public class SentenceAnalyzerTest {
         assertEquals("ab  ba", SentenceAnalyzer.reverseWords("ba  ab"));
     }
 
+    @Test
+    public void testReverseWordsSpacing() {
+        assertEquals("", SentenceAnalyzer.reverseWords(""));
+        assertEquals("   ", SentenceAnalyzer.reverseWords("   "));
+        assertEquals("  olleh", SentenceAnalyzer.reverseWords("  hello"));
+        assertEquals("olleh  ", SentenceAnalyzer.reverseWords("hello  "));
+        assertEquals(" a  cb   fed ", SentenceAnalyzer.reverseWords(" a  bc   def "));
+        assertEquals("b\ta", SentenceAnalyzer.reverseWords("a\tb"));
+    }
+
+    @Test
+    public void testReverseWordsSurrogates() {
+        assertEquals("\uD83D\uDE00ba", SentenceAnalyzer.reverseWords("ab\uD83D\uDE00"));
+        assertEquals("\uD83D\uDE01\uD83D\uDE00 x\uD835\uDC00y",
+                SentenceAnalyzer.reverseWords("\uD83D\uDE00\uD83D\uDE01 y\uD835\uDC00x"));
+        assertEquals("\uDE00a\uD83D", SentenceAnalyzer.reverseWords("\uD83Da\uDE00"));
+        StringBuilder sentence = new StringBuilder();
+        for (int i = 0; i < 200; i++) {
+            sentence.appendCodePoint(i % 7 == 0 ? ' ' : 0x1F600 + i % 5).append((char) ('a' + i % 26));
+        }
+        String input = sentence.toString();
+        String[] words = input.split(" ", -1);
+        StringBuilder expected = new StringBuilder();
+        for (String word : words) {
+            expected.append(new StringBuilder(word).reverse()).append(' ');
+        }
+        expected.setLength(expected.length() - 1);
+        assertEquals(expected.toString(), SentenceAnalyzer.reverseWords(input));
+    }
+
     @Test
     public void testReverseSentence() {
         assertEquals("world! Hello,", SentenceAnalyzer.reverseSentence("Hello, world!"));
@@ -32,6 +62,23 @@ public class SentenceAnalyzerTest {
         assertEquals("ab  ba", SentenceAnalyzer.reverseSentence("ba  ab"));
     }
 
+    @Test
+    public void testReverseSentenceSpacing() {
+        assertEquals("", SentenceAnalyzer.reverseSentence(""));
+        assertEquals("   ", SentenceAnalyzer.reverseSentence("   "));
+        assertEquals("b a ", SentenceAnalyzer.reverseSentence(" a b"));
+        assertEquals("  c b   a", SentenceAnalyzer.reverseSentence("a   b c  "));
+        assertEquals("d\uD83D\uDE00 \uD835\uDC00x", SentenceAnalyzer.reverseSentence("\uD835\uDC00x d\uD83D\uDE00"));
+
+        StringBuilder sentence = new StringBuilder();
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 100_000; i++) {
+            sentence.append(i == 0 ? "" : " ").append(i);
+            expected.append(i == 0 ? "" : " ").append(99_999 - i);
+        }
+        assertEquals(expected.toString(), SentenceAnalyzer.reverseSentence(sentence.toString()));
+    }
+
     @Test
     public void testEncrypt() {
         assertEquals("Khoor, zruog!", SentenceAnalyzer.encrypt("Hello, world!", 3));
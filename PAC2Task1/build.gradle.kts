@@ -16,4 +16,34 @@ dependencies {
 
 tasks.test {
     useJUnitPlatform()
-}
\ No newline at end of file
+}
+
+val jmh: SourceSet by sourceSets.creating {
+    java.srcDir("src/jmh/java")
+    compileClasspath += sourceSets.main.get().output
+    runtimeClasspath += sourceSets.main.get().output
+}
+
+configurations[jmh.implementationConfigurationName].extendsFrom(configurations.implementation.get())
+
+dependencies {
+    "jmhImplementation"("org.openjdk.jmh:jmh-core:1.37")
+    "jmhAnnotationProcessor"("org.openjdk.jmh:jmh-generator-annprocess:1.37")
+}
+
+// Runs the benchmarks, e.g. "gradle jmh -Pjmh=PAC2Task1Benchmark"
+tasks.register<JavaExec>("jmh") {
+    group = "benchmark"
+    description = "Runs the JMH benchmarks."
+    dependsOn(tasks.named(jmh.classesTaskName))
+    classpath = jmh.runtimeClasspath
+    mainClass.set("org.openjdk.jmh.Main")
+    val results = layout.buildDirectory.file("results/jmh/results.json").get().asFile
+    args("-rf", "json", "-rff", results.absolutePath)
+    if (project.hasProperty("jmh")) {
+        args(project.property("jmh").toString().split(" ").filter { it.isNotBlank() })
+    }
+    doFirst {
+        results.parentFile.mkdirs()
+    }
+}
@@ -0,0 +1,28 @@
+package edu.uoc.pac2;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link PAC2Task1#product}, mostly as a baseline of the cost of a benchmark call.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PAC2Task1Benchmark {
+
+    /**
+     * Factors, in fields so that the product is not constant folded.
+     */
+    private int a = 6;
+    private int b = 7;
+
+    @Benchmark
+    public int product() {
+        return PAC2Task1.product(a, b);
+    }
+}